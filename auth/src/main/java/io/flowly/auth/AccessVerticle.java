@@ -18,10 +18,13 @@ import io.flowly.auth.manager.GroupManager;
 import io.flowly.auth.manager.ResourceManager;
 import io.flowly.auth.manager.UserManager;
 import io.flowly.core.Failure;
+import io.flowly.core.verticles.ClusterAddresses;
 import io.flowly.core.verticles.ConsumerRegistration;
 import io.flowly.core.verticles.VerticleUtils;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
@@ -87,26 +90,43 @@ public class AccessVerticle extends AbstractVerticle {
     private Queue<ConsumerRegistration<JsonObject>> createMessageHandlers() {
         Queue<ConsumerRegistration<JsonObject>> registrations = new LinkedList<>();
         registrations.add(new ConsumerRegistration<>(LocalAddresses.GET_USER, userManager.getHandler(), true));
-        registrations.add(new ConsumerRegistration<>(LocalAddresses.CREATE_USER, userManager.createHandler(), true));
-        registrations.add(new ConsumerRegistration<>(LocalAddresses.UPDATE_USER, userManager.updateHandler(), true));
+        registrations.add(new ConsumerRegistration<>(LocalAddresses.CREATE_USER,
+                publishPermissionsChanged(userManager.createHandler()), true));
+        registrations.add(new ConsumerRegistration<>(LocalAddresses.UPDATE_USER,
+                publishPermissionsChanged(userManager.updateHandler()), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.SEARCH_USER, userManager.searchHandler(), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.AUTHENTICATE_USER,
                 userManager.authenticateHandler(), true));
+        registrations.add(new ConsumerRegistration<>(ClusterAddresses.GET_SUBJECT_PERMISSIONS,
+                userManager.getPermissionsHandler()));
 
         registrations.add(new ConsumerRegistration<>(LocalAddresses.GET_GROUP, groupManager.getHandler(), true));
-        registrations.add(new ConsumerRegistration<>(LocalAddresses.CREATE_GROUP, groupManager.createHandler(), true));
-        registrations.add(new ConsumerRegistration<>(LocalAddresses.UPDATE_GROUP, groupManager.updateHandler(), true));
+        registrations.add(new ConsumerRegistration<>(LocalAddresses.CREATE_GROUP,
+                publishPermissionsChanged(groupManager.createHandler()), true));
+        registrations.add(new ConsumerRegistration<>(LocalAddresses.UPDATE_GROUP,
+                publishPermissionsChanged(groupManager.updateHandler()), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.SEARCH_GROUP, groupManager.searchHandler(), true));
 
         registrations.add(new ConsumerRegistration<>(LocalAddresses.GET_RESOURCE,
                 resourceManager.getHandler(), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.CREATE_RESOURCE,
-                resourceManager.createHandler(), true));
+                publishPermissionsChanged(resourceManager.createHandler()), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.UPDATE_RESOURCE,
-                resourceManager.updateHandler(), true));
+                publishPermissionsChanged(resourceManager.updateHandler()), true));
         registrations.add(new ConsumerRegistration<>(LocalAddresses.SEARCH_RESOURCE,
                 resourceManager.searchHandler(), true));
 
         return registrations;
     }
+
+    /**
+     * Let the cluster know that the permissions may have changed once a user, group or resource is written,
+     * so that the views built on the permissions (such as the flows visible to a subject) are invalidated.
+     */
+    private Handler<Message<JsonObject>> publishPermissionsChanged(Handler<Message<JsonObject>> handler) {
+        return message -> {
+            handler.handle(message);
+            vertx.eventBus().publish(ClusterAddresses.PERMISSIONS_CHANGED_EVENT, null);
+        };
+    }
 }
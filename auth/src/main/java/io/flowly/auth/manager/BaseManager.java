@@ -15,6 +15,7 @@ package io.flowly.auth.manager;
 
 import io.flowly.auth.graph.Schema;
 import io.flowly.core.ObjectKeys;
+import io.flowly.core.data.manager.Cursor;
 import io.flowly.core.data.manager.GraphManager;
 import io.flowly.core.security.Group;
 import io.flowly.core.security.Permission;
@@ -23,7 +24,9 @@ import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -33,6 +36,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 public abstract class BaseManager extends GraphManager {
     public BaseManager(Graph graph) {
@@ -80,6 +84,16 @@ public abstract class BaseManager extends GraphManager {
      */
     public abstract JsonArray search(int pageNumber, int pageSize);
 
+    /**
+     * Search for vertices that follow the given cursor. Unlike the page number, the cost of a page does not
+     * depend on how deep it is.
+     *
+     * @param cursor the cursor returned with the previous page or null to get the first page.
+     * @param pageSize the number of vertices that fill a page.
+     * @return a page that holds the list of vertices and the cursor to the next page, if any.
+     */
+    public abstract JsonObject search(String cursor, int pageSize);
+
     public Handler<Message<JsonObject>> createHandler() {
         return message -> message.reply(create(message.body()));
     }
@@ -91,12 +105,55 @@ public abstract class BaseManager extends GraphManager {
     public Handler<Message<JsonObject>> searchHandler() {
         return message -> {
             JsonObject args = message.body();
-            message.reply(search(args.getInteger(ObjectKeys.PAGE_NUMBER), args.getInteger(ObjectKeys.PAGE_SIZE)));
+
+            if (args.containsKey(ObjectKeys.CURSOR)) {
+                message.reply(search(args.getString(ObjectKeys.CURSOR), args.getInteger(ObjectKeys.PAGE_SIZE)));
+            }
+            else {
+                message.reply(search(args.getInteger(ObjectKeys.PAGE_NUMBER), args.getInteger(ObjectKeys.PAGE_SIZE)));
+            }
         };
     }
 
     public abstract Handler<Message<JsonObject>> getHandler();
 
+    /**
+     * Get a page of vertices sorted by a unique property in ascending order. The page starts right after
+     * the cursor, so the earlier pages are neither retrieved nor sorted.
+     *
+     * @param label the label of the vertices.
+     * @param sortKey the unique property that the vertices are sorted by.
+     * @param cursor the cursor returned with the previous page or null to get the first page.
+     * @param pageSize the number of vertices that fill a page.
+     * @param mapper creates the JSON object that represents a vertex.
+     * @return a page that holds the list of vertices and the cursor to the next page, if any.
+     */
+    protected JsonObject searchPage(String label, String sortKey, String cursor, int pageSize,
+                                    Function<Vertex, JsonObject> mapper) {
+        Cursor after = Cursor.decode(cursor);
+        GraphTraversal<Vertex, Vertex> traversal = graph.traversal().V().hasLabel(label);
+
+        if (after != null) {
+            traversal = traversal.has(sortKey, P.gt(after.getKey()));
+        }
+
+        // Get one additional vertex to find out if there are more pages.
+        List<Vertex> vertices = traversal.order().by(sortKey, Order.incr).limit(pageSize + 1).toList();
+        JsonArray results = new JsonArray();
+        JsonObject page = new JsonObject().put(ObjectKeys.RESULTS, results);
+
+        for (int i = 0; i < vertices.size() && i < pageSize; i++) {
+            results.add(mapper.apply(vertices.get(i)));
+        }
+
+        if (vertices.size() > pageSize) {
+            Vertex last = vertices.get(pageSize - 1);
+            page.put(ObjectKeys.NEXT_CURSOR, new Cursor(getPropertyValue(last, sortKey), (Long) last.id()).encode());
+        }
+
+        return page;
+    }
+
     /**
      * Iterates the list of permission objects and grants them to the user
      * or group, if they are not previously granted.
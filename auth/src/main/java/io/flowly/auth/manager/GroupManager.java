@@ -308,14 +308,7 @@ public class GroupManager extends BaseManager {
         try {
             List<Group> groups = graph.traversal().V().hasLabel(Schema.V_GROUP).order().
                     by(Schema.V_P_GROUP_ID, Order.incr).range(low, high + ADDITIONAL_RECORDS).
-                    map(m -> {
-                        Vertex groupVertex = m.get();
-                        Group group = makeGroupObject(groupVertex, null, false);
-                        getMembers(groupVertex, group, true, false);
-                        getMemberships(groupVertex, group, false, true, false);
-
-                        return group;
-                    }).toList();
+                    map(m -> makeSearchResult(m.get())).toList();
 
             commit();
             return new JsonArray(groups);
@@ -327,6 +320,29 @@ public class GroupManager extends BaseManager {
         }
     }
 
+    @Override
+    public JsonObject search(String cursor, int pageSize) {
+        try {
+            JsonObject page = searchPage(Schema.V_GROUP, Schema.V_P_GROUP_ID, cursor, pageSize,
+                    this::makeSearchResult);
+            commit();
+            return page;
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to search for groups.", ex);
+            return null;
+        }
+    }
+
+    private Group makeSearchResult(Vertex groupVertex) {
+        Group group = makeGroupObject(groupVertex, null, false);
+        getMembers(groupVertex, group, true, false);
+        getMemberships(groupVertex, group, false, true, false);
+
+        return group;
+    }
+
     @Override
     public JsonArray delete(Object id) {
         JsonArray errors;
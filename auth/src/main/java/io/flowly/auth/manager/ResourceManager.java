@@ -209,6 +209,21 @@ public class ResourceManager extends BaseManager {
         }
     }
 
+    @Override
+    public JsonObject search(String cursor, int pageSize) {
+        try {
+            JsonObject page = searchPage(Schema.V_RESOURCE, Schema.V_P_RESOURCE_ID, cursor, pageSize,
+                    this::makeResourceObject);
+            commit();
+            return page;
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to search for resources.", ex);
+            return null;
+        }
+    }
+
     private Resource makeResourceObject(Vertex resourceVertex) {
         Resource resource = new Resource();
         resource.setId(resourceVertex.id());
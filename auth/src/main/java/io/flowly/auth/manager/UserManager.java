@@ -355,6 +355,17 @@ public class UserManager extends BaseManager {
         };
     }
 
+    /**
+     * Reply with the effective permissions of a user or an empty list if the user does not exist.
+     * The message holds the user id as the subject id.
+     */
+    public Handler<Message<JsonObject>> getPermissionsHandler() {
+        return message -> {
+            JsonObject user = get(message.body().getString(ObjectKeys.SUBJECT_ID), false, false, false, true);
+            message.reply(user != null ? user.getJsonArray(Permission.EFFECTIVE_PERMISSIONS) : new JsonArray());
+        };
+    }
+
     /**
      * Search for users based on provided criteria.
      * By default, users are sorted by USER_ID in ascending order.
@@ -371,13 +382,7 @@ public class UserManager extends BaseManager {
         try {
             List<User> users = graph.traversal().V().hasLabel(Schema.V_USER).order().
                     by(Schema.V_P_USER_ID, Order.incr).range(low, high + ADDITIONAL_RECORDS).
-                    map(m -> {
-                        Vertex userVertex = m.get();
-                        User user = makeUserObject(userVertex);
-                        getMemberships(userVertex, user, true, false, false);
-
-                        return user;
-                    }).toList();
+                    map(m -> makeSearchResult(m.get())).toList();
 
             commit();
             return new JsonArray(users);
@@ -389,6 +394,27 @@ public class UserManager extends BaseManager {
         }
     }
 
+    @Override
+    public JsonObject search(String cursor, int pageSize) {
+        try {
+            JsonObject page = searchPage(Schema.V_USER, Schema.V_P_USER_ID, cursor, pageSize, this::makeSearchResult);
+            commit();
+            return page;
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to search for users.", ex);
+            return null;
+        }
+    }
+
+    private User makeSearchResult(Vertex userVertex) {
+        User user = makeUserObject(userVertex);
+        getMemberships(userVertex, user, true, false, false);
+
+        return user;
+    }
+
     @Override
     public JsonArray delete(Object id) {
         JsonArray errors;
@@ -28,6 +28,7 @@ public class GroupRouter extends CrudRouter {
         super(vertx, authProvider, router, "/group/*");
 
         prepareSearchRoute("/group/search", LocalAddresses.SEARCH_GROUP, "Unable to search for groups.");
+        prepareExportRoute("/group/export", LocalAddresses.SEARCH_GROUP, "Unable to export groups.");
         prepareRoute(HttpMethod.POST, "/group/create", LocalAddresses.CREATE_GROUP, "Unable to create group.", false);
         prepareRoute(HttpMethod.POST, "/group/update", LocalAddresses.UPDATE_GROUP, "Unable to update group.", false);
         prepareRoute(HttpMethod.GET, "/group/get", LocalAddresses.GET_GROUP, "Unable to get group.", true);
@@ -28,6 +28,7 @@ public class ResourceRouter extends CrudRouter {
         super(vertx, authProvider, router, "/resource/*");
 
         prepareSearchRoute("/resource/search", LocalAddresses.SEARCH_RESOURCE, "Unable to search for resources.");
+        prepareExportRoute("/resource/export", LocalAddresses.SEARCH_RESOURCE, "Unable to export resources.");
         prepareRoute(HttpMethod.POST, "/resource/create", LocalAddresses.CREATE_RESOURCE,
                 "Unable to create resource.", false);
         prepareRoute(HttpMethod.POST, "/resource/update", LocalAddresses.UPDATE_RESOURCE,
@@ -41,6 +41,7 @@ public class UserRouter extends CrudRouter {
         prepareLoginRoute(vertx, router);
 
         prepareSearchRoute("/user/search", LocalAddresses.SEARCH_USER, "Unable to search for users.");
+        prepareExportRoute("/user/export", LocalAddresses.SEARCH_USER, "Unable to export users.");
         prepareRoute(HttpMethod.POST, "/user/create", LocalAddresses.CREATE_USER, "Unable to create user.", false);
         prepareRoute(HttpMethod.POST, "/user/update", LocalAddresses.UPDATE_USER, "Unable to update user.", false);
         prepareRoute(HttpMethod.GET, "/user/get", LocalAddresses.GET_USER, "Unable to get user.", true);
@@ -13,7 +13,9 @@
 
 package io.flowly.auth.manager;
 
+import io.flowly.core.ObjectKeys;
 import io.flowly.core.data.Resource;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -78,6 +80,22 @@ public class ResourceManagerTest extends BaseManagerTest {
                 "Result for search all resources not as expected.");
     }
 
+    @Test
+    public void testSearchResourcesByCursor(TestContext context) {
+        createResources();
+
+        JsonObject page = resourceManager.search((String) null, 3);
+        JsonArray results = page.getJsonArray(ObjectKeys.RESULTS);
+        context.assertEquals(3, results.size(), "First page not as expected.");
+        context.assertEquals("Console", results.getJsonObject(0).getString(Resource.RESOURCE_ID));
+
+        page = resourceManager.search(page.getString(ObjectKeys.NEXT_CURSOR), 3);
+        results = page.getJsonArray(ObjectKeys.RESULTS);
+        context.assertEquals(1, results.size(), "Second page should hold the remaining resource.");
+        context.assertEquals("Studio", results.getJsonObject(0).getString(Resource.RESOURCE_ID));
+        context.assertNull(page.getString(ObjectKeys.NEXT_CURSOR), "Last page should not have a cursor.");
+    }
+
     private Resource makeResource() {
         Resource resource = new Resource();
         resource.setResourceId("Test");
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.engine.App;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.compilers.BuildExecutor;
+import io.flowly.engine.compilers.Compiler;
+import io.flowly.engine.compilers.OptimizingCompiler;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and compilation of all flows of an app, the way the build verticle does it - on one thread and
+ * on a fork join pool sized to the cores. The flows are copies of the decision gateway process.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class BuildBenchmark {
+    // Sequential build and a build on all cores.
+    @Param({"1", "0"})
+    public int parallelism;
+
+    @Param({"16", "128"})
+    public int flowCount;
+
+    private Vertx vertx;
+    private FileSystem fileSystem;
+    private BuildExecutor buildExecutor;
+    private String appsDirectory;
+    private App app;
+    private List<String> filePaths;
+
+    @Setup
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        fileSystem = vertx.fileSystem();
+        buildExecutor = new BuildExecutor(parallelism);
+        appsDirectory = Fixtures.copyApps();
+
+        // Copies are added to the decision gateway's app, which holds the inline scripts that they refer to.
+        app = new App(Fixtures.APP_2_ID, appsDirectory);
+        String processesPath = PathUtils.createPath(app.getAppFolder(), PathUtils.PROCESSES_FOLDER);
+        String source = fileSystem.readFileBlocking(PathUtils.createPath(processesPath,
+                Fixtures.DECISION_FLOW_ID + PathUtils.DOT_JSON_SUFFIX)).toString();
+
+        // Created up front (as the build verticle does) and not by the compilers running in parallel.
+        fileSystem.mkdirsBlocking(PathUtils.createPath(app.getAppFolder(), PathUtils.VERTICLES_FOLDER));
+        filePaths = new ArrayList<>();
+
+        for (int i = 0; i < flowCount; i++) {
+            String flowId = Fixtures.DECISION_FLOW_ID + i;
+            String filePath = PathUtils.createPath(processesPath, flowId + PathUtils.DOT_JSON_SUFFIX);
+            String content = source.replaceFirst(Fixtures.DECISION_FLOW_ID, flowId);
+            fileSystem.writeFileBlocking(filePath, Buffer.buffer(content));
+            filePaths.add(filePath);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        buildExecutor.close();
+        vertx.close();
+        Fixtures.delete(appsDirectory);
+    }
+
+    @Benchmark
+    public List<String> parseAndCompile() {
+        List<Flow> flows = buildExecutor.map(filePaths, filePath -> {
+            Process process = new AssetParser(fileSystem).parseBlocking(filePath, Process.class);
+            process.setApp(app);
+            return process;
+        }, filePath -> filePath);
+
+        return buildExecutor.map(flows, flow -> {
+            Compiler compiler = new OptimizingCompiler(fileSystem);
+            StringBuilder output = new StringBuilder();
+            flow.compile(compiler, null, output);
+            return compiler.writeFlow(flow, output);
+        }, Flow::getId);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.App;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Shared inputs of the benchmarks. Inputs are fixed, so that every run measures the same work.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+final class Fixtures {
+    static final String APP_1_ID = "com.test.app1";
+    static final String APP_2_ID = "com.test.app2";
+
+    // Simple process (start event, inline script, end event) of app 1.
+    static final String SIMPLE_FLOW_ID = "2429373120533";
+
+    // Process with a decision gateway of app 2.
+    static final String DECISION_FLOW_ID = "1429373120533";
+
+    // Set by the build to the engine's test apps folder.
+    private static final String APPS_DIRECTORY_PROPERTY = "flowly.apps.directory";
+
+    private Fixtures() {
+    }
+
+    static String getAppsDirectory() {
+        String appsDirectory = System.getProperty(APPS_DIRECTORY_PROPERTY);
+
+        if (appsDirectory == null) {
+            throw new IllegalStateException("System property not set: " + APPS_DIRECTORY_PROPERTY);
+        }
+
+        return appsDirectory;
+    }
+
+    /**
+     * Copy the test apps to a temporary folder. Deploying an app writes the compiled flows to the
+     * app's folder and the source tree must not be touched.
+     */
+    static String copyApps() throws IOException {
+        Path source = Paths.get(getAppsDirectory());
+        Path target = Files.createTempDirectory("flowly-benchmark-apps");
+
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path targetPath = target.resolve(source.relativize(path).toString());
+
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(targetPath);
+                }
+                else {
+                    Files.copy(path, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+
+        return target.toString();
+    }
+
+    static void delete(String directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(Paths.get(directory))) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    static Process parseProcess(Vertx vertx, String appId, String flowId) {
+        App app = new App(appId, getAppsDirectory());
+        String processFilePath = PathUtils.createPath(app.getAppFolder(), PathUtils.PROCESSES_FOLDER,
+                flowId + PathUtils.DOT_JSON_SUFFIX);
+
+        Process process = new AssetParser(vertx.fileSystem()).parseBlocking(processFilePath, Process.class);
+        process.setApp(app);
+        return process;
+    }
+
+    /**
+     * @return an instance of the decision gateway process, halfway through, with a typical amount of data.
+     */
+    static FlowInstance createInstance() {
+        FlowInstanceStep currentStep = new FlowInstanceStep();
+        currentStep.setFlowObjectId("1003");
+        currentStep.setFlowObjectInstanceId(40964104L);
+        currentStep.setStepIndex(0);
+
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setAppId(APP_2_ID);
+        metadata.setFlowId(DECISION_FLOW_ID);
+        metadata.setInstanceId(40960008L);
+        metadata.setCurrentStep(currentStep);
+
+        JsonArray sendTo = new JsonArray();
+        JsonObject data = new JsonObject().
+                put("subject", "Welcome to flowly").
+                put("message", "This is awesome!").
+                put("sendTo", sendTo);
+
+        for (int i = 0; i < 10; i++) {
+            sendTo.add("test" + i + "@test.com");
+            data.put("field" + i, i % 2 == 0 ? "value " + i : i);
+        }
+
+        FlowInstance instance = new FlowInstance();
+        instance.setMetadata(metadata);
+        instance.setData(data);
+        return instance;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.App;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.assets.MicroService;
+import io.flowly.engine.utils.PathUtils;
+import io.flowly.engine.verticles.Kernel;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the hops/sec of the JavaScript verticle backend and the interpreted Java backend.
+ * A generated micro service flow - a start event, a chain of empty inline scripts and an end event -
+ * is run without persistence, so that only the engine and the step execution are measured.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FlowBackendBenchmark {
+    private static final String APP_ID_PREFIX = "io.flowly.benchmarks.";
+    private static final String FLOW_ID = "9000000000001";
+    private static final int INSTANCES = 1000;
+    private static final int IN_FLIGHT = 64;
+    private static final int STEPS = 20;
+
+    // Start event, inline scripts and end event.
+    private static final int HOPS_PER_INSTANCE = STEPS + 2;
+
+    @Param({App.BACKEND_JS, App.BACKEND_JAVA})
+    public String backend;
+
+    private String appsDirectory;
+    private String storageDirectory;
+    private Vertx vertx;
+    private FlowMetadata flowMetadata;
+
+    @Setup
+    public void setUp() throws Exception {
+        appsDirectory = Files.createTempDirectory("flowly-benchmark-apps").toString();
+        storageDirectory = Files.createTempDirectory("flowly-benchmark-db").toString();
+        vertx = Vertx.vertx();
+
+        JsonObject config = new JsonObject().
+                put(JsonKeys.APPS_DIRECTORY, appsDirectory).
+                put(JsonKeys.DB_STORAGE_DIRECTORY, storageDirectory).
+                put(JsonKeys.PUBLISH_FLOW_LIFE_CYCLE_EVENTS, true).
+                put(JsonKeys.SCAN_APPS_ON_KERNEL_START, false);
+
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(new Kernel(), new DeploymentOptions().setConfig(config), d -> {
+            if (d.succeeded()) {
+                deployed.complete(d.result());
+            }
+            else {
+                deployed.completeExceptionally(d.cause());
+            }
+        });
+        deployed.get();
+
+        App app = createApp();
+
+        CompletableFuture<Void> appDeployed = new CompletableFuture<>();
+        vertx.eventBus().send(EngineAddresses.DEPLOY_APP, app.toJson(), reply -> {
+            if (reply.succeeded()) {
+                appDeployed.complete(null);
+            }
+            else {
+                appDeployed.completeExceptionally(reply.cause());
+            }
+        });
+        appDeployed.get();
+
+        flowMetadata = new FlowMetadata();
+        flowMetadata.setAppId(app.getId());
+        flowMetadata.setFlowId(FLOW_ID);
+        flowMetadata.setFlowType(MicroService.class.getSimpleName());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(c -> closed.complete(null));
+        closed.get();
+
+        Fixtures.delete(storageDirectory);
+        Fixtures.delete(appsDirectory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTANCES * HOPS_PER_INSTANCE)
+    public int hops() throws Exception {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        Runnable starter = () -> {
+            if (started.incrementAndGet() <= INSTANCES) {
+                vertx.eventBus().send(EngineAddresses.START_FLOW_INSTANCE, flowMetadata);
+            }
+        };
+
+        // Keep a fixed number of instances in flight - start a new instance when one completes.
+        MessageConsumer<Object> consumer = vertx.eventBus().consumer(EngineAddresses.FLOW_LIFECYCLE_EVENT, m -> {
+            JsonObject event = (JsonObject) m.body();
+            String eventType = event.getString(JsonKeys.FLOW_EVENT_TYPE);
+
+            if (JsonKeys.FLOW_COMPLETE_EVENT.equals(eventType)) {
+                int count = completed.incrementAndGet();
+
+                if (count == INSTANCES) {
+                    done.complete(count);
+                }
+                else {
+                    starter.run();
+                }
+            }
+            else if (JsonKeys.FLOW_FAIL_EVENT.equals(eventType)) {
+                done.completeExceptionally(new IllegalStateException("Flow instance failed: " + event));
+            }
+        });
+
+        vertx.runOnContext(v -> {
+            for (int i = 0; i < IN_FLIGHT; i++) {
+                starter.run();
+            }
+        });
+
+        try {
+            return done.get();
+        }
+        finally {
+            consumer.unregister();
+        }
+    }
+
+    /**
+     * Write an app with a single micro service flow: start event, a chain of empty inline scripts, end event.
+     */
+    private App createApp() throws Exception {
+        App app = new App(APP_ID_PREFIX + backend, appsDirectory);
+        app.setBackend(backend);
+
+        JsonArray flowObjects = new JsonArray();
+        JsonArray connectingObjects = new JsonArray();
+        int id = 1000;
+
+        flowObjects.add(new JsonObject().put("id", String.valueOf(id)).put("name", "start").
+                put("type", "StartEvent"));
+
+        for (int i = 0; i <= STEPS; i++) {
+            int fromId = id;
+            id += 2;
+
+            connectingObjects.add(new JsonObject().put("id", String.valueOf(fromId + 1)).
+                    put("name", "sequence " + i).put("fromId", String.valueOf(fromId)).put("toId", String.valueOf(id)));
+            flowObjects.add(new JsonObject().put("id", String.valueOf(id)).put("name", "step " + i).
+                    put("type", i < STEPS ? "InlineScript" : "EndEvent"));
+        }
+
+        JsonObject flow = new JsonObject().
+                put("id", FLOW_ID).
+                put("name", "Benchmark " + backend).
+                put("variables", new JsonArray()).
+                put("flowObjects", flowObjects).
+                put("connectingObjects", connectingObjects);
+
+        Path flowsPath = new File(PathUtils.createPath(app.getAppFolder(), PathUtils.MICRO_SERVICES_FOLDER)).toPath();
+        Files.createDirectories(flowsPath);
+        Files.write(flowsPath.resolve(FLOW_ID + ".json"), flow.encodePrettily().getBytes(StandardCharsets.UTF_8));
+
+        return app;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of flow instances and their metadata from the maps of messages that the engine receives.
+ * The constructors replace the nested maps with typed objects, so each call works on a shallow copy.
+ * The copy benchmark is the baseline that is to be subtracted.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FlowInstanceBenchmark {
+    private Map<String, Object> instanceMap;
+    private Map<String, Object> metadataMap;
+
+    @Setup
+    public void setUp() {
+        // Decode from JSON, so that the maps hold plain (untyped) values as in a received message.
+        JsonObject instance = new JsonObject(Fixtures.createInstance().encode());
+        instanceMap = instance.getMap();
+        metadataMap = instance.getJsonObject(FlowInstance.META_DATA).getMap();
+    }
+
+    @Benchmark
+    public Map<String, Object> copyMaps() {
+        return copy(instanceMap);
+    }
+
+    @Benchmark
+    public FlowInstance newInstance() {
+        return new FlowInstance(copy(instanceMap));
+    }
+
+    @Benchmark
+    public FlowInstanceMetadata newMetadata() {
+        return new FlowInstanceMetadata(copy(metadataMap));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> copy(Map<String, Object> map) {
+        Map<String, Object> copy = new HashMap<>(map);
+
+        for (Map.Entry<String, Object> entry : copy.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                entry.setValue(new HashMap<>((Map<String, Object>) entry.getValue()));
+            }
+        }
+
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.codecs.FlowInstanceCodec;
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire encoding and decoding of flow instances that cross the clustered event bus.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FlowInstanceCodecBenchmark {
+    // Binary or JSON wire format.
+    @Param({"false", "true"})
+    public boolean json;
+
+    private FlowInstanceCodec codec;
+    private FlowInstance instance;
+    private Buffer encoded;
+
+    @Setup
+    public void setUp() {
+        codec = new FlowInstanceCodec(json);
+        instance = Fixtures.createInstance();
+
+        encoded = Buffer.buffer();
+        codec.encodeToWire(encoded, instance);
+    }
+
+    @Benchmark
+    public Buffer encode() {
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, instance);
+        return buffer;
+    }
+
+    @Benchmark
+    public FlowInstance decode() {
+        return codec.decodeFromWire(0, encoded);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.manager.FlowInstanceReadWriteManager;
+import io.flowly.engine.data.manager.FlowReadWriteManager;
+import io.flowly.engine.data.manager.FlowlyGraph;
+import io.flowly.engine.router.Route;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a token (flow object instance) per invocation to a Berkeley DB backed flowly graph,
+ * the way the repository does when a flow instance moves. Every iteration starts a new flow instance.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FlowObjectInstanceBenchmark {
+    private static final Route.Next NEXT = new Route.Next("1003", null);
+
+    private String storageDirectory;
+    private Graph graph;
+    private FlowInstanceReadWriteManager instanceManager;
+    private FlowInstance instance;
+
+    @Setup(Level.Trial)
+    public void setUpGraph() throws Exception {
+        storageDirectory = Files.createTempDirectory("flowly-benchmark-db").toString();
+        graph = new FlowlyGraph(new JsonObject().put(JsonKeys.DB_STORAGE_DIRECTORY, storageDirectory)).
+                getInstance();
+
+        Vertx vertx = Vertx.vertx();
+
+        try {
+            if (!new FlowReadWriteManager(graph).saveFlowMetadata(
+                    Fixtures.parseProcess(vertx, Fixtures.APP_2_ID, Fixtures.DECISION_FLOW_ID))) {
+                throw new IllegalStateException("Unable to save flow: " + Fixtures.DECISION_FLOW_ID);
+            }
+        }
+        finally {
+            vertx.close();
+        }
+
+        instanceManager = new FlowInstanceReadWriteManager(graph);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpInstance() {
+        FlowMetadata flowMetadata = new FlowMetadata();
+        flowMetadata.setAppId(Fixtures.APP_2_ID);
+        flowMetadata.setFlowId(Fixtures.DECISION_FLOW_ID);
+
+        instance = instanceManager.createInstance(flowMetadata);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        graph.close();
+        Fixtures.delete(storageDirectory);
+    }
+
+    @Benchmark
+    public Long createFlowObjectInstance() {
+        Long flowObjectInstanceId = instanceManager.createFlowObjectInstance(instance, NEXT, false);
+
+        if (flowObjectInstanceId == null) {
+            throw new IllegalStateException("Unable to create flow object instance.");
+        }
+
+        // Move the token, as the engine does before the next write.
+        FlowInstanceStep currentStep = new FlowInstanceStep();
+        currentStep.setFlowObjectId(NEXT.getFlowObjectId());
+        currentStep.setFlowObjectInstanceId(flowObjectInstanceId);
+        instance.getMetadata().setCurrentStep(currentStep);
+
+        return flowObjectInstanceId;
+    }
+}
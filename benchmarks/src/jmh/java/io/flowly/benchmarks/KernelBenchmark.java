@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.App;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.verticles.Kernel;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end hops/sec through the kernel. Each invocation runs a fixed number of instances of the
+ * simple test process (start event, inline script, end event) with a fixed number of instances in flight.
+ * Instances are persisted to a Berkeley DB backed graph, as in production.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+    private static final int INSTANCES = 200;
+    private static final int IN_FLIGHT = 16;
+    private static final int HOPS_PER_INSTANCE = 3;
+
+    @Param({App.BACKEND_JS, App.BACKEND_JAVA})
+    public String backend;
+
+    private String appsDirectory;
+    private String storageDirectory;
+    private Vertx vertx;
+    private FlowMetadata flowMetadata;
+
+    @Setup
+    public void setUp() throws Exception {
+        appsDirectory = Fixtures.copyApps();
+        storageDirectory = Files.createTempDirectory("flowly-benchmark-db").toString();
+        vertx = Vertx.vertx();
+
+        JsonObject config = new JsonObject().
+                put(JsonKeys.APPS_DIRECTORY, appsDirectory).
+                put(JsonKeys.DB_STORAGE_DIRECTORY, storageDirectory).
+                put(JsonKeys.PUBLISH_FLOW_LIFE_CYCLE_EVENTS, true).
+                put(JsonKeys.SCAN_APPS_ON_KERNEL_START, false);
+
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(new Kernel(), new DeploymentOptions().setConfig(config), d -> {
+            if (d.succeeded()) {
+                deployed.complete(d.result());
+            }
+            else {
+                deployed.completeExceptionally(d.cause());
+            }
+        });
+        deployed.get();
+
+        App app = new App(Fixtures.APP_1_ID, appsDirectory);
+        app.setBackend(backend);
+
+        CompletableFuture<Void> appDeployed = new CompletableFuture<>();
+        vertx.eventBus().send(EngineAddresses.DEPLOY_APP, app.toJson(), reply -> {
+            if (reply.succeeded()) {
+                appDeployed.complete(null);
+            }
+            else {
+                appDeployed.completeExceptionally(reply.cause());
+            }
+        });
+        appDeployed.get();
+
+        flowMetadata = new FlowMetadata();
+        flowMetadata.setAppId(Fixtures.APP_1_ID);
+        flowMetadata.setFlowId(Fixtures.SIMPLE_FLOW_ID);
+        flowMetadata.setFlowType(Process.class.getSimpleName());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(c -> closed.complete(null));
+        closed.get();
+
+        Fixtures.delete(storageDirectory);
+        Fixtures.delete(appsDirectory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTANCES * HOPS_PER_INSTANCE)
+    public int hops() throws Exception {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        Runnable starter = () -> {
+            if (started.incrementAndGet() <= INSTANCES) {
+                vertx.eventBus().send(EngineAddresses.START_FLOW_INSTANCE, flowMetadata);
+            }
+        };
+
+        // Keep a fixed number of instances in flight - start a new instance when one completes.
+        MessageConsumer<Object> consumer = vertx.eventBus().consumer(EngineAddresses.FLOW_LIFECYCLE_EVENT, m -> {
+            JsonObject event = (JsonObject) m.body();
+            String eventType = event.getString(JsonKeys.FLOW_EVENT_TYPE);
+
+            if (event.containsKey(FlowInstanceMetadata._PARENT_FLOW_OBJECT_INSTANCE_ID)) {
+                return;
+            }
+
+            if (JsonKeys.FLOW_COMPLETE_EVENT.equals(eventType)) {
+                int count = completed.incrementAndGet();
+
+                if (count == INSTANCES) {
+                    done.complete(count);
+                }
+                else {
+                    starter.run();
+                }
+            }
+            else if (JsonKeys.FLOW_FAIL_EVENT.equals(eventType)) {
+                done.completeExceptionally(new IllegalStateException("Flow instance failed: " + event));
+            }
+        });
+
+        vertx.runOnContext(v -> {
+            for (int i = 0; i < IN_FLIGHT; i++) {
+                starter.run();
+            }
+        });
+
+        try {
+            return done.get();
+        }
+        finally {
+            consumer.unregister();
+        }
+    }
+}
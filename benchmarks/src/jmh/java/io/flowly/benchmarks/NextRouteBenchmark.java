@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.data.manager.FlowReadWriteManager;
+import io.flowly.engine.router.FlowRouter;
+import io.flowly.engine.router.Route;
+import io.vertx.core.Vertx;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next route look ups of the decision gateway process - from the repository graph and
+ * from the in-memory route table.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NextRouteBenchmark {
+    // Start route, a single outgoing route and the decision gateway's routes.
+    @Param({"0", "1001", "1005"})
+    public String flowObjectId;
+
+    private Vertx vertx;
+    private TinkerGraph graph;
+    private FlowReadWriteManager flowManager;
+    private FlowRouter flowRouter;
+    private FlowInstanceMetadata metadata;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        graph = TinkerGraph.open();
+        flowRouter = new FlowRouter(vertx);
+        flowManager = new FlowReadWriteManager(graph, flowRouter);
+
+        if (!flowManager.saveRouter(Fixtures.parseProcess(vertx, Fixtures.APP_2_ID, Fixtures.DECISION_FLOW_ID))) {
+            throw new IllegalStateException("Unable to save router of flow: " + Fixtures.DECISION_FLOW_ID);
+        }
+
+        FlowInstanceStep currentStep = new FlowInstanceStep();
+        currentStep.setFlowObjectId(flowObjectId);
+
+        metadata = new FlowInstanceMetadata();
+        metadata.setFlowId(Fixtures.DECISION_FLOW_ID);
+        metadata.setCurrentStep(currentStep);
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+        vertx.close();
+    }
+
+    @Benchmark
+    public Route repositoryRoute() {
+        return flowManager.nextRoute(metadata);
+    }
+
+    @Benchmark
+    public Route inMemoryRoute() {
+        return flowRouter.nextRoute(metadata);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.BatchWriter;
+import io.flowly.engine.data.manager.BaseManager;
+import io.flowly.engine.data.manager.FlowlyGraph;
+import io.flowly.engine.data.manager.Schema;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes/sec of single vertex writes to a Berkeley DB backed flowly graph, with and without group commits.
+ * Each write waits for its own reply and a fixed number of writes are kept in flight to mimic concurrent
+ * flow instances.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RepositoryWriteBenchmark {
+    private static final String WRITE_ADDRESS = "io.flowly.benchmarks:repo.write";
+    private static final int WRITES = 2000;
+    private static final int IN_FLIGHT = 256;
+    private static final long LINGER_TIME = 2;
+
+    // Batch size 1 commits every write on its own.
+    @Param({"1", "16", "64", "256"})
+    public int batchSize;
+
+    private String storageDirectory;
+    private Graph graph;
+    private Vertx vertx;
+
+    @Setup
+    public void setUp() throws Exception {
+        storageDirectory = Files.createTempDirectory("flowly-benchmark-db").toString();
+        graph = new FlowlyGraph(new JsonObject().put(JsonKeys.DB_STORAGE_DIRECTORY, storageDirectory)).
+                getInstance();
+        vertx = Vertx.vertx();
+
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(new WriterVerticle(graph, batchSize), new DeploymentOptions().setWorker(true), d -> {
+            if (d.succeeded()) {
+                deployed.complete(d.result());
+            }
+            else {
+                deployed.completeExceptionally(d.cause());
+            }
+        });
+        deployed.get();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(c -> closed.complete(null));
+        closed.get();
+
+        graph.close();
+        Fixtures.delete(storageDirectory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRITES)
+    public int writes() throws Exception {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger replied = new AtomicInteger();
+
+        Handler<Void> sender = new Handler<Void>() {
+            @Override
+            public void handle(Void v) {
+                int count = sent.incrementAndGet();
+                if (count > WRITES) {
+                    return;
+                }
+
+                vertx.eventBus().send(WRITE_ADDRESS, "write" + count, reply -> {
+                    if (reply.failed() || !(Boolean) reply.result().body()) {
+                        done.completeExceptionally(new IllegalStateException("Write failed: " + count));
+                    }
+                    else if (replied.incrementAndGet() == WRITES) {
+                        done.complete(WRITES);
+                    }
+                    else {
+                        handle(null);
+                    }
+                });
+            }
+        };
+
+        vertx.runOnContext(v -> {
+            for (int i = 0; i < IN_FLIGHT; i++) {
+                sender.handle(null);
+            }
+        });
+
+        return done.get();
+    }
+
+    /**
+     * Worker verticle that adds one vertex per write message.
+     */
+    private static class WriterVerticle extends AbstractVerticle {
+        private Graph graph;
+        private int batchSize;
+
+        WriterVerticle(Graph graph, int batchSize) {
+            this.graph = graph;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void start(Future<Void> startFuture) throws Exception {
+            BatchWriter batchWriter = new BatchWriter(vertx, graph, batchSize, LINGER_TIME);
+            WriteManager writeManager = new WriteManager(graph);
+
+            vertx.eventBus().consumer(WRITE_ADDRESS, batchWriter.batch(writeManager.writeHandler())).
+                    completionHandler(h -> {
+                        if (h.succeeded()) {
+                            startFuture.complete();
+                        }
+                        else {
+                            startFuture.fail(h.cause());
+                        }
+                    });
+        }
+    }
+
+    private static class WriteManager extends BaseManager {
+        WriteManager(Graph graph) {
+            super(graph);
+        }
+
+        Handler<Message<Object>> writeHandler() {
+            return message -> message.reply(write((String) message.body()));
+        }
+
+        boolean write(String name) {
+            try {
+                graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE).property(Schema.V_P_DATA, name);
+                commit();
+                return true;
+            }
+            catch (Exception ex) {
+                rollback();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.benchmarks;
+
+import io.flowly.core.security.PasswordHash;
+import io.flowly.core.security.Permission;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission checks that run on every authorized request and password validation that runs on every login.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SecurityBenchmark {
+    private static final String PASSWORD = "p\r\nassw0Rd!";
+
+    private Permission subSet;
+    private Permission superSet;
+    private JsonObject jwtPermission;
+    private String hash;
+
+    @Setup
+    public void setUp() throws Exception {
+        subSet = new Permission("R1:R,W");
+        superSet = new Permission("R1:R,W,X");
+
+        // Permissions in a JWT token are plain JSON objects.
+        jwtPermission = new JsonObject(superSet.encode());
+
+        hash = PasswordHash.createHash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean isSubSet() {
+        return subSet.isSubSet(superSet);
+    }
+
+    @Benchmark
+    public boolean isSubSetOfJwtPermission() {
+        return subSet.isSubSet(jwtPermission);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean validatePassword() throws Exception {
+        return PasswordHash.validatePassword(PASSWORD, hash);
+    }
+}
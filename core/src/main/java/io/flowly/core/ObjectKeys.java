@@ -37,9 +37,20 @@ public class ObjectKeys {
     public static final String PAGE_NUMBER = "pageNumber";
     public static final String PAGE_SIZE = "pageSize";
     public static final String COUNT = "count";
+    public static final String CURSOR = "cursor";
+    public static final String NEXT_CURSOR = "nextCursor";
+    public static final String RESULTS = "results";
 
     public static final String VIEW_ROUTE = "viewRoute";
 
+    // Flow lifecycle and inbox events
+    public static final String FLOW_EVENT_TYPE = "flowEventType";
+    public static final String INBOX_EVENT_TYPE = "inboxEventType";
+    public static final String TASK = "task";
+    public static final String TASK_ADDED = "taskAdded";
+    public static final String TASK_UPDATED = "taskUpdated";
+    public static final String TASK_REMOVED = "taskRemoved";
+
     // Titan graph config keys
     public static final String DB_STORAGE_DIRECTORY = "storage.directory";
     public static final String DB_STORAGE_BACKEND = "storage.backend";
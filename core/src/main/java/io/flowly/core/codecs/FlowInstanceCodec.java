@@ -14,7 +14,6 @@
 package io.flowly.core.codecs;
 
 import io.flowly.core.data.FlowInstance;
-import io.netty.util.CharsetUtil;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
 
@@ -26,24 +25,26 @@ import io.vertx.core.eventbus.MessageCodec;
 public class FlowInstanceCodec implements MessageCodec<FlowInstance, FlowInstance> {
     public static final String NAME = "flowInstance";
 
+    // If true, objects are written as JSON strings (for debugging) instead of the binary format.
+    private boolean json;
+
+    public FlowInstanceCodec() {
+        this(false);
+    }
+
+    public FlowInstanceCodec(boolean json) {
+        this.json = json;
+    }
+
     @Override
     public void encodeToWire(Buffer buffer, FlowInstance instance) {
-        // Same as encoding a JsonObject.
-        String strJson = instance.encode();
-        byte[] encoded = strJson.getBytes(CharsetUtil.UTF_8);
-        buffer.appendInt(encoded.length);
-        Buffer buff = Buffer.buffer(encoded);
-        buffer.appendBuffer(buff);
+        WireFormat.encode(buffer, instance, json);
     }
 
     @Override
     public FlowInstance decodeFromWire(int pos, Buffer buffer) {
-        // Same as decoding a JsonObject.
-        int length = buffer.getInt(pos);
-        pos += 4;
-        byte[] encoded = buffer.getBytes(pos, pos + length);
-        String str = new String(encoded, CharsetUtil.UTF_8);
-        return new FlowInstance(str);
+        // Either format can be decoded - the format is written with the object.
+        return new FlowInstance(WireFormat.decode(pos, buffer));
     }
 
     @Override
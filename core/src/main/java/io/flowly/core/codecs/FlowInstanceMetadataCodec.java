@@ -18,24 +18,33 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
 
 /**
- * Vert.x message codec used to pass {@link io.flowly.core.data.FlowInstanceMetadata} objects
- * on the local event bus.
+ * Vert.x message codec used to serialize and deserialize {@link io.flowly.core.data.FlowInstanceMetadata} objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
 public class FlowInstanceMetadataCodec implements MessageCodec<FlowInstanceMetadata, FlowInstanceMetadata> {
     public static final String NAME = "flowInstanceMetadata";
 
+    // If true, objects are written as JSON strings (for debugging) instead of the binary format.
+    private boolean json;
+
+    public FlowInstanceMetadataCodec() {
+        this(false);
+    }
+
+    public FlowInstanceMetadataCodec(boolean json) {
+        this.json = json;
+    }
+
     @Override
     public void encodeToWire(Buffer buffer, FlowInstanceMetadata metadata) {
-        throw new IllegalStateException("Encoding the FlowInstanceMetadata object over the wire" +
-                " is not supported by this codec.");
+        WireFormat.encode(buffer, metadata, json);
     }
 
     @Override
     public FlowInstanceMetadata decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the FlowInstanceMetadata object over the wire" +
-                " is not supported by this codec.");
+        // Either format can be decoded - the format is written with the object.
+        return new FlowInstanceMetadata(WireFormat.decode(pos, buffer));
     }
 
     @Override
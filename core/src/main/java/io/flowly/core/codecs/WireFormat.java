@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.core.codecs;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.core.data.FlowMetadata;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format of the flow objects (instances and metadata) that cross the clustered event bus.
+ *
+ * Every message starts with a format byte. The JSON format (kept for debugging) is followed by
+ * the length of the JSON string and its UTF-8 bytes. The binary format writes the values directly to
+ * the buffer - each value is a type byte followed by its payload. The keys that flowly defines are
+ * written as a single byte index into a dictionary, all other keys as strings.
+ *
+ * The dictionary is append only. Changing the meaning of an index requires a new format version.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+final class WireFormat {
+    static final byte FORMAT_JSON = 0;
+    static final byte FORMAT_BINARY_V1 = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte OBJECT = 8;
+    private static final byte ARRAY = 9;
+    private static final byte BINARY = 10;
+
+    // Key that is not in the dictionary - followed by the key string.
+    private static final byte KEY_LITERAL = -1;
+
+    private static final String[] KEYS = {
+            FlowInstance.META_DATA,
+            FlowInstance.DATA,
+            FlowInstance.INPUT_DATA,
+            FlowInstance.OUTPUT_DATA,
+            FlowMetadata.FLOW_ID,
+            FlowMetadata.APP_ID,
+            FlowMetadata.FLOW_TYPE,
+            FlowMetadata.PERSISTENCE,
+            FlowInstanceMetadata.INSTANCE_ID,
+            FlowInstanceMetadata._PARENT_FLOW_OBJECT_ID,
+            FlowInstanceMetadata._PARENT_FLOW_OBJECT_INSTANCE_ID,
+            FlowInstanceMetadata._PERSISTED_FLOW_OBJECT_INSTANCE_ID,
+            FlowInstanceMetadata._ADMISSION_ID,
+            FlowInstanceMetadata.CURRENT_STEP,
+            FlowInstanceStep._FLOW_OBJECT_ID,
+            FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID,
+            FlowInstanceStep._FLOW_OBJECT_CONNECTING_OBJECT_IDS,
+            FlowInstanceStep.STEP_INDEX,
+            FlowInstanceStep._SUB_FLOW_ID,
+            FlowInstanceStep._FUSED_FLOW_OBJECT_IDS,
+            FlowInstanceStep._DISPATCHED_AT
+    };
+
+    private static final Map<String, Byte> KEY_INDEXES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEY_INDEXES.put(KEYS[i], (byte) i);
+        }
+    }
+
+    private WireFormat() {
+    }
+
+    /**
+     * Append the given JSON object to the buffer.
+     *
+     * @param buffer the buffer to write to.
+     * @param object the flow object to encode.
+     * @param json if true, the object is written as a JSON string.
+     */
+    static void encode(Buffer buffer, JsonObject object, boolean json) {
+        if (json) {
+            byte[] encoded = object.encode().getBytes(CharsetUtil.UTF_8);
+            buffer.appendByte(FORMAT_JSON);
+            buffer.appendInt(encoded.length);
+            buffer.appendBytes(encoded);
+        }
+        else {
+            buffer.appendByte(FORMAT_BINARY_V1);
+            writeObject(buffer, object.getMap());
+        }
+    }
+
+    /**
+     * Read a JSON object (in either format) from the buffer.
+     *
+     * @param pos the position of the format byte.
+     * @param buffer the buffer to read from.
+     * @return the map that backs the decoded JSON object. Nested objects and arrays are maps and lists.
+     */
+    static Map<String, Object> decode(int pos, Buffer buffer) {
+        byte format = buffer.getByte(pos);
+
+        if (format == FORMAT_BINARY_V1) {
+            return new Reader(buffer.getByteBuf(), pos + 1).readObject();
+        }
+        else if (format == FORMAT_JSON) {
+            int length = buffer.getInt(pos + 1);
+            return new JsonObject(buffer.getString(pos + 5, pos + 5 + length)).getMap();
+        }
+        else {
+            throw new IllegalStateException("Unknown wire format: " + format);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(Buffer buffer, Object value) {
+        if (value == null) {
+            buffer.appendByte(NULL);
+        }
+        else if (value instanceof String) {
+            buffer.appendByte(STRING);
+            writeString(buffer, (String) value);
+        }
+        else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.appendByte(INT).appendInt(((Number) value).intValue());
+        }
+        else if (value instanceof Long) {
+            buffer.appendByte(LONG).appendLong((Long) value);
+        }
+        else if (value instanceof Double) {
+            buffer.appendByte(DOUBLE).appendDouble((Double) value);
+        }
+        else if (value instanceof Float) {
+            buffer.appendByte(FLOAT).appendFloat((Float) value);
+        }
+        else if (value instanceof Boolean) {
+            buffer.appendByte((Boolean) value ? TRUE : FALSE);
+        }
+        else if (value instanceof JsonObject) {
+            buffer.appendByte(OBJECT);
+            writeObject(buffer, ((JsonObject) value).getMap());
+        }
+        else if (value instanceof Map) {
+            buffer.appendByte(OBJECT);
+            writeObject(buffer, (Map<String, Object>) value);
+        }
+        else if (value instanceof JsonArray) {
+            buffer.appendByte(ARRAY);
+            writeArray(buffer, ((JsonArray) value).getList());
+        }
+        else if (value instanceof List) {
+            buffer.appendByte(ARRAY);
+            writeArray(buffer, (List<Object>) value);
+        }
+        else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            buffer.appendByte(BINARY).appendInt(bytes.length).appendBytes(bytes);
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeObject(Buffer buffer, Map<String, Object> map) {
+        buffer.appendInt(map.size());
+
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Byte keyIndex = KEY_INDEXES.get(entry.getKey());
+
+            if (keyIndex != null) {
+                buffer.appendByte(keyIndex);
+            }
+            else {
+                buffer.appendByte(KEY_LITERAL);
+                writeString(buffer, entry.getKey());
+            }
+
+            writeValue(buffer, entry.getValue());
+        }
+    }
+
+    private static void writeArray(Buffer buffer, List<Object> list) {
+        buffer.appendInt(list.size());
+
+        for (Object value : list) {
+            writeValue(buffer, value);
+        }
+    }
+
+    /**
+     * Write the UTF-8 bytes of the string, preceded by their count, without an intermediate byte array.
+     * Unpaired surrogates are written as '?', the same as {@link String#getBytes}.
+     */
+    private static void writeString(Buffer buffer, String value) {
+        int lengthPos = buffer.length();
+        buffer.appendInt(0);
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c < 0x80) {
+                buffer.appendByte((byte) c);
+            }
+            else if (c < 0x800) {
+                buffer.appendByte((byte) (0xC0 | (c >> 6)));
+                buffer.appendByte((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() &&
+                        Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.appendByte((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.appendByte((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.appendByte((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.appendByte((byte) (0x80 | (codePoint & 0x3F)));
+                }
+                else {
+                    buffer.appendByte((byte) '?');
+                }
+            }
+            else {
+                buffer.appendByte((byte) (0xE0 | (c >> 12)));
+                buffer.appendByte((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.appendByte((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    /**
+     * Reads the binary format directly from the buffer's bytes.
+     */
+    private static class Reader {
+        private ByteBuf buf;
+        private int pos;
+
+        Reader(ByteBuf buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        Map<String, Object> readObject() {
+            int size = readInt();
+            Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+
+            for (int i = 0; i < size; i++) {
+                byte keyIndex = buf.getByte(pos++);
+                String key = keyIndex == KEY_LITERAL ? readString() : KEYS[keyIndex];
+                map.put(key, readValue());
+            }
+
+            return map;
+        }
+
+        private List<Object> readArray() {
+            int size = readInt();
+            List<Object> list = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                list.add(readValue());
+            }
+
+            return list;
+        }
+
+        private Object readValue() {
+            byte type = buf.getByte(pos++);
+
+            switch (type) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case INT:
+                    return readInt();
+                case LONG:
+                    long longValue = buf.getLong(pos);
+                    pos += 8;
+                    return longValue;
+                case DOUBLE:
+                    double doubleValue = buf.getDouble(pos);
+                    pos += 8;
+                    return doubleValue;
+                case FLOAT:
+                    float floatValue = buf.getFloat(pos);
+                    pos += 4;
+                    return floatValue;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case OBJECT:
+                    return readObject();
+                case ARRAY:
+                    return readArray();
+                case BINARY:
+                    byte[] bytes = new byte[readInt()];
+                    buf.getBytes(pos, bytes);
+                    pos += bytes.length;
+                    return bytes;
+                default:
+                    throw new IllegalStateException("Unknown value type: " + type + " at: " + (pos - 1));
+            }
+        }
+
+        private int readInt() {
+            int value = buf.getInt(pos);
+            pos += 4;
+            return value;
+        }
+
+        private String readString() {
+            int length = readInt();
+            String value = buf.toString(pos, length, CharsetUtil.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
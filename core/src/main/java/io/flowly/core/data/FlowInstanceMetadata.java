@@ -27,6 +27,9 @@ public class FlowInstanceMetadata extends FlowMetadata {
     public static final String INSTANCE_ID = "instanceId";
     public static final String _PARENT_FLOW_OBJECT_ID = "_parentFlowObjectId_";
     public static final String _PARENT_FLOW_OBJECT_INSTANCE_ID = "_parentFlowObjectInstanceId_";
+    public static final String _PERSISTED_FLOW_OBJECT_INSTANCE_ID = "_persistedFlowObjectInstanceId_";
+    public static final String _ADMISSION_ID = "_admissionId_";
+    public static final String _ADMISSION_ADDRESS = "_admissionAddress_";
     public static final String CURRENT_STEP = "currentStep";
 
     public FlowInstanceMetadata() {
@@ -68,6 +71,41 @@ public class FlowInstanceMetadata extends FlowMetadata {
         put(_PARENT_FLOW_OBJECT_INSTANCE_ID, parentFlowObjectInstanceId);
     }
 
+    /**
+     * @return the last flow object instance of this flow (or sub-flow) instance that was written to the graph.
+     *         Null if none of the instance's steps were written to the graph.
+     */
+    public Long getPersistedFlowObjectInstanceId() {
+        return getLong(_PERSISTED_FLOW_OBJECT_INSTANCE_ID);
+    }
+
+    public void setPersistedFlowObjectInstanceId(Long persistedFlowObjectInstanceId) {
+        put(_PERSISTED_FLOW_OBJECT_INSTANCE_ID, persistedFlowObjectInstanceId);
+    }
+
+    /**
+     * @return the id under which the engine admitted this instance. Null for tokens that were already
+     *         released. The admission moves with the token and is never saved in the graph.
+     */
+    public Long getAdmissionId() {
+        return getLong(_ADMISSION_ID);
+    }
+
+    public void setAdmissionId(Long admissionId) {
+        put(_ADMISSION_ID, admissionId);
+    }
+
+    /**
+     * @return the event bus address of the engine that admitted this instance.
+     */
+    public String getAdmissionAddress() {
+        return getString(_ADMISSION_ADDRESS);
+    }
+
+    public void setAdmissionAddress(String admissionAddress) {
+        put(_ADMISSION_ADDRESS, admissionAddress);
+    }
+
     public FlowInstanceStep getCurrentStep() {
         return (FlowInstanceStep) getMap().get(CURRENT_STEP);
     }
@@ -31,6 +31,8 @@ public class FlowInstanceStep extends JsonObject {
     public static final String _FLOW_OBJECT_CONNECTING_OBJECT_IDS = "_flowObjectConnectingObjectIds_";
     public static final String STEP_INDEX = "stepIndex";
     public static final String _SUB_FLOW_ID = "_subFlowId_";
+    public static final String _FUSED_FLOW_OBJECT_IDS = "_fusedFlowObjectIds_";
+    public static final String _DISPATCHED_AT = "_dispatchedAt_";
 
     public FlowInstanceStep() {
         super();
@@ -88,4 +90,26 @@ public class FlowInstanceStep extends JsonObject {
 
         connectingObjectIds.add(connectingObjectId);
     }
+
+    /**
+     * @return ids of the flow objects that ran along with the current flow object in a fused chain
+     *         or null if the current flow object is not fused.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getFusedFlowObjectIds() {
+        JsonArray fusedFlowObjectIds = getJsonArray(_FUSED_FLOW_OBJECT_IDS);
+        return fusedFlowObjectIds != null ? fusedFlowObjectIds.getList() : null;
+    }
+
+    /**
+     * @return the engine time (in microseconds) at which this step was sent to its flow object.
+     *         Only meaningful to the engine that dispatched the step.
+     */
+    public Long getDispatchedAt() {
+        return getLong(_DISPATCHED_AT);
+    }
+
+    public void setDispatchedAt(Long dispatchedAt) {
+        put(_DISPATCHED_AT, dispatchedAt);
+    }
 }
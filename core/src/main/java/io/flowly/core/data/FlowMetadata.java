@@ -28,6 +28,11 @@ public class FlowMetadata extends JsonObject {
     public static final String FLOW_ID = "flowId";
     public static final String APP_ID = "appId";
     public static final String FLOW_TYPE = "flowType";
+    public static final String PERSISTENCE = "persistence";
+
+    // Persistence modes - write every step or only the wait states of an instance to the graph.
+    public static final String PERSISTENCE_ALL = "all";
+    public static final String PERSISTENCE_WAIT_STATES = "waitStates";
 
     protected static final String FLOW_TYPE_PROCESS = "Process";
 
@@ -67,6 +72,22 @@ public class FlowMetadata extends JsonObject {
         put(APP_ID, appId);
     }
 
+    public String getPersistence() {
+        return getString(PERSISTENCE, PERSISTENCE_ALL);
+    }
+
+    public void setPersistence(String persistence) {
+        put(PERSISTENCE, persistence);
+    }
+
+    /**
+     * @return true if only the wait states (user interactions, sub-flow boundaries, failures and completion)
+     *         of the flow's instances are to be written to the graph.
+     */
+    public boolean persistWaitStatesOnly() {
+        return PERSISTENCE_WAIT_STATES.equals(getPersistence());
+    }
+
     public boolean persistenceEnabled() {
         String flowType = getFlowType();
         return flowType != null && flowType.equals(FLOW_TYPE_PROCESS);
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.core.data.manager;
+
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token used to page through sorted vertices (or edges) without skipping the earlier pages.
+ * Holds the sort key and the vertex id of the last record of a page - the next page starts right after it.
+ * Clients receive and return the token as an opaque string.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class Cursor {
+    private static final String KEY = "k";
+    private static final String ID = "i";
+
+    private Object key;
+    private Long id;
+
+    public Cursor(Object key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * @param token the continuation token returned with the previous page.
+     * @return the cursor or null if the token is empty (first page).
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            JsonObject cursor = new JsonObject(new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8));
+            return new Cursor(cursor.getValue(KEY), cursor.getLong(ID));
+        }
+        catch (Exception ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+
+    public String encode() {
+        String cursor = new JsonObject().put(KEY, key).put(ID, id).encode();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public String getStringKey() {
+        return (String) key;
+    }
+
+    public long getLongKey() {
+        return ((Number) key).longValue();
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -21,7 +21,9 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -33,9 +35,19 @@ public abstract class GraphManager {
     protected static final int ADDITIONAL_RECORDS = 1;
     private static final Logger logger = LoggerFactory.getLogger(GraphManager.class);
 
+    // Set while the current thread applies a batch of writes in a single transaction.
+    // Holds true if any write in the batch rolled back the transaction.
+    private static final ThreadLocal<Boolean> batchRolledBack = new ThreadLocal<>();
+
+    // Actions of the current thread's batch that are to be run once the batch is committed.
+    private static final ThreadLocal<List<Runnable>> batchCommitActions = new ThreadLocal<>();
+
     private Boolean supportsTransactions;
     protected Graph graph;
 
+    // Actions that are to be run once the pending writes of this manager are committed.
+    private List<Runnable> commitActions = new ArrayList<>();
+
     public GraphManager(Graph graph) {
         this.graph = Objects.requireNonNull(graph, "Manager cannot be constructed without a graph.");
         this.supportsTransactions = graph.features().graph().supportsTransactions();
@@ -104,15 +116,86 @@ public abstract class GraphManager {
         element.property(propertyName, value);
     }
 
+    /**
+     * Defer the commits of all graph managers on the current thread until {@link #endBatch()} is called.
+     * The owner of the batch is responsible for committing the transaction.
+     */
+    public static void beginBatch() {
+        batchRolledBack.set(false);
+        batchCommitActions.set(new ArrayList<>());
+    }
+
+    /**
+     * Run the actions that were deferred by the writes of the current thread's batch.
+     * Must be called by the owner of the batch after the transaction is committed.
+     */
+    public static void commitBatch() {
+        List<Runnable> actions = batchCommitActions.get();
+
+        if (actions != null) {
+            batchCommitActions.set(new ArrayList<>());
+
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * @return true if a write in the current thread's batch rolled back the shared transaction.
+     */
+    public static boolean isBatchRolledBack() {
+        Boolean rolledBack = batchRolledBack.get();
+        return rolledBack != null && rolledBack;
+    }
+
+    public static void endBatch() {
+        batchRolledBack.remove();
+        batchCommitActions.remove();
+    }
+
     protected void commit() {
-        if (supportsTransactions) {
+        if (supportsTransactions && batchRolledBack.get() == null) {
             graph.tx().commit();
         }
+
+        if (commitActions.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> actions = commitActions;
+        commitActions = new ArrayList<>();
+        List<Runnable> batchActions = batchCommitActions.get();
+
+        if (batchActions != null) {
+            batchActions.addAll(actions);
+        }
+        else {
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * Run an action once the pending writes are committed. The action is dropped if the writes are rolled back.
+     * In a batch, the action is deferred until the whole batch is committed.
+     *
+     * @param action the action to run, ex: update an in-memory view of the graph.
+     */
+    protected void afterCommit(Runnable action) {
+        commitActions.add(action);
     }
 
     protected void rollback() {
+        commitActions.clear();
+
         if (supportsTransactions) {
             graph.tx().rollback();
         }
+
+        if (batchRolledBack.get() != null) {
+            batchRolledBack.set(true);
+        }
     }
 }
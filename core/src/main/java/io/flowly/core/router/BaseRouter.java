@@ -14,6 +14,7 @@
 package io.flowly.core.router;
 
 import io.flowly.core.ObjectKeys;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerResponse;
@@ -32,6 +33,7 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
  */
 public abstract class BaseRouter {
     public static final String CONTENT_LENGTH = "Content-Length";
+    public static final String CONTENT_TYPE = "Content-Type";
     public static final String JSON_CONTENT_TYPE = "application/json";
 
     private static final Logger logger = LoggerFactory.getLogger(BaseRouter.class);
@@ -44,10 +46,22 @@ public abstract class BaseRouter {
         this.eventBus = eventBus;
     }
 
+    /**
+     * Get the paging arguments of a search request. If the request holds a cursor (empty for the first page),
+     * the search pages by cursor and replies with the results and the cursor to the next page.
+     */
     protected JsonObject getSearchArgs(RoutingContext routingContext) {
         JsonObject args = new JsonObject();
-        args.put(ObjectKeys.PAGE_NUMBER,
-                Integer.parseInt(routingContext.request().getParam(ObjectKeys.PAGE_NUMBER)));
+        String cursor = routingContext.request().getParam(ObjectKeys.CURSOR);
+
+        if (cursor != null) {
+            args.put(ObjectKeys.CURSOR, cursor);
+        }
+        else {
+            args.put(ObjectKeys.PAGE_NUMBER,
+                    Integer.parseInt(routingContext.request().getParam(ObjectKeys.PAGE_NUMBER)));
+        }
+
         args.put(ObjectKeys.PAGE_SIZE,
                 Integer.parseInt(routingContext.request().getParam(ObjectKeys.PAGE_SIZE)));
 
@@ -79,11 +93,16 @@ public abstract class BaseRouter {
     protected void prepareSearchRoute(String path, String address, String errorMessage) {
         router.route(HttpMethod.GET, path).handler(requestHandler -> {
             try {
-                eventBus.<JsonArray>send(address, getSearchArgs(requestHandler), reply -> {
-                    JsonArray results = reply.result().body();
+                eventBus.send(address, getSearchArgs(requestHandler), reply -> {
+                    Object results = reply.result().body();
 
-                    if (results != null) {
-                        writeSuccessResponse(requestHandler, results.encode(), true);
+                    // Encode the results one at a time instead of encoding the whole page first.
+                    if (results instanceof JsonObject) {
+                        SearchStream.writePage(requestHandler.response(), (JsonObject) results, ObjectKeys.RESULTS);
+                    }
+                    else if (results instanceof JsonArray) {
+                        requestHandler.response().end(SearchStream.appendResults(Buffer.buffer(),
+                                (JsonArray) results));
                     }
                     else {
                         writeErrorResponse(requestHandler, errorMessage);
@@ -97,6 +116,29 @@ public abstract class BaseRouter {
         });
     }
 
+    /**
+     * Stream all the search results, a chunk (page size) at a time, as a single JSON array.
+     * The search handler must support paging by cursor.
+     */
+    protected void prepareExportRoute(String path, String address, String errorMessage) {
+        router.route(HttpMethod.GET, path).handler(requestHandler -> {
+            try {
+                JsonObject args = new JsonObject();
+                String pageSize = requestHandler.request().getParam(ObjectKeys.PAGE_SIZE);
+
+                if (pageSize != null) {
+                    args.put(ObjectKeys.PAGE_SIZE, Integer.parseInt(pageSize));
+                }
+
+                new SearchStream(eventBus, address, args, ObjectKeys.RESULTS, requestHandler.response()).start();
+            }
+            catch (Exception ex) {
+                logger.error(errorMessage, ex);
+                writeErrorResponse(requestHandler, errorMessage);
+            }
+        });
+    }
+
     public static void writeSuccessResponse(RoutingContext routingContext, String body, boolean chunked) {
         HttpServerResponse response = routingContext.response();
 
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.core.router;
+
+import io.flowly.core.ObjectKeys;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Streams all the results of a cursor search to a chunked HTTP response as a single JSON array.
+ * Results are fetched a chunk at a time and the next chunk is requested only after the previous
+ * one is handed to the response, so that memory depends on the chunk size and not on the result size.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class SearchStream {
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchStream.class);
+
+    private EventBus eventBus;
+    private String address;
+    private JsonObject args;
+    private String resultsKey;
+    private HttpServerResponse response;
+
+    private boolean written;
+    private boolean closed;
+
+    /**
+     * @param eventBus the event bus used to request the chunks.
+     * @param address the address of the search handler that pages by cursor.
+     * @param args the search arguments. The page size is the chunk size.
+     * @param resultsKey the key that holds the results in a page.
+     * @param response the response to which the results are streamed.
+     */
+    public SearchStream(EventBus eventBus, String address, JsonObject args, String resultsKey,
+                        HttpServerResponse response) {
+        this.eventBus = eventBus;
+        this.address = address;
+        this.args = args;
+        this.resultsKey = resultsKey;
+        this.response = response;
+
+        if (!args.containsKey(ObjectKeys.PAGE_SIZE)) {
+            args.put(ObjectKeys.PAGE_SIZE, DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    public void start() {
+        response.setChunked(true);
+        response.putHeader(BaseRouter.CONTENT_TYPE, BaseRouter.JSON_CONTENT_TYPE);
+        response.closeHandler(v -> closed = true);
+
+        // An empty cursor gets the first page.
+        fetch("");
+    }
+
+    /**
+     * Write a page to the response without encoding it into a single string.
+     * Each result is encoded on its own into the buffer that is written.
+     *
+     * @param response the response to write to. The response is ended.
+     * @param page the page that holds the results and any other (small) paging attributes.
+     * @param resultsKey the key that holds the results in the page.
+     */
+    public static void writePage(HttpServerResponse response, JsonObject page, String resultsKey) {
+        JsonArray results = (JsonArray) page.remove(resultsKey);
+        String attributes = page.encode();
+
+        Buffer buffer = Buffer.buffer();
+        buffer.appendString(attributes.substring(0, attributes.length() - 1));
+        buffer.appendString((page.size() > 0 ? "," : "") + "\"" + resultsKey + "\":");
+        appendResults(buffer, results);
+        response.end(buffer.appendString("}"));
+    }
+
+    /**
+     * Append a list of results to a buffer as a JSON array, one result at a time.
+     *
+     * @return the buffer.
+     */
+    public static Buffer appendResults(Buffer buffer, JsonArray results) {
+        buffer.appendString("[");
+
+        if (results != null) {
+            appendRows(buffer, results);
+        }
+
+        return buffer.appendString("]");
+    }
+
+    private void fetch(String cursor) {
+        eventBus.<JsonObject>send(address, args.copy().put(ObjectKeys.CURSOR, cursor), reply -> {
+            if (closed) {
+                return;
+            }
+
+            JsonObject page = reply.succeeded() ? reply.result().body() : null;
+            if (page == null) {
+                fail(reply.succeeded() ? "Search failed: " + address : reply.cause().getMessage());
+                return;
+            }
+
+            // Each chunk is written to the response at once.
+            Buffer chunk = Buffer.buffer();
+            JsonArray results = page.getJsonArray(resultsKey);
+
+            if (results != null && !results.isEmpty()) {
+                appendRows(chunk.appendString(written ? "," : "["), results);
+                written = true;
+            }
+
+            String nextCursor = page.getString(ObjectKeys.NEXT_CURSOR);
+            if (nextCursor == null) {
+                response.end(chunk.appendString(written ? "]" : "[]"));
+                return;
+            }
+
+            if (chunk.length() > 0) {
+                response.write(chunk);
+            }
+
+            if (response.writeQueueFull()) {
+                // Request the next chunk once the client has caught up.
+                response.drainHandler(v -> {
+                    response.drainHandler(null);
+                    fetch(nextCursor);
+                });
+            }
+            else {
+                fetch(nextCursor);
+            }
+        });
+    }
+
+    private void fail(String message) {
+        logger.error("Unable to stream search results: " + message);
+
+        if (written) {
+            // The status is already sent, so close the connection to signal an incomplete array.
+            response.close();
+        }
+        else {
+            response.setStatusCode(500).end(message);
+        }
+    }
+
+    private static void appendRows(Buffer buffer, JsonArray rows) {
+        boolean first = true;
+
+        for (Object row : rows) {
+            if (!first) {
+                buffer.appendString(",");
+            }
+
+            buffer.appendString(row instanceof JsonObject ? ((JsonObject) row).encode() :
+                    row instanceof JsonArray ? ((JsonArray) row).encode() : Json.encode(row));
+            first = false;
+        }
+    }
+}
@@ -25,6 +25,10 @@ public class ClusterAddresses {
 
     public static final String START_FLOW_INSTANCE = "io.flowly.engine:flow.instance.start";
 
+    public static final String GET_FLOW_ADMISSION_STATS = "io.flowly.engine:flow.admission.stats";
+
+    public static final String GET_FLOW_METRICS = "io.flowly.engine:flow.metrics";
+
     public static final String START_FLOW_INSTANCE_TASK = "io.flowly.engine:flow.instance.task.start";
 
     public static final String SAVE_FLOW_INSTANCE_TASK = "io.flowly.engine:flow.instance.task.save";
@@ -36,4 +40,12 @@ public class ClusterAddresses {
     public static final String GET_USER_INBOX = "io.flowly.repo:user.inbox";
 
     public static final String GET_USER_FLOWS = "io.flowly.repo:user.flows";
+
+    public static final String FLOW_LIFECYCLE_EVENT = "io.flowly.engine:flow.event.lifecycle";
+
+    public static final String INBOX_EVENT = "io.flowly.repo:user.inbox.event";
+
+    public static final String GET_SUBJECT_PERMISSIONS = "io.flowly.auth:subject.permissions";
+
+    public static final String PERMISSIONS_CHANGED_EVENT = "io.flowly.auth:permissions.event.changed";
 }
@@ -38,8 +38,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class VerticleUtils {
     /**
-     * Recursively deploy a list of verticles. Fails fast, i.e. if a verticle fails, the remaining verticles
-     * are not deployed.
+     * Deploy a list of verticles, one after the other. Fails fast, i.e. if a verticle fails, the remaining
+     * verticles are not deployed.
      *
      * @param verticleDeployments the stack of verticles to be deployed. By the end of the method execution
      *                            the stack will most likely become empty.
@@ -50,10 +50,33 @@ public class VerticleUtils {
     public static void deployVerticles(Stack<VerticleDeployment> verticleDeployments,
                                        Set<JsonObject> deployedVerticles,
                                        Vertx vertx, Handler<AsyncResult<Void>> resultHandler) {
+        deployVerticles(verticleDeployments, deployedVerticles, vertx, 1, null, resultHandler);
+    }
+
+    /**
+     * Deploy a list of verticles, with up to the given number of deployments in progress at a time.
+     * Fails fast, i.e. if a verticle fails, the remaining verticles are not deployed. The result handler is
+     * invoked only after the deployments in progress are complete, so that the set of deployed verticles
+     * is final and can be used to roll back.
+     *
+     * @param verticleDeployments the stack of verticles to be deployed. By the end of the method execution
+     *                            the stack will most likely become empty.
+     * @param deployedVerticles set that is used to store the deployment ids of verticles.
+     * @param vertx vertx platform used to deploy verticles.
+     * @param concurrency the maximum number of verticles that are deployed at the same time.
+     * @param progressHandler optional handler that is invoked with the number of verticles deployed so far,
+     *                        after every successful deployment.
+     * @param resultHandler result handler that is invoked after verticle deployments are complete.
+     */
+    public static void deployVerticles(Stack<VerticleDeployment> verticleDeployments,
+                                       Set<JsonObject> deployedVerticles, Vertx vertx, int concurrency,
+                                       Handler<Integer> progressHandler,
+                                       Handler<AsyncResult<Void>> resultHandler) {
         Future<Void> deployedFuture = Future.future();
         deployedFuture.setHandler(resultHandler);
 
-        deployVerticles(verticleDeployments, deployedVerticles, vertx, deployedFuture);
+        new WindowedDeployment(verticleDeployments, deployedVerticles, vertx, progressHandler, deployedFuture).
+                start(Math.max(concurrency, 1));
     }
 
     /**
@@ -102,35 +125,6 @@ public class VerticleUtils {
         recursivelyRegisterHandlers(eventBus, logger, registrations, future);
     }
 
-    private static void deployVerticles(Stack<VerticleDeployment> verticleDeployments,
-                                        Set<JsonObject> deployedVerticles,
-                                        Vertx vertx, Future<Void> deployedFuture) {
-        VerticleDeployment verticleDeployment = verticleDeployments.pop();
-
-        vertx.deployVerticle(verticleDeployment.getName(), verticleDeployment.getDeploymentOptions(), d -> {
-            if (d.succeeded()) {
-                // Add the deployment id to the provided map.
-                if (deployedVerticles != null) {
-                    JsonObject deployedVerticle = new JsonObject().
-                            put(ObjectKeys.ID, verticleDeployment.getId()).
-                            put(ObjectKeys.DEPLOYMENT_ID, d.result());
-                    deployedVerticles.add(deployedVerticle);
-                }
-
-                // Convey success if all verticle deployments are complete.
-                if (verticleDeployments.empty()) {
-                    deployedFuture.complete();
-                } else {
-                    deployVerticles(verticleDeployments, deployedVerticles, vertx, deployedFuture);
-                }
-            }
-            // Fail fast - if any of the verticle deployment fails, stop further processing.
-            else {
-                deployedFuture.fail(d.cause());
-            }
-        });
-    }
-
     private static void undeployVerticles(Iterator<String> deployementIds, Vertx vertx,
                                           Future<Void> undeployedFuture) {
         // Ensure that vertx platform has the deployment ids.
@@ -198,4 +192,104 @@ public class VerticleUtils {
             future.complete();
         }
     }
+
+    /**
+     * Deploys the verticles of a stack within a window of concurrent deployments.
+     * Deployment callbacks and the thread that starts the deployments may run at the same time,
+     * hence the state is guarded by the deployment object.
+     */
+    private static class WindowedDeployment {
+        private final Stack<VerticleDeployment> verticleDeployments;
+        private final Set<JsonObject> deployedVerticles;
+        private final Vertx vertx;
+        private final Handler<Integer> progressHandler;
+        private final Future<Void> deployedFuture;
+
+        private int inProgress;
+        private int deployed;
+        private Throwable failure;
+
+        private WindowedDeployment(Stack<VerticleDeployment> verticleDeployments, Set<JsonObject> deployedVerticles,
+                                   Vertx vertx, Handler<Integer> progressHandler, Future<Void> deployedFuture) {
+            this.verticleDeployments = verticleDeployments;
+            this.deployedVerticles = deployedVerticles;
+            this.vertx = vertx;
+            this.progressHandler = progressHandler;
+            this.deployedFuture = deployedFuture;
+        }
+
+        private void start(int concurrency) {
+            if (verticleDeployments.empty()) {
+                deployedFuture.complete();
+                return;
+            }
+
+            for (int i = 0; i < concurrency; i++) {
+                if (!deployNext()) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * @return false if there are no more verticles to deploy or a deployment failed.
+         */
+        private boolean deployNext() {
+            VerticleDeployment verticleDeployment;
+
+            synchronized (this) {
+                if (failure != null || verticleDeployments.empty()) {
+                    return false;
+                }
+
+                verticleDeployment = verticleDeployments.pop();
+                inProgress++;
+            }
+
+            vertx.deployVerticle(verticleDeployment.getName(), verticleDeployment.getDeploymentOptions(),
+                    d -> deployed(verticleDeployment, d));
+            return true;
+        }
+
+        private void deployed(VerticleDeployment verticleDeployment, AsyncResult<String> d) {
+            int deployedCount;
+            boolean complete;
+
+            synchronized (this) {
+                inProgress--;
+
+                if (d.succeeded()) {
+                    deployed++;
+
+                    // Add the deployment id to the provided set.
+                    if (deployedVerticles != null) {
+                        deployedVerticles.add(new JsonObject().
+                                put(ObjectKeys.ID, verticleDeployment.getId()).
+                                put(ObjectKeys.DEPLOYMENT_ID, d.result()));
+                    }
+                }
+                // Fail fast - if any of the verticle deployment fails, stop further processing.
+                else if (failure == null) {
+                    failure = d.cause();
+                }
+
+                deployedCount = deployed;
+                complete = inProgress == 0 && (failure != null || verticleDeployments.empty());
+            }
+
+            if (d.succeeded() && progressHandler != null) {
+                progressHandler.handle(deployedCount);
+            }
+
+            if (!complete) {
+                deployNext();
+            }
+            else if (failure != null) {
+                deployedFuture.fail(failure);
+            }
+            else {
+                deployedFuture.complete();
+            }
+        }
+    }
 }
@@ -16,6 +16,8 @@ package io.flowly.core.codecs;
 import io.flowly.core.data.FlowInstance;
 import io.flowly.core.data.FlowInstanceMetadata;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,7 +46,42 @@ public class FlowInstanceCodecTest {
         Buffer buffer = Buffer.buffer();
         codec.encodeToWire(buffer, instance);
 
-        Assert.assertEquals("Encoded flow instance length not as expected  ", 205, buffer.length());
+        Assert.assertEquals("Encoded flow instance length not as expected  ", 122, buffer.length());
+    }
+
+    @Test
+    public void encodeObjectToWireAsJsonTest() {
+        Buffer buffer = Buffer.buffer();
+        new FlowInstanceCodec(true).encodeToWire(buffer, instance);
+
+        // Format byte followed by the JSON string.
+        Assert.assertEquals("Encoded flow instance length not as expected  ", 206, buffer.length());
+        assertFlowInstance(codec.decodeFromWire(0, buffer));
+    }
+
+    @Test
+    public void decodeObjectAtOffsetTest() {
+        Buffer buffer = Buffer.buffer().appendInt(7);
+        codec.encodeToWire(buffer, instance);
+        assertFlowInstance(codec.decodeFromWire(4, buffer));
+    }
+
+    @Test
+    public void decodeValueTypesTest() {
+        JsonObject data = instance.getData();
+        data.put("long", 1L << 40).put("double", 1.5).put("boolean", false).putNull("null").
+                put("unicode", "caf\u00e9 \u20ac \ud83d\ude00").
+                put("nested", new JsonObject().put("array", new JsonArray().add(1).add("two").addNull()));
+        instance.getMetadata().getCurrentStep().addConnectingObjectId("1006");
+
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, instance);
+        FlowInstance decoded = codec.decodeFromWire(0, buffer);
+
+        assertFlowInstance(decoded);
+        Assert.assertEquals("Decoded data not as expected.", data, decoded.getData());
+        Assert.assertEquals("Decoded connecting object ids not as expected.", "1006",
+                decoded.getMetadata().getCurrentStep().getConnectingObjectIds().get(0));
     }
 
     @Test
@@ -37,14 +37,18 @@ public class FlowInstanceMetadataCodecTest {
         assertFlowInstanceMetadata(codec.transform(instanceMetadata));
     }
 
-    @Test(expected = IllegalStateException.class)
-    public void encodeObjectToWireTest() {
-        codec.encodeToWire(Buffer.buffer(), instanceMetadata);
+    @Test
+    public void decodeObjectFromWireTest() {
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, instanceMetadata);
+        assertFlowInstanceMetadata(codec.decodeFromWire(0, buffer));
     }
 
-    @Test(expected = IllegalStateException.class)
-    public void decodeObjectFromWireTest() {
-        codec.decodeFromWire(0, Buffer.buffer());
+    @Test
+    public void decodeObjectFromWireAsJsonTest() {
+        Buffer buffer = Buffer.buffer();
+        new FlowInstanceMetadataCodec(true).encodeToWire(buffer, instanceMetadata);
+        assertFlowInstanceMetadata(codec.decodeFromWire(0, buffer));
     }
 
     protected static void assertFlowInstanceMetadata(FlowInstanceMetadata instanceMetadata) {
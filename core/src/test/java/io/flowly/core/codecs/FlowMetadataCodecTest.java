@@ -41,7 +41,17 @@ public class FlowMetadataCodecTest {
         Buffer buffer = Buffer.buffer();
         codec.encodeToWire(buffer, metadata);
 
-        Assert.assertEquals("Encoded flow metadata length not as expected  ", 65, buffer.length());
+        Assert.assertEquals("Encoded flow metadata length not as expected  ", 46, buffer.length());
+    }
+
+    @Test
+    public void encodeObjectToWireAsJsonTest() {
+        Buffer buffer = Buffer.buffer();
+        new FlowMetadataCodec(true).encodeToWire(buffer, metadata);
+
+        // Format byte followed by the JSON string.
+        Assert.assertEquals("Encoded flow metadata length not as expected  ", 66, buffer.length());
+        assertFlowMetadata(codec.decodeFromWire(0, buffer));
     }
 
     @Test
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.core.data.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class CursorTest {
+    @Test
+    public void testRoundTrip() {
+        Cursor cursor = Cursor.decode(new Cursor(1443139200000L, 42L).encode());
+
+        Assert.assertEquals(1443139200000L, cursor.getLongKey());
+        Assert.assertEquals(42L, cursor.getId().longValue());
+        Assert.assertEquals("Studio", Cursor.decode(new Cursor("Studio", 7L).encode()).getStringKey());
+    }
+
+    @Test
+    public void testFirstPage() {
+        Assert.assertNull("Empty token should start at the first page.", Cursor.decode(""));
+        Assert.assertNull(Cursor.decode(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedToken() {
+        Cursor.decode("not a cursor");
+    }
+}
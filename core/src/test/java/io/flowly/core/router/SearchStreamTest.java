@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.core.router;
+
+import io.flowly.core.BaseTestWithVertx;
+import io.flowly.core.ObjectKeys;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.Router;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class SearchStreamTest extends BaseTestWithVertx {
+    private static final String SEARCH_ADDRESS = "io.flowly.core:test.search";
+    private static final int PORT = 8089;
+    private static final int ROW_COUNT = 5;
+
+    private List<Integer> chunkSizes;
+
+    @Before
+    public void setUp(TestContext context) {
+        super.setUp();
+        chunkSizes = new ArrayList<>();
+
+        // Pages by cursor, where the cursor is the index of the next row.
+        vertx.eventBus().<JsonObject>consumer(SEARCH_ADDRESS, message -> {
+            String cursor = message.body().getString(ObjectKeys.CURSOR);
+            int from = cursor.isEmpty() ? 0 : Integer.parseInt(cursor);
+            int to = Math.min(from + message.body().getInteger(ObjectKeys.PAGE_SIZE), ROW_COUNT);
+
+            JsonArray results = new JsonArray();
+            for (int i = from; i < to; i++) {
+                results.add(new JsonObject().put("id", i));
+            }
+
+            chunkSizes.add(results.size());
+            JsonObject page = new JsonObject().put(ObjectKeys.RESULTS, results);
+
+            if (to < ROW_COUNT) {
+                page.put(ObjectKeys.NEXT_CURSOR, String.valueOf(to));
+            }
+
+            message.reply(page);
+        });
+
+        Router router = Router.router(vertx);
+        router.route("/export").handler(routingContext -> new SearchStream(vertx.eventBus(), SEARCH_ADDRESS,
+                new JsonObject().put(ObjectKeys.PAGE_SIZE, 2), ObjectKeys.RESULTS, routingContext.response()).
+                start());
+        router.route("/page").handler(routingContext -> SearchStream.writePage(routingContext.response(),
+                new JsonObject().put(ObjectKeys.NEXT_CURSOR, "2").put(ObjectKeys.RESULTS,
+                        new JsonArray().add(new JsonObject().put("id", 0)).add(new JsonObject().put("id", 1))),
+                ObjectKeys.RESULTS));
+
+        vertx.createHttpServer().requestHandler(router::accept).listen(PORT, context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testStreamAllResults(TestContext context) {
+        Async async = context.async();
+
+        vertx.createHttpClient().getNow(PORT, "localhost", "/export", response -> response.bodyHandler(body -> {
+            JsonArray rows = new JsonArray(body.toString());
+            context.assertEquals(ROW_COUNT, rows.size(), "All rows should be streamed.");
+
+            for (int i = 0; i < ROW_COUNT; i++) {
+                context.assertEquals(i, rows.getJsonObject(i).getInteger("id"));
+            }
+
+            context.assertEquals(3, chunkSizes.size(), "Rows should be fetched a chunk at a time.");
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testWritePage(TestContext context) {
+        Async async = context.async();
+
+        vertx.createHttpClient().getNow(PORT, "localhost", "/page", response -> response.bodyHandler(body -> {
+            JsonObject page = new JsonObject(body.toString());
+            context.assertEquals("2", page.getString(ObjectKeys.NEXT_CURSOR));
+            context.assertEquals(2, page.getJsonArray(ObjectKeys.RESULTS).size());
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testAppendResults(TestContext context) {
+        JsonArray results = new JsonArray().add(new JsonObject().put("id", 0)).add(new JsonArray().add(1)).add("two");
+        Buffer buffer = SearchStream.appendResults(Buffer.buffer(), results);
+
+        context.assertEquals(results, new JsonArray(buffer.toString()), "Results should be encoded into one buffer.");
+        context.assertEquals("[]", SearchStream.appendResults(Buffer.buffer(), null).toString());
+    }
+}
@@ -68,6 +68,47 @@ public class VerticleUtilsTest extends BaseTestWithVertx {
         });
     }
 
+    @Test
+    public void deployVerticlesConcurrentlyTest(TestContext context) {
+        Async async = context.async();
+        List<Integer> progress = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            deployments.push(new VerticleDeployment("verticle_" + i, BlankVerticle.class.getName(),
+                    new DeploymentOptions()));
+        }
+
+        VerticleUtils.deployVerticles(deployments, deployedVerticles, vertx, 4, progress::add, handler -> {
+            context.assertTrue(handler.succeeded(), "Verticle deployments should succeed.");
+            context.assertEquals(10, deployedVerticles.size(), "Deployed verticles count not as expected.");
+            context.assertEquals(10, progress.size(), "Deployment progress not as expected.");
+            context.assertEquals(10, progress.get(progress.size() - 1), "Deployment progress not as expected.");
+            async.complete();
+        });
+    }
+
+    @Test
+    public void deployVerticlesConcurrentlyFailsTest(TestContext context) {
+        Async async = context.async();
+        deployments.push(new VerticleDeployment("verticle_unknown", "io.flowly.core.verticles.UnknownVerticle",
+                new DeploymentOptions()));
+        deployments.push(new VerticleDeployment("verticle_three", BlankVerticle.class.getName(),
+                new DeploymentOptions()));
+
+        VerticleUtils.deployVerticles(deployments, deployedVerticles, vertx, 2, null, handler -> {
+            context.assertTrue(handler.failed(), "Verticle deployments should fail.");
+
+            // Deployments in progress are complete and can be rolled back.
+            for (JsonObject deployedVerticle : deployedVerticles) {
+                context.assertTrue(vertx.deploymentIDs().contains(
+                        deployedVerticle.getString(ObjectKeys.DEPLOYMENT_ID)), "Verticle should be deployed.");
+            }
+
+            context.assertTrue(deployedVerticles.size() < 3, "Deployed verticles count not as expected.");
+            async.complete();
+        });
+    }
+
     @Test
     public void undeployVerticlesTest(TestContext context) {
         Async async = context.async();
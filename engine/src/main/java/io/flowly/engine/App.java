@@ -27,6 +27,10 @@ import java.util.Objects;
 public class App {
     private static final long DEFAULT_SHARED_LOCK_TIMEOUT = 5000;
 
+    // Execution backends - flows are compiled to JavaScript verticles or interpreted by the engine.
+    public static final String BACKEND_JS = "js";
+    public static final String BACKEND_JAVA = "java";
+
     private String id;
     private String name;
     private String description;
@@ -34,6 +38,7 @@ public class App {
     private String appRootFolder;
     private Boolean locked;
     private long sharedLockTimeout = DEFAULT_SHARED_LOCK_TIMEOUT;
+    private String backend;
 
     public App() {}
 
@@ -100,11 +105,27 @@ public class App {
         this.sharedLockTimeout = sharedLockTimeout;
     }
 
+    /**
+     * @return the execution backend of the app's flows - "js" (default) or "java".
+     */
+    public String getBackend() {
+        return backend != null ? backend : BACKEND_JS;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public boolean isInterpreted() {
+        return getBackend().equals(BACKEND_JAVA);
+    }
+
     public JsonObject toJson() {
         JsonObject jsonObject = new JsonObject();
         jsonObject.put(JsonKeys.APP_ID, getId());
         jsonObject.put(JsonKeys.APPS_DIRECTORY, getAppRootFolder());
         jsonObject.put(JsonKeys.APP_LOCKED, isLocked());
+        jsonObject.put(JsonKeys.APP_BACKEND, getBackend());
 
         return jsonObject;
     }
@@ -112,6 +133,7 @@ public class App {
     public static App toApp(JsonObject jsonObject) {
         App app = new App(jsonObject.getString(JsonKeys.APP_ID), jsonObject.getString(JsonKeys.APPS_DIRECTORY));
         app.setLocked(jsonObject.getBoolean(JsonKeys.APP_LOCKED, false));
+        app.setBackend(jsonObject.getString(JsonKeys.APP_BACKEND));
         return app;
     }
 }
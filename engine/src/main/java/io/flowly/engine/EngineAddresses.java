@@ -33,23 +33,55 @@ public class EngineAddresses extends ClusterAddresses {
 
     public static final String FAIL_FLOW_INSTANCE = "io.flowly.engine:flow.instance.fail";
 
-    public static final String SEND_EMAIL = "io.flowly.engine:email.send";
+    public static final String ADMISSION_TOKENS = "io.flowly.engine:admission.tokens";
 
-    public static final String FLOW_LIFECYCLE_EVENT = "io.flowly.engine:flow.event.lifecycle";
+    public static final String SEND_EMAIL = "io.flowly.engine:email.send";
 
     // Repository addresses.
     public static final String REPO_FLOW_SAVE = "io.flowly.engine:repo.flow.save";
+    public static final String REPO_FLOW_SAVE_BATCH = "io.flowly.engine:repo.flow.save.batch";
     public static final String REPO_FLOW_DELETE = "io.flowly.engine:repo.flow.delete";
     public static final String REPO_FLOW_NEXT_ROUTE = "io.flowly.engine:repo.flow.route.next";
+    public static final String REPO_FLOW_GET_ROUTERS = "io.flowly.engine:repo.flow.routers.get";
     public static final String REPO_FLOW_CREATE_INSTANCE = "io.flowly.engine:repo.flow.create.instance";
     public static final String REPO_FLOW_COMPLETE_INSTANCE = "io.flowly.engine:repo.flow.instance.complete";
     public static final String REPO_FLOW_FAIL_INSTANCE = "io.flowly.engine:repo.flow.instance.fail";
     public static final String REPO_FLOW_SAVE_INSTANCE = "io.flowly.engine:repo.flow.instance.save";
     public static final String REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE = "io.flowly.engine:repo.flow.instance.flowObject.create";
+    public static final String REPO_FLOW_JOIN_FLOW_OBJECT_INSTANCES = "io.flowly.engine:repo.flow.instance.flowObject.join";
+    public static final String REPO_FLOW_RESERVE_FLOW_OBJECT_INSTANCES =
+            "io.flowly.engine:repo.flow.instance.flowObject.reserve";
     public static final String REPO_ASSIGN_TASK = "io.flowly.engine:repo.task.assign";
     public static final String REPO_UPDATE_TASK = "io.flowly.engine:repo.task.update";
+    public static final String REPO_GET_OPEN_TASK_COUNTS = "io.flowly.engine:repo.task.counts.open";
 
     public static String getFlowObjectBusAddress(String appId, String flowObjectId) {
         return appId + Compiler.COLON + flowObjectId;
     }
+
+    /**
+     * Get the address of a repository write handler in the given partition.
+     *
+     * @param address the repository write address.
+     * @param partition the index of the write partition.
+     * @param partitions the number of write partitions. The address is not partitioned if less than 2.
+     * @return the partitioned address.
+     */
+    public static String getRepositoryWriteAddress(String address, int partition, int partitions) {
+        return partitions < 2 ? address : address + Compiler.COLON + partition;
+    }
+
+    /**
+     * Get the address of a repository write handler in the partition that owns the given flow instance.
+     * All writes of an instance go to the same partition, so they are applied in the order they are sent.
+     *
+     * @param address the repository write address.
+     * @param instanceId the flow instance id.
+     * @param partitions the number of write partitions.
+     * @return the partitioned address.
+     */
+    public static String getRepositoryWriteAddress(String address, Long instanceId, int partitions) {
+        int partition = instanceId != null ? (int) Math.abs(instanceId % partitions) : 0;
+        return getRepositoryWriteAddress(address, partition, partitions);
+    }
 }
@@ -24,14 +24,40 @@ public class JsonKeys extends ObjectKeys {
     // Configuration keys that are used to deploy flowly verticles.
     public static final String APPS_DIRECTORY = "apps.directory";
     public static final String APP_LOCKED = "app.locked";
+    public static final String APP_BACKEND = "app.backend";
     public static final String PUBLISH_FLOW_LIFE_CYCLE_EVENTS = "flow.events.lifecycle.publish";
     public static final String SCAN_APPS_ON_KERNEL_START = "kernel.start.apps.scan";
+    public static final String CODEC_JSON = "kernel.codecs.json";
+    public static final String KERNEL_NODE_ROLE = "kernel.node.role";
+    public static final String REPO_BATCH_SIZE = "repo.batch.size";
+    public static final String REPO_BATCH_LINGER_TIME = "repo.batch.linger";
+    public static final String REPO_READ_INSTANCES = "repo.read.instances";
+    public static final String REPO_WRITE_PARTITIONS = "repo.write.partitions";
+    public static final String REPO_WRITE_PARTITION = "repo.write.partition";
+    public static final String REPO_STORAGE_SHARDED = "repo.storage.sharded";
+    public static final String BUILD_FUSE_FLOW_OBJECTS = "build.flowObjects.fuse";
+    public static final String BUILD_PARALLELISM = "build.parallelism";
+    public static final String BUILD_DEPLOY_CONCURRENCY = "build.deploy.concurrency";
+    public static final String BUILD_CACHE_ENABLED = "build.cache.enabled";
+    public static final String ENGINE_MAX_INSTANCES = "engine.instances.max";
+    public static final String ENGINE_MAX_INSTANCES_PER_FLOW = "engine.instances.flow.max";
+    public static final String ENGINE_ADMISSION_QUEUE_SIZE = "engine.admission.queue.size";
+    public static final String ENGINE_ADMISSION_QUEUE_TIMEOUT = "engine.admission.queue.timeout";
+    public static final String ENGINE_METRICS_ENABLED = "engine.metrics.enabled";
+    public static final String ENGINE_JOURNAL_DIRECTORY = "engine.journal.directory";
+    public static final String ENGINE_JOURNAL_SEGMENT_SIZE = "engine.journal.segment.size";
+    public static final String ENGINE_JOURNAL_SYNC_INTERVAL = "engine.journal.sync.interval";
+    public static final String ENGINE_JOURNAL_RESERVE_SIZE = "engine.journal.reserve.size";
+    public static final String ENGINE_PERSISTENCE_WAIT_STATES = "engine.persistence.waitStates";
+    public static final String ENGINE_ASSIGNMENT_STRATEGY = "engine.assignment.strategy";
+    public static final String ENGINE_ASSIGNMENT_GROUPS = "engine.assignment.groups";
+    public static final String ENGINE_ASSIGNMENT_FLOWS = "engine.assignment.flows";
+    public static final String ENGINE_ASSIGNMENT_DEFAULT_GROUP = "engine.assignment.group.default";
 
     // Flow keys
     public static final String INSTANCE = "instance";
 
     // Flow event keys
-    public static final String FLOW_EVENT_TYPE = "flowEventType";
     public static final String FLOW_START_EVENT = "flowStartEvent";
     public static final String FLOW_COMPLETE_EVENT = "flowCompleteEvent";
     public static final String FLOW_FAIL_EVENT = "flowFailEvent";
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.admission;
+
+import io.flowly.core.Failure;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Bounds the number of flow instances that are in flight - globally and per flow.
+ * Start requests that exceed the limits wait in a bounded queue until an instance is released
+ * or the wait times out. Requests are rejected right away once the queue is full.
+ *
+ * An admitted instance stays in flight until each of its parallel tokens is released.
+ *
+ * Not thread safe - must be used from a single (event loop) context.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class AdmissionController {
+    public static final String IN_FLIGHT = "inFlight";
+    public static final String QUEUED = "queued";
+    public static final String FLOWS = "flows";
+
+    private static class Admission {
+        private String flowId;
+        private int tokens = 1;
+
+        Admission(String flowId) {
+            this.flowId = flowId;
+        }
+    }
+
+    private static class Waiter {
+        private String flowId;
+        private Future<Long> future;
+        private long timerId;
+
+        Waiter(String flowId, Future<Long> future) {
+            this.flowId = flowId;
+            this.future = future;
+        }
+    }
+
+    private Vertx vertx;
+    private int maxInstances;
+    private int maxInstancesPerFlow;
+    private int maxQueueSize;
+    private long queueTimeout;
+
+    private long lastAdmissionId;
+
+    // Admitted instances (admission id -> flow id and tokens) and the in-flight count of each flow.
+    private Map<Long, Admission> admitted = new HashMap<>();
+    private Map<String, Integer> flowCounts = new HashMap<>();
+    private LinkedList<Waiter> queue = new LinkedList<>();
+
+    /**
+     * @param vertx the vertx instance used to time out queued requests.
+     * @param maxInstances maximum number of instances in flight. Unlimited if less than 1.
+     * @param maxInstancesPerFlow maximum number of instances of a flow in flight. Unlimited if less than 1.
+     * @param maxQueueSize maximum number of requests waiting to be admitted.
+     * @param queueTimeout time in milliseconds after which a queued request is rejected.
+     */
+    public AdmissionController(Vertx vertx, int maxInstances, int maxInstancesPerFlow, int maxQueueSize,
+                               long queueTimeout) {
+        this.vertx = vertx;
+        this.maxInstances = maxInstances;
+        this.maxInstancesPerFlow = maxInstancesPerFlow;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * Admit a new instance of the given flow. The result handler is invoked with an admission id
+     * that must be released once the instance completes, fails or waits for a user.
+     * Fails with code 3010 if the wait queue is full and with code 3011 if the wait timed out.
+     *
+     * @param flowId the id of the flow whose instance is to be started.
+     * @param resultHandler handler that is invoked once the instance is admitted or rejected.
+     */
+    public void admit(String flowId, Handler<AsyncResult<Long>> resultHandler) {
+        Future<Long> future = Future.future();
+        future.setHandler(resultHandler);
+
+        // Queued requests are admitted as soon as capacity frees up, so they never block a request that fits.
+        if (canAdmit(flowId)) {
+            future.complete(admit(flowId));
+        }
+        else if (queue.size() < maxQueueSize && queueTimeout > 0) {
+            Waiter waiter = new Waiter(flowId, future);
+            queue.add(waiter);
+
+            waiter.timerId = vertx.setTimer(queueTimeout, t -> {
+                if (queue.remove(waiter)) {
+                    waiter.future.fail(new Failure(3011, "Timed out waiting to start an instance of flow: " +
+                            flowId + ", in flight: " + getInFlightCount()));
+                }
+            });
+        }
+        else {
+            future.fail(new Failure(3010, "Too many instances in flight. Rejected instance of flow: " + flowId +
+                    ", in flight: " + getInFlightCount() + ", queued: " + getQueuedCount()));
+        }
+    }
+
+    /**
+     * Add the parallel tokens that an admitted instance splits into. Each token has to be released.
+     *
+     * @param admissionId the id returned when the instance was admitted. Can be null.
+     * @param tokens the number of tokens added to the instance.
+     * @return true if the admission id is in flight.
+     */
+    public boolean fork(Long admissionId, int tokens) {
+        Admission admission = admissionId != null ? admitted.get(admissionId) : null;
+
+        if (admission == null) {
+            return false;
+        }
+
+        admission.tokens += tokens;
+        return true;
+    }
+
+    /**
+     * Release a token of an admitted instance. Once the last token is released, the instance is no longer
+     * in flight and the queued requests that fit in the freed capacity are admitted.
+     * Releasing an unknown or already released admission id has no effect.
+     *
+     * @param admissionId the id returned when the instance was admitted. Can be null.
+     * @return true if the last token was released.
+     */
+    public boolean release(Long admissionId) {
+        Admission admission = admissionId != null ? admitted.get(admissionId) : null;
+
+        if (admission == null || --admission.tokens > 0) {
+            return false;
+        }
+
+        admitted.remove(admissionId);
+        String flowId = admission.flowId;
+
+        int count = flowCounts.get(flowId) - 1;
+        if (count == 0) {
+            flowCounts.remove(flowId);
+        }
+        else {
+            flowCounts.put(flowId, count);
+        }
+
+        admitQueued();
+        return true;
+    }
+
+    public int getInFlightCount() {
+        return admitted.size();
+    }
+
+    public int getInFlightCount(String flowId) {
+        Integer count = flowCounts.get(flowId);
+        return count != null ? count : 0;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return the in-flight and queued counts, along with the in-flight count of each flow.
+     */
+    public JsonObject toJson() {
+        JsonObject flows = new JsonObject();
+        for (Map.Entry<String, Integer> flowCount : flowCounts.entrySet()) {
+            flows.put(flowCount.getKey(), flowCount.getValue());
+        }
+
+        return new JsonObject().
+                put(IN_FLIGHT, getInFlightCount()).
+                put(QUEUED, getQueuedCount()).
+                put(FLOWS, flows);
+    }
+
+    private void admitQueued() {
+        Iterator<Waiter> iterator = queue.iterator();
+
+        while (iterator.hasNext() && hasCapacity()) {
+            Waiter waiter = iterator.next();
+
+            if (canAdmit(waiter.flowId)) {
+                iterator.remove();
+                vertx.cancelTimer(waiter.timerId);
+                waiter.future.complete(admit(waiter.flowId));
+            }
+        }
+    }
+
+    private Long admit(String flowId) {
+        Long admissionId = ++lastAdmissionId;
+        admitted.put(admissionId, new Admission(flowId));
+        flowCounts.put(flowId, getInFlightCount(flowId) + 1);
+
+        return admissionId;
+    }
+
+    private boolean hasCapacity() {
+        return maxInstances < 1 || admitted.size() < maxInstances;
+    }
+
+    private boolean canAdmit(String flowId) {
+        return hasCapacity() && (maxInstancesPerFlow < 1 || getInFlightCount(flowId) < maxInstancesPerFlow);
+    }
+}
@@ -26,6 +26,7 @@ import java.util.List;
  */
 public abstract class BasicFlow extends BasicFlowObject implements Flow {
     private App app;
+    private String persistence;
     private List<Variable> variables = new ArrayList<>();
     private List<FlowObject> flowObjects = new ArrayList<>();
     private List<ConnectingObject> connectingObjects = new LinkedList<>();
@@ -49,6 +50,16 @@ public abstract class BasicFlow extends BasicFlowObject implements Flow {
         this.app = app;
     }
 
+    @Override
+    public String getPersistence() {
+        return persistence;
+    }
+
+    @Override
+    public void setPersistence(String persistence) {
+        this.persistence = persistence;
+    }
+
     @Override
     public List<Variable> getVariables() {
         return variables;
@@ -14,6 +14,7 @@
 package io.flowly.engine.assets;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,10 @@ public class CompiledFlow {
 
     private List<FlowObject> endEvents = new ArrayList<>();
     Map<String, FlowObject> flowObjectMap;
+
+    // Connecting objects keyed by the flow object they leave from and arrive at.
+    private Map<String, List<ConnectingObject>> outgoingMap;
+    private Map<String, List<ConnectingObject>> incomingMap;
     private String flowId;
     private String invalidMessage;
 
@@ -46,6 +51,14 @@ public class CompiledFlow {
                 endEvents.add(flowObject);
             }
         }
+
+        outgoingMap = new HashMap<>();
+        incomingMap = new HashMap<>();
+
+        for (ConnectingObject connectingObject : flow.getConnectingObjects()) {
+            addConnectingObject(outgoingMap, connectingObject.getFromId(), connectingObject);
+            addConnectingObject(incomingMap, connectingObject.getToId(), connectingObject);
+        }
     }
 
     public FlowObject getStartEvent() {
@@ -60,6 +73,24 @@ public class CompiledFlow {
         return flowObjectMap;
     }
 
+    /**
+     * @param flowObjectId the flow object id.
+     * @return the connecting objects that leave from the given flow object.
+     */
+    public List<ConnectingObject> getOutgoing(String flowObjectId) {
+        List<ConnectingObject> outgoing = outgoingMap.get(flowObjectId);
+        return outgoing != null ? outgoing : Collections.emptyList();
+    }
+
+    /**
+     * @param flowObjectId the flow object id.
+     * @return the connecting objects that arrive at the given flow object.
+     */
+    public List<ConnectingObject> getIncoming(String flowObjectId) {
+        List<ConnectingObject> incoming = incomingMap.get(flowObjectId);
+        return incoming != null ? incoming : Collections.emptyList();
+    }
+
     public boolean isValid() {
         invalidMessage = null;
 
@@ -79,4 +110,16 @@ public class CompiledFlow {
     public String getInvalidMessage() {
         return invalidMessage;
     }
+
+    private void addConnectingObject(Map<String, List<ConnectingObject>> connectingObjectMap, String flowObjectId,
+                                     ConnectingObject connectingObject) {
+        List<ConnectingObject> connectingObjects = connectingObjectMap.get(flowObjectId);
+
+        if (connectingObjects == null) {
+            connectingObjects = new ArrayList<>();
+            connectingObjectMap.put(flowObjectId, connectingObjects);
+        }
+
+        connectingObjects.add(connectingObject);
+    }
 }
@@ -27,6 +27,12 @@ public interface Flow extends FlowObject {
     App getApp();
     void setApp(App app);
 
+    /**
+     * @return the persistence mode of the flow's instances - "all" (default) or "waitStates".
+     */
+    String getPersistence();
+    void setPersistence(String persistence);
+
     List<Variable> getVariables();
     void addVariable(Variable variable);
 
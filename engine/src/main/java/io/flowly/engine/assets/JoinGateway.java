@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assets;
+
+import io.flowly.engine.compilers.Compiler;
+
+/**
+ * Represents a gateway that synchronizes the parallel tokens of a flow instance.
+ * The flow moves forward with a single token once all incoming tokens arrive at the gateway.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class JoinGateway extends BasicFlowObject {
+    public JoinGateway() {
+    }
+
+    public JoinGateway(String id, String name, String description, String type) {
+        super(id, name, description, type);
+    }
+
+    @Override
+    public void compile(Compiler compiler, Flow flow, StringBuilder output) {
+        compiler.compile(this, flow, output);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import io.flowly.engine.JsonKeys;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the subject that is assigned a user task among the members of the flow's candidate group.
+ * The open tasks of each subject are the counts that the engine fetches from the repository's inbox index
+ * for the candidates, plus the assignments that are on their way to the repository.
+ *
+ * Candidate groups are configured by the engine:
+ * <pre>
+ * "engine.assignment.strategy": "least-loaded" | "round-robin" | "weighted",
+ * "engine.assignment.groups": {"reviewers": {"alice": 2, "bob": 1}},
+ * "engine.assignment.flows": {"1429373120533": "reviewers"},
+ * "engine.assignment.group.default": "reviewers"
+ * </pre>
+ * Without a candidate group, tasks are assigned to the admin user.
+ *
+ * Not thread safe - must be used from a single (event loop) context.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class AssignmentService {
+    private AssignmentStrategy strategy;
+
+    private Map<String, CandidateGroup> groups = new HashMap<>();
+    private JsonObject flowGroups;
+    private CandidateGroup defaultGroup;
+
+    // Number of assignments of each subject that are not yet acknowledged by the repository.
+    private Map<String, Integer> pending = new HashMap<>();
+
+    /**
+     * @param config the engine configuration that holds the strategy and the candidate groups.
+     */
+    public AssignmentService(JsonObject config) {
+        String strategyName = config.getString(JsonKeys.ENGINE_ASSIGNMENT_STRATEGY, AssignmentStrategy.LEAST_LOADED);
+        strategy = AssignmentStrategy.create(strategyName);
+
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown task assignment strategy: " + strategyName);
+        }
+
+        JsonObject groupConfigs = config.getJsonObject(JsonKeys.ENGINE_ASSIGNMENT_GROUPS, new JsonObject());
+        for (String groupId : groupConfigs.fieldNames()) {
+            CandidateGroup group = new CandidateGroup(groupId, groupConfigs.getJsonObject(groupId));
+
+            if (!group.getMembers().isEmpty()) {
+                groups.put(groupId, group);
+            }
+        }
+
+        flowGroups = config.getJsonObject(JsonKeys.ENGINE_ASSIGNMENT_FLOWS, new JsonObject());
+        defaultGroup = groups.get(config.getString(JsonKeys.ENGINE_ASSIGNMENT_DEFAULT_GROUP));
+
+        if (defaultGroup == null) {
+            defaultGroup = new CandidateGroup(JsonKeys.ADMIN_GROUP_ID, JsonKeys.ADMIN_USER_ID);
+        }
+    }
+
+    /**
+     * @param flowId the id of the flow that the task belongs to.
+     * @return the subject ids of the members of the flow's candidate group.
+     */
+    public List<String> getCandidates(String flowId) {
+        return getGroup(flowId).getMembers();
+    }
+
+    /**
+     * Select the subject that is assigned the next user task of a flow. The assignment counts as an open task
+     * of the subject until it is acknowledged.
+     *
+     * @param flowId the id of the flow that the task belongs to.
+     * @param openTaskCounts the open tasks of the candidates by subject id, as read from the repository.
+     *                       Null if the repository's inbox index is not loaded.
+     * @return the subject id.
+     */
+    public String select(String flowId, JsonObject openTaskCounts) {
+        String subjectId = strategy.select(getGroup(flowId), s -> getOpenTaskCount(s, openTaskCounts));
+        pending.put(subjectId, pending.getOrDefault(subjectId, 0) + 1);
+
+        return subjectId;
+    }
+
+    /**
+     * Acknowledge an assignment once the repository has written (or failed to write) it.
+     *
+     * @param subjectId the subject id returned by {@link #select(String, JsonObject)}.
+     */
+    public void release(String subjectId) {
+        Integer count = pending.get(subjectId);
+
+        if (count == null) {
+            return;
+        }
+
+        if (count > 1) {
+            pending.put(subjectId, count - 1);
+        }
+        else {
+            pending.remove(subjectId);
+        }
+    }
+
+    /**
+     * @param subjectId the subject id.
+     * @param openTaskCounts the open tasks by subject id or null if they are not known.
+     * @return the open and pending tasks of the subject.
+     */
+    public int getOpenTaskCount(String subjectId, JsonObject openTaskCounts) {
+        int count = pending.getOrDefault(subjectId, 0);
+
+        if (openTaskCounts != null) {
+            count += openTaskCounts.getInteger(subjectId, 0);
+        }
+
+        return count;
+    }
+
+    private CandidateGroup getGroup(String flowId) {
+        String groupId = flowId != null ? flowGroups.getString(flowId) : null;
+        return groupId != null && groups.containsKey(groupId) ? groups.get(groupId) : defaultGroup;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Selects the member of a candidate group that is assigned a task.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public interface AssignmentStrategy {
+    String LEAST_LOADED = "least-loaded";
+    String ROUND_ROBIN = "round-robin";
+    String WEIGHTED = "weighted";
+
+    /**
+     * @param group the candidate group, with at least one member.
+     * @param load returns the number of open tasks of a subject.
+     * @return the subject id of the selected member.
+     */
+    String select(CandidateGroup group, ToIntFunction<String> load);
+
+    /**
+     * @param name the name of the strategy.
+     * @return the strategy or null if the name is unknown.
+     */
+    static AssignmentStrategy create(String name) {
+        switch (name) {
+            case LEAST_LOADED:
+                return new LeastLoadedStrategy();
+            case ROUND_ROBIN:
+                return new RoundRobinStrategy();
+            case WEIGHTED:
+                return new WeightedStrategy();
+            default:
+                return null;
+        }
+    }
+}
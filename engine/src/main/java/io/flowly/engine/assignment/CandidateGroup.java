@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of subjects that are candidates for the tasks of a flow, each with a weight (capacity).
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class CandidateGroup {
+    private final String groupId;
+    private final List<String> members = new ArrayList<>();
+    private final Map<String, Integer> weights = new HashMap<>();
+
+    /**
+     * @param groupId the group id.
+     * @param members the subject ids of the members mapped to their weights. Members without a positive weight
+     *                are assigned tasks as if their weight is 1.
+     */
+    public CandidateGroup(String groupId, JsonObject members) {
+        this.groupId = groupId;
+
+        for (String subjectId : members.fieldNames()) {
+            Object weight = members.getValue(subjectId);
+            addMember(subjectId, weight instanceof Number ? ((Number) weight).intValue() : 1);
+        }
+
+        // Members are visited in a predictable order.
+        Collections.sort(this.members);
+    }
+
+    public CandidateGroup(String groupId, String subjectId) {
+        this.groupId = groupId;
+        addMember(subjectId, 1);
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    public int getWeight(String subjectId) {
+        return weights.get(subjectId);
+    }
+
+    private void addMember(String subjectId, int weight) {
+        members.add(subjectId);
+        weights.put(subjectId, Math.max(weight, 1));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Assigns a task to the member with the fewest open tasks. Ties go to the first such member.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class LeastLoadedStrategy implements AssignmentStrategy {
+    @Override
+    public String select(CandidateGroup group, ToIntFunction<String> load) {
+        String selected = null;
+        int minLoad = Integer.MAX_VALUE;
+
+        for (String subjectId : group.getMembers()) {
+            int subjectLoad = load.applyAsInt(subjectId);
+
+            if (subjectLoad < minLoad) {
+                selected = subjectId;
+                minLoad = subjectLoad;
+            }
+        }
+
+        return selected;
+    }
+}
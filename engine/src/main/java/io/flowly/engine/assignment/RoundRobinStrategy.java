@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Assigns tasks to the members of a group in turn, regardless of their open tasks.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class RoundRobinStrategy implements AssignmentStrategy {
+    // Position of the next member in each group.
+    private Map<String, Integer> positions = new HashMap<>();
+
+    @Override
+    public String select(CandidateGroup group, ToIntFunction<String> load) {
+        List<String> members = group.getMembers();
+        int position = positions.getOrDefault(group.getGroupId(), 0) % members.size();
+        positions.put(group.getGroupId(), position + 1);
+
+        return members.get(position);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Assigns a task to the member with the fewest open tasks relative to its weight, so that a member
+ * with twice the weight carries twice the open tasks.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class WeightedStrategy implements AssignmentStrategy {
+    @Override
+    public String select(CandidateGroup group, ToIntFunction<String> load) {
+        String selected = null;
+        double minLoad = Double.MAX_VALUE;
+
+        for (String subjectId : group.getMembers()) {
+            // Load after the task is assigned, so that heavier members are preferred when idle.
+            double subjectLoad = (load.applyAsInt(subjectId) + 1) / (double) group.getWeight(subjectId);
+
+            if (subjectLoad < minLoad) {
+                selected = subjectId;
+                minLoad = subjectLoad;
+            }
+        }
+
+        return selected;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import com.google.gson.Gson;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.parser.AssetParser;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Base codec of flow assets. Assets are written over the wire in the same JSON form that they are
+ * parsed from, and passed directly in local event bus communications.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public abstract class AssetCodec<T extends Flow> implements MessageCodec<T, T> {
+    private static final Gson gson = AssetParser.createGson();
+
+    private Class<T> assetClass;
+
+    protected AssetCodec(Class<T> assetClass) {
+        this.assetClass = assetClass;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, T asset) {
+        WireFields.writeString(buffer, gson.toJson(asset, assetClass));
+    }
+
+    @Override
+    public T decodeFromWire(int pos, Buffer buffer) {
+        return gson.fromJson(new WireFields(buffer, pos).readString(), assetClass);
+    }
+
+    @Override
+    public T transform(T asset) {
+        return asset;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
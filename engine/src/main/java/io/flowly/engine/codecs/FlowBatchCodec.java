@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import com.google.gson.Gson;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.parser.AssetParser;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec that serializes and deserializes flow batches. Every flow is written as its class name followed by
+ * the JSON form that it is parsed from (see {@link AssetCodec}).
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowBatchCodec implements MessageCodec<FlowBatch, FlowBatch> {
+    private static final Gson gson = AssetParser.createGson();
+
+    @Override
+    public void encodeToWire(Buffer buffer, FlowBatch batch) {
+        List<Flow> flows = batch.getFlows();
+        buffer.appendInt(flows.size());
+
+        for (Flow flow : flows) {
+            WireFields.writeString(buffer, flow.getClass().getName());
+            WireFields.writeString(buffer, gson.toJson(flow, flow.getClass()));
+        }
+    }
+
+    @Override
+    public FlowBatch decodeFromWire(int pos, Buffer buffer) {
+        WireFields fields = new WireFields(buffer, pos);
+        int size = fields.readInt();
+        List<Flow> flows = new ArrayList<>(size);
+
+        try {
+            for (int i = 0; i < size; i++) {
+                Class<?> flowClass = Class.forName(fields.readString());
+                flows.add((Flow) gson.fromJson(fields.readString(), flowClass));
+            }
+        }
+        catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException("Unknown flow type in batch.", ex);
+        }
+
+        return new FlowBatch(flows);
+    }
+
+    @Override
+    public FlowBatch transform(FlowBatch batch) {
+        return batch;
+    }
+
+    @Override
+    public String name() {
+        return "flowBatch";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
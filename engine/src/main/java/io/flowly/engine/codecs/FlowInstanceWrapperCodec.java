@@ -13,26 +13,117 @@
 
 package io.flowly.engine.codecs;
 
+import io.flowly.core.codecs.FlowInstanceCodec;
+import io.flowly.core.data.FlowInstance;
 import io.flowly.engine.data.FlowInstanceWrapper;
+import io.flowly.engine.router.Route;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Codec that passes FlowInstanceWrapper objects directly in local event bus communications.
+ * Codec that serializes and deserializes FlowInstanceWrapper objects. The wrapper's fields are written first,
+ * followed by the flow instance in the {@link FlowInstanceCodec} format.
  *
  * @author <a>Uday Tatiraju</a>
  */
 public class FlowInstanceWrapperCodec implements MessageCodec<FlowInstanceWrapper, FlowInstanceWrapper> {
     public static final String NAME = "flowInstanceWrapper";
 
+    private static final byte START = 1;
+    private static final byte SAVE_METADATA = 2;
+    private static final byte NEXT = 4;
+    private static final byte JOINED = 8;
+    private static final byte FLOW_OBJECT_INSTANCE_ID = 16;
+
+    private FlowInstanceCodec instanceCodec;
+
+    public FlowInstanceWrapperCodec() {
+        this(false);
+    }
+
+    /**
+     * @param json if true, the wrapped flow instance is written as a JSON string (for debugging).
+     */
+    public FlowInstanceWrapperCodec(boolean json) {
+        instanceCodec = new FlowInstanceCodec(json);
+    }
+
     @Override
     public void encodeToWire(Buffer buffer, FlowInstanceWrapper flowInstanceWrapper) {
-        throw new IllegalStateException("Encoding the FlowInstanceWrapper object over the wire is not supported by this codec.");
+        List<Long> joinedIds = flowInstanceWrapper.getJoinedFlowObjectInstanceIds();
+        byte flags = 0;
+
+        if (flowInstanceWrapper.isStart()) {
+            flags |= START;
+        }
+        if (flowInstanceWrapper.saveMetadata()) {
+            flags |= SAVE_METADATA;
+        }
+        if (flowInstanceWrapper.getNext() != null) {
+            flags |= NEXT;
+        }
+        if (joinedIds != null) {
+            flags |= JOINED;
+        }
+        if (flowInstanceWrapper.getFlowObjectInstanceId() != null) {
+            flags |= FLOW_OBJECT_INSTANCE_ID;
+        }
+
+        buffer.appendByte(flags);
+        WireFields.writeString(buffer, flowInstanceWrapper.getStatus());
+
+        if (flowInstanceWrapper.getNext() != null) {
+            RouteCodec.writeNext(buffer, flowInstanceWrapper.getNext());
+        }
+
+        if (joinedIds != null) {
+            buffer.appendInt(joinedIds.size());
+
+            for (Long joinedId : joinedIds) {
+                buffer.appendLong(joinedId);
+            }
+        }
+
+        if (flowInstanceWrapper.getFlowObjectInstanceId() != null) {
+            buffer.appendLong(flowInstanceWrapper.getFlowObjectInstanceId());
+        }
+
+        instanceCodec.encodeToWire(buffer, flowInstanceWrapper.getInstance());
     }
 
     @Override
     public FlowInstanceWrapper decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the FlowInstanceWrapper object over the wire is not supported by this codec.");
+        WireFields reader = new WireFields(buffer, pos);
+        byte flags = reader.readByte();
+        String status = reader.readString();
+        Route.Next next = (flags & NEXT) != 0 ? RouteCodec.readNext(reader) : null;
+        List<Long> joinedIds = null;
+
+        if ((flags & JOINED) != 0) {
+            int size = reader.readInt();
+            joinedIds = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                joinedIds.add(reader.readLong());
+            }
+        }
+
+        Long flowObjectInstanceId = (flags & FLOW_OBJECT_INSTANCE_ID) != 0 ? reader.readLong() : null;
+        FlowInstance instance = instanceCodec.decodeFromWire(reader.getPos(), buffer);
+
+        if (joinedIds != null) {
+            return new FlowInstanceWrapper(instance, joinedIds, next);
+        }
+        else if (flowObjectInstanceId != null) {
+            return new FlowInstanceWrapper(instance, next, flowObjectInstanceId);
+        }
+        else {
+            return new FlowInstanceWrapper(instance, (flags & START) != 0, (flags & SAVE_METADATA) != 0,
+                    status, next);
+        }
     }
 
     @Override
@@ -14,37 +14,19 @@
 package io.flowly.engine.codecs;
 
 import io.flowly.engine.assets.InteractiveService;
-import io.vertx.core.buffer.Buffer;
-import io.vertx.core.eventbus.MessageCodec;
 
 /**
- * Codec that passes InteractiveService objects directly in local event bus communications.
+ * Codec that serializes and deserializes InteractiveService objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
-public class InteractiveServiceCodec implements MessageCodec<InteractiveService, InteractiveService> {
-    @Override
-    public void encodeToWire(Buffer buffer, InteractiveService interactiveService) {
-        throw new IllegalStateException("Encoding the InteractiveService object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public InteractiveService decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the InteractiveService object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public InteractiveService transform(InteractiveService interactiveService) {
-        return interactiveService;
+public class InteractiveServiceCodec extends AssetCodec<InteractiveService> {
+    public InteractiveServiceCodec() {
+        super(InteractiveService.class);
     }
 
     @Override
     public String name() {
         return "interactiveService";
     }
-
-    @Override
-    public byte systemCodecID() {
-        return -1;
-    }
 }
@@ -14,37 +14,19 @@
 package io.flowly.engine.codecs;
 
 import io.flowly.engine.assets.MicroService;
-import io.vertx.core.buffer.Buffer;
-import io.vertx.core.eventbus.MessageCodec;
 
 /**
- * Codec that passes MicroService objects directly in local event bus communications.
+ * Codec that serializes and deserializes MicroService objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
-public class MicroServiceCodec implements MessageCodec<MicroService, MicroService> {
-    @Override
-    public void encodeToWire(Buffer buffer, MicroService microService) {
-        throw new IllegalStateException("Encoding the MicroService object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public MicroService decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the MicroService object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public MicroService transform(MicroService microService) {
-        return microService;
+public class MicroServiceCodec extends AssetCodec<MicroService> {
+    public MicroServiceCodec() {
+        super(MicroService.class);
     }
 
     @Override
     public String name() {
         return "microService";
     }
-
-    @Override
-    public byte systemCodecID() {
-        return -1;
-    }
 }
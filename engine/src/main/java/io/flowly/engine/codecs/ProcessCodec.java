@@ -14,38 +14,19 @@
 package io.flowly.engine.codecs;
 
 import io.flowly.engine.assets.Process;
-import io.vertx.core.buffer.Buffer;
-import io.vertx.core.eventbus.MessageCodec;
 
 /**
- * Codec that passes the Process objects directly in local event bus communications.
+ * Codec that serializes and deserializes Process objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
-public class ProcessCodec implements MessageCodec<Process, Process> {
-
-    @Override
-    public void encodeToWire(Buffer buffer, Process process) {
-        throw new IllegalStateException("Encoding the Process object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public Process decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the Process object over the wire is not supported by this codec.");
-    }
-
-    @Override
-    public Process transform(Process process) {
-        return process;
+public class ProcessCodec extends AssetCodec<Process> {
+    public ProcessCodec() {
+        super(Process.class);
     }
 
     @Override
     public String name() {
         return "process";
     }
-
-    @Override
-    public byte systemCodecID() {
-        return -1;
-    }
 }
@@ -14,23 +14,59 @@
 package io.flowly.engine.codecs;
 
 import io.flowly.engine.router.Route;
+import io.flowly.engine.router.RouteTable;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
 
 /**
- * Codec that passes the Route objects directly in local event bus communications.
+ * Codec that serializes and deserializes Route objects. Routes are written as the previous flow object id,
+ * the route flags and the list of next flow objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
 public class RouteCodec implements MessageCodec<Route, Route> {
+    private static final byte VALID = 1;
+    private static final byte END = 2;
+
     @Override
     public void encodeToWire(Buffer buffer, Route route) {
-        throw new IllegalStateException("Encoding the Route object over the wire is not supported by this codec.");
+        WireFields.writeString(buffer, route.getPreviousFlowObjectId());
+        buffer.appendByte((byte) ((route.isValid() ? VALID : 0) | (route.isEnd() ? END : 0)));
+        buffer.appendInt(route.getNextList().size());
+
+        for (Route.Next next : route.getNextList()) {
+            writeNext(buffer, next);
+        }
     }
 
     @Override
     public Route decodeFromWire(int pos, Buffer buffer) {
-        throw new IllegalStateException("Decoding the Route object over the wire is not supported by this codec.");
+        WireFields reader = new WireFields(buffer, pos);
+        Route route = new Route(reader.readString());
+        byte flags = reader.readByte();
+        int size = reader.readInt();
+
+        for (int i = 0; i < size; i++) {
+            Route.Next next = readNext(reader);
+            route.addNext(next.getFlowObjectId(), next.getSubFlowId(), next.getJoinCount());
+        }
+
+        if ((flags & END) != 0) {
+            route.addNext(RouteTable.END_FLOW_OBJECT_ID, null);
+        }
+
+        route.setValid((flags & VALID) != 0);
+        return route;
+    }
+
+    static void writeNext(Buffer buffer, Route.Next next) {
+        WireFields.writeString(buffer, next.getFlowObjectId());
+        WireFields.writeString(buffer, next.getSubFlowId());
+        buffer.appendInt(next.getJoinCount());
+    }
+
+    static Route.Next readNext(WireFields reader) {
+        return new Route.Next(reader.readString(), reader.readString(), reader.readInt());
     }
 
     @Override
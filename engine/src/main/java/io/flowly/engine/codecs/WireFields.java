@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import io.netty.util.CharsetUtil;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Writes and reads the fields of engine objects that cross the clustered event bus.
+ * A string is written as the length of its UTF-8 bytes (-1 if null) followed by the bytes.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+final class WireFields {
+    private static final int NULL_LENGTH = -1;
+
+    private final Buffer buffer;
+    private int pos;
+
+    /**
+     * Create a reader that starts at the given position of the buffer.
+     */
+    WireFields(Buffer buffer, int pos) {
+        this.buffer = buffer;
+        this.pos = pos;
+    }
+
+    static void writeString(Buffer buffer, String value) {
+        if (value == null) {
+            buffer.appendInt(NULL_LENGTH);
+        }
+        else {
+            byte[] bytes = value.getBytes(CharsetUtil.UTF_8);
+            buffer.appendInt(bytes.length).appendBytes(bytes);
+        }
+    }
+
+    int getPos() {
+        return pos;
+    }
+
+    byte readByte() {
+        return buffer.getByte(pos++);
+    }
+
+    int readInt() {
+        int value = buffer.getInt(pos);
+        pos += 4;
+        return value;
+    }
+
+    long readLong() {
+        long value = buffer.getLong(pos);
+        pos += 8;
+        return value;
+    }
+
+    String readString() {
+        int length = readInt();
+
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        String value = buffer.getString(pos, pos + length, CharsetUtil.UTF_8.name());
+        pos += length;
+        return value;
+    }
+}
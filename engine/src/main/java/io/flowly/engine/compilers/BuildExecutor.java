@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Runs the per flow steps of a build - parsing and compilation - on a fork join pool sized to the cores.
+ * Results are returned in the order of the given items, irrespective of the order in which they complete,
+ * and the failures of all items are reported together.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class BuildExecutor {
+    // Number of failures that are described in the error message.
+    private static final int MAX_REPORTED_FAILURES = 10;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism the number of flows that are built at the same time. Defaults to the number of cores
+     *                    if less than 1.
+     */
+    public BuildExecutor(int parallelism) {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Apply the task to all items and wait for the results. The task must not share state between items.
+     *
+     * @param items the items to be processed.
+     * @param task the task that is applied to each item.
+     * @param describe describes an item (ex: file path) in the error message of a failed build.
+     * @return the results in the same order as the items.
+     * @throws IllegalStateException if the task failed on one or more items. The first failure is the cause
+     *                               and the rest are suppressed.
+     */
+    public <T, R> List<R> map(List<T> items, Function<T, R> task, Function<T, String> describe) {
+        List<CompletableFuture<R>> tasks = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            tasks.add(CompletableFuture.supplyAsync(() -> task.apply(item), pool));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        List<Throwable> failures = new ArrayList<>();
+        StringBuilder message = new StringBuilder();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                results.add(tasks.get(i).get());
+            }
+            catch (ExecutionException ex) {
+                failures.add(ex.getCause());
+
+                if (failures.size() <= MAX_REPORTED_FAILURES) {
+                    message.append(failures.size() > 1 ? "; " : "").append(describe.apply(items.get(i)))
+                            .append(": ").append(ex.getCause().getMessage());
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Build interrupted.", ex);
+            }
+        }
+
+        if (failures.size() > MAX_REPORTED_FAILURES) {
+            message.append("; and ").append(failures.size() - MAX_REPORTED_FAILURES).append(" more");
+        }
+
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException("Unable to build " + failures.size() +
+                    " flow(s): " + message, failures.get(0));
+
+            for (int i = 1; i < failures.size(); i++) {
+                exception.addSuppressed(failures.get(i));
+            }
+
+            throw exception;
+        }
+
+        return results;
+    }
+
+    public void close() {
+        pool.shutdown();
+    }
+}
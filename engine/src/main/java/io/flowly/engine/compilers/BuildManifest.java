@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.InlineScript;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Records what the last build of an app produced - for every flow source file, the content hash of the file and
+ * its inline scripts, the flow id and the compiled verticle. Kept in the app's verticles folder, so that a later
+ * build compiles only the flows whose hashes changed.
+ * <p>
+ * The manifest also holds the hash of the whole app and the version of the engine that built it. Together they
+ * key the compiled verticles as a cache that outlives the engine - an unchanged app is deployed from the cache.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class BuildManifest {
+    public static final String MANIFEST_FILE_NAME = "manifest.json";
+
+    // Keys.
+    private static final String COMPILER = "compiler";
+    private static final String ENGINE_VERSION = "engineVersion";
+    private static final String APP_HASH = "appHash";
+    private static final String FLOWS = "flows";
+    private static final String FLOW_ID = "flowId";
+    private static final String HASH = "hash";
+    private static final String SCRIPTS = "scripts";
+    private static final String VERTICLE_PATH = "verticlePath";
+
+    private JsonObject manifest;
+
+    /**
+     * @param compiler the name of the compiler that builds the app. Flows built by another compiler are rebuilt.
+     * @param engineVersion the version of the engine that builds the app or null if unknown.
+     */
+    public BuildManifest(String compiler, String engineVersion) {
+        manifest = new JsonObject().put(COMPILER, compiler).put(ENGINE_VERSION, engineVersion).
+                put(FLOWS, new JsonObject());
+    }
+
+    private BuildManifest(JsonObject manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * @param verticlesPath the verticles folder of the app.
+     * @return the manifest of the last build or null if the app was not built or the manifest is unreadable.
+     */
+    public static BuildManifest load(FileSystem fileSystem, String verticlesPath) {
+        String manifestPath = PathUtils.createPath(verticlesPath, MANIFEST_FILE_NAME);
+
+        try {
+            if (fileSystem.existsBlocking(manifestPath)) {
+                JsonObject manifest = new JsonObject(fileSystem.readFileBlocking(manifestPath).toString());
+                return manifest.getJsonObject(FLOWS) != null ? new BuildManifest(manifest) : null;
+            }
+        }
+        catch (Exception ex) {
+            // Rebuild the app.
+        }
+
+        return null;
+    }
+
+    /**
+     * Save the manifest along with the hash of the app as built.
+     */
+    public void save(FileSystem fileSystem, String verticlesPath) {
+        Map<String, String> hashes = new HashMap<>();
+
+        for (String filePath : getFilePaths()) {
+            hashes.put(filePath, getHash(filePath));
+        }
+
+        manifest.put(APP_HASH, appHash(hashes));
+        fileSystem.writeFileBlocking(PathUtils.createPath(verticlesPath, MANIFEST_FILE_NAME),
+                Buffer.buffer(manifest.encodePrettily()));
+    }
+
+    public String getCompiler() {
+        return manifest.getString(COMPILER);
+    }
+
+    public String getEngineVersion() {
+        return manifest.getString(ENGINE_VERSION);
+    }
+
+    /**
+     * @return the hash of the app when the manifest was saved or null if it was never saved.
+     */
+    public String getAppHash() {
+        return manifest.getString(APP_HASH);
+    }
+
+    /**
+     * @return the flow source files that were built.
+     */
+    public Set<String> getFilePaths() {
+        return new TreeSet<>(manifest.getJsonObject(FLOWS).fieldNames());
+    }
+
+    public String getFlowId(String filePath) {
+        JsonObject flow = getFlow(filePath);
+        return flow != null ? flow.getString(FLOW_ID) : null;
+    }
+
+    public String getHash(String filePath) {
+        JsonObject flow = getFlow(filePath);
+        return flow != null ? flow.getString(HASH) : null;
+    }
+
+    /**
+     * @return the ids of the inline scripts that the flow referred to when it was built.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getScriptIds(String filePath) {
+        JsonObject flow = getFlow(filePath);
+        return flow != null ? flow.getJsonArray(SCRIPTS).getList() : Collections.emptyList();
+    }
+
+    /**
+     * @return the path of the compiled verticle or null if the flow is interpreted.
+     */
+    public String getVerticlePath(String filePath) {
+        JsonObject flow = getFlow(filePath);
+        return flow != null ? flow.getString(VERTICLE_PATH) : null;
+    }
+
+    public void put(String filePath, String flowId, String hash, List<String> scriptIds, String verticlePath) {
+        JsonObject flow = new JsonObject().put(FLOW_ID, flowId).put(HASH, hash).put(SCRIPTS, new JsonArray(scriptIds));
+
+        if (verticlePath != null) {
+            flow.put(VERTICLE_PATH, verticlePath);
+        }
+
+        manifest.getJsonObject(FLOWS).put(filePath, flow);
+    }
+
+    public void remove(String filePath) {
+        manifest.getJsonObject(FLOWS).remove(filePath);
+    }
+
+    /**
+     * @return the ids of the inline scripts referenced by the flow objects of a flow, sorted.
+     */
+    public static List<String> getScriptIds(Flow flow) {
+        Set<String> scriptIds = new TreeSet<>();
+
+        for (FlowObject flowObject : flow.getFlowObjects()) {
+            if (flowObject instanceof InlineScript) {
+                String scriptId = ((InlineScript) flowObject).getScriptRefId();
+
+                if (scriptId != null && scriptId.length() > 0) {
+                    scriptIds.add(scriptId);
+                }
+            }
+        }
+
+        return new ArrayList<>(scriptIds);
+    }
+
+    /**
+     * Hash the source of a flow along with the inline scripts it refers to.
+     *
+     * @param source the contents of the flow source file.
+     * @param scriptIds the ids of the scripts in the app's scripts folder.
+     * @param appFolder the app folder.
+     * @return SHA-256 hash in hex.
+     */
+    public static String hash(Buffer source, List<String> scriptIds, FileSystem fileSystem, String appFolder) {
+        MessageDigest digest = createDigest();
+        digest.update(source.getBytes());
+
+        for (String scriptId : scriptIds) {
+            String scriptPath = PathUtils.createPath(appFolder, PathUtils.SCRIPTS_FOLDER,
+                    scriptId + PathUtils.DOT_JS_SUFFIX);
+
+            digest.update(scriptId.getBytes());
+
+            // A missing script fails the compilation. Adding it later changes the hash.
+            if (fileSystem.existsBlocking(scriptPath)) {
+                digest.update(fileSystem.readFileBlocking(scriptPath).getBytes());
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hash an app as the set of its flow source files and their hashes.
+     *
+     * @param hashes the hashes (see {@link #hash}) of the flow source files, keyed by file path.
+     * @return SHA-256 hash in hex.
+     */
+    public static String appHash(Map<String, String> hashes) {
+        MessageDigest digest = createDigest();
+
+        for (Map.Entry<String, String> hash : new TreeMap<>(hashes).entrySet()) {
+            digest.update(hash.getKey().getBytes());
+            digest.update(String.valueOf(hash.getValue()).getBytes());
+        }
+
+        return toHex(digest.digest());
+    }
+
+    private JsonObject getFlow(String filePath) {
+        return manifest.getJsonObject(FLOWS).getJsonObject(filePath);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+
+        return hex.toString();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+    }
+}
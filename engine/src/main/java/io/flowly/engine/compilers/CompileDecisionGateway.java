@@ -30,6 +30,18 @@ public class CompileDecisionGateway {
         Compiler.start(output, flow.getApp().getId(), decisionGateway.getId());
         Compiler.loadInstance(output);
 
+        compileBody(decisionGateway, flow, output);
+        Compiler.hop(output, null);
+        Compiler.end(output);
+    }
+
+    /**
+     * Outputs the JavaScript that runs the decision gateway on the loaded "instance" and "data" variables.
+     * Used as is by the fused consumers of linear flow object chains.
+     *
+     * @param output the string builder to which compiled JavaScript is written to.
+     */
+    static void compileBody(DecisionGateway decisionGateway, Flow flow, StringBuilder output) {
         output.append("    var connectingObjectIds = [];");
         output.append(Compiler.LINE_BREAK).append(Compiler.LINE_BREAK);
 
@@ -82,7 +94,5 @@ public class CompileDecisionGateway {
                 append(" = connectingObjectIds;");
 
         output.append(Compiler.LINE_BREAK).append(Compiler.LINE_BREAK);
-        Compiler.hop(output, null);
-        Compiler.end(output);
     }
 }
@@ -28,14 +28,24 @@ public class CompileEndEvent {
         Compiler.start(output, flow.getApp().getId(), endEvent.getId());
 
         Compiler.loadInstance(output);
+        compileBody(endEvent, flow, output);
+
+        Compiler.hop(output, null);
+        Compiler.end(output);
+    }
+
+    /**
+     * Outputs the JavaScript that runs the end event on the loaded "instance" and "data" variables.
+     * Used as is by the fused consumers of linear flow object chains.
+     *
+     * @param output the string builder to which compiled JavaScript is written to.
+     */
+    static void compileBody(EndEvent endEvent, Flow flow, StringBuilder output) {
         if (Compiler.createOutputData(output, flow.getVariables())) {
             output.append(Compiler.TAB_BREAK).append(JsonKeys.INSTANCE).append(Compiler.DOT).
                     append(FlowInstance.OUTPUT_DATA).append(" = outputData;");
             output.append(Compiler.LINE_BREAK);
             output.append(Compiler.LINE_BREAK);
         }
-
-        Compiler.hop(output, null);
-        Compiler.end(output);
     }
 }
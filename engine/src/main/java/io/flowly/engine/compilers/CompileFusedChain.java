@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.assets.DecisionGateway;
+import io.flowly.engine.assets.EndEvent;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.InlineScript;
+import io.flowly.engine.assets.StartEvent;
+import io.vertx.core.file.FileSystem;
+
+import java.util.List;
+
+/**
+ * Compiles a chain of automatic flow objects into a single consumer that is registered on the address
+ * of the first flow object. The ids of the fused flow objects are passed to the engine, so that the
+ * engine can record every logical step of the chain before moving the token forward.
+ * The body of each fused flow object is scoped to a function that takes the loaded "instance" and its "data".
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class CompileFusedChain {
+    public static void compile(List<FlowObject> chain, Flow flow, StringBuilder output, FileSystem fileSystem) {
+        Compiler.start(output, flow.getApp().getId(), chain.get(0).getId());
+        Compiler.loadInstance(output);
+
+        for (FlowObject flowObject : chain) {
+            output.append("    /* ############### Fused flow object: ").append(flowObject.getId()).
+                    append(" ############### */");
+            output.append(Compiler.LINE_BREAK);
+
+            // Each flow object runs in a function of its own, so that a return statement or a variable
+            // declared in one body does not affect the bodies that follow it.
+            output.append("    (function(instance, data) {");
+            output.append(Compiler.LINE_BREAK);
+
+            if (flowObject instanceof StartEvent) {
+                CompileStartEvent.compileBody((StartEvent) flowObject, flow, output);
+            }
+            else if (flowObject instanceof InlineScript) {
+                CompileInlineScript.loadScript(output, ((InlineScript) flowObject).getScriptRefId(), fileSystem,
+                        flow.getApp().getAppFolder());
+            }
+            else if (flowObject instanceof DecisionGateway) {
+                CompileDecisionGateway.compileBody((DecisionGateway) flowObject, flow, output);
+            }
+            else if (flowObject instanceof EndEvent) {
+                CompileEndEvent.compileBody((EndEvent) flowObject, flow, output);
+            }
+            else {
+                throw new IllegalArgumentException("Flow object cannot be fused: " + flowObject.getId());
+            }
+
+            output.append("    })(instance, instance.data);");
+            output.append(Compiler.LINE_BREAK).append(Compiler.LINE_BREAK);
+        }
+
+        // Tell the engine which flow objects ran after the first one.
+        output.append(Compiler.TAB_BREAK).append(JsonKeys.INSTANCE).append(Compiler.DOT).
+                append(FlowInstance.META_DATA).append(Compiler.DOT).append(FlowInstanceMetadata.CURRENT_STEP).
+                append(Compiler.DOT).append(FlowInstanceStep._FUSED_FLOW_OBJECT_IDS).append(" = [");
+
+        for (int i=1; i<chain.size(); i++) {
+            output.append(i > 1 ? ", '" : "'").append(chain.get(i).getId()).append("'");
+        }
+
+        output.append("];");
+        output.append(Compiler.LINE_BREAK).append(Compiler.LINE_BREAK);
+
+        Compiler.hop(output, JsonKeys.INSTANCE);
+        Compiler.end(output);
+    }
+}
@@ -36,7 +36,14 @@ public class CompileInlineScript {
         Compiler.end(output);
     }
 
-    private static void loadScript(StringBuilder output, String scriptId, FileSystem fileSystem, String appFolderPath) {
+    /**
+     * Outputs the inline script so that it runs on the loaded "instance" and "data" variables.
+     * Used as is by the fused consumers of linear flow object chains.
+     *
+     * @param output the string builder to which compiled JavaScript is written to.
+     * @param scriptId the id of the script file in the app's scripts folder.
+     */
+    static void loadScript(StringBuilder output, String scriptId, FileSystem fileSystem, String appFolderPath) {
         // Empty script.
         if (scriptId == null || scriptId.length() == 0) {
             return;
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.JoinGateway;
+
+/**
+ * Compiles a join gateway into JavaScript. Tokens are synchronized by the engine before
+ * the gateway is run, so the gateway just moves the (single) joined token forward.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class CompileJoinGateway {
+    public static void compile(JoinGateway joinGateway, Flow flow, StringBuilder output) {
+        Compiler.start(output, flow.getApp().getId(), joinGateway.getId());
+        Compiler.hop(output, null);
+        Compiler.end(output);
+    }
+}
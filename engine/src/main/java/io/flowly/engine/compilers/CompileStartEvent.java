@@ -26,6 +26,19 @@ public class CompileStartEvent {
         Compiler.start(output, flow.getApp().getId(), startEvent.getId());
 
         Compiler.loadInstance(output);
+        compileBody(startEvent, flow, output);
+
+        Compiler.hop(output, null);
+        Compiler.end(output);
+    }
+
+    /**
+     * Outputs the JavaScript that runs the start event on the loaded "instance" and "data" variables.
+     * Used as is by the fused consumers of linear flow object chains.
+     *
+     * @param output the string builder to which compiled JavaScript is written to.
+     */
+    static void compileBody(StartEvent startEvent, Flow flow, StringBuilder output) {
         output.append("    var inputData = instance.inputData;");
         output.append(Compiler.LINE_BREAK);
 
@@ -40,8 +53,5 @@ public class CompileStartEvent {
 
         output.append(Compiler.LINE_BREAK);
         output.append(Compiler.LINE_BREAK);
-
-        Compiler.hop(output, null);
-        Compiler.end(output);
     }
 }
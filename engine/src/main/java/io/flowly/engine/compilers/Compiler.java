@@ -21,6 +21,7 @@ import io.flowly.engine.assets.EndEvent;
 import io.flowly.engine.assets.Flow;
 import io.flowly.engine.assets.InlineScript;
 import io.flowly.engine.assets.InteractiveService;
+import io.flowly.engine.assets.JoinGateway;
 import io.flowly.engine.assets.MicroService;
 import io.flowly.engine.assets.Process;
 import io.flowly.engine.assets.StartEvent;
@@ -48,6 +49,7 @@ public interface Compiler {
     void compile(InlineScript inlineScript, Flow flow, StringBuilder output);
     void compile(SubFlow subFlow, Flow flow, StringBuilder output);
     void compile(DecisionGateway decisionGateway, Flow flow, StringBuilder output);
+    void compile(JoinGateway joinGateway, Flow flow, StringBuilder output);
     void compile(InteractiveService interactiveService, Flow flow, StringBuilder output);
     void compile(View view, Flow flow, StringBuilder output);
     void compile(MicroService microService, Flow flow, StringBuilder output);
@@ -58,7 +60,8 @@ public interface Compiler {
      *
      * @param flow the flow whose compiled output is to be written to a file.
      * @param output the string builder which holds the compiled JavaScript of the flow.
-     * @return the absolute path of the file to which the compiled JavaScript is written to.
+     * @return the absolute path of the file to which the compiled JavaScript is written to
+     *         or null if the flow does not need a verticle.
      */
     String writeFlow(Flow flow, StringBuilder output);
 
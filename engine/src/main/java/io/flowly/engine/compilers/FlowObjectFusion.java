@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.assets.CompiledFlow;
+import io.flowly.engine.assets.ConnectingObject;
+import io.flowly.engine.assets.DecisionGateway;
+import io.flowly.engine.assets.EndEvent;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.InlineScript;
+import io.flowly.engine.assets.StartEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optimization pass that finds linear chains of automatic flow objects (no wait states, splits or joins)
+ * in a compiled flow. Each chain is compiled into a single verticle consumer, so that the chain costs
+ * one event bus round trip with the engine instead of one per flow object.
+ *
+ * A flow object is fused into its predecessor if the predecessor has a single outgoing connecting object
+ * and the flow object has a single incoming connecting object. Decision gateways and end events can only
+ * end a chain.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowObjectFusion {
+    // Chains of two or more flow objects keyed by the id of the first flow object.
+    private Map<String, List<FlowObject>> chains = new HashMap<>();
+
+    // Flow objects that are compiled as part of a chain (all but the first flow object of every chain).
+    private Set<String> fusedIds = new HashSet<>();
+
+    public FlowObjectFusion(CompiledFlow compiledFlow) {
+        Map<String, FlowObject> flowObjectMap = compiledFlow.getFlowObjectMap();
+        Map<String, FlowObject> links = new HashMap<>();
+
+        for (FlowObject flowObject : flowObjectMap.values()) {
+            FlowObject next = getFusableNext(compiledFlow, flowObject);
+
+            if (next != null) {
+                links.put(flowObject.getId(), next);
+            }
+        }
+
+        Set<String> linkedIds = new HashSet<>();
+        for (FlowObject next : links.values()) {
+            linkedIds.add(next.getId());
+        }
+
+        for (String headId : links.keySet()) {
+            if (linkedIds.contains(headId)) {
+                continue;
+            }
+
+            List<FlowObject> chain = new ArrayList<>();
+            FlowObject flowObject = flowObjectMap.get(headId);
+
+            while (flowObject != null && !chain.contains(flowObject)) {
+                chain.add(flowObject);
+                flowObject = links.get(flowObject.getId());
+            }
+
+            chains.put(headId, chain);
+
+            for (int i=1; i<chain.size(); i++) {
+                fusedIds.add(chain.get(i).getId());
+            }
+        }
+    }
+
+    /**
+     * @param flowObjectId the flow object id.
+     * @return the chain of flow objects that starts at the given flow object or null if it does not
+     *         start a chain.
+     */
+    public List<FlowObject> getChain(String flowObjectId) {
+        return chains.get(flowObjectId);
+    }
+
+    /**
+     * @param flowObjectId the flow object id.
+     * @return true if the flow object is compiled as part of a chain that starts at another flow object.
+     */
+    public boolean isFused(String flowObjectId) {
+        return fusedIds.contains(flowObjectId);
+    }
+
+    public Map<String, List<FlowObject>> getChains() {
+        return chains;
+    }
+
+    private FlowObject getFusableNext(CompiledFlow compiledFlow, FlowObject flowObject) {
+        if (!isAutomatic(flowObject) || flowObject instanceof DecisionGateway || flowObject instanceof EndEvent) {
+            return null;
+        }
+
+        List<ConnectingObject> outgoing = compiledFlow.getOutgoing(flowObject.getId());
+        if (outgoing.size() != 1) {
+            return null;
+        }
+
+        String nextId = outgoing.get(0).getToId();
+        FlowObject next = compiledFlow.getFlowObjectMap().get(nextId);
+
+        if (next == null || !isAutomatic(next) || next instanceof StartEvent ||
+                compiledFlow.getIncoming(nextId).size() != 1) {
+            return null;
+        }
+
+        return next;
+    }
+
+    private boolean isAutomatic(FlowObject flowObject) {
+        return flowObject instanceof StartEvent || flowObject instanceof InlineScript ||
+                flowObject instanceof DecisionGateway || flowObject instanceof EndEvent;
+    }
+}
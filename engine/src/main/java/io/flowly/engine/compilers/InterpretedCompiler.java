@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.assets.DecisionGateway;
+import io.flowly.engine.assets.EndEvent;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.InlineScript;
+import io.flowly.engine.assets.InteractiveService;
+import io.flowly.engine.assets.JoinGateway;
+import io.flowly.engine.assets.MicroService;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.assets.StartEvent;
+import io.flowly.engine.assets.SubFlow;
+import io.flowly.engine.assets.Variable;
+import io.flowly.engine.assets.View;
+import io.flowly.engine.interpreter.DataMappings;
+import io.flowly.engine.interpreter.DecisionGatewayStep;
+import io.flowly.engine.interpreter.EndEventStep;
+import io.flowly.engine.interpreter.ExecutableFlow;
+import io.flowly.engine.interpreter.FlowInterpreter;
+import io.flowly.engine.interpreter.HopOutStep;
+import io.flowly.engine.interpreter.HopStep;
+import io.flowly.engine.interpreter.InlineScriptStep;
+import io.flowly.engine.interpreter.ServiceStep;
+import io.flowly.engine.interpreter.StartEventStep;
+import io.flowly.engine.interpreter.Step;
+import io.flowly.engine.interpreter.SubFlowStep;
+import io.flowly.engine.interpreter.UserInteractionStep;
+import io.flowly.engine.interpreter.ViewStep;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.file.FileSystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles assets into an in-memory graph of executable steps that are run directly by the engine,
+ * instead of JavaScript verticles. Only inline scripts and non trivial expressions go through a script engine.
+ * The string builder output is not used.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InterpretedCompiler implements Compiler {
+    private FileSystem fileSystem;
+    private FlowInterpreter flowInterpreter;
+
+    // Steps of the flow that is being compiled.
+    private Map<String, Step> steps;
+
+    public InterpretedCompiler(FileSystem fileSystem, FlowInterpreter flowInterpreter) {
+        this.fileSystem = fileSystem;
+        this.flowInterpreter = flowInterpreter;
+    }
+
+    @Override
+    public void compile(Process process, Flow flow, StringBuilder output) {
+        steps = new HashMap<>();
+    }
+
+    @Override
+    public void compile(StartEvent startEvent, Flow flow, StringBuilder output) {
+        steps.put(startEvent.getId(), new StartEventStep(getVariableNames(flow, Variable.INPUT_SCOPE)));
+    }
+
+    @Override
+    public void compile(EndEvent endEvent, Flow flow, StringBuilder output) {
+        steps.put(endEvent.getId(), new EndEventStep(getVariableNames(flow, Variable.OUTPUT_SCOPE)));
+    }
+
+    @Override
+    public void compile(InlineScript inlineScript, Flow flow, StringBuilder output) {
+        String scriptId = inlineScript.getScriptRefId();
+
+        // Empty script.
+        if (scriptId == null || scriptId.length() == 0) {
+            steps.put(inlineScript.getId(), new HopStep());
+        }
+        else {
+            String scriptPath = PathUtils.createPath(flow.getApp().getAppFolder(),
+                    PathUtils.SCRIPTS_FOLDER, scriptId + PathUtils.DOT_JS_SUFFIX);
+            steps.put(inlineScript.getId(),
+                    new InlineScriptStep(new String(fileSystem.readFileBlocking(scriptPath).getBytes())));
+        }
+    }
+
+    @Override
+    public void compile(SubFlow subFlow, Flow flow, StringBuilder output) {
+        DataMappings dataMappings = new DataMappings(subFlow.getDataMappings());
+
+        if (subFlow.getSubFlowType().equals(MicroService.class.getSimpleName())) {
+            // If address is present, this is a system service call.
+            String serviceAddress = subFlow.getAddress();
+            if (serviceAddress != null && serviceAddress.length() > 0) {
+                steps.put(subFlow.getId(), new ServiceStep(serviceAddress, dataMappings));
+            }
+            else {
+                steps.put(subFlow.getId(), new SubFlowStep(dataMappings));
+                steps.put(subFlow.getId() + EngineAddresses.HOP_OUT_FLOW_INSTANCE, new HopOutStep(dataMappings));
+            }
+        }
+        else if (subFlow.getSubFlowType().equals(InteractiveService.class.getSimpleName())) {
+            steps.put(subFlow.getId(), new UserInteractionStep(dataMappings));
+            steps.put(subFlow.getId() + EngineAddresses.HOP_OUT_FLOW_INSTANCE, new HopOutStep(dataMappings));
+        }
+    }
+
+    @Override
+    public void compile(DecisionGateway decisionGateway, Flow flow, StringBuilder output) {
+        steps.put(decisionGateway.getId(), new DecisionGatewayStep(decisionGateway.getConditions()));
+    }
+
+    @Override
+    public void compile(JoinGateway joinGateway, Flow flow, StringBuilder output) {
+        steps.put(joinGateway.getId(), new HopStep());
+    }
+
+    @Override
+    public void compile(InteractiveService interactiveService, Flow flow, StringBuilder output) {
+        steps = new HashMap<>();
+    }
+
+    @Override
+    public void compile(View view, Flow flow, StringBuilder output) {
+        steps.put(view.getId(), new ViewStep());
+    }
+
+    @Override
+    public void compile(MicroService microService, Flow flow, StringBuilder output) {
+        steps = new HashMap<>();
+    }
+
+    /**
+     * Registers the executable flow with the flow interpreter. No file is written.
+     *
+     * @param flow the flow whose steps are to be registered.
+     * @param output not used.
+     * @return null, as no verticle needs to be deployed.
+     */
+    @Override
+    public String writeFlow(Flow flow, StringBuilder output) {
+        flowInterpreter.putFlow(new ExecutableFlow(flow.getId(), flow.getApp().getId(), steps));
+        steps = null;
+
+        return null;
+    }
+
+    private List<String> getVariableNames(Flow flow, String scope) {
+        List<String> names = new ArrayList<>();
+
+        for (Variable variable : flow.getVariables()) {
+            if (variable.getScope().equals(scope)) {
+                names.add(variable.getName());
+            }
+        }
+
+        return names;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.assets.CompiledFlow;
+import io.flowly.engine.assets.DecisionGateway;
+import io.flowly.engine.assets.EndEvent;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.InlineScript;
+import io.flowly.engine.assets.InteractiveService;
+import io.flowly.engine.assets.MicroService;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.assets.StartEvent;
+import io.vertx.core.file.FileSystem;
+
+import java.util.List;
+
+/**
+ * Compiles assets like the verbose compiler, but fuses linear chains of automatic flow objects
+ * into single consumers. See {@link FlowObjectFusion}.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class OptimizingCompiler extends VerboseCompiler {
+    // Fusion plan of the flow that is being compiled.
+    private FlowObjectFusion fusion;
+
+    public OptimizingCompiler(FileSystem fileSystem) {
+        super(fileSystem);
+    }
+
+    @Override
+    public void compile(Process process, Flow flow, StringBuilder output) {
+        fusion = new FlowObjectFusion(new CompiledFlow(process));
+        super.compile(process, flow, output);
+    }
+
+    @Override
+    public void compile(InteractiveService interactiveService, Flow flow, StringBuilder output) {
+        fusion = new FlowObjectFusion(new CompiledFlow(interactiveService));
+        super.compile(interactiveService, flow, output);
+    }
+
+    @Override
+    public void compile(MicroService microService, Flow flow, StringBuilder output) {
+        fusion = new FlowObjectFusion(new CompiledFlow(microService));
+        super.compile(microService, flow, output);
+    }
+
+    @Override
+    public void compile(StartEvent startEvent, Flow flow, StringBuilder output) {
+        if (!fuse(startEvent, flow, output)) {
+            super.compile(startEvent, flow, output);
+        }
+    }
+
+    @Override
+    public void compile(EndEvent endEvent, Flow flow, StringBuilder output) {
+        if (!fuse(endEvent, flow, output)) {
+            super.compile(endEvent, flow, output);
+        }
+    }
+
+    @Override
+    public void compile(InlineScript inlineScript, Flow flow, StringBuilder output) {
+        if (!fuse(inlineScript, flow, output)) {
+            super.compile(inlineScript, flow, output);
+        }
+    }
+
+    @Override
+    public void compile(DecisionGateway decisionGateway, Flow flow, StringBuilder output) {
+        if (!fuse(decisionGateway, flow, output)) {
+            super.compile(decisionGateway, flow, output);
+        }
+    }
+
+    /**
+     * Compile the chain that starts at the given flow object. Flow objects in the middle or at the end
+     * of a chain are skipped as they are compiled along with the first flow object of the chain.
+     *
+     * @return false if the flow object is not part of a chain.
+     */
+    private boolean fuse(FlowObject flowObject, Flow flow, StringBuilder output) {
+        if (fusion.isFused(flowObject.getId())) {
+            return true;
+        }
+
+        List<FlowObject> chain = fusion.getChain(flowObject.getId());
+        if (chain == null) {
+            return false;
+        }
+
+        CompileFusedChain.compile(chain, flow, output, fileSystem);
+        return true;
+    }
+}
@@ -18,6 +18,7 @@ import io.flowly.engine.assets.EndEvent;
 import io.flowly.engine.assets.Flow;
 import io.flowly.engine.assets.InlineScript;
 import io.flowly.engine.assets.InteractiveService;
+import io.flowly.engine.assets.JoinGateway;
 import io.flowly.engine.assets.MicroService;
 import io.flowly.engine.assets.Process;
 import io.flowly.engine.assets.StartEvent;
@@ -36,7 +37,7 @@ import io.vertx.core.file.FileSystem;
  */
 // TODO: Pretty print javascript output.
 public class VerboseCompiler implements Compiler {
-    private FileSystem fileSystem;
+    protected FileSystem fileSystem;
 
     public VerboseCompiler(FileSystem fileSystem) {
         this.fileSystem = fileSystem;
@@ -72,6 +73,11 @@ public class VerboseCompiler implements Compiler {
         CompileDecisionGateway.compile(decisionGateway, flow, output);
     }
 
+    @Override
+    public void compile(JoinGateway joinGateway, Flow flow, StringBuilder output) {
+        CompileJoinGateway.compile(joinGateway, flow, output);
+    }
+
     @Override
     public void compile(InteractiveService interactiveService, Flow flow, StringBuilder output) {
         CompileInteractiveService.compile(interactiveService, output);
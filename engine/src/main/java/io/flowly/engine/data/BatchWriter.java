@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.Failure;
+import io.flowly.core.data.manager.GraphManager;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group commits the graph writes of a worker verticle. Write requests are queued and applied
+ * in a single transaction once the batch is full or the linger time elapses.
+ *
+ * Each request gets its own reply (or failure). If any write in a batch fails, the batch is rolled back
+ * and the writes are replayed one transaction at a time so that a bad request does not fail
+ * the rest of the batch. Replies are sent only after the writes are committed.
+ *
+ * Must be used from a single verticle context - batches are not thread safe.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class BatchWriter {
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+    private static final long NO_TIMER = -1;
+
+    private Vertx vertx;
+    private Graph graph;
+    private int maxBatchSize;
+    private long lingerTime;
+    private boolean enabled;
+
+    private List<BatchedMessage> batch = new ArrayList<>();
+    private long timerId = NO_TIMER;
+
+    /**
+     * @param vertx the vertx instance used to schedule the linger timer.
+     * @param graph the graph whose transactions are shared by the batched writes.
+     * @param maxBatchSize maximum number of writes in a batch. Batching is disabled if less than 2.
+     * @param lingerTime maximum time in milliseconds a write waits for the batch to fill up.
+     */
+    public BatchWriter(Vertx vertx, Graph graph, int maxBatchSize, long lingerTime) {
+        this.vertx = vertx;
+        this.graph = graph;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerTime = lingerTime;
+
+        // Writes cannot be isolated from each other without transactions.
+        enabled = maxBatchSize > 1 && lingerTime > 0 && graph.features().graph().supportsTransactions();
+    }
+
+    /**
+     * Wrap a write handler so that its messages are applied in batches.
+     *
+     * @param handler the write handler that replies to each message.
+     * @return the batching handler or the given handler if batching is disabled.
+     */
+    public Handler<Message<Object>> batch(Handler<Message<Object>> handler) {
+        if (!enabled) {
+            return handler;
+        }
+
+        return message -> {
+            batch.add(new BatchedMessage(message, handler));
+
+            if (batch.size() >= maxBatchSize) {
+                flush();
+            }
+            else if (timerId == NO_TIMER) {
+                timerId = vertx.setTimer(lingerTime, id -> {
+                    timerId = NO_TIMER;
+                    flush();
+                });
+            }
+        };
+    }
+
+    /**
+     * Apply and commit the queued writes and reply to each of the requests.
+     */
+    public void flush() {
+        if (timerId != NO_TIMER) {
+            vertx.cancelTimer(timerId);
+            timerId = NO_TIMER;
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<BatchedMessage> messages = batch;
+        batch = new ArrayList<>();
+
+        if (!applyBatch(messages)) {
+            replay(messages);
+        }
+
+        for (BatchedMessage message : messages) {
+            message.sendReply();
+        }
+    }
+
+    /**
+     * @return number of writes waiting to be applied.
+     */
+    public int size() {
+        return batch.size();
+    }
+
+    private boolean applyBatch(List<BatchedMessage> messages) {
+        GraphManager.beginBatch();
+
+        try {
+            for (BatchedMessage message : messages) {
+                message.apply();
+
+                if (GraphManager.isBatchRolledBack()) {
+                    return false;
+                }
+            }
+
+            graph.tx().commit();
+            GraphManager.commitBatch();
+            return true;
+        }
+        catch (Exception ex) {
+            graph.tx().rollback();
+            logger.warn("Unable to commit a batch of " + messages.size() + " writes, replaying them one by one.", ex);
+            return false;
+        }
+        finally {
+            GraphManager.endBatch();
+        }
+    }
+
+    private void replay(List<BatchedMessage> messages) {
+        for (BatchedMessage message : messages) {
+            message.reset();
+
+            try {
+                message.apply();
+            }
+            catch (Exception ex) {
+                Failure failure = new Failure(2001, "Unable to apply write: " + message.address(), ex);
+                logger.error(failure.getError(), failure.getCause());
+            }
+        }
+    }
+
+    /**
+     * Holds on to the reply of a message until the batch it belongs to is committed.
+     */
+    private static class BatchedMessage implements Message<Object> {
+        private Message<Object> message;
+        private Handler<Message<Object>> handler;
+
+        private boolean replied;
+        private Object reply;
+        private DeliveryOptions options;
+        private Handler<AsyncResult<Message<Object>>> replyHandler;
+        private Integer failureCode;
+        private String failureMessage;
+
+        private BatchedMessage(Message<Object> message, Handler<Message<Object>> handler) {
+            this.message = message;
+            this.handler = handler;
+        }
+
+        private void apply() {
+            handler.handle(this);
+        }
+
+        private void reset() {
+            replied = false;
+            reply = null;
+            options = null;
+            replyHandler = null;
+            failureCode = null;
+            failureMessage = null;
+        }
+
+        private void sendReply() {
+            if (failureCode != null) {
+                message.fail(failureCode, failureMessage);
+            }
+            else if (replied) {
+                message.reply(reply, options != null ? options : new DeliveryOptions(), replyHandler);
+            }
+        }
+
+        @Override
+        public String address() {
+            return message.address();
+        }
+
+        @Override
+        public MultiMap headers() {
+            return message.headers();
+        }
+
+        @Override
+        public Object body() {
+            return message.body();
+        }
+
+        @Override
+        public String replyAddress() {
+            return message.replyAddress();
+        }
+
+        @Override
+        public void reply(Object message) {
+            reply(message, null, null);
+        }
+
+        @Override
+        public <R> void reply(Object message, Handler<AsyncResult<Message<R>>> replyHandler) {
+            reply(message, null, replyHandler);
+        }
+
+        @Override
+        public void reply(Object message, DeliveryOptions options) {
+            reply(message, options, null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> void reply(Object message, DeliveryOptions options,
+                              Handler<AsyncResult<Message<R>>> replyHandler) {
+            this.replied = true;
+            this.reply = message;
+            this.options = options;
+            this.replyHandler = (Handler<AsyncResult<Message<Object>>>) (Handler) replyHandler;
+        }
+
+        @Override
+        public void fail(int failureCode, String message) {
+            this.failureCode = failureCode;
+            this.failureMessage = message;
+        }
+    }
+}
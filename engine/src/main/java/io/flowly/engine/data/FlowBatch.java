@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.engine.assets.Flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of flows that are saved in the repository in a single transaction.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowBatch {
+    // Maximum number of flows in a batch.
+    public static final int MAX_SIZE = 100;
+
+    private List<Flow> flows;
+
+    public FlowBatch(List<Flow> flows) {
+        this.flows = flows;
+    }
+
+    /**
+     * Split the given flows into batches of at most {@link #MAX_SIZE} flows, keeping their order.
+     */
+    public static List<FlowBatch> split(List<Flow> flows) {
+        List<FlowBatch> batches = new ArrayList<>();
+
+        for (int i = 0; i < flows.size(); i += MAX_SIZE) {
+            batches.add(new FlowBatch(new ArrayList<>(flows.subList(i, Math.min(i + MAX_SIZE, flows.size())))));
+        }
+
+        return batches;
+    }
+
+    public List<Flow> getFlows() {
+        return Collections.unmodifiableList(flows);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.core.security.Permission;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory catalog of the deployed flows. The catalog is loaded from the graph once and is kept up to date
+ * by the repository as flows are saved and deleted.
+ *
+ * A subject sees the flows of the apps, or the flows themselves, on which the subject has read or execute
+ * permissions (the resource id of the permission is the app id or the flow id). The flows visible to a subject
+ * are cached until the flows or the permissions change.
+ *
+ * Shared by the repository (writer) and the repository readers of a vertx instance.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowCatalog implements Shareable {
+    // Key to the shared map that holds the catalog.
+    private static final String FLOW_CATALOG_KEY = "io.flowly.flows.catalog";
+
+    // Deployed flows by flow id.
+    private Map<String, FlowMetadata> flows = new LinkedHashMap<>();
+
+    // Flows visible to each subject.
+    private Map<String, JsonArray> subjectFlows = new HashMap<>();
+
+    // Incremented whenever cached views become stale.
+    private long version;
+    private boolean loaded;
+
+    /**
+     * @param vertx the vertx instance whose verticles share the catalog.
+     * @return the flow catalog of the vertx instance.
+     */
+    public static FlowCatalog get(Vertx vertx) {
+        LocalMap<String, FlowCatalog> map = vertx.sharedData().getLocalMap(FLOW_CATALOG_KEY);
+        map.putIfAbsent(FLOW_CATALOG_KEY, new FlowCatalog());
+        return map.get(FLOW_CATALOG_KEY);
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Load the flows as read from the graph.
+     */
+    public synchronized void load(JsonArray flowList) {
+        for (Object flow : flowList) {
+            FlowMetadata flowMetadata = new FlowMetadata(((JsonObject) flow).getMap());
+            flows.put(flowMetadata.getFlowId(), flowMetadata);
+        }
+
+        loaded = true;
+        invalidate();
+    }
+
+    public synchronized void put(FlowMetadata flowMetadata) {
+        flows.put(flowMetadata.getFlowId(), flowMetadata);
+        invalidate();
+    }
+
+    public synchronized void remove(String flowId) {
+        flows.remove(flowId);
+        invalidate();
+    }
+
+    /**
+     * Drop the cached views of all subjects, for instance, when permissions change.
+     */
+    public synchronized void invalidate() {
+        subjectFlows.clear();
+        version++;
+    }
+
+    /**
+     * @return the version of the cached views. Views computed from permissions that were read before
+     *         the version changed are not cached.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param subjectId the subject id.
+     * @return the cached flows visible to the subject or null if the subject's view is not cached.
+     */
+    public synchronized JsonArray getFlows(String subjectId) {
+        return subjectFlows.get(subjectId);
+    }
+
+    /**
+     * @return all deployed flows.
+     */
+    public synchronized JsonArray getFlows() {
+        return filter(flows.values(), null);
+    }
+
+    /**
+     * Get the flows visible to a subject and cache them.
+     *
+     * @param subjectId the subject id.
+     * @param permissions the effective permissions of the subject.
+     * @param version the version of the catalog when the permissions were requested.
+     * @return the flows on which the subject has permissions.
+     */
+    public synchronized JsonArray getFlows(String subjectId, JsonArray permissions, long version) {
+        JsonArray visibleFlows = filter(flows.values(), permissions);
+
+        if (version == this.version) {
+            subjectFlows.put(subjectId, visibleFlows);
+        }
+
+        return visibleFlows;
+    }
+
+    /**
+     * Drop all flows and cached views. The catalog has to be loaded again.
+     */
+    public synchronized void clear() {
+        flows.clear();
+        loaded = false;
+        invalidate();
+    }
+
+    /**
+     * Get the flows on which the given permissions grant read or execute access.
+     *
+     * @param flowList the flows to filter.
+     * @param permissions the effective permissions of a subject or null to get all flows.
+     * @return the visible flows.
+     */
+    public static JsonArray filter(Iterable<?> flowList, JsonArray permissions) {
+        Set<String> resourceIds = null;
+
+        if (permissions != null) {
+            resourceIds = new HashSet<>();
+
+            for (Object prm : permissions) {
+                Permission permission = new Permission((JsonObject) prm);
+
+                if (permission.canRead() || permission.canExecute()) {
+                    resourceIds.add(permission.getResourceId());
+                }
+            }
+        }
+
+        JsonArray visibleFlows = new JsonArray();
+
+        for (Object flow : flowList) {
+            JsonObject flowMetadata = (JsonObject) flow;
+
+            if (resourceIds == null || resourceIds.contains(flowMetadata.getString(FlowMetadata.APP_ID)) ||
+                    resourceIds.contains(flowMetadata.getString(FlowMetadata.FLOW_ID))) {
+                visibleFlows.add(flowMetadata);
+            }
+        }
+
+        return visibleFlows;
+    }
+}
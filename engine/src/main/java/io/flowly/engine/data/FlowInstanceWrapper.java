@@ -16,6 +16,8 @@ package io.flowly.engine.data;
 import io.flowly.core.data.FlowInstance;
 import io.flowly.engine.router.Route;
 
+import java.util.List;
+
 /**
  * A wrapper object that is used to pass additional info along with a flow instance
  * to the repository verticle.
@@ -28,6 +30,8 @@ public class FlowInstanceWrapper {
     private boolean saveMetadata;
     private String Status;
     private Route.Next next;
+    private List<Long> joinedFlowObjectInstanceIds;
+    private Long flowObjectInstanceId;
 
     public FlowInstanceWrapper(FlowInstance instance, boolean start, boolean saveMetadata,
                                String status, Route.Next next) {
@@ -38,6 +42,19 @@ public class FlowInstanceWrapper {
         this.next = next;
     }
 
+    public FlowInstanceWrapper(FlowInstance instance, List<Long> joinedFlowObjectInstanceIds, Route.Next next) {
+        this(instance, false, false, null, next);
+        this.joinedFlowObjectInstanceIds = joinedFlowObjectInstanceIds;
+    }
+
+    /**
+     * Wrap a token move whose flow object instance (vertex) was reserved in advance.
+     */
+    public FlowInstanceWrapper(FlowInstance instance, Route.Next next, Long flowObjectInstanceId) {
+        this(instance, false, false, null, next);
+        this.flowObjectInstanceId = flowObjectInstanceId;
+    }
+
     public FlowInstance getInstance() {
         return instance;
     }
@@ -57,4 +74,12 @@ public class FlowInstanceWrapper {
     public Route.Next getNext() {
         return next;
     }
+
+    public List<Long> getJoinedFlowObjectInstanceIds() {
+        return joinedFlowObjectInstanceIds;
+    }
+
+    public Long getFlowObjectInstanceId() {
+        return flowObjectInstanceId;
+    }
 }
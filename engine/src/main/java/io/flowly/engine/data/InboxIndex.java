@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.manager.Cursor;
+import io.flowly.core.verticles.ClusterAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.manager.BaseManager;
+import io.flowly.engine.data.manager.Schema;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory projection of the subjects' inboxes. Holds the open tasks of each subject, latest first, so that
+ * an inbox page is a range scan instead of a graph traversal. Pages can be read by number or by cursor.
+ * The index is loaded from the graph once per storage shard and is kept up to date by the repository
+ * as tasks are assigned and their views progress.
+ *
+ * Shared by the repository (writers) and the repository readers of a vertx instance.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InboxIndex implements Shareable {
+    // Key to the shared map that holds the index.
+    private static final String INBOX_INDEX_KEY = "io.flowly.inbox.index";
+
+    /**
+     * An open task and the flow object instance (view) of the task's sub-flow that the subject works on.
+     */
+    private static class Task implements Comparable<Task> {
+        private final Long taskId;
+        private final String subjectId;
+        private final long assignedOn;
+        private Long instanceId;
+        private String subFlowId;
+        private String receivedStatus;
+        private String status;
+        private Long viewId;
+        private String viewStatus;
+        private String viewRoute;
+
+        private Task(Long taskId, String subjectId, long assignedOn) {
+            this.taskId = taskId;
+            this.subjectId = subjectId;
+            this.assignedOn = assignedOn;
+        }
+
+        @Override
+        public int compareTo(Task task) {
+            int compare = Long.compare(task.assignedOn, assignedOn);
+            return compare != 0 ? compare : Long.compare(taskId, task.taskId);
+        }
+
+        private JsonObject toJson() {
+            JsonObject task = new JsonObject();
+            task.put(JsonKeys.TASK_ID, taskId);
+            task.put(JsonKeys.INSTANCE_ID, instanceId);
+            task.put(Schema.E_P_RECEIVED_STATUS, receivedStatus);
+            task.put(Schema.P_SUB_FLOW_ID, subFlowId);
+            task.put(Schema.E_P_ASSIGNED_ON, assignedOn);
+
+            if (viewId != null && !BaseManager.STATUS_NEW.equals(status)) {
+                task.put(JsonKeys.VIEW_ID, viewId);
+                task.put(Schema.P_STATUS, viewStatus);
+                task.put(JsonKeys.VIEW_ROUTE, viewRoute);
+            }
+            else {
+                task.put(Schema.P_STATUS, status);
+            }
+
+            return task;
+        }
+    }
+
+    // Open tasks by subject, latest first.
+    private Map<String, NavigableSet<Task>> inboxes = new HashMap<>();
+
+    // Open tasks by task id and the tasks by the id of their current view.
+    private Map<Long, Task> tasks = new HashMap<>();
+    private Map<Long, Task> views = new HashMap<>();
+
+    // Storage shards whose tasks are loaded.
+    private Set<Integer> loadedShards = new HashSet<>();
+
+    // Receives the changes to the inboxes (optional).
+    private Handler<JsonObject> eventHandler;
+
+    public InboxIndex() {
+    }
+
+    /**
+     * @param eventHandler receives an event whenever a task is added to, updated in or removed from an inbox.
+     *                     Loading the index does not raise events.
+     */
+    public InboxIndex(Handler<JsonObject> eventHandler) {
+        this.eventHandler = eventHandler;
+    }
+
+    /**
+     * @param vertx the vertx instance whose verticles share the index.
+     * @return the inbox index of the vertx instance. Changes to the inboxes are published on the event bus.
+     */
+    public static InboxIndex get(Vertx vertx) {
+        LocalMap<String, InboxIndex> map = vertx.sharedData().getLocalMap(INBOX_INDEX_KEY);
+        map.putIfAbsent(INBOX_INDEX_KEY,
+                new InboxIndex(event -> vertx.eventBus().publish(ClusterAddresses.INBOX_EVENT, event)));
+        return map.get(INBOX_INDEX_KEY);
+    }
+
+    /**
+     * @param shards the number of storage shards.
+     * @return true if the tasks of all shards are loaded.
+     */
+    public synchronized boolean isLoaded(int shards) {
+        for (int i = 0; i < shards; i++) {
+            if (!loadedShards.contains(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public synchronized boolean isShardLoaded(int shard) {
+        return loadedShards.contains(shard);
+    }
+
+    /**
+     * @param subjectId the subject id.
+     * @return the number of open tasks in the subject's inbox.
+     */
+    public synchronized int getOpenTaskCount(String subjectId) {
+        NavigableSet<Task> inbox = inboxes.get(subjectId);
+        return inbox != null ? inbox.size() : 0;
+    }
+
+    /**
+     * Load the open tasks of a subject as returned by the inbox traversal.
+     *
+     * @param subjectId the subject id.
+     * @param subjectTasks the tasks that hold the task id, the assigned time and the view (if any).
+     */
+    public synchronized void load(String subjectId, List<JsonObject> subjectTasks) {
+        for (JsonObject subjectTask : subjectTasks) {
+            Long taskId = subjectTask.getLong(JsonKeys.TASK_ID);
+            Long viewId = subjectTask.getLong(JsonKeys.VIEW_ID);
+            Task task = assign(subjectId, taskId, subjectTask.getLong(Schema.E_P_ASSIGNED_ON),
+                    subjectTask.getLong(JsonKeys.INSTANCE_ID), subjectTask.getString(Schema.P_SUB_FLOW_ID),
+                    viewId != null ? BaseManager.STATUS_IN_PROGRESS : subjectTask.getString(Schema.P_STATUS));
+
+            task.receivedStatus = subjectTask.getString(Schema.E_P_RECEIVED_STATUS);
+
+            if (viewId != null) {
+                setView(task, viewId, subjectTask.getString(Schema.P_STATUS),
+                        subjectTask.getString(JsonKeys.VIEW_ROUTE));
+            }
+        }
+    }
+
+    public synchronized void markLoaded(int shard) {
+        loadedShards.add(shard);
+    }
+
+    /**
+     * Add a task to the subject's inbox.
+     */
+    public synchronized void assign(String subjectId, Long taskId, long assignedOn, Long instanceId,
+                                    String subFlowId, String status) {
+        publish(JsonKeys.TASK_ADDED, assign(subjectId, taskId, Long.valueOf(assignedOn), instanceId, subFlowId,
+                status));
+    }
+
+    /**
+     * Update the status of the subject's assignment. Tasks that are no longer new or in progress leave the inbox.
+     */
+    public synchronized void updateReceivedStatus(Long taskId, String receivedStatus) {
+        Task task = tasks.get(taskId);
+
+        if (task == null) {
+            return;
+        }
+
+        if (BaseManager.STATUS_NEW.equals(receivedStatus) || BaseManager.STATUS_IN_PROGRESS.equals(receivedStatus)) {
+            task.receivedStatus = receivedStatus;
+            publish(JsonKeys.TASK_UPDATED, task);
+        }
+        else {
+            remove(task);
+            publish(JsonKeys.TASK_REMOVED, task);
+        }
+    }
+
+    /**
+     * Make the given flow object instance of a task's sub-flow the view the subject works on.
+     *
+     * @param taskId the task (sub-flow) flow object instance id.
+     * @param viewId the flow object instance id of the view.
+     * @param status the status of the view.
+     * @param viewRoute the id of the view's sub-flow, if any.
+     */
+    public synchronized void updateView(Long taskId, Long viewId, String status, String viewRoute) {
+        Task task = tasks.get(taskId);
+
+        if (task != null) {
+            setView(task, viewId, status, viewRoute);
+            publish(JsonKeys.TASK_UPDATED, task);
+        }
+    }
+
+    /**
+     * Move the view of a task to the flow object instance that follows the current view.
+     *
+     * @param fromViewId the flow object instance id of the current view.
+     * @param toViewId the flow object instance id of the next view.
+     * @param status the status of the next view.
+     * @param viewRoute the id of the next view's sub-flow, if any.
+     */
+    public synchronized void moveView(Long fromViewId, Long toViewId, String status, String viewRoute) {
+        Task task = views.get(fromViewId);
+
+        if (task != null) {
+            setView(task, toViewId, status, viewRoute);
+            publish(JsonKeys.TASK_UPDATED, task);
+        }
+    }
+
+    /**
+     * Update the status of a task or of a task's view.
+     *
+     * @param flowObjectInstanceId the flow object instance id of the task or the view.
+     * @param status the new status.
+     */
+    public synchronized void updateStatus(Long flowObjectInstanceId, String status) {
+        Task task = tasks.get(flowObjectInstanceId);
+
+        if (task != null) {
+            task.status = status;
+            publish(JsonKeys.TASK_UPDATED, task);
+        }
+
+        task = views.get(flowObjectInstanceId);
+
+        if (task != null) {
+            task.viewStatus = status;
+            publish(JsonKeys.TASK_UPDATED, task);
+        }
+    }
+
+    /**
+     * Get a page of the subject's inbox.
+     *
+     * @param subjectId the subject id.
+     * @param pageNumber the page number, starting at 1.
+     * @param pageSize the number of tasks in a page.
+     * @return the inbox page and the total number of open tasks.
+     */
+    public synchronized JsonObject getInbox(String subjectId, int pageNumber, int pageSize) {
+        NavigableSet<Task> inbox = inboxes.get(subjectId);
+        List<JsonObject> page = new ArrayList<>();
+        int count = inbox != null ? inbox.size() : 0;
+
+        if (inbox != null) {
+            Iterator<Task> iterator = inbox.iterator();
+            int low = (pageNumber - 1) * pageSize;
+
+            for (int i = 0; i < low + pageSize && iterator.hasNext(); i++) {
+                Task task = iterator.next();
+
+                if (i >= low) {
+                    page.add(task.toJson());
+                }
+            }
+        }
+
+        return new JsonObject().put(JsonKeys.COUNT, count).put(JsonKeys.TASKS, page);
+    }
+
+    /**
+     * Get the page of the subject's inbox that follows the given cursor.
+     *
+     * @param subjectId the subject id.
+     * @param after the cursor that holds the assigned time and the id of the last task retrieved, or null.
+     * @param pageSize the number of tasks in a page.
+     * @return the inbox page, the total number of open tasks and the cursor to the next page, if any.
+     */
+    public synchronized JsonObject getInbox(String subjectId, Cursor after, int pageSize) {
+        NavigableSet<Task> inbox = inboxes.get(subjectId);
+        JsonObject page = new JsonObject();
+        List<JsonObject> tasks = new ArrayList<>();
+
+        if (inbox != null) {
+            Iterator<Task> iterator = (after != null ?
+                    inbox.tailSet(new Task(after.getId(), subjectId, after.getLongKey()), false) : inbox).iterator();
+            Task task = null;
+
+            while (tasks.size() < pageSize && iterator.hasNext()) {
+                task = iterator.next();
+                tasks.add(task.toJson());
+            }
+
+            if (task != null && iterator.hasNext()) {
+                page.put(JsonKeys.NEXT_CURSOR, new Cursor(task.assignedOn, task.taskId).encode());
+            }
+        }
+
+        return page.put(JsonKeys.COUNT, inbox != null ? inbox.size() : 0).put(JsonKeys.TASKS, tasks);
+    }
+
+    /**
+     * Drop all tasks. The index has to be loaded again.
+     */
+    public synchronized void clear() {
+        inboxes.clear();
+        tasks.clear();
+        views.clear();
+        loadedShards.clear();
+    }
+
+    private Task assign(String subjectId, Long taskId, Long assignedOn, Long instanceId, String subFlowId,
+                        String status) {
+        Task task = tasks.get(taskId);
+
+        if (task != null) {
+            remove(task);
+        }
+
+        task = new Task(taskId, subjectId, assignedOn != null ? assignedOn : 0);
+        task.instanceId = instanceId;
+        task.subFlowId = subFlowId;
+        task.receivedStatus = BaseManager.STATUS_NEW;
+        task.status = status;
+
+        NavigableSet<Task> inbox = inboxes.get(subjectId);
+
+        if (inbox == null) {
+            inbox = new TreeSet<>();
+            inboxes.put(subjectId, inbox);
+        }
+
+        inbox.add(task);
+        tasks.put(taskId, task);
+        return task;
+    }
+
+    private void setView(Task task, Long viewId, String status, String viewRoute) {
+        if (task.viewId != null) {
+            views.remove(task.viewId);
+        }
+
+        task.viewId = viewId;
+        task.viewStatus = status;
+        task.viewRoute = viewRoute;
+        views.put(viewId, task);
+    }
+
+    private void publish(String eventType, Task task) {
+        if (eventHandler == null) {
+            return;
+        }
+
+        JsonObject event = new JsonObject().
+                put(JsonKeys.INBOX_EVENT_TYPE, eventType).
+                put(JsonKeys.SUBJECT_ID, task.subjectId).
+                put(JsonKeys.TASK_ID, task.taskId);
+
+        if (!JsonKeys.TASK_REMOVED.equals(eventType)) {
+            event.put(JsonKeys.TASK, task.toJson());
+        }
+
+        eventHandler.handle(event);
+    }
+
+    private void remove(Task task) {
+        tasks.remove(task.taskId);
+
+        if (task.viewId != null) {
+            views.remove(task.viewId);
+        }
+
+        NavigableSet<Task> inbox = inboxes.get(task.subjectId);
+        inbox.remove(task);
+
+        if (inbox.isEmpty()) {
+            inboxes.remove(task.subjectId);
+        }
+    }
+}
@@ -14,11 +14,17 @@
 package io.flowly.engine.data.manager;
 
 import io.flowly.core.data.manager.GraphManager;
+import io.flowly.engine.data.InboxIndex;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 /**
  * Defines constants shared by all data managers.
  *
+ * If the graph is one of several storage shards, the vertex ids seen outside the manager are unique across shards:
+ * the id of a vertex in its shard's graph is multiplied by the number of shards and offset by the shard index.
+ * The shard that holds a vertex is therefore the remainder of its id divided by the number of shards.
+ *
  * @author <a>Uday Tatiraju</a>
  */
 public abstract class BaseManager extends GraphManager {
@@ -28,7 +34,58 @@ public abstract class BaseManager extends GraphManager {
     public static final String STATUS_NEW = "New";
     public static final String STATUS_USER_INTERACTING = "User interacting";
 
+    // Index of the storage shard that holds the graph and the total number of shards.
+    private int shard;
+    private int shards = 1;
+
+    // Materialized inboxes that are kept up to date as tasks progress (optional).
+    protected InboxIndex inboxIndex;
+
     public BaseManager(Graph graph) {
         super(graph);
     }
+
+    public void setShard(int shard, int shards) {
+        this.shard = shard;
+        this.shards = shards;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public void setInboxIndex(InboxIndex inboxIndex) {
+        this.inboxIndex = inboxIndex;
+    }
+
+    /**
+     * @param id the vertex id.
+     * @param shards the number of storage shards.
+     * @return index of the shard that holds the vertex.
+     */
+    public static int getShard(Long id, int shards) {
+        return (int) Math.abs(id % shards);
+    }
+
+    /**
+     * @param vertex a vertex of this manager's graph.
+     * @return the id of the vertex that is unique across shards.
+     */
+    public Long getId(Vertex vertex) {
+        return (Long) vertex.id() * shards + shard;
+    }
+
+    /**
+     * @param id the vertex id that is unique across shards.
+     * @return the vertex or null if the vertex does not exist or is held by another shard.
+     */
+    @Override
+    public Vertex getVertex(Object id) {
+        if (shards == 1) {
+            return super.getVertex(id);
+        }
+
+        Long vertexId = (Long) id;
+        return getShard(vertexId, shards) == shard ? super.getVertex(vertexId / shards) : null;
+    }
 }
@@ -17,6 +17,7 @@ import io.flowly.engine.JsonKeys;
 import io.flowly.core.data.FlowInstance;
 import io.flowly.core.data.FlowInstanceMetadata;
 import io.flowly.core.codecs.FlowInstanceCodec;
+import io.flowly.core.data.manager.Cursor;
 import io.flowly.engine.verticles.Kernel;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.DeliveryOptions;
@@ -26,12 +27,14 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -41,7 +44,7 @@ import java.util.List;
  */
 public class FlowInstanceReadManager extends BaseManager {
     private static final Logger logger = LoggerFactory.getLogger(FlowInstanceReadManager.class);
-    private static final int ADDITIONAL_RECORDS = 5;
+    static final int ADDITIONAL_RECORDS = 5;
 
     private static final List<String> RECEIVED_STATUSES = new ArrayList<>();
     static {
@@ -93,21 +96,102 @@ public class FlowInstanceReadManager extends BaseManager {
     public Handler<Message<Object>> getInboxHandler() {
         return message -> {
             JsonObject args = (JsonObject) message.body();
+
             // TODO: Configure default values.
-            message.reply(getInbox(args.getString(JsonKeys.SUBJECT_ID),
-                    args.getInteger(JsonKeys.PAGE_NUMBER, 1), args.getInteger(JsonKeys.PAGE_SIZE, 50)));
+            if (args.containsKey(JsonKeys.CURSOR)) {
+                message.reply(getInbox(args.getString(JsonKeys.SUBJECT_ID), args.getString(JsonKeys.CURSOR),
+                        args.getInteger(JsonKeys.PAGE_SIZE, 50)));
+            }
+            else {
+                message.reply(getInbox(args.getString(JsonKeys.SUBJECT_ID),
+                        args.getInteger(JsonKeys.PAGE_NUMBER, 1), args.getInteger(JsonKeys.PAGE_SIZE, 50)));
+            }
         };
     }
 
     public JsonObject getInbox(String subjectId, int pageNumber, int pageSize) {
         int low = (pageNumber - 1) * pageSize;
-        int high = low + pageSize;
+        return createInbox(getTasks(subjectId, low, low + pageSize), low);
+    }
+
+    /**
+     * Get the page of a subject's inbox that follows the given cursor.
+     *
+     * @param subjectId the subject id.
+     * @param cursor the cursor returned with the previous page or null to get the first page.
+     * @param pageSize the number of tasks in a page.
+     * @return the inbox page and the cursor to the next page, if any.
+     */
+    public JsonObject getInbox(String subjectId, String cursor, int pageSize) {
+        Cursor after;
+
+        try {
+            after = Cursor.decode(cursor);
+        }
+        catch (IllegalArgumentException ex) {
+            logger.error("Unable to get the inbox for user: " + subjectId, ex);
+            return createInboxPage(new ArrayList<>(), pageSize);
+        }
+
+        return createInboxPage(getTasks(subjectId, after, pageSize + 1), pageSize);
+    }
+
+    /**
+     * Get the tasks assigned to a subject, latest first.
+     *
+     * @param subjectId the subject id.
+     * @param low index of the first task.
+     * @param high index of the last task (exclusive). A few additional tasks are returned to indicate more pages.
+     *             All tasks from the low index are returned if negative.
+     * @return the tasks or an empty list if the tasks could not be retrieved.
+     */
+    public List<JsonObject> getTasks(String subjectId, int low, int high) {
+        long to = high < 0 ? -1 : high + ADDITIONAL_RECORDS;
+        return getTasks(subjectId, getAssignments(subjectId).order().by(Schema.E_P_ASSIGNED_ON, Order.decr).
+                range(low, to));
+    }
+
+    /**
+     * Get the tasks assigned to a subject that follow the given cursor, latest first.
+     * Tasks that were assigned at the same time are ordered by their ids.
+     *
+     * @param subjectId the subject id.
+     * @param after the cursor that holds the assigned time and the id of the last task retrieved, or null.
+     * @param count the maximum number of tasks to get.
+     * @return the tasks or an empty list if the tasks could not be retrieved.
+     */
+    public List<JsonObject> getTasks(String subjectId, Cursor after, int count) {
+        GraphTraversal<Vertex, Edge> assignments = getAssignments(subjectId);
+
+        if (after != null) {
+            long assignedOn = after.getLongKey();
+            assignments = assignments.has(Schema.E_P_ASSIGNED_ON, P.lte(new Date(assignedOn))).filter(t ->
+                    getAssignedOn(t.get()) < assignedOn || getId(t.get().inVertex()) > after.getId());
+        }
+
+        return getTasks(subjectId, assignments.order().by((Edge e1, Edge e2) -> {
+            int compare = Long.compare(getAssignedOn(e2), getAssignedOn(e1));
+            return compare != 0 ? compare : Long.compare(getId(e1.inVertex()), getId(e2.inVertex()));
+        }).limit(count));
+    }
+
+    private GraphTraversal<Vertex, Edge> getAssignments(String subjectId) {
+        return graph.traversal().V().has(Schema.V_P_SUBJECT_ID, subjectId).
+                outE(Schema.E_IS_ASSIGNED).has(Schema.E_P_RECEIVED_STATUS, P.within(RECEIVED_STATUSES));
+    }
+
+    private long getAssignedOn(Edge isAssigned) {
+        return ((Date) isAssigned.value(Schema.E_P_ASSIGNED_ON)).getTime();
+    }
+
+    /**
+     * Get the tasks and their active views from the given (ordered and ranged) subject assignments.
+     */
+    private List<JsonObject> getTasks(String subjectId, GraphTraversal<Vertex, Edge> assignments) {
         List<JsonObject> tasks;
 
         try {
-            tasks = graph.traversal().V().has(Schema.V_P_SUBJECT_ID, subjectId).
-                    outE(Schema.E_IS_ASSIGNED).has(Schema.E_P_RECEIVED_STATUS, P.within(RECEIVED_STATUSES)).
-                    order().by(Schema.E_P_ASSIGNED_ON, Order.decr).range(low, high + ADDITIONAL_RECORDS).as("e_asg").
+            tasks = assignments.as("e_asg").
                     inV().as("v_svc").
                     choose(__.values(Schema.P_STATUS).is(RECEIVED_STATUSES.get(0)),
                             __.select("e_asg", "v_svc"),
@@ -118,9 +202,10 @@ public class FlowInstanceReadManager extends BaseManager {
                 Vertex v = (Vertex) m.get().get("v_svc");
                 Edge e = (Edge) m.get().get("e_asg");
 
-                task.put(JsonKeys.TASK_ID, v.id());
+                task.put(JsonKeys.TASK_ID, getId(v));
                 task.put(JsonKeys.INSTANCE_ID, v.property(Schema.V_P_INSTANCE_ID).value());
                 task.put(Schema.E_P_RECEIVED_STATUS, e.property(Schema.E_P_RECEIVED_STATUS).value());
+                task.put(Schema.E_P_ASSIGNED_ON, getAssignedOn(e));
                 task.put(Schema.P_SUB_FLOW_ID, v.property(Schema.P_SUB_FLOW_ID).value());
 
                 // TODO: Get due dates and subject.
@@ -128,7 +213,7 @@ public class FlowInstanceReadManager extends BaseManager {
                 if (m.get().containsKey("v_view")) {
                     Vertex view = (Vertex) m.get().get("v_view");
 
-                    task.put(JsonKeys.VIEW_ID, view.id());
+                    task.put(JsonKeys.VIEW_ID, getId(view));
                     task.put(Schema.P_STATUS, view.value(Schema.P_STATUS).toString());
                     task.put(JsonKeys.VIEW_ROUTE, view.value(Schema.P_SUB_FLOW_ID).toString());
                 }
@@ -147,10 +232,35 @@ public class FlowInstanceReadManager extends BaseManager {
             logger.error("Unable to get the inbox for user: " + subjectId, ex);
         }
 
-        return createInbox(tasks, low);
+        return tasks;
+    }
+
+    /**
+     * Load the open tasks of all subjects in this graph (shard) into the inbox index.
+     */
+    public void loadInbox() {
+        List<String> subjectIds;
+
+        try {
+            subjectIds = graph.traversal().V().has(Schema.V_P_SUBJECT_ID).
+                    <String>values(Schema.V_P_SUBJECT_ID).toList();
+            commit();
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to load the inbox index of shard: " + getShard(), ex);
+            return;
+        }
+
+        for (String subjectId : subjectIds) {
+            inboxIndex.load(subjectId, getTasks(subjectId, 0, -1));
+        }
+
+        inboxIndex.markLoaded(getShard());
+        logger.info("Loaded the inbox index of shard: " + getShard());
     }
 
-    private JsonObject createInbox(List<JsonObject> tasks, int low) {
+    static JsonObject createInbox(List<JsonObject> tasks, int low) {
         JsonObject inbox = new JsonObject();
 
         inbox.put(JsonKeys.COUNT, low + tasks.size());
@@ -158,4 +268,25 @@ public class FlowInstanceReadManager extends BaseManager {
 
         return inbox;
     }
+
+    /**
+     * @param tasks the tasks of the page, followed by the first task of the next page (if any).
+     * @param pageSize the number of tasks in a page.
+     * @return the inbox page and the cursor to the next page, if any.
+     */
+    static JsonObject createInboxPage(List<JsonObject> tasks, int pageSize) {
+        JsonObject inbox = new JsonObject();
+
+        if (tasks.size() > pageSize) {
+            tasks = new ArrayList<>(tasks.subList(0, pageSize));
+            JsonObject last = tasks.get(pageSize - 1);
+            inbox.put(JsonKeys.NEXT_CURSOR, new Cursor(last.getLong(Schema.E_P_ASSIGNED_ON),
+                    last.getLong(JsonKeys.TASK_ID)).encode());
+        }
+
+        inbox.put(JsonKeys.COUNT, tasks.size());
+        inbox.put(JsonKeys.TASKS, tasks);
+
+        return inbox;
+    }
 }
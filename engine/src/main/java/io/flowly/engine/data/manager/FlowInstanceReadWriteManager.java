@@ -24,12 +24,18 @@ import io.flowly.engine.verticles.Kernel;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * Handles create, update and delete operations on flow instances.
  *
@@ -38,6 +44,9 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
     private static final Logger logger = LoggerFactory.getLogger(FlowInstanceReadWriteManager.class);
 
+    // Key of the flow object instance ids of a token waiting at a join gateway.
+    private static final String FLOW_OBJECT_INSTANCE_IDS = "flowObjectInstanceIds";
+
     public FlowInstanceReadWriteManager(Graph graph) {
         super(graph);
     }
@@ -61,10 +70,16 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
         try {
             Vertex processVertex = graph.addVertex(Schema.V_PROCESS_INSTANCE);
             addFlowObjectProperties(processVertex, flowMetadata.getFlowId(), null);
-            Long instanceId = (Long) processVertex.id();
+            Long instanceId = getId(processVertex);
+            String persistence = getFlowPersistence(flowMetadata.getFlowId());
             commit();
 
-            return new FlowInstance(instanceId, flowMetadata);
+            FlowInstance instance = new FlowInstance(instanceId, flowMetadata);
+            if (persistence != null) {
+                instance.getMetadata().setPersistence(persistence);
+            }
+
+            return instance;
         }
         catch (Exception ex) {
             rollback();
@@ -76,10 +91,46 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
     public Handler<Message<Object>> createFlowObjectInstanceHandler() {
         return message -> {
             FlowInstanceWrapper wrapper = (FlowInstanceWrapper) message.body();
-            message.reply(createFlowObjectInstance(wrapper.getInstance(), wrapper.getNext(), wrapper.isStart()));
+            message.reply(createFlowObjectInstance(wrapper.getInstance(), wrapper.getNext(), wrapper.isStart(),
+                    wrapper.getFlowObjectInstanceId()));
         };
     }
 
+    public Handler<Message<Object>> reserveFlowObjectInstancesHandler() {
+        return message -> {
+            Integer count = (Integer) message.body();
+            message.reply(reserveFlowObjectInstances(count));
+        };
+    }
+
+    /**
+     * Create blank flow object instance vertices whose ids can be handed out to tokens before the tokens
+     * are written to the graph. Reserved vertices that are never used remain without a flow object id.
+     *
+     * @param count the number of vertices to create.
+     * @return the ids of the reserved vertices, or an empty array if the vertices could not be created.
+     */
+    public JsonArray reserveFlowObjectInstances(int count) {
+        JsonArray ids = new JsonArray();
+
+        try {
+            for (int i = 0; i < count; i++) {
+                Vertex vertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+                vertex.property(Schema.P_STATUS, STATUS_NEW);
+                ids.add(getId(vertex));
+            }
+
+            commit();
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to reserve flow object instance vertices.", ex);
+            ids.clear();
+        }
+
+        return ids;
+    }
+
     /**
      * Start or move a given flow or sub-flow instance by conditionally ending the current flow object instance (token)
      * and preparing a new one based on the next route.
@@ -90,33 +141,64 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
      * @return truthy value that indicates whether flow object instance was created or not.
      */
     public Long createFlowObjectInstance(FlowInstance instance, Route.Next next, boolean isStart) {
+        return createFlowObjectInstance(instance, next, isStart, null);
+    }
+
+    /**
+     * Start or move a given flow or sub-flow instance. If the flow object instance was reserved, the move is
+     * written to the reserved vertex. Writing the same move again has no effect.
+     *
+     * @param instance represents the flow or sub-flow instance.
+     * @param next the next flow object instance to create.
+     * @param isStart indicates if the current token (if any) is to be completed (move) or not.
+     * @param reservedId id of the reserved flow object instance vertex or null to create a new vertex.
+     * @return truthy value that indicates whether flow object instance was created or not.
+     */
+    public Long createFlowObjectInstance(FlowInstance instance, Route.Next next, boolean isStart,
+                                         Long reservedId) {
         FlowInstanceMetadata metadata = instance.getMetadata();
         FlowInstanceStep currentStep = metadata.getCurrentStep();
         Long instanceId = metadata.getInstanceId();
 
         try {
-            Vertex fromVertex;
+            Vertex toVertex;
+
+            if (reservedId != null) {
+                toVertex = getVertex(reservedId);
+
+                // The move was written before (replayed from the journal).
+                if (getPropertyValue(toVertex, Schema.V_P_FLOW_OBJECT_ID) != null) {
+                    commit();
+                    return reservedId;
+                }
+            }
+            else {
+                toVertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+            }
+
+            addFlowObjectProperties(toVertex, next.getFlowObjectId(), next.getSubFlowId());
 
             // Start a new flow instance.
             if (currentStep == null) {
-                fromVertex = getVertex(instanceId);
+                addFlowEdge(getVertex(instanceId), Schema.E_FLOW_TO, toVertex);
+            }
+            // The automatic steps that led here were not persisted - continue from the last persisted step.
+            else if (currentStep.getFlowObjectInstanceId() == null && !isStart) {
+                linkFromPersistedStep(instance, toVertex);
             }
             else {
-                fromVertex = getVertex(currentStep.getFlowObjectInstanceId());
+                Vertex fromVertex = getCurrentStepVertex(instance);
 
                 // If it is a sub-flow, set the status of the flow object instance to in-progress.
                 String status = isStart ?  STATUS_IN_PROGRESS : STATUS_COMPLETED;
 
                 updateFlowObjectProperties(fromVertex, instance, status, isStart);
-            }
-
-            Vertex toVertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
-            addFlowObjectProperties(toVertex, next.getFlowObjectId(), next.getSubFlowId());
 
-            String edgeLabel = (currentStep != null && isStart) ? Schema.E_FLOW_INTO : Schema.E_FLOW_TO;
-            fromVertex.addEdge(edgeLabel, toVertex);
+                String edgeLabel = isStart ? Schema.E_FLOW_INTO : Schema.E_FLOW_TO;
+                addFlowEdge(fromVertex, edgeLabel, toVertex);
+            }
 
-            Long flowObjectInstanceId = (Long) toVertex.id();
+            Long flowObjectInstanceId = getId(toVertex);
             commit();
             return flowObjectInstanceId;
         }
@@ -127,6 +209,141 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
         }
     }
 
+    public Handler<Message<Object>> joinFlowObjectInstancesHandler() {
+        return message -> {
+            FlowInstanceWrapper wrapper = (FlowInstanceWrapper) message.body();
+            message.reply(joinFlowObjectInstances(wrapper.getInstance(), wrapper.getJoinedFlowObjectInstanceIds(),
+                    wrapper.getNext()));
+        };
+    }
+
+    /**
+     * Record the arrival of a parallel token of a flow or sub-flow instance at a join gateway. Arrivals are
+     * counted on a join vertex of the instance, so tokens that run on different engines (or before a restart)
+     * are joined. When the last token arrives, the join vertex is removed, the joined flow object instances
+     * (tokens) are completed and a single flow object instance is created for the join gateway.
+     *
+     * @param instance represents the flow or sub-flow instance with the data of the arriving token.
+     * @param flowObjectInstanceIds the flow object instance ids of the arriving token (empty if not persisted).
+     * @param next the join gateway flow object.
+     * @return empty object if the token waits for the other tokens, the id of the join gateway flow object instance
+     *         and the data of all tokens (merged in the order of arrival) if the tokens are joined,
+     *         or null if the arrival could not be recorded.
+     */
+    public JsonObject joinFlowObjectInstances(FlowInstance instance, List<Long> flowObjectInstanceIds,
+                                              Route.Next next) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+        Long instanceId = metadata.getInstanceId();
+
+        try {
+            Vertex instanceVertex = getVertex(instanceId);
+            String joinKey = getJoinKey(metadata, next.getFlowObjectId());
+            Vertex joinVertex = getJoinVertex(instanceVertex, joinKey);
+
+            if (joinVertex == null) {
+                joinVertex = graph.addVertex(Schema.V_JOIN);
+                joinVertex.property(Schema.V_P_JOIN_KEY, joinKey);
+                instanceVertex.addEdge(Schema.E_WAITS_AT, joinVertex);
+            }
+
+            String encodedTokens = getPropertyValue(joinVertex, Schema.V_P_TOKENS);
+            JsonArray tokens = encodedTokens != null ? new JsonArray(encodedTokens) : new JsonArray();
+            JsonObject data = instance.getData();
+            tokens.add(new JsonObject().
+                    put(FlowInstance.DATA, data != null ? data : new JsonObject()).
+                    put(FLOW_OBJECT_INSTANCE_IDS, new JsonArray(flowObjectInstanceIds)));
+
+            if (tokens.size() < next.getJoinCount()) {
+                joinVertex.property(Schema.V_P_ARRIVED, tokens.size());
+                joinVertex.property(Schema.V_P_TOKENS, tokens.encode());
+                commit();
+                return new JsonObject();
+            }
+
+            joinVertex.remove();
+            instance.setData(mergeTokens(tokens));
+            Long flowObjectInstanceId = addJoinFlowObjectInstance(instance, getJoinedIds(tokens), next);
+            commit();
+
+            return new JsonObject().
+                    put(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID, flowObjectInstanceId).
+                    put(FlowInstance.DATA, instance.getData());
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to join flow object instance tokens: " + instanceId, ex);
+            return null;
+        }
+    }
+
+    private Long addJoinFlowObjectInstance(FlowInstance instance, List<Long> joinedFlowObjectInstanceIds,
+                                           Route.Next next) {
+        Vertex toVertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+        addFlowObjectProperties(toVertex, next.getFlowObjectId(), next.getSubFlowId());
+
+        for (Long flowObjectInstanceId : joinedFlowObjectInstanceIds) {
+            Vertex fromVertex = getVertex(flowObjectInstanceId);
+            updateFlowObjectProperties(fromVertex, null, STATUS_COMPLETED, false);
+            addFlowEdge(fromVertex, Schema.E_FLOW_TO, toVertex);
+        }
+
+        // None of the joined tokens were persisted.
+        if (joinedFlowObjectInstanceIds.isEmpty()) {
+            linkFromPersistedStep(instance, toVertex);
+        }
+
+        updateFlowObjectProperties(toVertex, instance, STATUS_IN_PROGRESS, false);
+        return getId(toVertex);
+    }
+
+    private Vertex getJoinVertex(Vertex instanceVertex, String joinKey) {
+        Iterator<Vertex> joinVertices = instanceVertex.vertices(Direction.OUT, Schema.E_WAITS_AT);
+
+        while (joinVertices.hasNext()) {
+            Vertex joinVertex = joinVertices.next();
+
+            if (joinKey.equals(getPropertyValue(joinVertex, Schema.V_P_JOIN_KEY))) {
+                return joinVertex;
+            }
+        }
+
+        return null;
+    }
+
+    private String getJoinKey(FlowInstanceMetadata metadata, String joinFlowObjectId) {
+        // Sub-flows share the instance id of the top level flow - use the parent reference to keep them apart.
+        return metadata.getParentFlowObjectInstanceId() + ":" + metadata.getFlowId() + ":" + joinFlowObjectId;
+    }
+
+    private JsonObject mergeTokens(JsonArray tokens) {
+        JsonObject data = new JsonObject();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            data.mergeIn(tokens.getJsonObject(i).getJsonObject(FlowInstance.DATA));
+        }
+
+        return data;
+    }
+
+    private List<Long> getJoinedIds(JsonArray tokens) {
+        List<Long> joinedFlowObjectInstanceIds = new ArrayList<>();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            JsonArray ids = tokens.getJsonObject(i).getJsonArray(FLOW_OBJECT_INSTANCE_IDS);
+
+            for (int j = 0; j < ids.size(); j++) {
+                Long flowObjectInstanceId = ids.getLong(j);
+
+                // Tokens that ran in memory only share their last persisted step.
+                if (!joinedFlowObjectInstanceIds.contains(flowObjectInstanceId)) {
+                    joinedFlowObjectInstanceIds.add(flowObjectInstanceId);
+                }
+            }
+        }
+
+        return joinedFlowObjectInstanceIds;
+    }
+
     public Handler<Message<Object>> completeInstanceHandler() {
         return message -> {
             FlowInstance instance = (FlowInstance) message.body();
@@ -142,12 +359,10 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
      */
     public boolean completeInstance(FlowInstance instance) {
         FlowInstanceMetadata metadata = instance.getMetadata();
-        FlowInstanceStep currentStep = metadata.getCurrentStep();
         Long instanceId = metadata.getInstanceId();
 
         try {
-            updateFlowObjectProperties(getVertex(currentStep.getFlowObjectInstanceId()),
-                    instance, STATUS_COMPLETED, false);
+            updateFlowObjectProperties(getCurrentStepVertex(instance), instance, STATUS_COMPLETED, false);
 
             // No parents - mark the instance vertex as complete.
             if (metadata.getParentFlowObjectInstanceId() == null) {
@@ -183,8 +398,7 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
         FlowInstanceMetadata metadata = instance.getMetadata();
 
         try {
-            updateFlowObjectProperties(getVertex(metadata.getCurrentStep().getFlowObjectInstanceId()),
-                    instance, status, saveMetadata);
+            updateFlowObjectProperties(getCurrentStepVertex(instance), instance, status, saveMetadata);
             commit();
             return true;
         }
@@ -209,10 +423,9 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
      */
     public boolean failInstance(FlowInstance instance) {
         FlowInstanceMetadata metadata = instance.getMetadata();
-        FlowInstanceStep currentStep = metadata.getCurrentStep();
 
         try {
-            Vertex flowObjectVertex = getVertex(currentStep.getFlowObjectInstanceId());
+            Vertex flowObjectVertex = getCurrentStepVertex(instance);
             updateFlowObjectProperties(flowObjectVertex, instance, STATUS_FAILED, true);
 
             // TODO: Get the cause of failure from the caller.
@@ -234,6 +447,82 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
         }
     }
 
+    /**
+     * Get the vertex that represents the current step of the given flow instance. If the instance only persists
+     * its wait states, the current step may have run in memory - it is then written to the graph as the
+     * flow object instance that follows the last persisted step.
+     *
+     * @param instance the flow instance whose current step is to be retrieved.
+     * @return the vertex that represents the current step.
+     */
+    private Vertex getCurrentStepVertex(FlowInstance instance) {
+        FlowInstanceStep currentStep = instance.getMetadata().getCurrentStep();
+
+        if (currentStep.getFlowObjectInstanceId() != null) {
+            return getVertex(currentStep.getFlowObjectInstanceId());
+        }
+
+        Vertex vertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+        addFlowObjectProperties(vertex, currentStep.getFlowObjectId(), currentStep.getSubFlowId());
+        linkFromPersistedStep(instance, vertex);
+        currentStep.setFlowObjectInstanceId(getId(vertex));
+
+        return vertex;
+    }
+
+    /**
+     * Link the given flow object instance to the last persisted step of the flow instance. If none of the
+     * steps were persisted yet, the flow object instance is linked to the parent flow object instance
+     * (sub-flow) or to the flow instance.
+     *
+     * @param instance the flow instance whose data is saved on the completed step.
+     * @param toVertex the flow object instance that follows the last persisted step.
+     */
+    private void linkFromPersistedStep(FlowInstance instance, Vertex toVertex) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+        Long persistedFlowObjectInstanceId = metadata.getPersistedFlowObjectInstanceId();
+
+        if (persistedFlowObjectInstanceId != null) {
+            Vertex fromVertex = getVertex(persistedFlowObjectInstanceId);
+            updateFlowObjectProperties(fromVertex, instance, STATUS_COMPLETED, false);
+            addFlowEdge(fromVertex, Schema.E_FLOW_TO, toVertex);
+        }
+        else if (metadata.getParentFlowObjectInstanceId() != null) {
+            addFlowEdge(getVertex(metadata.getParentFlowObjectInstanceId()), Schema.E_FLOW_INTO, toVertex);
+        }
+        else {
+            addFlowEdge(getVertex(metadata.getInstanceId()), Schema.E_FLOW_TO, toVertex);
+        }
+    }
+
+    /**
+     * Link two flow object instances. If the inbox index is enabled, the view of the task that is started
+     * (flow into) or whose view is moved (flow to) is updated once the link is committed.
+     */
+    private void addFlowEdge(Vertex fromVertex, String edgeLabel, Vertex toVertex) {
+        fromVertex.addEdge(edgeLabel, toVertex);
+
+        if (inboxIndex != null) {
+            Long fromId = getId(fromVertex);
+            Long toId = getId(toVertex);
+            String status = getPropertyValue(toVertex, Schema.P_STATUS);
+            String viewRoute = getPropertyValue(toVertex, Schema.P_SUB_FLOW_ID);
+
+            if (Schema.E_FLOW_INTO.equals(edgeLabel)) {
+                afterCommit(() -> inboxIndex.updateView(fromId, toId, status, viewRoute));
+            }
+            else {
+                afterCommit(() -> inboxIndex.moveView(fromId, toId, status, viewRoute));
+            }
+        }
+    }
+
+    private String getFlowPersistence(String flowId) {
+        List<Vertex> flowVertices = graph.traversal().V().has(Schema.V_FLOW_METADATA,
+                Schema.V_P_FLOW_ID, flowId).toList();
+        return flowVertices.size() == 1 ? getPropertyValue(flowVertices.get(0), Schema.V_P_PERSISTENCE) : null;
+    }
+
     private void addFlowObjectProperties(Vertex vertex, String flowObjectId, String subFlowId) {
         vertex.property(Schema.V_P_FLOW_OBJECT_ID, flowObjectId);
         vertex.property(Schema.P_STATUS, STATUS_IN_PROGRESS);
@@ -246,12 +535,21 @@ public class FlowInstanceReadWriteManager extends FlowInstanceReadManager {
     private void updateFlowObjectProperties(Vertex vertex, FlowInstance instance, String status, boolean saveMetadata) {
         vertex.property(Schema.P_STATUS, status);
 
+        if (inboxIndex != null) {
+            Long flowObjectInstanceId = getId(vertex);
+            afterCommit(() -> inboxIndex.updateStatus(flowObjectInstanceId, status));
+        }
+
         if (instance == null) {
             return;
         }
 
         if (saveMetadata) {
-            vertex.property(Schema.V_P_META_DATA, instance.getMetadata().encode());
+            // Admissions belong to the engine that runs the token - they are not restored from the graph.
+            JsonObject metadata = instance.getMetadata().copy();
+            metadata.remove(FlowInstanceMetadata._ADMISSION_ID);
+            metadata.remove(FlowInstanceMetadata._ADMISSION_ADDRESS);
+            vertex.property(Schema.V_P_META_DATA, metadata.encode());
             vertex.property(Schema.V_P_INSTANCE_ID, instance.getMetadata().getInstanceId());
         }
 
@@ -16,10 +16,13 @@ package io.flowly.engine.data.manager;
 import io.flowly.core.data.FlowInstanceMetadata;
 import io.flowly.core.data.FlowInstanceStep;
 import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.data.FlowCatalog;
 import io.flowly.engine.router.Route;
+import io.flowly.engine.router.RouteTable;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
@@ -39,10 +42,26 @@ import java.util.List;
 public class FlowReadManager extends BaseManager {
     private static final Logger logger = LoggerFactory.getLogger(FlowReadManager.class);
 
+    // Optional in-memory catalog that is refreshed whenever flow metadata is saved or deleted.
+    protected FlowCatalog flowCatalog;
+
     public FlowReadManager(Graph graph) {
         super(graph);
     }
 
+    public void setFlowCatalog(FlowCatalog flowCatalog) {
+        this.flowCatalog = flowCatalog;
+    }
+
+    /**
+     * Load the flow catalog from the flow metadata vertices.
+     */
+    public void loadCatalog() {
+        JsonArray flows = getFlows(null);
+        flowCatalog.load(flows);
+        logger.info("Flow catalog loaded: " + flows.size() + " flows.");
+    }
+
     public Handler<Message<Object>> flowNextRouteHandler() {
         return message -> {
             FlowInstanceMetadata metadata = (FlowInstanceMetadata) message.body();
@@ -69,8 +88,10 @@ public class FlowReadManager extends BaseManager {
 
             for (Vertex routeVertex : traversal.toList()) {
                 VertexProperty<String> subFlowId = routeVertex.property(Schema.P_SUB_FLOW_ID);
+                VertexProperty<Integer> joinCount = routeVertex.property(Schema.V_P_JOIN_COUNT);
                 route.addNext((String) routeVertex.property(Schema.V_P_NEXT_FLOW_OBJECT_ID).value(),
-                        subFlowId.isPresent() ? subFlowId.value() : null);
+                        subFlowId.isPresent() ? subFlowId.value() : null,
+                        joinCount.isPresent() ? joinCount.value() : 0);
 
                 route.setValid(true);
             }
@@ -86,6 +107,60 @@ public class FlowReadManager extends BaseManager {
         return route;
     }
 
+    public Handler<Message<Object>> getRoutersHandler() {
+        return message -> {
+            JsonArray flowIds = (JsonArray) message.body();
+            message.reply(getRouters(flowIds));
+        };
+    }
+
+    /**
+     * Get the saved route entries of the given flows.
+     *
+     * @param flowIds the ids of the flows.
+     * @return JSON object that maps a flow id to its route entries (see {@link RouteTable.Entry#toJson()})
+     *         or null if the routes of a flow are not found.
+     */
+    public JsonObject getRouters(JsonArray flowIds) {
+        JsonObject routers = new JsonObject();
+
+        try {
+            for (Object flowId : flowIds) {
+                JsonArray entries = new JsonArray();
+
+                for (Vertex routeVertex : graph.traversal().V().has(Schema.V_FLOW_ROUTE,
+                        Schema.V_P_ROUTE_FLOW_ID, flowId).toList()) {
+                    VertexProperty<String> subFlowId = routeVertex.property(Schema.P_SUB_FLOW_ID);
+                    VertexProperty<Integer> joinCount = routeVertex.property(Schema.V_P_JOIN_COUNT);
+
+                    entries.add(new RouteTable.Entry(
+                            (String) routeVertex.property(Schema.V_P_CURRENT_FLOW_OBJECT_ID).value(),
+                            (String) routeVertex.property(Schema.V_P_CONNECTING_OBJECT_ID).value(),
+                            (String) routeVertex.property(Schema.V_P_NEXT_FLOW_OBJECT_ID).value(),
+                            subFlowId.isPresent() ? subFlowId.value() : null,
+                            joinCount.isPresent() ? joinCount.value() : 0).toJson());
+                }
+
+                if (entries.isEmpty()) {
+                    logger.info("Routes not found for flow: " + flowId);
+                    routers = null;
+                    break;
+                }
+
+                routers.put((String) flowId, entries);
+            }
+
+            commit();
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to get flow routers.", ex);
+            routers = null;
+        }
+
+        return routers;
+    }
+
     public Handler<Message<Object>> getFlowsHandler() {
         return message -> {
             String userId = (String) message.body();
@@ -93,6 +168,12 @@ public class FlowReadManager extends BaseManager {
         };
     }
 
+    /**
+     * Get the deployed flows from the graph. Unlike the flow catalog, the flows are not filtered.
+     *
+     * @param subjectId the subject that requested the flows (used for logging).
+     * @return the metadata of all flows.
+     */
     public JsonArray getFlows(String subjectId) {
         JsonArray flows = new JsonArray();
 
@@ -103,6 +184,11 @@ public class FlowReadManager extends BaseManager {
                 flowMetadata.setFlowType((String) flowVertex.property(Schema.V_P_FLOW_TYPE).value());
                 flowMetadata.setAppId((String) flowVertex.property(Schema.V_P_APP_ID).value());
 
+                String persistence = getPropertyValue(flowVertex, Schema.V_P_PERSISTENCE);
+                if (persistence != null) {
+                    flowMetadata.setPersistence(persistence);
+                }
+
                 flows.add(flowMetadata);
             }
 
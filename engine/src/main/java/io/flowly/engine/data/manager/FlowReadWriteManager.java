@@ -13,12 +13,12 @@
 
 package io.flowly.engine.data.manager;
 
+import io.flowly.core.data.FlowMetadata;
 import io.flowly.engine.assets.CompiledFlow;
-import io.flowly.engine.assets.ConnectingObject;
 import io.flowly.engine.assets.Flow;
-import io.flowly.engine.assets.FlowObject;
-import io.flowly.engine.assets.SubFlow;
-import io.flowly.engine.assets.View;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.router.FlowRouter;
+import io.flowly.engine.router.RouteTable;
 import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.logging.Logger;
@@ -26,6 +26,9 @@ import io.vertx.core.logging.LoggerFactory;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Handles save operations of flow metadata and flow routes.
  *
@@ -34,8 +37,16 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 public class FlowReadWriteManager extends FlowReadManager {
     private static final Logger logger = LoggerFactory.getLogger(FlowReadWriteManager.class);
 
+    // Optional in-memory router that is refreshed whenever a flow router is saved or deleted.
+    private FlowRouter flowRouter;
+
     public FlowReadWriteManager(Graph graph) {
+        this(graph, null);
+    }
+
+    public FlowReadWriteManager(Graph graph, FlowRouter flowRouter) {
         super(graph);
+        this.flowRouter = flowRouter;
     }
 
     public Handler<Message<Object>> saveFlowHandler() {
@@ -45,6 +56,13 @@ public class FlowReadWriteManager extends FlowReadManager {
         };
     }
 
+    public Handler<Message<Object>> saveFlowBatchHandler() {
+        return message -> {
+            FlowBatch batch = (FlowBatch) message.body();
+            message.reply(saveFlows(batch.getFlows()));
+        };
+    }
+
     public Handler<Message<Object>> deleteFlowHandler() {
         return message -> {
             Flow flow = (Flow) message.body();
@@ -54,16 +72,10 @@ public class FlowReadWriteManager extends FlowReadManager {
 
     public boolean saveFlowMetadata(Flow flow) {
         try {
-            deleteFlowMetadataVertex(flow);
-
-            // Create flow vertex.
-            Vertex flowMetadataVertex = graph.addVertex(Schema.V_FLOW_METADATA);
-            flowMetadataVertex.property(Schema.V_P_FLOW_ID, flow.getId());
-            flowMetadataVertex.property(Schema.V_P_FLOW_TYPE, flow.getType());
-            flowMetadataVertex.property(Schema.V_P_APP_ID, flow.getApp().getId());
-            // TODO: Add flow properties like isPublic, isProtected, type.
-
+            createFlowMetadataVertex(flow);
             commit();
+            putFlowCatalog(flow);
+
             return true;
         }
         catch (Exception ex) {
@@ -77,6 +89,11 @@ public class FlowReadWriteManager extends FlowReadManager {
         try {
             deleteFlowMetadataVertex(flow);
             commit();
+
+            if (flowCatalog != null) {
+                flowCatalog.remove(flow.getId());
+            }
+
             return true;
         }
         catch (Exception ex) {
@@ -88,48 +105,65 @@ public class FlowReadWriteManager extends FlowReadManager {
 
     public boolean saveRouter(Flow flow) {
         try {
-            CompiledFlow compiledFlow = new CompiledFlow(flow);
-            String flowId = flow.getId();
+            RouteTable routeTable = createRouteVertices(flow);
 
-            if (!compiledFlow.isValid()) {
-                logger.info(compiledFlow.getInvalidMessage());
+            if (routeTable == null) {
                 return false;
             }
 
-            // Remove existing routes.
-            deleteRouteVertices(flow.getId());
+            commit();
 
-            // Add start route for flow.
-            createRouteVertex(flowId, "0", compiledFlow.getStartEvent().getId(), "0", null);
+            if (flowRouter != null) {
+                flowRouter.putRouteTable(routeTable);
+            }
 
-            // Loop through the connecting objects and load the routes.
-            for (ConnectingObject connectingObject : flow.getConnectingObjects()) {
-                String subFlowId = null;
-                FlowObject flowObject = compiledFlow.getFlowObjectMap().get(connectingObject.getToId());
+            logger.info("Router created and saved for flow: " + flow.getId());
+            return true;
+        }
+        catch (Exception ex) {
+            rollback();
+            logger.error("Unable to create and save router for flow: " + flow.getId(), ex);
+            return false;
+        }
+    }
 
-                if (flowObject instanceof SubFlow) {
-                    subFlowId = ((SubFlow) flowObject).getSubFlowId();
-                }
-                else if (flowObject instanceof View) {
-                    subFlowId = ((View) flowObject).getRefViewId();
-                }
+    /**
+     * Save the metadata and routers of the given flows in a single transaction.
+     *
+     * @param flows the flows to be saved.
+     * @return true if all flows are saved. Flows with invalid routes are not routable, but the rest are saved.
+     */
+    public boolean saveFlows(List<Flow> flows) {
+        try {
+            List<RouteTable> routeTables = new ArrayList<>(flows.size());
 
-                createRouteVertex(flowId, connectingObject.getFromId(), connectingObject.getToId(),
-                        connectingObject.getId(), subFlowId);
-            }
+            for (Flow flow : flows) {
+                createFlowMetadataVertex(flow);
+                RouteTable routeTable = createRouteVertices(flow);
 
-            for (FlowObject flowObject : compiledFlow.getEndEvents()) {
-                createRouteVertex(flowId, flowObject.getId(), "-1", "0", null);
+                if (routeTable != null) {
+                    routeTables.add(routeTable);
+                }
             }
 
             commit();
 
-            logger.info("Router created and saved for flow: " + flowId);
-            return true;
+            for (Flow flow : flows) {
+                putFlowCatalog(flow);
+            }
+
+            if (flowRouter != null) {
+                for (RouteTable routeTable : routeTables) {
+                    flowRouter.putRouteTable(routeTable);
+                }
+            }
+
+            logger.info("Routers created and saved for flows: " + routeTables.size() + " of " + flows.size());
+            return routeTables.size() == flows.size();
         }
         catch (Exception ex) {
             rollback();
-            logger.error("Unable to create and save router for flow: " + flow.getId(), ex);
+            logger.error("Unable to save flows: " + flows.size(), ex);
             return false;
         }
     }
@@ -138,6 +172,11 @@ public class FlowReadWriteManager extends FlowReadManager {
         try {
             deleteRouteVertices(flow.getId());
             commit();
+
+            if (flowRouter != null) {
+                flowRouter.removeRouteTable(flow.getId());
+            }
+
             return true;
         }
         catch (Exception ex) {
@@ -147,8 +186,62 @@ public class FlowReadWriteManager extends FlowReadManager {
         }
     }
 
+    private void createFlowMetadataVertex(Flow flow) {
+        deleteFlowMetadataVertex(flow);
+
+        // Create flow vertex.
+        Vertex flowMetadataVertex = graph.addVertex(Schema.V_FLOW_METADATA);
+        flowMetadataVertex.property(Schema.V_P_FLOW_ID, flow.getId());
+        flowMetadataVertex.property(Schema.V_P_FLOW_TYPE, flow.getType());
+        flowMetadataVertex.property(Schema.V_P_APP_ID, flow.getApp().getId());
+        setPropertyValue(flowMetadataVertex, Schema.V_P_PERSISTENCE, flow.getPersistence());
+        // TODO: Add flow properties like isPublic, isProtected, type.
+    }
+
+    private void putFlowCatalog(Flow flow) {
+        if (flowCatalog != null) {
+            FlowMetadata flowMetadata = new FlowMetadata();
+            flowMetadata.setFlowId(flow.getId());
+            flowMetadata.setFlowType(flow.getType());
+            flowMetadata.setAppId(flow.getApp().getId());
+
+            if (flow.getPersistence() != null) {
+                flowMetadata.setPersistence(flow.getPersistence());
+            }
+
+            flowCatalog.put(flowMetadata);
+        }
+    }
+
+    /**
+     * Replace the route vertices of the flow, without committing.
+     *
+     * @return the route table of the flow or null if the flow is invalid.
+     */
+    private RouteTable createRouteVertices(Flow flow) {
+        CompiledFlow compiledFlow = new CompiledFlow(flow);
+        String flowId = flow.getId();
+
+        if (!compiledFlow.isValid()) {
+            logger.info(compiledFlow.getInvalidMessage());
+            return null;
+        }
+
+        RouteTable routeTable = new RouteTable(flow, compiledFlow);
+
+        // Remove existing routes.
+        deleteRouteVertices(flowId);
+
+        for (RouteTable.Entry entry : routeTable.getEntries()) {
+            createRouteVertex(flowId, entry.getCurrentFlowObjectId(), entry.getNextFlowObjectId(),
+                    entry.getConnectingObjectId(), entry.getSubFlowId(), entry.getJoinCount());
+        }
+
+        return routeTable;
+    }
+
     private void createRouteVertex(String flowId, String currentFlowObjectId, String nextFlowObjectId,
-                                   String connectingObjectId, String subFlowId) {
+                                   String connectingObjectId, String subFlowId, int joinCount) {
         Vertex routeVertex = graph.addVertex(Schema.V_FLOW_ROUTE);
 
         routeVertex.property(Schema.V_P_ROUTE_FLOW_ID, flowId);
@@ -159,6 +252,10 @@ public class FlowReadWriteManager extends FlowReadManager {
         if (subFlowId != null) {
             routeVertex.property(Schema.P_SUB_FLOW_ID, subFlowId);
         }
+
+        if (joinCount > 0) {
+            routeVertex.property(Schema.V_P_JOIN_COUNT, joinCount);
+        }
     }
 
     private void deleteRouteVertices(String flowId) {
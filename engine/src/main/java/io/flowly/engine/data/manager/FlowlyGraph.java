@@ -20,6 +20,7 @@ import com.thinkaurelius.titan.core.TitanFactory;
 import com.thinkaurelius.titan.core.TitanGraph;
 import com.thinkaurelius.titan.core.schema.TitanManagement;
 import io.flowly.engine.JsonKeys;
+import io.flowly.engine.verticles.Kernel;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
@@ -28,24 +29,47 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.io.File;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Create a Titan graph by configuring the storage and indexing options.
  * Prepares the graph schema when the graph is created for the first time.
  *
+ * The storage backend is pluggable through Titan's storage SPI - any Titan backend shorthand or
+ * store manager class name can be configured. Defaults to the durable BerkeleyJE store. The in-memory
+ * store holds the graph on the heap only and suits ephemeral flows and tests.
+ *
+ * If sharding is enabled, each repository write partition stores its flow instances in a graph of its own,
+ * located in a sub directory of the storage directory.
+ *
  * @author <a>Uday Tatiraju</a>
  */
 public class FlowlyGraph {
     private static final Logger logger = LoggerFactory.getLogger(FlowlyGraph.class);
 
+    // Graphs shared by the repository verticle instances of this JVM, keyed by storage directory.
+    private static final Map<String, FlowlyGraph> sharedGraphs = new HashMap<>();
+
+    public static final String STORAGE_BERKELEYJE = "berkeleyje";
+    public static final String STORAGE_INMEMORY = "inmemory";
+
+    private static final String SHARD_DIRECTORY_PREFIX = "shard-";
+
     private TitanGraph graph;
+    private int references;
 
     // TODO: Use Cassandra.
     public FlowlyGraph(JsonObject config) {
+        String storageBackend = getStorageBackend(config);
         TitanFactory.Builder titanConfig = TitanFactory.build();
-        titanConfig.set(JsonKeys.DB_STORAGE_BACKEND, "berkeleyje");
-        titanConfig.set(JsonKeys.DB_STORAGE_DIRECTORY, config.getString(JsonKeys.DB_STORAGE_DIRECTORY));
+        titanConfig.set(JsonKeys.DB_STORAGE_BACKEND, storageBackend);
+
+        if (!storageBackend.equals(STORAGE_INMEMORY)) {
+            titanConfig.set(JsonKeys.DB_STORAGE_DIRECTORY, config.getString(JsonKeys.DB_STORAGE_DIRECTORY));
+        }
 
         graph = titanConfig.open();
         configureSchema(graph);
@@ -55,6 +79,81 @@ public class FlowlyGraph {
         return graph;
     }
 
+    /**
+     * @param config the configuration that holds the storage options.
+     * @return the configured storage backend or BerkeleyJE if none is configured.
+     */
+    public static String getStorageBackend(JsonObject config) {
+        return config.getString(JsonKeys.DB_STORAGE_BACKEND, STORAGE_BERKELEYJE);
+    }
+
+    /**
+     * @param config the configuration that holds the storage and repository options.
+     * @return the number of storage shards - one per repository write partition if sharding is enabled.
+     */
+    public static int getShards(JsonObject config) {
+        return config.getBoolean(JsonKeys.REPO_STORAGE_SHARDED, false) ?
+                Kernel.getRepositoryWritePartitions(config) : 1;
+    }
+
+    /**
+     * @param config the configuration that holds the storage options.
+     * @param shard the shard index.
+     * @return the configuration of the shard's graph.
+     */
+    public static JsonObject getShardConfig(JsonObject config, int shard) {
+        if (getShards(config) == 1) {
+            return config;
+        }
+
+        String directory = config.getString(JsonKeys.DB_STORAGE_DIRECTORY);
+        String shardDirectory = SHARD_DIRECTORY_PREFIX + shard;
+
+        return config.copy().put(JsonKeys.DB_STORAGE_DIRECTORY, directory != null ?
+                directory + File.separator + shardDirectory : shardDirectory);
+    }
+
+    /**
+     * Open the configured graph, or reuse it if it is already open.
+     * Titan transactions are bound to threads, so the graph can be shared by worker verticles.
+     *
+     * @param config the configuration that holds the storage options.
+     * @return the shared graph. Must be released by calling {@link #release(JsonObject)}.
+     */
+    public static synchronized Graph acquire(JsonObject config) {
+        String key = getSharedKey(config);
+        FlowlyGraph flowlyGraph = sharedGraphs.get(key);
+
+        if (flowlyGraph == null) {
+            flowlyGraph = new FlowlyGraph(config);
+            sharedGraphs.put(key, flowlyGraph);
+        }
+
+        flowlyGraph.references++;
+        return flowlyGraph.graph;
+    }
+
+    /**
+     * Release a shared graph. The graph is closed when it is released by all its users.
+     *
+     * @param config the configuration that holds the storage options.
+     */
+    public static synchronized void release(JsonObject config) {
+        String key = getSharedKey(config);
+        FlowlyGraph flowlyGraph = sharedGraphs.get(key);
+
+        if (flowlyGraph != null && --flowlyGraph.references == 0) {
+            sharedGraphs.remove(key);
+            flowlyGraph.graph.close();
+            logger.info("Closed flowly graph: " + key);
+        }
+    }
+
+    // In-memory graphs do not use the directory other than to tell the shards apart.
+    private static String getSharedKey(JsonObject config) {
+        return getStorageBackend(config) + ":" + config.getString(JsonKeys.DB_STORAGE_DIRECTORY);
+    }
+
     // TODO: Create an upgradable schema by defining onCreate and onUpdate methods.
     // TODO: Read JSON files to create schema.
     private void configureSchema(TitanGraph graph) {
@@ -105,9 +204,17 @@ public class FlowlyGraph {
             management.makeEdgeLabel(Schema.E_FLOW_INTO).multiplicity(Multiplicity.ONE2ONE).make();
             management.makeEdgeLabel(Schema.E_FLOW_OUT).multiplicity(Multiplicity.ONE2ONE).make();
 
+            // Join vertex.
+            management.makeVertexLabel(Schema.V_JOIN).make();
+            management.makePropertyKey(Schema.V_P_JOIN_KEY).dataType(String.class).make();
+            management.makePropertyKey(Schema.V_P_ARRIVED).dataType(Integer.class).make();
+            management.makePropertyKey(Schema.V_P_TOKENS).dataType(String.class).make();
+            management.makeEdgeLabel(Schema.E_WAITS_AT).multiplicity(Multiplicity.ONE2MANY).make();
+
             // Flow vertex
             management.makeVertexLabel(Schema.V_FLOW_METADATA).make();
             management.makePropertyKey(Schema.V_P_FLOW_TYPE).dataType(String.class).make();
+            management.makePropertyKey(Schema.V_P_PERSISTENCE).dataType(String.class).make();
             management.makePropertyKey(Schema.V_P_APP_ID).dataType(String.class).make();
             // Build graph-level composite index.
             PropertyKey flowId = management.makePropertyKey(Schema.V_P_FLOW_ID).
@@ -120,6 +227,7 @@ public class FlowlyGraph {
             management.makePropertyKey(Schema.V_P_CURRENT_FLOW_OBJECT_ID).dataType(String.class).make();
             management.makePropertyKey(Schema.V_P_CONNECTING_OBJECT_ID).dataType(String.class).make();
             management.makePropertyKey(Schema.V_P_NEXT_FLOW_OBJECT_ID).dataType(String.class).make();
+            management.makePropertyKey(Schema.V_P_JOIN_COUNT).dataType(Integer.class).make();
             // Build graph-level composite index.
             PropertyKey routeFlowId = management.makePropertyKey(Schema.V_P_ROUTE_FLOW_ID).
                     dataType(String.class).make();
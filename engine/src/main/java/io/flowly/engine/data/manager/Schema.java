@@ -48,10 +48,20 @@ public class Schema {
     public static final String E_FLOW_INTO = "flowInto";
     public static final String E_FLOW_OUT = "flowOut";
 
+    // Define "join" vertex that counts the tokens of a flow instance arriving at a join gateway.
+    public static final String V_JOIN = "join";
+    public static final String V_P_JOIN_KEY = "joinKey";
+    public static final String V_P_ARRIVED = "arrived";
+    public static final String V_P_TOKENS = "tokens";
+
+    // Define "waitsAt" edge from a process instance to the join vertices of its tokens.
+    public static final String E_WAITS_AT = "waitsAt";
+
     // Define "flow metadata" vertex.
     public static final String V_FLOW_METADATA = "flowMetadata";
     public static final String V_P_FLOW_ID = "flowId";
     public static final String V_P_FLOW_TYPE = "flowType";
+    public static final String V_P_PERSISTENCE = "persistence";
     public static final String V_P_APP_ID = "appId";
 
     // Define "flow route" vertex.
@@ -60,6 +70,7 @@ public class Schema {
     public static final String V_P_CONNECTING_OBJECT_ID = "connectingObjectId";
     public static final String V_P_NEXT_FLOW_OBJECT_ID = "nextFlowObjectId";
     public static final String V_P_ROUTE_FLOW_ID = "routeFlowId";
+    public static final String V_P_JOIN_COUNT = "joinCount";
 
     // General property keys.
     public static final String P_STATUS = "status";
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data.manager;
+
+import io.flowly.core.codecs.FlowInstanceCodec;
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.manager.Cursor;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.InboxIndex;
+import io.flowly.engine.verticles.Kernel;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines get operations related to flow instances that are spread across storage shards.
+ * Reads of a flow object instance go to the shard that holds it. Inboxes are read from the inbox index
+ * if it is loaded for all shards, otherwise they are gathered from all shards.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ShardedFlowInstanceReadManager {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedFlowInstanceReadManager.class);
+
+    private List<FlowInstanceReadManager> shardManagers;
+    private InboxIndex inboxIndex;
+
+    /**
+     * @param shardManagers the read managers of all shards, ordered by shard index.
+     */
+    public ShardedFlowInstanceReadManager(List<FlowInstanceReadManager> shardManagers) {
+        this(shardManagers, null);
+    }
+
+    /**
+     * @param shardManagers the read managers of all shards, ordered by shard index.
+     * @param inboxIndex the materialized inboxes that are used once loaded for all shards.
+     */
+    public ShardedFlowInstanceReadManager(List<FlowInstanceReadManager> shardManagers, InboxIndex inboxIndex) {
+        this.shardManagers = shardManagers;
+        this.inboxIndex = inboxIndex;
+    }
+
+    public Handler<Message<Object>> getInstanceAtFlowObjectHandler() {
+        return message -> {
+            Long flowObjectInstanceId = (Long) message.body();
+            DeliveryOptions options = Kernel.DELIVERY_OPTIONS.get(FlowInstanceCodec.NAME);
+            message.reply(getInstanceAtFlowObject(flowObjectInstanceId), options);
+        };
+    }
+
+    public FlowInstance getInstanceAtFlowObject(Long flowObjectInstanceId) {
+        return getShardManager(flowObjectInstanceId).getInstanceAtFlowObject(flowObjectInstanceId);
+    }
+
+    public Handler<Message<Object>> getInboxHandler() {
+        return message -> {
+            JsonObject args = (JsonObject) message.body();
+
+            if (args.containsKey(JsonKeys.CURSOR)) {
+                message.reply(getInbox(args.getString(JsonKeys.SUBJECT_ID), args.getString(JsonKeys.CURSOR),
+                        args.getInteger(JsonKeys.PAGE_SIZE, 50)));
+            }
+            else {
+                message.reply(getInbox(args.getString(JsonKeys.SUBJECT_ID),
+                        args.getInteger(JsonKeys.PAGE_NUMBER, 1), args.getInteger(JsonKeys.PAGE_SIZE, 50)));
+            }
+        };
+    }
+
+    public Handler<Message<Object>> getOpenTaskCountsHandler() {
+        return message -> message.reply(getOpenTaskCounts((JsonArray) message.body()));
+    }
+
+    /**
+     * Count the open tasks of the given subjects.
+     *
+     * @param subjectIds the subject ids.
+     * @return the open task counts by subject id or null if the inbox index is not loaded for all shards.
+     */
+    public JsonObject getOpenTaskCounts(JsonArray subjectIds) {
+        if (inboxIndex == null || !inboxIndex.isLoaded(shardManagers.size())) {
+            return null;
+        }
+
+        JsonObject counts = new JsonObject();
+
+        for (Object subjectId : subjectIds) {
+            counts.put((String) subjectId, inboxIndex.getOpenTaskCount((String) subjectId));
+        }
+
+        return counts;
+    }
+
+    /**
+     * Gather the subject's tasks from all shards. Each shard returns its latest tasks up to the requested page,
+     * and the merged tasks are paged by the time they were assigned.
+     */
+    public JsonObject getInbox(String subjectId, int pageNumber, int pageSize) {
+        int low = (pageNumber - 1) * pageSize;
+        int high = low + pageSize;
+
+        if (inboxIndex != null && inboxIndex.isLoaded(shardManagers.size())) {
+            return inboxIndex.getInbox(subjectId, pageNumber, pageSize);
+        }
+
+        if (shardManagers.size() == 1) {
+            return shardManagers.get(0).getInbox(subjectId, pageNumber, pageSize);
+        }
+
+        List<JsonObject> tasks = new ArrayList<>();
+
+        for (FlowInstanceReadManager shardManager : shardManagers) {
+            tasks.addAll(shardManager.getTasks(subjectId, 0, high));
+        }
+
+        tasks.sort((t1, t2) -> Long.compare(t2.getLong(Schema.E_P_ASSIGNED_ON), t1.getLong(Schema.E_P_ASSIGNED_ON)));
+        int end = Math.min(tasks.size(), high + FlowInstanceReadManager.ADDITIONAL_RECORDS);
+
+        return FlowInstanceReadManager.createInbox(low < end ? new ArrayList<>(tasks.subList(low, end)) :
+                new ArrayList<>(), low);
+    }
+
+    /**
+     * Get the page of the subject's inbox that follows the given cursor. Each shard returns its tasks that
+     * follow the cursor, up to a page, and the merged tasks are paged by the time they were assigned.
+     */
+    public JsonObject getInbox(String subjectId, String cursor, int pageSize) {
+        if (shardManagers.size() == 1 && (inboxIndex == null || !inboxIndex.isLoaded(1))) {
+            return shardManagers.get(0).getInbox(subjectId, cursor, pageSize);
+        }
+
+        Cursor after;
+
+        try {
+            after = Cursor.decode(cursor);
+        }
+        catch (IllegalArgumentException ex) {
+            logger.error("Unable to get the inbox for user: " + subjectId, ex);
+            return FlowInstanceReadManager.createInboxPage(new ArrayList<>(), pageSize);
+        }
+
+        if (inboxIndex != null && inboxIndex.isLoaded(shardManagers.size())) {
+            return inboxIndex.getInbox(subjectId, after, pageSize);
+        }
+
+        List<JsonObject> tasks = new ArrayList<>();
+
+        for (FlowInstanceReadManager shardManager : shardManagers) {
+            tasks.addAll(shardManager.getTasks(subjectId, after, pageSize + 1));
+        }
+
+        tasks.sort((t1, t2) -> {
+            int compare = Long.compare(t2.getLong(Schema.E_P_ASSIGNED_ON), t1.getLong(Schema.E_P_ASSIGNED_ON));
+            return compare != 0 ? compare : Long.compare(t1.getLong(JsonKeys.TASK_ID), t2.getLong(JsonKeys.TASK_ID));
+        });
+
+        return FlowInstanceReadManager.createInboxPage(tasks, pageSize);
+    }
+
+    private FlowInstanceReadManager getShardManager(Long id) {
+        return shardManagers.get(id != null ? BaseManager.getShard(id, shardManagers.size()) : 0);
+    }
+}
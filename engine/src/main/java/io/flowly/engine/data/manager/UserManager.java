@@ -25,6 +25,7 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -54,13 +55,22 @@ public class UserManager extends BaseManager {
             Vertex taskVertex = getVertex(taskId);
 
             if (userVertex != null && taskVertex != null) {
+                Date assignedOn = Calendar.getInstance().getTime();
                 Edge isAssigned = userVertex.addEdge(Schema.E_IS_ASSIGNED, taskVertex);
                 isAssigned.property(Schema.E_P_RECEIVED_STATUS, STATUS_NEW);
-                isAssigned.property(Schema.E_P_ASSIGNED_ON, Calendar.getInstance().getTime());
+                isAssigned.property(Schema.E_P_ASSIGNED_ON, assignedOn);
 
                 assigned = true;
 
                 logger.info("Task (" + taskId + ") assigned to subject: " + subjectId);
+
+                if (inboxIndex != null) {
+                    Long instanceId = getPropertyValue(taskVertex, Schema.V_P_INSTANCE_ID);
+                    String subFlowId = getPropertyValue(taskVertex, Schema.P_SUB_FLOW_ID);
+                    String status = getPropertyValue(taskVertex, Schema.P_STATUS);
+                    afterCommit(() -> inboxIndex.assign(subjectId, taskId, assignedOn.getTime(), instanceId,
+                            subFlowId, status));
+                }
             }
 
             commit();
@@ -92,6 +102,10 @@ public class UserManager extends BaseManager {
                 isAssigned.property(Schema.E_P_RECEIVED_STATUS, status);
 
                 updated = true;
+
+                if (inboxIndex != null) {
+                    afterCommit(() -> inboxIndex.updateReceivedStatus(taskId, status));
+                }
             }
             else {
                 logger.info("Unable to find the subject assignment edge.");
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The left hand side of an output data mapping. Plain "data" property paths are written directly
+ * in Java; all other targets (Ex: "data.emails[data.index]") are assigned by a script function
+ * that returns the updated data.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class Assignment {
+    private final DataPath dataPath;
+    private final ScriptFunction scriptFunction;
+
+    public Assignment(String target) {
+        dataPath = DataPath.parse(target, FlowInstance.DATA);
+        scriptFunction = dataPath == null ?
+                new ScriptFunction(target + " = value;\nreturn JSON.stringify(data);") : null;
+    }
+
+    /**
+     * Assign the value to the target.
+     *
+     * @param instance the flow instance whose data is updated.
+     * @param value the value to assign.
+     * @throws Exception if the assignment fails.
+     */
+    public void assign(FlowInstance instance, Object value) throws Exception {
+        if (dataPath != null) {
+            dataPath.set(instance.getData(), value);
+        }
+        else {
+            Object data = scriptFunction.invoke(instance, ScriptFunction.encode(value));
+            instance.setData(new JsonObject((String) data));
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A decision gateway condition that is evaluated in Java, without going through a script engine.
+ * Supports "data" property paths, string, number, boolean and null literals, the comparison operators
+ * (==, ===, !=, !==, <, <=, >, >=), negation of a single operand (!) and the logical operators (&&, ||).
+ * Ex: "data.index < data.emailTo.length && data.status != 'closed'".
+ *
+ * Evaluation follows JavaScript semantics. When the result depends on JavaScript's type coercion or
+ * the read would throw in JavaScript (Ex: "data.a.b" when "data.a" is missing), the condition is undecided
+ * and the caller falls back to a script function.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ConditionExpression {
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\\s*(?:(===|!==|==|!=|<=|>=|&&|\\|\\||[<>!])|" +
+            "'([^'\\\\]*)'|\"([^\"\\\\]*)\"|(-?\\d+(?:\\.\\d+)?)|([A-Za-z_$][\\w$]*(?:\\.[A-Za-z_$][\\w$]*)*))");
+    private static final Set<String> COMPARISON_OPERATORS = new HashSet<>(Arrays.asList(
+            "==", "===", "!=", "!==", "<", "<=", ">", ">="));
+    private static final String NOT = "!";
+    private static final String AND = "&&";
+    private static final String OR = "||";
+    private static final String LENGTH = "length";
+
+    // Marks a read that would throw or resolve a built-in property in JavaScript.
+    private static final Object UNRESOLVED = new Object();
+
+    // Conjunctions (terms joined by &&) joined by ||.
+    private final List<List<Term>> disjunction;
+
+    private ConditionExpression(List<List<Term>> disjunction) {
+        this.disjunction = disjunction;
+    }
+
+    /**
+     * Parse a condition.
+     *
+     * @param condition the JavaScript condition. Ex: "data.amount > 100".
+     * @return the parsed condition or null if the condition cannot be evaluated in Java.
+     */
+    public static ConditionExpression parse(String condition) {
+        List<Object> tokens = condition != null ? tokenize(condition) : null;
+        if (tokens == null) {
+            return null;
+        }
+
+        List<List<Term>> disjunction = new ArrayList<>();
+        List<Term> conjunction = new ArrayList<>();
+        int i = 0;
+
+        while (true) {
+            boolean negated = i < tokens.size() && NOT.equals(tokens.get(i));
+            if (negated) {
+                i++;
+            }
+
+            if (i >= tokens.size() || !(tokens.get(i) instanceof Operand)) {
+                return null;
+            }
+
+            Operand left = (Operand) tokens.get(i++);
+            String operator = null;
+            Operand right = null;
+
+            if (!negated && i < tokens.size() && COMPARISON_OPERATORS.contains(tokens.get(i))) {
+                operator = (String) tokens.get(i++);
+
+                if (i >= tokens.size() || !(tokens.get(i) instanceof Operand)) {
+                    return null;
+                }
+
+                right = (Operand) tokens.get(i++);
+            }
+
+            conjunction.add(new Term(negated, left, operator, right));
+
+            if (i == tokens.size()) {
+                break;
+            }
+
+            Object token = tokens.get(i++);
+            if (OR.equals(token)) {
+                disjunction.add(conjunction);
+                conjunction = new ArrayList<>();
+            }
+            else if (!AND.equals(token)) {
+                return null;
+            }
+        }
+
+        disjunction.add(conjunction);
+        return new ConditionExpression(disjunction);
+    }
+
+    /**
+     * Evaluate the condition. Logical operators short circuit as in JavaScript.
+     *
+     * @param data the current data of the flow instance.
+     * @return true or false, or null if the condition is undecided and has to be evaluated by a script function.
+     */
+    public Boolean evaluate(JsonObject data) {
+        for (List<Term> conjunction : disjunction) {
+            boolean matches = true;
+
+            for (Term term : conjunction) {
+                Boolean value = term.evaluate(data);
+
+                if (value == null) {
+                    return null;
+                }
+
+                if (!value) {
+                    matches = false;
+                    break;
+                }
+            }
+
+            if (matches) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Split a condition into operator strings and operands.
+     *
+     * @return the tokens or null if the condition has a token that is not supported.
+     */
+    private static List<Object> tokenize(String condition) {
+        List<Object> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN_PATTERN.matcher(condition);
+        int position = 0;
+
+        while (position < condition.length()) {
+            matcher.region(position, condition.length());
+
+            if (!matcher.lookingAt()) {
+                return condition.substring(position).trim().isEmpty() ? tokens : null;
+            }
+
+            if (matcher.group(1) != null) {
+                tokens.add(matcher.group(1));
+            }
+            else if (matcher.group(2) != null || matcher.group(3) != null) {
+                tokens.add(new Operand(matcher.group(2) != null ? matcher.group(2) : matcher.group(3)));
+            }
+            else if (matcher.group(4) != null) {
+                tokens.add(new Operand(Double.valueOf(matcher.group(4))));
+            }
+            else {
+                Operand operand = parseIdentifier(matcher.group(5));
+                if (operand == null) {
+                    return null;
+                }
+
+                tokens.add(operand);
+            }
+
+            position = matcher.end();
+        }
+
+        return tokens;
+    }
+
+    private static Operand parseIdentifier(String identifier) {
+        switch (identifier) {
+            case "true":
+                return new Operand(Boolean.TRUE);
+            case "false":
+                return new Operand(Boolean.FALSE);
+            case "null":
+                return new Operand((Object) null);
+            default:
+                String[] keys = identifier.split("\\.");
+                return keys[0].equals(FlowInstance.DATA) ? new Operand(keys) : null;
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        else if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        else if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return number != 0 && !Double.isNaN(number);
+        }
+        else if (value instanceof String) {
+            return !((String) value).isEmpty();
+        }
+
+        // Objects and arrays.
+        return true;
+    }
+
+    private static Boolean compare(Object left, String operator, Object right) {
+        switch (operator) {
+            case "==":
+            case "!=":
+                Boolean equal = looseEquals(left, right);
+                return equal != null ? equal == operator.equals("==") : null;
+            case "===":
+            case "!==":
+                Boolean identical = strictEquals(left, right);
+                return identical != null ? identical == operator.equals("===") : null;
+            default:
+                Integer comparison = compareTo(left, right);
+
+                if (comparison == null) {
+                    return isNaN(left) || isNaN(right) ? Boolean.FALSE : null;
+                }
+
+                switch (operator) {
+                    case "<":
+                        return comparison < 0;
+                    case "<=":
+                        return comparison <= 0;
+                    case ">":
+                        return comparison > 0;
+                    default:
+                        return comparison >= 0;
+                }
+        }
+    }
+
+    private static Boolean looseEquals(Object left, Object right) {
+        // Null (or undefined) is only loosely equal to null (or undefined).
+        if (left == null || right == null) {
+            return left == right;
+        }
+
+        if (isSameType(left, right)) {
+            return primitiveEquals(left, right);
+        }
+
+        // Coercion of mixed types and identity of objects.
+        return null;
+    }
+
+    private static Boolean strictEquals(Object left, Object right) {
+        // A missing property is undefined in JavaScript and undefined !== null.
+        if (left == null || right == null) {
+            return null;
+        }
+
+        if (isSameType(left, right)) {
+            return primitiveEquals(left, right);
+        }
+
+        return isPrimitive(left) && isPrimitive(right) ? Boolean.FALSE : null;
+    }
+
+    private static boolean primitiveEquals(Object left, Object right) {
+        if (isNumber(left)) {
+            return ((Number) left).doubleValue() == ((Number) right).doubleValue();
+        }
+
+        return left.equals(right);
+    }
+
+    private static Integer compareTo(Object left, Object right) {
+        if (isNumber(left) && isNumber(right)) {
+            double leftNumber = ((Number) left).doubleValue();
+            double rightNumber = ((Number) right).doubleValue();
+            if (Double.isNaN(leftNumber) || Double.isNaN(rightNumber)) {
+                return null;
+            }
+
+            return Double.compare(leftNumber, rightNumber);
+        }
+
+        if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right);
+        }
+
+        return null;
+    }
+
+    private static boolean isSameType(Object left, Object right) {
+        return (isNumber(left) && isNumber(right)) ||
+                (left instanceof String && right instanceof String) ||
+                (left instanceof Boolean && right instanceof Boolean);
+    }
+
+    private static boolean isNaN(Object value) {
+        return isNumber(value) && Double.isNaN(((Number) value).doubleValue());
+    }
+
+    private static boolean isNumber(Object value) {
+        return value instanceof Number;
+    }
+
+    private static boolean isPrimitive(Object value) {
+        return value instanceof Number || value instanceof String || value instanceof Boolean;
+    }
+
+    /**
+     * A literal or a "data" property path.
+     */
+    private static class Operand {
+        private final Object value;
+        private final String[] keys;
+
+        Operand(Object value) {
+            this.value = value;
+            keys = null;
+        }
+
+        Operand(String[] keys) {
+            value = null;
+            this.keys = keys;
+        }
+
+        Object read(JsonObject data) {
+            if (keys == null) {
+                return value;
+            }
+
+            Object current = data;
+
+            for (int i=1; i<keys.length; i++) {
+                boolean last = i == keys.length - 1;
+
+                if (current instanceof JsonObject) {
+                    current = ((JsonObject) current).getValue(keys[i]);
+                }
+                else if (last && LENGTH.equals(keys[i]) && current instanceof JsonArray) {
+                    current = ((JsonArray) current).size();
+                }
+                else if (last && LENGTH.equals(keys[i]) && current instanceof String) {
+                    current = ((String) current).length();
+                }
+                else {
+                    return UNRESOLVED;
+                }
+            }
+
+            return current;
+        }
+    }
+
+    /**
+     * An operand, optionally negated or compared with another operand.
+     */
+    private static class Term {
+        private final boolean negated;
+        private final Operand left;
+        private final String operator;
+        private final Operand right;
+
+        Term(boolean negated, Operand left, String operator, Operand right) {
+            this.negated = negated;
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        Boolean evaluate(JsonObject data) {
+            Object leftValue = left.read(data);
+            if (leftValue == UNRESOLVED) {
+                return null;
+            }
+
+            if (operator == null) {
+                return negated != isTruthy(leftValue);
+            }
+
+            Object rightValue = right.read(data);
+            if (rightValue == UNRESOLVED) {
+                return null;
+            }
+
+            return compare(leftValue, operator, rightValue);
+        }
+    }
+}
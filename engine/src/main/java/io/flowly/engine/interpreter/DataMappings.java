@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.engine.assets.DataMapping;
+import io.flowly.engine.assets.Variable;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepared data mappings of a flow object. Input mappings load the input data of a sub-flow or service
+ * from the current data and output mappings load the current data from the sub-flow or service output.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class DataMappings {
+    private final List<DataPath> inputTargets = new ArrayList<>();
+    private final List<Expression> inputSources = new ArrayList<>();
+    private final List<Assignment> outputTargets = new ArrayList<>();
+    private final List<DataPath> outputSources = new ArrayList<>();
+
+    public DataMappings(List<DataMapping> dataMappings) {
+        for (DataMapping dataMapping : dataMappings) {
+            if (dataMapping.getScope().equals(Variable.INPUT_SCOPE)) {
+                inputTargets.add(parse(dataMapping.getTo()));
+                inputSources.add(new Expression(dataMapping.getFrom()));
+            }
+            else if (dataMapping.getScope().equals(Variable.OUTPUT_SCOPE)) {
+                outputTargets.add(new Assignment(dataMapping.getTo()));
+                outputSources.add(parse(dataMapping.getFrom()));
+            }
+        }
+    }
+
+    public boolean hasInputData() {
+        return !inputTargets.isEmpty();
+    }
+
+    /**
+     * Evaluate the input data mappings.
+     *
+     * @param instance the flow instance that holds the current data.
+     * @return the input data.
+     * @throws Exception if an input data mapping cannot be evaluated.
+     */
+    public JsonObject createInputData(FlowInstance instance) throws Exception {
+        JsonObject inputData = new JsonObject();
+
+        for (int i=0; i<inputTargets.size(); i++) {
+            inputTargets.get(i).set(inputData, inputSources.get(i).evaluate(instance));
+        }
+
+        return inputData;
+    }
+
+    /**
+     * Load the current data of the flow instance from the given output data.
+     *
+     * @param instance the flow instance whose current data is updated.
+     * @param outputData the output data of a sub-flow or service.
+     * @throws Exception if an output data mapping cannot be assigned.
+     */
+    public void mapOutputData(FlowInstance instance, JsonObject outputData) throws Exception {
+        for (int i=0; i<outputTargets.size(); i++) {
+            Object value = outputData != null ? outputSources.get(i).get(outputData) : null;
+            outputTargets.get(i).assign(instance, value);
+        }
+    }
+
+    private DataPath parse(String path) {
+        DataPath dataPath = DataPath.parse(path, null);
+
+        if (dataPath == null) {
+            throw new IllegalArgumentException("Data mapping is not a property path: " + path);
+        }
+
+        return dataPath;
+    }
+}
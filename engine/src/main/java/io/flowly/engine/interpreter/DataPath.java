@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.regex.Pattern;
+
+/**
+ * A dotted property path (Ex: "data.emailTo") that can be read from or written to a JSON object
+ * without going through a script engine.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class DataPath {
+    private static final Pattern PATH_PATTERN = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+
+    private final String[] keys;
+
+    private DataPath(String[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Parse a property path expression.
+     *
+     * @param expression the expression. Ex: "data.emailTo".
+     * @param root optional root key that the path must start with. The root is not part of the parsed path.
+     * @return the parsed path or null if the expression is not a plain property path.
+     */
+    public static DataPath parse(String expression, String root) {
+        if (expression == null) {
+            return null;
+        }
+
+        expression = expression.trim();
+        if (!PATH_PATTERN.matcher(expression).matches()) {
+            return null;
+        }
+
+        if (root != null) {
+            if (!expression.startsWith(root + ".")) {
+                return null;
+            }
+
+            expression = expression.substring(root.length() + 1);
+        }
+
+        return new DataPath(expression.split("\\."));
+    }
+
+    /**
+     * Read the value at this path.
+     *
+     * @param json the JSON object from which the value is read.
+     * @return a copy of the value or null if the path does not exist.
+     */
+    public Object get(JsonObject json) {
+        for (int i=0; i<keys.length - 1 && json != null; i++) {
+            Object value = json.getValue(keys[i]);
+            json = value instanceof JsonObject ? (JsonObject) value : null;
+        }
+
+        return json != null ? copy(json.getValue(keys[keys.length - 1])) : null;
+    }
+
+    /**
+     * Write a value at this path. Intermediate objects are created as needed.
+     * A null value removes the property, similar to an undefined value in JavaScript.
+     *
+     * @param json the JSON object to which the value is written.
+     * @param value the value to write.
+     */
+    public void set(JsonObject json, Object value) {
+        for (int i=0; i<keys.length - 1; i++) {
+            Object child = json.getValue(keys[i]);
+
+            if (!(child instanceof JsonObject)) {
+                child = new JsonObject();
+                json.put(keys[i], (JsonObject) child);
+            }
+
+            json = (JsonObject) child;
+        }
+
+        if (value == null) {
+            json.remove(keys[keys.length - 1]);
+        }
+        else {
+            json.getMap().put(keys[keys.length - 1], value);
+        }
+    }
+
+    // Values are copied to preserve the pass-by-value semantics of the JavaScript verticles.
+    private static Object copy(Object value) {
+        if (value instanceof JsonObject) {
+            return ((JsonObject) value).copy();
+        }
+        else if (value instanceof JsonArray) {
+            return ((JsonArray) value).copy();
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.assets.Condition;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates the conditions of a decision gateway and moves the token on the first matching
+ * connecting object. The last condition is the default.
+ *
+ * Simple conditions are evaluated in Java. The script function is only run when a condition is not
+ * simple or its result depends on JavaScript's type coercion.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class DecisionGatewayStep implements Step {
+    private final String defaultConnectTo;
+    private final List<String> connectTos = new ArrayList<>();
+
+    // Null if any of the conditions cannot be evaluated in Java.
+    private final List<ConditionExpression> conditionExpressions;
+
+    // Evaluates all the conditions when they are not decided in Java. Returns the matching connecting object id.
+    private final ScriptFunction scriptFunction;
+
+    public DecisionGatewayStep(List<Condition> conditions) {
+        defaultConnectTo = conditions.get(conditions.size() - 1).getConnectTo();
+
+        if (conditions.size() > 1) {
+            List<ConditionExpression> expressions = new ArrayList<>();
+            StringBuilder body = new StringBuilder();
+
+            for (int i=0; i<conditions.size() - 1; i++) {
+                Condition condition = conditions.get(i);
+                connectTos.add(condition.getConnectTo());
+                expressions.add(ConditionExpression.parse(condition.getWhen()));
+
+                body.append("if (").append(condition.getWhen()).append(") return ").
+                        append(Json.encode(condition.getConnectTo())).append(";\n");
+            }
+
+            body.append("return ").append(Json.encode(defaultConnectTo)).append(";");
+            conditionExpressions = expressions.contains(null) ? null : expressions;
+            scriptFunction = new ScriptFunction(body.toString());
+        }
+        else {
+            conditionExpressions = null;
+            scriptFunction = null;
+        }
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) throws Exception {
+        String connectTo = scriptFunction != null ? getConnectTo(instance) : defaultConnectTo;
+
+        // Update flow instance's current step.
+        instance.getMetadata().getCurrentStep().put(FlowInstanceStep._FLOW_OBJECT_CONNECTING_OBJECT_IDS,
+                new JsonArray().add(connectTo));
+        context.hop(instance);
+    }
+
+    private String getConnectTo(FlowInstance instance) throws Exception {
+        if (conditionExpressions != null) {
+            boolean decided = true;
+
+            for (int i=0; i<conditionExpressions.size() && decided; i++) {
+                Boolean matches = conditionExpressions.get(i).evaluate(instance.getData());
+
+                if (matches == null) {
+                    decided = false;
+                }
+                else if (matches) {
+                    return connectTos.get(i);
+                }
+            }
+
+            if (decided) {
+                return defaultConnectTo;
+            }
+        }
+
+        return (String) scriptFunction.invoke(instance, null);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+
+/**
+ * Loads the output data of a flow instance from its current data and moves the token forward.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class EndEventStep implements Step {
+    private final List<String> outputVariables;
+
+    /**
+     * @param outputVariables names of the flow variables in "Output" scope.
+     */
+    public EndEventStep(List<String> outputVariables) {
+        this.outputVariables = outputVariables;
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) {
+        if (!outputVariables.isEmpty()) {
+            JsonObject data = instance.getData();
+            JsonObject outputData = new JsonObject();
+
+            for (String name : outputVariables) {
+                Object value = data.getValue(name);
+
+                if (value != null) {
+                    outputData.put(name, value);
+                }
+            }
+
+            instance.setOutputData(outputData);
+        }
+
+        context.hop(instance);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.engine.EngineAddresses;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable graph of executable steps of a given flow. Steps are keyed by their flow object id,
+ * mirroring the event bus addresses registered by the compiled JavaScript verticles.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ExecutableFlow implements Shareable {
+    private final String flowId;
+    private final String appId;
+    private final Map<String, Step> steps;
+
+    public ExecutableFlow(String flowId, String appId, Map<String, Step> steps) {
+        this.flowId = flowId;
+        this.appId = appId;
+        this.steps = Collections.unmodifiableMap(new HashMap<>(steps));
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public String getAppId() {
+        return appId;
+    }
+
+    public Step getStep(String flowObjectId) {
+        return steps.get(flowObjectId);
+    }
+
+    /**
+     * Get the step that moves the parent flow instance forward after a sub-flow completes.
+     *
+     * @param flowObjectId the id of the sub-flow object in the parent flow.
+     * @return the hop out step or null if the flow object is not a sub-flow.
+     */
+    public Step getHopOutStep(String flowObjectId) {
+        return steps.get(flowObjectId + EngineAddresses.HOP_OUT_FLOW_INSTANCE);
+    }
+
+    public int size() {
+        return steps.size();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+
+/**
+ * A JavaScript expression that is evaluated against a flow instance. Plain "data" property paths
+ * are resolved directly in Java; all other expressions are run as script functions.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class Expression {
+    private final DataPath dataPath;
+    private final ScriptFunction scriptFunction;
+
+    public Expression(String source) {
+        dataPath = DataPath.parse(source, FlowInstance.DATA);
+        scriptFunction = dataPath == null ? new ScriptFunction("return JSON.stringify(" + source + ");") : null;
+    }
+
+    public boolean isScript() {
+        return scriptFunction != null;
+    }
+
+    /**
+     * Evaluate the expression.
+     *
+     * @param instance the flow instance against which the expression is evaluated.
+     * @return the value of the expression or null if it is undefined.
+     * @throws Exception if the expression cannot be evaluated.
+     */
+    public Object evaluate(FlowInstance instance) throws Exception {
+        if (dataPath != null) {
+            return dataPath.get(instance.getData());
+        }
+
+        return ScriptFunction.decode(scriptFunction.invoke(instance, null));
+    }
+}
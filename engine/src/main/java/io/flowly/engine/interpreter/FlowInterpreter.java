@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the executable flows of all the interpreted apps deployed on a vertx instance.
+ * Flows are stored in a local shared map so that the build verticle (writer) and
+ * the engine (reader) see the same flows.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowInterpreter {
+    // Key to the shared map that holds the executable flows of all interpreted apps.
+    private static final String EXECUTABLE_FLOWS_KEY = "io.flowly.flows.executables";
+
+    private LocalMap<String, ExecutableFlow> executableFlows;
+
+    public FlowInterpreter(Vertx vertx) {
+        executableFlows = vertx.sharedData().getLocalMap(EXECUTABLE_FLOWS_KEY);
+    }
+
+    public ExecutableFlow getFlow(String flowId) {
+        return flowId != null ? executableFlows.get(flowId) : null;
+    }
+
+    public void putFlow(ExecutableFlow executableFlow) {
+        executableFlows.put(executableFlow.getFlowId(), executableFlow);
+    }
+
+    public void removeFlow(String flowId) {
+        executableFlows.remove(flowId);
+    }
+
+    /**
+     * Remove the executable flows of an app.
+     *
+     * @param appId the app whose flows are to be removed.
+     * @return the number of removed flows.
+     */
+    public int removeFlows(String appId) {
+        List<String> flowIds = new ArrayList<>();
+
+        for (ExecutableFlow executableFlow : executableFlows.values()) {
+            if (executableFlow.getAppId().equals(appId)) {
+                flowIds.add(executableFlow.getFlowId());
+            }
+        }
+
+        for (String flowId : flowIds) {
+            executableFlows.remove(flowId);
+        }
+
+        return flowIds.size();
+    }
+
+    /**
+     * Get the interpreted step of a flow object.
+     *
+     * @param flowId the id of the flow that defines the flow object.
+     * @param flowObjectId the flow object id.
+     * @return the step or null if the flow is not interpreted on this vertx instance.
+     */
+    public Step getStep(String flowId, String flowObjectId) {
+        ExecutableFlow executableFlow = getFlow(flowId);
+        return executableFlow != null ? executableFlow.getStep(flowObjectId) : null;
+    }
+
+    /**
+     * Get the step that moves a parent flow instance forward after a sub-flow completes.
+     *
+     * @param flowId the id of the parent flow.
+     * @param flowObjectId the id of the sub-flow object in the parent flow.
+     * @return the step or null if the flow is not interpreted on this vertx instance.
+     */
+    public Step getHopOutStep(String flowId, String flowObjectId) {
+        ExecutableFlow executableFlow = getFlow(flowId);
+        return executableFlow != null ? executableFlow.getHopOutStep(flowObjectId) : null;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+
+/**
+ * Loads the current data of a parent flow instance from the output data of a completed
+ * sub-flow and moves the parent's token forward.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class HopOutStep implements Step {
+    private final DataMappings dataMappings;
+
+    public HopOutStep(DataMappings dataMappings) {
+        this.dataMappings = dataMappings;
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) throws Exception {
+        dataMappings.mapOutputData(instance, instance.getOutputData());
+
+        // Clear output data.
+        instance.setOutputData(null);
+        context.hop(instance);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Runs an inline script on the current data of a flow instance and moves the token forward.
+ * Inline scripts are the only steps that always go through a script engine.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InlineScriptStep implements Step {
+    private final ScriptFunction scriptFunction;
+
+    /**
+     * @param script the inline script. It sees the "instance" and "data" variables.
+     */
+    public InlineScriptStep(String script) {
+        // Run the script in its own scope so that an early return does not skip the data update.
+        scriptFunction = new ScriptFunction("(function() {\n" + script + "\n})();\n" +
+                "return JSON.stringify(instance.data);");
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) throws Exception {
+        Object data = scriptFunction.invoke(instance, null);
+        instance.setData(data != null ? new JsonObject((String) data) : new JsonObject());
+        context.hop(instance);
+    }
+}
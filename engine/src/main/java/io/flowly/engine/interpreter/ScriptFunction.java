@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.regex.Pattern;
+
+/**
+ * A JavaScript function that is compiled once per thread and invoked with the JSON encoded flow instance.
+ * Used by the interpreted steps to run inline scripts and expressions that cannot be evaluated in Java.
+ *
+ * The function body sees the same "instance" and "data" variables as the compiled JavaScript verticles.
+ * Bodies that only use "data" (and "instance.data") are invoked with the encoded data alone, so that
+ * the metadata of the flow instance is not encoded and parsed on every hop.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ScriptFunction {
+    private static final String SCRIPT_ENGINE_NAME = "nashorn";
+
+    // Any use of the "instance" variable other than "instance.data".
+    private static final Pattern INSTANCE_PATTERN = Pattern.compile(
+            "(?<![\\w$])instance(?![\\w$])(?!\\s*\\.\\s*data(?![\\w$]))");
+
+    // Script engines are not thread safe - each thread gets its own.
+    private static final ThreadLocal<ScriptEngine> scriptEngines = ThreadLocal.withInitial(() -> {
+        ScriptEngine scriptEngine = new ScriptEngineManager().getEngineByName(SCRIPT_ENGINE_NAME);
+
+        if (scriptEngine == null) {
+            throw new IllegalStateException("Script engine not available: " + SCRIPT_ENGINE_NAME);
+        }
+
+        return scriptEngine;
+    });
+
+    private final String source;
+    private final boolean usesInstance;
+    private final ThreadLocal<Object> functions;
+
+    /**
+     * @param body the function body. The arguments "instance", "data" and "value" are in scope.
+     */
+    public ScriptFunction(String body) {
+        usesInstance = INSTANCE_PATTERN.matcher(body).find();
+        source = "(function(instanceJson, valueJson) {\n" +
+                (usesInstance ? "    var instance = JSON.parse(instanceJson);\n" :
+                        "    var instance = {data: instanceJson != null ? JSON.parse(instanceJson) : undefined};\n") +
+                "    var data = instance.data;\n" +
+                "    var value = valueJson != null ? JSON.parse(valueJson) : undefined;\n" +
+                body + "\n" +
+                "})";
+
+        functions = ThreadLocal.withInitial(() -> {
+            try {
+                return scriptEngines.get().eval(source);
+            }
+            catch (ScriptException ex) {
+                throw new IllegalArgumentException("Unable to compile script function: " + body, ex);
+            }
+        });
+    }
+
+    /**
+     * Invoke the function.
+     *
+     * @param instance the flow instance.
+     * @param valueJson optional JSON encoded value.
+     * @return the value returned by the function.
+     * @throws Exception if the function fails.
+     */
+    public Object invoke(FlowInstance instance, String valueJson) throws Exception {
+        String instanceJson;
+
+        if (usesInstance) {
+            instanceJson = instance.encode();
+        }
+        else {
+            instanceJson = instance.getData() != null ? instance.getData().encode() : null;
+        }
+
+        Invocable invocable = (Invocable) scriptEngines.get();
+        return invocable.invokeMethod(functions.get(), "call", null, instanceJson, valueJson);
+    }
+
+    /**
+     * Decode a value that was encoded by JSON.stringify in a script function.
+     *
+     * @param json the encoded value. Null represents an undefined value.
+     * @return the decoded value - a string, number, boolean, JSON object or array.
+     */
+    public static Object decode(Object json) {
+        return json != null ? new JsonArray("[" + json + "]").getValue(0) : null;
+    }
+
+    /**
+     * Encode a value so that it can be passed to a script function.
+     *
+     * @param value the value to encode.
+     * @return the JSON encoded value or null if the value is null.
+     */
+    public static String encode(Object value) {
+        return value != null ? Json.encode(value) : null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Calls a registered system micro service. The token moves forward if the call succeeds,
+ * else the flow instance is failed.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ServiceStep implements Step {
+    private static final Logger logger = LoggerFactory.getLogger(ServiceStep.class);
+
+    private final String address;
+    private final DataMappings dataMappings;
+
+    public ServiceStep(String address, DataMappings dataMappings) {
+        this.address = address;
+        this.dataMappings = dataMappings;
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) throws Exception {
+        context.callService(address, dataMappings.createInputData(instance), reply -> {
+            if (reply.succeeded()) {
+                try {
+                    Object outputData = reply.result().body();
+                    dataMappings.mapOutputData(instance,
+                            outputData instanceof JsonObject ? (JsonObject) outputData : null);
+
+                    // Clear output data.
+                    instance.setOutputData(null);
+                }
+                catch (Exception ex) {
+                    logger.error("Unable to map micro service output: " + address, ex);
+                    context.fail(instance);
+                    return;
+                }
+
+                context.hop(instance);
+            }
+            else {
+                logger.error("Micro service call failed: " + address, reply.cause());
+                context.fail(instance);
+            }
+        });
+    }
+}
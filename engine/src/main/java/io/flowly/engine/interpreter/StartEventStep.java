@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+
+/**
+ * Loads the current data of a flow instance from its input data and moves the token forward.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class StartEventStep implements Step {
+    private final List<String> inputVariables;
+
+    /**
+     * @param inputVariables names of the flow variables in "Input" scope.
+     */
+    public StartEventStep(List<String> inputVariables) {
+        this.inputVariables = inputVariables;
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) {
+        JsonObject inputData = instance.getInputData();
+
+        if (inputData != null) {
+            JsonObject data = instance.getData();
+
+            for (String name : inputVariables) {
+                Object value = inputData.getValue(name);
+
+                if (value != null) {
+                    data.put(name, value);
+                }
+                else {
+                    data.remove(name);
+                }
+            }
+
+            // Clear input data.
+            instance.setInputData(null);
+        }
+
+        context.hop(instance);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+
+/**
+ * An executable flow object. Steps are built once per flow by the interpreted compiler
+ * and are shared by all the instances of the flow - implementations must be stateless.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public interface Step {
+    /**
+     * Run the flow object on the given instance and hand the instance back to the engine
+     * through the step context.
+     *
+     * @param instance the flow instance that is at this step.
+     * @param context used to move the flow instance forward.
+     * @throws Exception if the flow object fails to run. The engine fails the flow instance.
+     */
+    void execute(FlowInstance instance, StepContext context) throws Exception;
+}
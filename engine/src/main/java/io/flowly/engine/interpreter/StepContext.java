@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Callbacks provided by the engine to the interpreted steps. These are the in-process equivalents
+ * of the event bus messages that the compiled JavaScript verticles send to the engine.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public interface StepContext {
+    /**
+     * Move the flow instance's token to the next flow object.
+     *
+     * @param instance the flow instance.
+     */
+    void hop(FlowInstance instance);
+
+    /**
+     * Start the sub-flow that is referenced by the flow instance's current step.
+     *
+     * @param instance the flow instance.
+     */
+    void hopInto(FlowInstance instance);
+
+    /**
+     * Fail the flow instance.
+     *
+     * @param instance the flow instance.
+     */
+    void fail(FlowInstance instance);
+
+    /**
+     * Send the flow instance to an engine address. Ex: await user interaction.
+     *
+     * @param address the event bus address.
+     * @param instance the flow instance.
+     */
+    void send(String address, FlowInstance instance);
+
+    /**
+     * Call a system micro service.
+     *
+     * @param address the event bus address of the micro service.
+     * @param inputData the input data passed to the micro service.
+     * @param replyHandler handler that is invoked with the micro service's reply.
+     */
+    void callService(String address, JsonObject inputData, Handler<AsyncResult<Message<Object>>> replyHandler);
+}
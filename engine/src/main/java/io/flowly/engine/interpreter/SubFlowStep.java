@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+
+/**
+ * Prepares the input data of a sub-flow (micro service flow) and starts the sub-flow.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class SubFlowStep implements Step {
+    private final DataMappings dataMappings;
+
+    public SubFlowStep(DataMappings dataMappings) {
+        this.dataMappings = dataMappings;
+    }
+
+    @Override
+    public void execute(FlowInstance instance, StepContext context) throws Exception {
+        if (dataMappings.hasInputData()) {
+            instance.setInputData(dataMappings.createInputData(instance));
+        }
+
+        context.hopInto(instance);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.engine.EngineAddresses;
+
+/**
+ * Starts the user interaction view of a flow instance.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ViewStep implements Step {
+    @Override
+    public void execute(FlowInstance instance, StepContext context) {
+        context.send(EngineAddresses.START_USER_INTERACTION_VIEW, instance);
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only journal made of fixed size, memory-mapped segment files.
+ *
+ * Each entry is written as its payload length, a state byte and the payload. The length is written last,
+ * so an entry that was torn by a crash reads as the end of the segment. Appends are memory copies - the
+ * segment is flushed to disk by {@link #sync()}, which the owner calls in batches. A segment is deleted
+ * once all its entries are marked as projected and the journal has moved on to the next segment.
+ *
+ * Not thread safe. Only {@link #sync()} may be called from another thread.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class Journal {
+    private static final String SEGMENT_EXTENSION = ".journal";
+    private static final int HEADER_SIZE = 5;
+    private static final byte PENDING = 1;
+    private static final byte PROJECTED = 2;
+
+    /**
+     * An entry in the journal and its payload.
+     */
+    public static class Entry {
+        private Segment segment;
+        private int position;
+        private byte[] payload;
+
+        private Entry(Segment segment, int position, byte[] payload) {
+            this.segment = segment;
+            this.position = position;
+            this.payload = payload;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private static class Segment {
+        private File file;
+        private MappedByteBuffer buffer;
+        private int pendingCount;
+
+        private Segment(File file, int size) throws IOException {
+            this.file = file;
+
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                        size > 0 ? size : randomAccessFile.length());
+            }
+        }
+    }
+
+    private File directory;
+    private int segmentSize;
+    private long nextSegmentNumber;
+    private Segment activeSegment;
+    private volatile MappedByteBuffer activeBuffer;
+    private int pendingCount;
+    private List<Entry> recoveredEntries = new ArrayList<>();
+
+    /**
+     * Open the journal in the given directory. Entries that were not projected before the journal
+     * was last closed are available from {@link #getRecoveredEntries()}.
+     *
+     * @param directory the directory that holds the segment files.
+     * @param segmentSize the size of a segment file in bytes.
+     * @throws IOException if the segments cannot be read or created.
+     */
+    public Journal(String directory, int segmentSize) throws IOException {
+        this.directory = new File(directory);
+        this.segmentSize = segmentSize;
+
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Unable to create journal directory: " + directory);
+        }
+
+        recover();
+    }
+
+    /**
+     * @return the entries that were pending when the journal was opened, in the order they were appended.
+     */
+    public List<Entry> getRecoveredEntries() {
+        return recoveredEntries;
+    }
+
+    /**
+     * Append an entry to the journal.
+     *
+     * @param payload the payload of the entry.
+     * @return the appended entry or null if the payload does not fit in a segment.
+     * @throws IOException if a new segment cannot be created.
+     */
+    public Entry append(byte[] payload) throws IOException {
+        if (payload.length > segmentSize - HEADER_SIZE - 4) {
+            return null;
+        }
+
+        // Leave room for the zero length that marks the end of the segment.
+        if (activeSegment == null || activeSegment.buffer.remaining() < HEADER_SIZE + payload.length + 4) {
+            rollSegment();
+        }
+
+        MappedByteBuffer buffer = activeSegment.buffer;
+        int position = buffer.position();
+
+        buffer.put(position + 4, PENDING);
+        buffer.position(position + HEADER_SIZE);
+        buffer.put(payload);
+        buffer.putInt(position, payload.length);
+
+        activeSegment.pendingCount++;
+        pendingCount++;
+        return new Entry(activeSegment, position, payload);
+    }
+
+    /**
+     * Mark the entry as projected. The entry is not replayed when the journal is opened again.
+     *
+     * @param entry an entry of this journal.
+     */
+    public void markProjected(Entry entry) {
+        Segment segment = entry.segment;
+        segment.buffer.put(entry.position + 4, PROJECTED);
+        segment.pendingCount--;
+        pendingCount--;
+
+        if (segment.pendingCount == 0 && segment != activeSegment) {
+            deleteSegment(segment);
+        }
+    }
+
+    /**
+     * @return number of entries that are not projected yet.
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Flush the appended entries of the active segment to the disk.
+     */
+    public void sync() {
+        MappedByteBuffer buffer = activeBuffer;
+
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Flush the active segment. The journal cannot be used after it is closed.
+     */
+    public void close() {
+        sync();
+
+        if (activeSegment != null && activeSegment.pendingCount == 0) {
+            deleteSegment(activeSegment);
+        }
+
+        activeSegment = null;
+        activeBuffer = null;
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_EXTENSION));
+        Arrays.sort(files);
+
+        for (File file : files) {
+            Segment segment = new Segment(file, 0);
+            MappedByteBuffer buffer = segment.buffer;
+            int position = 0;
+
+            while (position + HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+
+                if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+                    break;
+                }
+
+                if (buffer.get(position + 4) == PENDING) {
+                    byte[] payload = new byte[length];
+                    buffer.position(position + HEADER_SIZE);
+                    buffer.get(payload);
+                    recoveredEntries.add(new Entry(segment, position, payload));
+                    segment.pendingCount++;
+                    pendingCount++;
+                }
+
+                position += HEADER_SIZE + length;
+            }
+
+            nextSegmentNumber = getSegmentNumber(file) + 1;
+
+            if (segment.pendingCount == 0) {
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        Segment previousSegment = activeSegment;
+        File file = new File(directory, String.format("%020d", nextSegmentNumber++) + SEGMENT_EXTENSION);
+        activeSegment = new Segment(file, segmentSize);
+        activeBuffer = activeSegment.buffer;
+
+        if (previousSegment != null) {
+            previousSegment.buffer.force();
+
+            if (previousSegment.pendingCount == 0) {
+                deleteSegment(previousSegment);
+            }
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        // The mapping is released when the buffer is garbage collected.
+        segment.buffer = null;
+
+        if (!segment.file.delete()) {
+            segment.file.deleteOnExit();
+        }
+    }
+
+    private long getSegmentNumber(File file) {
+        String name = file.getName();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length()));
+    }
+}
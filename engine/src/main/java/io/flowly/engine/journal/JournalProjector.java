@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.journal;
+
+import io.flowly.core.Failure;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.codecs.FlowInstanceWrapperCodec;
+import io.flowly.engine.data.FlowInstanceWrapper;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Decouples token moves from graph commits. A move is written to the {@link Journal} and the token moves on
+ * right away with a flow object instance id that was reserved in the graph in advance. The projector then
+ * writes the journaled moves to the graph through the repository, in order per flow instance.
+ *
+ * Writes that bypass the journal must wait until the instance's journaled moves are projected
+ * - see {@link #whenProjected(Long, Handler)}. Moves that were not projected when the engine stopped are
+ * replayed when the projector is started again. Replaying a projected move has no effect.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class JournalProjector {
+    private static final Logger logger = LoggerFactory.getLogger(JournalProjector.class);
+
+    // Time (in milliseconds) to wait before retrying a move that could not be sent to the repository.
+    private static final long RETRY_DELAY = 1000;
+
+    /**
+     * A journaled move and its flow instance.
+     */
+    private static class Move {
+        private Journal.Entry entry;
+        private FlowInstanceWrapper wrapper;
+
+        private Move(Journal.Entry entry, FlowInstanceWrapper wrapper) {
+            this.entry = entry;
+            this.wrapper = wrapper;
+        }
+    }
+
+    private Vertx vertx;
+    private Journal journal;
+    private FlowInstanceWrapperCodec codec;
+    private int repositoryPartitions;
+    private int reserveSize;
+    private long syncInterval;
+    private long syncTimerId;
+
+    // Reserved flow object instance ids of each repository write partition. A reserved vertex must be held
+    // by the partition (storage shard) that owns the instance.
+    private List<Queue<Long>> reservedIds = new ArrayList<>();
+
+    // Partitions that have a reservation request in flight.
+    private boolean[] reserving;
+
+    // Moves that are not projected yet, by flow instance id. The first move of each queue is in flight.
+    private Map<Long, Queue<Move>> moves = new HashMap<>();
+
+    // Handlers waiting for the moves of a flow instance to be projected.
+    private Map<Long, List<Handler<Void>>> waiters = new HashMap<>();
+
+    /**
+     * @param vertx the vertx instance used to send the moves to the repository.
+     * @param journal the journal that holds the moves.
+     * @param repositoryPartitions the number of repository write partitions.
+     * @param reserveSize the number of flow object instance ids that are reserved at a time.
+     * @param syncInterval the time in milliseconds between flushes of the journal to the disk.
+     */
+    public JournalProjector(Vertx vertx, Journal journal, int repositoryPartitions, int reserveSize,
+                            long syncInterval) {
+        this.vertx = vertx;
+        this.journal = journal;
+        this.repositoryPartitions = repositoryPartitions;
+        this.reserveSize = reserveSize;
+        this.syncInterval = syncInterval;
+        codec = new FlowInstanceWrapperCodec();
+        reserving = new boolean[repositoryPartitions];
+
+        for (int i = 0; i < repositoryPartitions; i++) {
+            reservedIds.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Replay the moves recovered from the journal and start flushing the journal to the disk.
+     */
+    public void start() {
+        for (Journal.Entry entry : journal.getRecoveredEntries()) {
+            enqueue(new Move(entry, decode(entry)));
+        }
+
+        if (!journal.getRecoveredEntries().isEmpty()) {
+            logger.info("Replaying journaled moves: " + journal.getRecoveredEntries().size());
+        }
+
+        syncTimerId = vertx.setPeriodic(syncInterval, id -> vertx.executeBlocking(f -> {
+            journal.sync();
+            f.complete();
+        }, false, null));
+
+        for (int i = 0; i < repositoryPartitions; i++) {
+            reserve(i);
+        }
+    }
+
+    public void stop() {
+        vertx.cancelTimer(syncTimerId);
+        journal.close();
+    }
+
+    /**
+     * Journal the move of a token to a reserved flow object instance and project it in the background.
+     *
+     * @param wrapper the flow instance, the next flow object and the reserved flow object instance id.
+     *                The instance is copied, so it can be changed after this call.
+     * @return true if the move was journaled. If false, the move has to be written to the graph directly.
+     */
+    public boolean append(FlowInstanceWrapper wrapper) {
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, wrapper);
+
+        try {
+            Journal.Entry entry = journal.append(buffer.getBytes());
+
+            if (entry != null) {
+                enqueue(new Move(entry, decode(entry)));
+                return true;
+            }
+        }
+        catch (IOException ex) {
+            Failure failure = new Failure(3012, "Unable to journal flow instance move: " +
+                    wrapper.getInstance().getMetadata(), ex);
+            logger.error(failure.getError(), failure.getCause());
+        }
+
+        return false;
+    }
+
+    /**
+     * @param metadata metadata of the flow instance whose token is moved.
+     * @return a flow object instance id that was reserved in the graph or null if none are available.
+     */
+    public Long reserveFlowObjectInstanceId(FlowInstanceMetadata metadata) {
+        int partition = getPartition(metadata.getInstanceId());
+        Queue<Long> partitionIds = reservedIds.get(partition);
+        Long id = partitionIds.poll();
+
+        if (partitionIds.size() < reserveSize / 2) {
+            reserve(partition);
+        }
+
+        return id;
+    }
+
+    /**
+     * Return an unused reserved flow object instance id to the pool.
+     */
+    public void releaseFlowObjectInstanceId(Long id) {
+        reservedIds.get(getPartition(id)).add(id);
+    }
+
+    /**
+     * Run the handler once the journaled moves of the given flow instance are written to the graph.
+     *
+     * @param instanceId the flow instance id.
+     * @param handler the handler to run. Runs right away if the instance has no pending moves.
+     */
+    public void whenProjected(Long instanceId, Handler<Void> handler) {
+        if (!moves.containsKey(instanceId)) {
+            handler.handle(null);
+            return;
+        }
+
+        List<Handler<Void>> instanceWaiters = waiters.get(instanceId);
+
+        if (instanceWaiters == null) {
+            instanceWaiters = new ArrayList<>();
+            waiters.put(instanceId, instanceWaiters);
+        }
+
+        instanceWaiters.add(handler);
+    }
+
+    /**
+     * @return number of journaled moves that are not projected yet.
+     */
+    public int getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    private void enqueue(Move move) {
+        Long instanceId = move.wrapper.getInstance().getMetadata().getInstanceId();
+        Queue<Move> instanceMoves = moves.get(instanceId);
+
+        if (instanceMoves == null) {
+            instanceMoves = new LinkedList<>();
+            moves.put(instanceId, instanceMoves);
+        }
+
+        instanceMoves.add(move);
+
+        if (instanceMoves.size() == 1) {
+            project(instanceId, move);
+        }
+    }
+
+    private void project(Long instanceId, Move move) {
+        String address = EngineAddresses.getRepositoryWriteAddress(
+                EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE, instanceId, repositoryPartitions);
+
+        vertx.eventBus().send(address, move.wrapper, reply -> {
+            if (reply.failed()) {
+                // Repository is not reachable (yet) - keep the order and try again.
+                logger.warn("Unable to project journaled move, retrying: " + instanceId, reply.cause());
+                vertx.setTimer(RETRY_DELAY, id -> project(instanceId, move));
+                return;
+            }
+
+            if (reply.result().body() == null) {
+                Failure failure = new Failure(3013, "Unable to project journaled move: " +
+                        move.wrapper.getInstance().getMetadata());
+                logger.error(failure.getError());
+            }
+
+            journal.markProjected(move.entry);
+            Queue<Move> instanceMoves = moves.get(instanceId);
+            instanceMoves.remove();
+
+            if (!instanceMoves.isEmpty()) {
+                project(instanceId, instanceMoves.peek());
+            }
+            else {
+                moves.remove(instanceId);
+                List<Handler<Void>> instanceWaiters = waiters.remove(instanceId);
+
+                if (instanceWaiters != null) {
+                    for (Handler<Void> waiter : instanceWaiters) {
+                        waiter.handle(null);
+                    }
+                }
+            }
+        });
+    }
+
+    private void reserve(int partition) {
+        if (reserving[partition]) {
+            return;
+        }
+
+        reserving[partition] = true;
+        String address = EngineAddresses.getRepositoryWriteAddress(
+                EngineAddresses.REPO_FLOW_RESERVE_FLOW_OBJECT_INSTANCES, partition, repositoryPartitions);
+
+        vertx.eventBus().send(address, reserveSize, reply -> {
+            reserving[partition] = false;
+
+            if (reply.succeeded()) {
+                JsonArray ids = (JsonArray) reply.result().body();
+
+                for (int i = 0; i < ids.size(); i++) {
+                    reservedIds.get(partition).add(ids.getLong(i));
+                }
+            }
+            else {
+                logger.warn("Unable to reserve flow object instances.", reply.cause());
+            }
+        });
+    }
+
+    // Partition of an instance or flow object instance - matches the repository's write partitions.
+    private int getPartition(Long id) {
+        return repositoryPartitions > 1 ? (int) Math.abs(id % repositoryPartitions) : 0;
+    }
+
+    private FlowInstanceWrapper decode(Journal.Entry entry) {
+        return codec.decodeFromWire(0, Buffer.buffer(entry.getPayload()));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.metrics;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the metrics of the flows run by an engine, keyed by app id, flow id and flow object id.
+ * Once a flow object is seen, recording its metrics does not allocate.
+ *
+ * Not thread safe - must be used from a single (event loop) context.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class EngineMetrics {
+    private boolean enabled;
+    private Map<String, Map<String, FlowMetrics>> apps = new HashMap<>();
+
+    public EngineMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the current time in microseconds that is used to measure latencies.
+     */
+    public static long now() {
+        return System.nanoTime() / 1000;
+    }
+
+    public void recordStarted(FlowInstanceMetadata metadata) {
+        if (enabled) {
+            getFlowMetrics(metadata.getAppId(), metadata.getFlowId()).incrementStarted();
+        }
+    }
+
+    public void recordCompleted(FlowInstanceMetadata metadata) {
+        if (enabled) {
+            getFlowMetrics(metadata.getAppId(), metadata.getFlowId()).incrementCompleted();
+        }
+    }
+
+    public void recordFailed(FlowInstanceMetadata metadata) {
+        if (enabled) {
+            getFlowMetrics(metadata.getAppId(), metadata.getFlowId()).incrementFailed();
+        }
+    }
+
+    public void recordQueueWait(String appId, String flowId, String flowObjectId, long startMicros) {
+        if (enabled) {
+            getFlowMetrics(appId, flowId).getFlowObjectMetrics(flowObjectId).getQueueWait().record(now() - startMicros);
+        }
+    }
+
+    public void recordRepository(String appId, String flowId, String flowObjectId, long startMicros) {
+        if (enabled) {
+            getFlowMetrics(appId, flowId).getFlowObjectMetrics(flowObjectId).getRepository().record(now() - startMicros);
+        }
+    }
+
+    public void recordScript(String appId, String flowId, String flowObjectId, long startMicros) {
+        if (enabled) {
+            getFlowMetrics(appId, flowId).getFlowObjectMetrics(flowObjectId).getScript().record(now() - startMicros);
+        }
+    }
+
+    public FlowMetrics getFlowMetrics(String appId, String flowId) {
+        Map<String, FlowMetrics> flows = apps.get(appId);
+
+        if (flows == null) {
+            flows = new HashMap<>();
+            apps.put(appId, flows);
+        }
+
+        FlowMetrics flowMetrics = flows.get(flowId);
+
+        if (flowMetrics == null) {
+            flowMetrics = new FlowMetrics();
+            flows.put(flowId, flowMetrics);
+        }
+
+        return flowMetrics;
+    }
+
+    /**
+     * Take a snapshot of the metrics.
+     *
+     * @param appId optional app id. If specified, only the metrics of the app's flows are included.
+     * @return the metrics keyed by app id and flow id.
+     */
+    public JsonObject toJson(String appId) {
+        JsonObject snapshot = new JsonObject();
+
+        for (Map.Entry<String, Map<String, FlowMetrics>> app : apps.entrySet()) {
+            if (appId != null && !appId.equals(app.getKey())) {
+                continue;
+            }
+
+            JsonObject flowsJson = new JsonObject();
+
+            for (Map.Entry<String, FlowMetrics> flow : app.getValue().entrySet()) {
+                flowsJson.put(flow.getKey(), flow.getValue().toJson());
+            }
+
+            snapshot.put(app.getKey(), flowsJson);
+        }
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.metrics;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instance counters of a flow and the step latency histograms of its flow objects.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowMetrics {
+    public static final String STARTED = "started";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+    public static final String FLOW_OBJECTS = "flowObjects";
+
+    public static final String QUEUE_WAIT = "queueWait";
+    public static final String REPOSITORY = "repository";
+    public static final String SCRIPT = "script";
+
+    /**
+     * Step latency of a single flow object, split into the time spent waiting to run,
+     * in the repository and running the flow object's script.
+     */
+    public static class FlowObjectMetrics {
+        private final Histogram queueWait = new Histogram();
+        private final Histogram repository = new Histogram();
+        private final Histogram script = new Histogram();
+
+        public Histogram getQueueWait() {
+            return queueWait;
+        }
+
+        public Histogram getRepository() {
+            return repository;
+        }
+
+        public Histogram getScript() {
+            return script;
+        }
+
+        public JsonObject toJson() {
+            return new JsonObject().
+                    put(QUEUE_WAIT, queueWait.toJson()).
+                    put(REPOSITORY, repository.toJson()).
+                    put(SCRIPT, script.toJson());
+        }
+    }
+
+    private long started;
+    private long completed;
+    private long failed;
+    private Map<String, FlowObjectMetrics> flowObjects = new HashMap<>();
+
+    public void incrementStarted() {
+        started++;
+    }
+
+    public void incrementCompleted() {
+        completed++;
+    }
+
+    public void incrementFailed() {
+        failed++;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public FlowObjectMetrics getFlowObjectMetrics(String flowObjectId) {
+        FlowObjectMetrics flowObjectMetrics = flowObjects.get(flowObjectId);
+
+        if (flowObjectMetrics == null) {
+            flowObjectMetrics = new FlowObjectMetrics();
+            flowObjects.put(flowObjectId, flowObjectMetrics);
+        }
+
+        return flowObjectMetrics;
+    }
+
+    public JsonObject toJson() {
+        JsonObject flowObjectsJson = new JsonObject();
+
+        for (Map.Entry<String, FlowObjectMetrics> flowObject : flowObjects.entrySet()) {
+            flowObjectsJson.put(flowObject.getKey(), flowObject.getValue().toJson());
+        }
+
+        return new JsonObject().
+                put(STARTED, started).
+                put(COMPLETED, completed).
+                put(FAILED, failed).
+                put(FLOW_OBJECTS, flowObjectsJson);
+    }
+}
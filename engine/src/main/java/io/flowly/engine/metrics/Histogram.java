@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.metrics;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Fixed bucket latency histogram. Bucket i holds the values (in microseconds) that are less than 2^i,
+ * and not less than 2^(i - 1). Recording a value does not allocate.
+ *
+ * Not thread safe - must be used from a single (event loop) context.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class Histogram {
+    public static final String COUNT = "count";
+    public static final String MEAN = "mean";
+    public static final String MAX = "max";
+    public static final String P50 = "p50";
+    public static final String P90 = "p90";
+    public static final String P99 = "p99";
+    public static final String BUCKETS = "buckets";
+
+    // 2^39 microseconds is a little over 6 days - larger values go to the last bucket.
+    private static final int BUCKET_COUNT = 40;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * @param micros the value to record. Negative values are ignored.
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            return;
+        }
+
+        int index = 64 - Long.numberOfLeadingZeros(micros);
+        buckets[index < BUCKET_COUNT ? index : BUCKET_COUNT - 1]++;
+
+        count++;
+        sum += micros;
+
+        if (micros > max) {
+            max = micros;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * Estimate the value at the given percentile as the upper bound of the bucket that holds it.
+     *
+     * @param percentile a value between 0 and 100.
+     * @return the estimated value in microseconds, capped at the recorded maximum.
+     */
+    public long getPercentile(double percentile) {
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+
+            if (seen >= rank && seen > 0) {
+                return Math.min((1L << i) - 1, max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * @return summary of the recorded values. Buckets are listed as [upper bound, count] pairs
+     *         and only the non empty buckets are included.
+     */
+    public JsonObject toJson() {
+        JsonArray nonEmptyBuckets = new JsonArray();
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (buckets[i] > 0) {
+                nonEmptyBuckets.add(new JsonArray().add((1L << i) - 1).add(buckets[i]));
+            }
+        }
+
+        return new JsonObject().
+                put(COUNT, count).
+                put(MEAN, getMean()).
+                put(MAX, max).
+                put(P50, getPercentile(50)).
+                put(P90, getPercentile(90)).
+                put(P99, getPercentile(99)).
+                put(BUCKETS, nonEmptyBuckets);
+    }
+}
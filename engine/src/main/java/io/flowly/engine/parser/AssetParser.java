@@ -13,6 +13,7 @@
 
 package io.flowly.engine.parser;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.flowly.core.parser.JsonParser;
 import io.flowly.engine.assets.FlowObject;
@@ -20,7 +21,13 @@ import io.vertx.core.file.FileSystem;
 
 public class AssetParser extends JsonParser {
     public AssetParser(FileSystem fileSystem) {
-        super(fileSystem,
-                new GsonBuilder().registerTypeAdapter(FlowObject.class, new FlowObjectTypeAdapter()).create());
+        super(fileSystem, createGson());
+    }
+
+    /**
+     * @return a Gson instance that can read and write assets with polymorphic flow objects.
+     */
+    public static Gson createGson() {
+        return new GsonBuilder().registerTypeAdapter(FlowObject.class, new FlowObjectTypeAdapter()).create();
     }
 }
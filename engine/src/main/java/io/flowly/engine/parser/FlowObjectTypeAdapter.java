@@ -16,21 +16,38 @@ package io.flowly.engine.parser;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
 import io.flowly.engine.assets.FlowObject;
 
 import java.lang.reflect.Type;
 
 /**
- * Adapter to deserialize {@link io.flowly.engine.assets.FlowObject} objects.
+ * Adapter to serialize and deserialize {@link io.flowly.engine.assets.FlowObject} objects.
  *
  * @author <a>Uday Tatiraju</a>
  */
-public class FlowObjectTypeAdapter implements JsonDeserializer<FlowObject> {
+public class FlowObjectTypeAdapter implements JsonSerializer<FlowObject>, JsonDeserializer<FlowObject> {
+    private static final String TYPE = "type";
+
+    @Override
+    public JsonElement serialize(FlowObject flowObject, Type typeOfSrc, JsonSerializationContext context) {
+        // Serialize the concrete flow object and make sure that its type can be resolved when deserialized.
+        JsonObject json = context.serialize(flowObject, flowObject.getClass()).getAsJsonObject();
+
+        if (!json.has(TYPE)) {
+            json.addProperty(TYPE, flowObject.getClass().getSimpleName());
+        }
+
+        return json;
+    }
+
     @Override
     public FlowObject deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
             throws JsonParseException {
-        String type = json.getAsJsonObject().get("type").getAsString();
+        String type = json.getAsJsonObject().get(TYPE).getAsString();
         return context.deserialize(json, getFlowObjectType(type));
     }
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.router;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+
+/**
+ * In-memory router that holds the route tables of all flows deployed on a vertx instance.
+ * Route tables are stored in a local shared map so that the repository (writer) and
+ * the engine (reader) see the same tables.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowRouter {
+    // Key to the shared map that holds the route tables of all deployed flows.
+    private static final String ROUTE_TABLES_KEY = "io.flowly.flows.routes";
+
+    private LocalMap<String, RouteTable> routeTables;
+
+    public FlowRouter(Vertx vertx) {
+        routeTables = vertx.sharedData().getLocalMap(ROUTE_TABLES_KEY);
+    }
+
+    public RouteTable getRouteTable(String flowId) {
+        return routeTables.get(flowId);
+    }
+
+    public void putRouteTable(RouteTable routeTable) {
+        routeTables.put(routeTable.getFlowId(), routeTable);
+    }
+
+    public void removeRouteTable(String flowId) {
+        routeTables.remove(flowId);
+    }
+
+    /**
+     * Get the next route of a flow instance from the in-memory route table.
+     *
+     * @param metadata the flow instance metadata that holds the flow id and the current step.
+     * @return the next route or null if the flow's route table is not loaded.
+     */
+    public Route nextRoute(FlowInstanceMetadata metadata) {
+        String flowId = metadata.getFlowId();
+        RouteTable routeTable = flowId != null ? routeTables.get(flowId) : null;
+
+        if (routeTable == null) {
+            return null;
+        }
+
+        FlowInstanceStep currentStep = metadata.getCurrentStep();
+        return routeTable.getRoute(currentStep.getFlowObjectId(), currentStep.getConnectingObjectIds());
+    }
+}
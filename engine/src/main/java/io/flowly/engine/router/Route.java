@@ -14,6 +14,7 @@
 package io.flowly.engine.router;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -23,15 +24,22 @@ import java.util.List;
  */
 public class Route {
     /**
-     * Represents the combination of next flow object id and the flow object's sub flow id (if any).
+     * Represents the combination of next flow object id, the flow object's sub flow id (if any)
+     * and the number of tokens to be joined (if the flow object is a join gateway).
      */
     public static class Next {
         private String flowObjectId;
         private String subFlowId;
+        private int joinCount;
 
         public Next(String flowObjectId, String subFlowId) {
+            this(flowObjectId, subFlowId, 0);
+        }
+
+        public Next(String flowObjectId, String subFlowId, int joinCount) {
             this.flowObjectId = flowObjectId;
             this.subFlowId = subFlowId;
+            this.joinCount = joinCount;
         }
 
         public String getFlowObjectId() {
@@ -41,22 +49,37 @@ public class Route {
         public String getSubFlowId() {
             return subFlowId;
         }
+
+        public int getJoinCount() {
+            return joinCount;
+        }
+
+        public boolean isJoin() {
+            return joinCount > 1;
+        }
     }
 
     private String previousFlowObjectId;
     private boolean valid;
     private boolean end;
     private List<Next> nextList;
+    private boolean frozen;
 
     public Route() {
         nextList = new ArrayList<>();
     }
 
+    public Route(String previousFlowObjectId) {
+        this();
+        this.previousFlowObjectId = previousFlowObjectId;
+    }
+
     public String getPreviousFlowObjectId() {
         return previousFlowObjectId;
     }
 
     public void setPreviousFlowObjectId(String previousFlowObjectId) {
+        checkNotFrozen();
         this.previousFlowObjectId = previousFlowObjectId;
     }
 
@@ -69,11 +92,17 @@ public class Route {
     }
 
     public void addNext(String nextFlowObjectId, String subFlowId) {
+        addNext(nextFlowObjectId, subFlowId, 0);
+    }
+
+    public void addNext(String nextFlowObjectId, String subFlowId, int joinCount) {
+        checkNotFrozen();
+
         if (nextFlowObjectId.equals("-1")) {
             setEnd(true);
         }
         else {
-            nextList.add(new Next(nextFlowObjectId, subFlowId));
+            nextList.add(new Next(nextFlowObjectId, subFlowId, joinCount));
         }
     }
 
@@ -82,6 +111,7 @@ public class Route {
     }
 
     public void setValid(boolean valid) {
+        checkNotFrozen();
         this.valid = valid;
     }
 
@@ -90,10 +120,35 @@ public class Route {
     }
 
     protected void setEnd(boolean end) {
+        checkNotFrozen();
         this.end = end;
     }
 
     public boolean isSplit() {
         return nextList.size() > 1;
     }
+
+    /**
+     * Make the route read-only so that it can be shared between verticles.
+     *
+     * @return this route.
+     */
+    public Route freeze() {
+        if (!frozen) {
+            nextList = Collections.unmodifiableList(nextList);
+            frozen = true;
+        }
+
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Route is read-only: " + previousFlowObjectId);
+        }
+    }
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.router;
+
+import io.flowly.engine.assets.CompiledFlow;
+import io.flowly.engine.assets.ConnectingObject;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.JoinGateway;
+import io.flowly.engine.assets.SubFlow;
+import io.flowly.engine.assets.View;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup table that holds all the routes of a given flow.
+ * The table is built once per flow and shared (read-only) between verticles.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class RouteTable implements Shareable {
+    public static final String START_FLOW_OBJECT_ID = "0";
+    public static final String END_FLOW_OBJECT_ID = "-1";
+    public static final String DEFAULT_CONNECTING_OBJECT_ID = "0";
+
+    /**
+     * Represents a single route entry - current flow object, the connecting object and the next flow object.
+     */
+    public static class Entry {
+        private final String currentFlowObjectId;
+        private final String connectingObjectId;
+        private final String nextFlowObjectId;
+        private final String subFlowId;
+        private final int joinCount;
+
+        public Entry(String currentFlowObjectId, String connectingObjectId, String nextFlowObjectId,
+                     String subFlowId, int joinCount) {
+            this.currentFlowObjectId = currentFlowObjectId;
+            this.connectingObjectId = connectingObjectId;
+            this.nextFlowObjectId = nextFlowObjectId;
+            this.subFlowId = subFlowId;
+            this.joinCount = joinCount;
+        }
+
+        public String getCurrentFlowObjectId() {
+            return currentFlowObjectId;
+        }
+
+        public String getConnectingObjectId() {
+            return connectingObjectId;
+        }
+
+        public String getNextFlowObjectId() {
+            return nextFlowObjectId;
+        }
+
+        public String getSubFlowId() {
+            return subFlowId;
+        }
+
+        public int getJoinCount() {
+            return joinCount;
+        }
+
+        /**
+         * @return the entry as a compact JSON array - current flow object id, connecting object id,
+         *         next flow object id, sub flow id and join count.
+         */
+        public JsonArray toJson() {
+            JsonArray entry = new JsonArray().add(currentFlowObjectId).add(connectingObjectId).add(nextFlowObjectId);
+            return (subFlowId != null ? entry.add(subFlowId) : entry.addNull()).add(joinCount);
+        }
+
+        public static Entry fromJson(JsonArray entry) {
+            return new Entry(entry.getString(0), entry.getString(1), entry.getString(2), entry.getString(3),
+                    entry.getInteger(4));
+        }
+    }
+
+    private final String flowId;
+    private final List<Entry> entries;
+
+    // Routes keyed by the current flow object id.
+    private final Map<String, Route> routes;
+
+    // Routes keyed by the current flow object id and the connecting object id.
+    private final Map<String, Route> connectingRoutes;
+
+    /**
+     * Build the route table of a flow from its flow objects and connecting objects.
+     *
+     * @param flow the flow whose routes are to be prepared.
+     * @param compiledFlow the compiled (and validated) flow that holds the flow object map.
+     */
+    public RouteTable(Flow flow, CompiledFlow compiledFlow) {
+        this(flow.getId(), createEntries(flow, compiledFlow));
+    }
+
+    /**
+     * Build the route table of a flow from its (saved) route entries.
+     *
+     * @param flowId the id of the flow whose routes are to be prepared.
+     * @param entries the route entries of the flow.
+     */
+    public RouteTable(String flowId, List<Entry> entries) {
+        this.flowId = flowId;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        routes = new HashMap<>();
+        connectingRoutes = new HashMap<>();
+        prepareRoutes();
+    }
+
+    private static List<Entry> createEntries(Flow flow, CompiledFlow compiledFlow) {
+        List<Entry> entryList = new ArrayList<>();
+
+        // Add start route for flow.
+        entryList.add(new Entry(START_FLOW_OBJECT_ID, DEFAULT_CONNECTING_OBJECT_ID,
+                compiledFlow.getStartEvent().getId(), null, 0));
+
+        // Loop through the connecting objects and load the routes.
+        for (ConnectingObject connectingObject : flow.getConnectingObjects()) {
+            String subFlowId = null;
+            int joinCount = 0;
+            FlowObject flowObject = compiledFlow.getFlowObjectMap().get(connectingObject.getToId());
+
+            if (flowObject instanceof SubFlow) {
+                subFlowId = ((SubFlow) flowObject).getSubFlowId();
+            }
+            else if (flowObject instanceof View) {
+                subFlowId = ((View) flowObject).getRefViewId();
+            }
+            else if (flowObject instanceof JoinGateway) {
+                joinCount = getIncomingCount(flow, flowObject.getId());
+            }
+
+            entryList.add(new Entry(connectingObject.getFromId(), connectingObject.getId(),
+                    connectingObject.getToId(), subFlowId, joinCount));
+        }
+
+        for (FlowObject flowObject : compiledFlow.getEndEvents()) {
+            entryList.add(new Entry(flowObject.getId(), DEFAULT_CONNECTING_OBJECT_ID, END_FLOW_OBJECT_ID, null, 0));
+        }
+
+        return entryList;
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the route that starts at the given flow object. If connecting object ids are specified,
+     * only the routes that follow the given connecting objects are considered.
+     *
+     * @param flowObjectId the current flow object id.
+     * @param connectingObjectIds optional list of connecting object ids that narrow down the route.
+     * @return the next route. Route is invalid if no matching entries are found.
+     *         The returned route is shared and must not be modified.
+     */
+    public Route getRoute(String flowObjectId, List<String> connectingObjectIds) {
+        Route route;
+
+        if (connectingObjectIds == null) {
+            route = routes.get(flowObjectId);
+        }
+        else if (connectingObjectIds.size() == 1) {
+            route = connectingRoutes.get(getConnectingKey(flowObjectId, connectingObjectIds.get(0)));
+        }
+        else {
+            route = createRoute(flowObjectId, connectingObjectIds);
+        }
+
+        return route != null ? route : createInvalidRoute(flowObjectId);
+    }
+
+    private void prepareRoutes() {
+        Map<String, List<Entry>> entriesByFlowObject = new LinkedHashMap<>();
+
+        for (Entry entry : entries) {
+            List<Entry> flowObjectEntries = entriesByFlowObject.get(entry.getCurrentFlowObjectId());
+
+            if (flowObjectEntries == null) {
+                flowObjectEntries = new ArrayList<>();
+                entriesByFlowObject.put(entry.getCurrentFlowObjectId(), flowObjectEntries);
+            }
+
+            flowObjectEntries.add(entry);
+
+            Route connectingRoute = new Route(entry.getCurrentFlowObjectId());
+            connectingRoute.addNext(entry.getNextFlowObjectId(), entry.getSubFlowId(), entry.getJoinCount());
+            connectingRoute.setValid(true);
+            connectingRoutes.put(getConnectingKey(entry.getCurrentFlowObjectId(), entry.getConnectingObjectId()),
+                    connectingRoute.freeze());
+        }
+
+        for (Map.Entry<String, List<Entry>> flowObjectEntries : entriesByFlowObject.entrySet()) {
+            Route route = new Route(flowObjectEntries.getKey());
+
+            for (Entry entry : flowObjectEntries.getValue()) {
+                route.addNext(entry.getNextFlowObjectId(), entry.getSubFlowId(), entry.getJoinCount());
+            }
+
+            route.setValid(true);
+            routes.put(flowObjectEntries.getKey(), route.freeze());
+        }
+    }
+
+    private Route createRoute(String flowObjectId, List<String> connectingObjectIds) {
+        Route route = null;
+
+        for (Entry entry : entries) {
+            if (entry.getCurrentFlowObjectId().equals(flowObjectId) &&
+                    connectingObjectIds.contains(entry.getConnectingObjectId())) {
+                if (route == null) {
+                    route = new Route(flowObjectId);
+                    route.setValid(true);
+                }
+
+                route.addNext(entry.getNextFlowObjectId(), entry.getSubFlowId(), entry.getJoinCount());
+            }
+        }
+
+        return route;
+    }
+
+    private static int getIncomingCount(Flow flow, String flowObjectId) {
+        int count = 0;
+
+        for (ConnectingObject connectingObject : flow.getConnectingObjects()) {
+            if (connectingObject.getToId().equals(flowObjectId)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private Route createInvalidRoute(String flowObjectId) {
+        Route route = new Route(flowObjectId);
+        route.setValid(false);
+        return route;
+    }
+
+    private String getConnectingKey(String flowObjectId, String connectingObjectId) {
+        return flowObjectId + ":" + connectingObjectId;
+    }
+}
@@ -13,37 +13,55 @@
 
 package io.flowly.engine.verticles;
 
+import io.flowly.core.ObjectKeys;
 import io.flowly.core.verticles.ConsumerRegistration;
 import io.flowly.core.verticles.VerticleDeployment;
 import io.flowly.core.verticles.VerticleUtils;
 import io.flowly.engine.App;
 import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.assets.CompiledFlow;
 import io.flowly.engine.assets.Flow;
 import io.flowly.engine.assets.InteractiveService;
 import io.flowly.engine.assets.MicroService;
 import io.flowly.engine.assets.Process;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.compilers.BuildExecutor;
+import io.flowly.engine.compilers.BuildManifest;
 import io.flowly.engine.compilers.Compiler;
+import io.flowly.engine.compilers.InterpretedCompiler;
+import io.flowly.engine.compilers.OptimizingCompiler;
 import io.flowly.engine.compilers.VerboseCompiler;
 import io.flowly.core.Failure;
 import io.flowly.core.parser.Parser;
+import io.flowly.engine.interpreter.FlowInterpreter;
 import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.router.FlowRouter;
+import io.flowly.engine.router.RouteTable;
 import io.flowly.engine.utils.PathUtils;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
@@ -51,20 +69,54 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Parse, compile and deploy individual flows or all flows in an app.
+ * Builds are incremental - a flow is compiled and redeployed only if its source or the inline scripts it
+ * refers to changed since the last build (see {@link BuildManifest}). An app that did not change since it was
+ * last built by the same engine version is deployed from its compiled verticles and saved routes.
  *
  * @author <a>Uday Tatiraju</a>
  */
 public class Build extends AbstractVerticle {
     private static final Logger logger = LoggerFactory.getLogger(Build.class);
 
-    // Key to the shared map that holds a list of all deployed apps and their flows.
+    // Key to the shared map that holds all deployed apps and the verticles of their flows.
     private static final String DEPLOYED_APPS_KEY = "io.flowly.apps.deployed";
 
     private FileSystem fileSystem;
 
+    // Executable flows of the apps that are interpreted by the engine.
+    private FlowInterpreter flowInterpreter;
+
+    // If configured to true (default), linear chains of automatic flow objects are fused into single consumers.
+    private boolean fuseFlowObjects;
+
+    // If configured to true (default), unchanged apps are deployed from their compiled verticles on start.
+    private boolean cacheEnabled;
+    private String engineVersion;
+
+    // Parses and compiles the flows of an app on all cores (default) or as many threads as configured.
+    private BuildExecutor buildExecutor;
+
+    // Maximum number of flow verticles of an app that are deployed at the same time.
+    private int deployConcurrency;
+
+    // Holds the route tables of flows. Loaded here on nodes where the repository (which otherwise loads them)
+    // is remote.
+    private FlowRouter flowRouter;
+    private boolean remoteRepository;
+
     @Override
     public void start(Future<Void> startFuture) throws Exception {
         fileSystem = vertx.fileSystem();
+        flowInterpreter = new FlowInterpreter(vertx);
+        fuseFlowObjects = config().getBoolean(JsonKeys.BUILD_FUSE_FLOW_OBJECTS, true);
+        cacheEnabled = config().getBoolean(JsonKeys.BUILD_CACHE_ENABLED, true);
+        engineVersion = Kernel.getEngineVersion();
+        buildExecutor = new BuildExecutor(config().getInteger(JsonKeys.BUILD_PARALLELISM, 0));
+        deployConcurrency = config().getInteger(JsonKeys.BUILD_DEPLOY_CONCURRENCY,
+                Runtime.getRuntime().availableProcessors());
+
+        flowRouter = new FlowRouter(vertx);
+        remoteRepository = Kernel.getNodeRole(config()).equals(Kernel.NODE_ROLE_ENGINE);
 
         try {
             // Register message handlers.
@@ -88,6 +140,7 @@ public class Build extends AbstractVerticle {
     @Override
     public void stop(Future<Void> stopFuture) throws Exception {
         vertx.sharedData().getLocalMap(DEPLOYED_APPS_KEY).clear();
+        buildExecutor.close();
         stopFuture.complete();
 
         logger.info("Undeployed build verticle.");
@@ -109,43 +162,58 @@ public class Build extends AbstractVerticle {
     private Handler<Message<Object>> deployAppHandler() {
         return message -> {
             App app = App.toApp((JsonObject) message.body());
-            LocalMap<String, Boolean> deployedAppsMap = vertx.sharedData().getLocalMap(DEPLOYED_APPS_KEY);
-            Boolean appExists = deployedAppsMap.get(app.getId());
+            LocalMap<String, DeployedApp> deployedAppsMap = vertx.sharedData().getLocalMap(DEPLOYED_APPS_KEY);
+            DeployedApp deployedApp = deployedAppsMap.get(app.getId());
 
-            if (appExists != null && appExists) {
-                Failure failure = new Failure(4001, "App is already deployed: " + app.getId());
+            if (deployedApp != null && deployedApp.building) {
+                Failure failure = new Failure(4001, "App is already being deployed: " + app.getId());
                 logger.error(failure.getError());
                 message.fail(failure.getCode(), failure.getMessage());
             }
             else {
-                // Add the app to the local map.
-                deployedAppsMap.put(app.getId(), true);
+                // Redeploying an app builds and deploys only the flows that changed.
+                DeployedApp targetApp = deployedApp != null ? deployedApp : new DeployedApp();
+                targetApp.building = true;
+                deployedAppsMap.put(app.getId(), targetApp);
 
-                String appFolder = app.getAppFolder();
-                String verticlesPath = PathUtils.createPath(appFolder, PathUtils.VERTICLES_FOLDER);
+                String verticlesPath = PathUtils.createPath(app.getAppFolder(), PathUtils.VERTICLES_FOLDER);
 
                 vertx.executeBlocking(future -> {
                     try {
-                        prepareVerticlesFolderBlocking(app, verticlesPath);
-
-                        // Parse flows.
-                        List<Flow> flows = parseFlowsBlocking(appFolder);
-
-                        // Build flows.
-                        buildFlowsBlocking(app, flows, future, deployedAppsMap);
+                        Compiler compiler = createCompiler(app);
+                        BuildManifest manifest = prepareVerticlesFolderBlocking(app, verticlesPath, compiler);
+
+                        // Read and hash flows.
+                        List<FlowSource> sources = readFlowsBlocking(app, manifest);
+
+                        if (isCached(app, manifest, sources, targetApp)) {
+                            deployCachedFlows(app, sources, manifest, verticlesPath, targetApp, future);
+                        }
+                        else {
+                            // Parse the flows that are to be compiled or saved and build them.
+                            parseFlowsBlocking(app, sources);
+                            buildFlowsBlocking(app, sources, manifest, verticlesPath, targetApp, future);
+                        }
                     }
                     catch (Exception ex) {
-                        Failure failure = new Failure(4002, "Unable to compile flow verticles for app: " +
-                                app.getId(), ex);
-                        logger.error(failure.getError(), failure.getCause());
-                        future.fail(failure);
+                        future.fail(createBuildFailure(app, ex));
                     }
 
                 }, r -> {
+                    targetApp.building = false;
+
                     if (r.succeeded()) {
+                        targetApp.deployed = true;
                         message.reply(true);
                     }
                     else {
+                        // Unchanged flows keep running if a redeploy fails. Changed flows, whose old verticles
+                        // are undeployed, are deployed by the next build.
+                        if (!targetApp.deployed) {
+                            deployedAppsMap.remove(app.getId());
+                            flowInterpreter.removeFlows(app.getId());
+                        }
+
                         message.fail(4002, r.cause().getMessage());
                     }
                 });
@@ -153,18 +221,122 @@ public class Build extends AbstractVerticle {
         };
     }
 
-    private Handler<AsyncResult<Void>> deployFlowsHandler(Future<Object> future, App app,
-                                                          Set<JsonObject> deployedVerticles,
-                                                          LocalMap<String, Boolean> deployedAppsMap) {
+    /**
+     * Log the deployment progress of an app's flow verticles in steps of (about) ten percent.
+     */
+    private Handler<Integer> deployProgressHandler(App app, int total) {
+        int step = Math.max(total / 10, 1);
+
+        return deployed -> {
+            if (deployed % step == 0 || deployed == total) {
+                logger.info("Deployed " + deployed + " of " + total + " flow verticle(s) for app: " + app.getId());
+            }
+        };
+    }
+
+    private Failure createBuildFailure(App app, Throwable cause) {
+        Failure failure = new Failure(4002, "Unable to compile flow verticles for app: " + app.getId(), cause);
+        logger.error(failure.getError(), failure.getCause());
+        return failure;
+    }
+
+    /**
+     * The compiled verticles of an app can be deployed as they are, if the app is not yet deployed (the engine
+     * started) and did not change since it was last built by the same engine version.
+     * Interpreted flows live in memory and are always built.
+     */
+    private boolean isCached(App app, BuildManifest manifest, List<FlowSource> sources, DeployedApp deployedApp) {
+        if (!cacheEnabled || app.isInterpreted() || deployedApp.deployed || manifest.getAppHash() == null) {
+            return false;
+        }
+
+        Map<String, String> hashes = new HashMap<>();
+
+        for (FlowSource source : sources) {
+            if (source.changed) {
+                return false;
+            }
+
+            hashes.put(source.filePath, source.hash);
+        }
+
+        return manifest.getAppHash().equals(BuildManifest.appHash(hashes));
+    }
+
+    /**
+     * Load the saved routes of the app's flows and deploy the compiled verticles, skipping parsing, compilation
+     * and repository writes. The app is built if the routes of a flow are not found in the repository.
+     */
+    private void deployCachedFlows(App app, List<FlowSource> sources, BuildManifest manifest, String verticlesPath,
+                                   DeployedApp deployedApp, Future<Object> future) {
+        JsonArray flowIds = new JsonArray();
+
+        for (FlowSource source : sources) {
+            flowIds.add(source.flowId);
+        }
+
+        vertx.eventBus().send(EngineAddresses.REPO_FLOW_GET_ROUTERS, flowIds, reply -> {
+            JsonObject routers = reply.succeeded() ? (JsonObject) reply.result().body() : null;
+
+            if (routers == null) {
+                logger.info("Routes not found, build app: " + app.getId());
+
+                vertx.executeBlocking(f -> {
+                    parseFlowsBlocking(app, sources);
+                    buildFlowsBlocking(app, sources, manifest, verticlesPath, deployedApp, future);
+                    f.complete();
+                }, false, r -> {
+                    if (r.failed()) {
+                        future.fail(createBuildFailure(app, r.cause()));
+                    }
+                });
+
+                return;
+            }
+
+            Stack<VerticleDeployment> flowDeployments = new Stack<>();
+            DeploymentOptions deploymentOptions = new DeploymentOptions();
+
+            for (FlowSource source : sources) {
+                List<RouteTable.Entry> entries = new ArrayList<>();
+
+                for (Object entry : routers.getJsonArray(source.flowId)) {
+                    entries.add(RouteTable.Entry.fromJson((JsonArray) entry));
+                }
+
+                flowRouter.putRouteTable(new RouteTable(source.flowId, entries));
+                flowDeployments.push(new VerticleDeployment(source.flowId,
+                        "js:" + manifest.getVerticlePath(source.filePath), deploymentOptions));
+            }
+
+            logger.info("Deploy " + flowDeployments.size() + " cached flow verticle(s) for app: " + app.getId());
+
+            if (flowDeployments.empty()) {
+                future.complete();
+                return;
+            }
+
+            Set<JsonObject> deployedVerticles = new HashSet<>();
+            VerticleUtils.deployVerticles(flowDeployments, deployedVerticles, vertx, deployConcurrency,
+                    deployProgressHandler(app, flowDeployments.size()),
+                    deployFlowsHandler(future, app, deployedApp, deployedVerticles));
+        });
+    }
+
+    private Handler<AsyncResult<Void>> deployFlowsHandler(Future<Object> future, App app, DeployedApp deployedApp,
+                                                          Set<JsonObject> deployedVerticles) {
         return deployedHandler -> {
             if (deployedHandler.succeeded()) {
-                logger.info("Deployed " + deployedVerticles.size() + " flow verticle(s) for app: " + app.getId());
+                for (JsonObject deployedVerticle : deployedVerticles) {
+                    deployedApp.deploymentIds.put(deployedVerticle.getString(ObjectKeys.ID),
+                            deployedVerticle.getString(ObjectKeys.DEPLOYMENT_ID));
+                }
+
                 future.complete();
             }
             else {
-                // Unfortunate, but let's move on. Undeploy the successful ones (like a rollback)
-                // and clear the map.
-                deployedAppsMap.remove(app.getId());
+                // Unfortunate, but let's move on. Undeploy the successful ones (like a rollback).
+                logger.info("Roll back " + deployedVerticles.size() + " flow verticle(s) of app: " + app.getId());
 
                 VerticleUtils.undeployVerticles(deployedVerticles, vertx, undeployedHandler -> {
                     Failure failure = new Failure(4003,
@@ -183,25 +355,50 @@ public class Build extends AbstractVerticle {
         };
     }
 
+    /**
+     * Undeploy the verticles of the flows that were changed (and are replaced) or removed from the app.
+     * Failures are logged and the build moves on.
+     */
+    private void undeployStaleVerticles(App app, DeployedApp deployedApp, Set<String> staleDeploymentIds,
+                                        Handler<Void> undeployedHandler) {
+        if (staleDeploymentIds.isEmpty()) {
+            undeployedHandler.handle(null);
+            return;
+        }
+
+        deployedApp.deploymentIds.values().removeAll(staleDeploymentIds);
+
+        VerticleUtils.undeployVerticles(staleDeploymentIds.iterator(), vertx, h -> {
+            if (h.failed()) {
+                logger.error("Unable to undeploy stale flow verticles of app: " + app.getId(), h.cause());
+            }
+
+            undeployedHandler.handle(null);
+        });
+    }
+
     private Handler<Message<Object>> undeployHandler() {
         return message -> {
             App app = App.toApp((JsonObject) message.body());
-            LocalMap<String, Set<String>> deployedAppsMap = vertx.sharedData().getLocalMap(DEPLOYED_APPS_KEY);
-            Set<String> deploymentIds = deployedAppsMap.get(app.getId());
+            LocalMap<String, DeployedApp> deployedAppsMap = vertx.sharedData().getLocalMap(DEPLOYED_APPS_KEY);
+            DeployedApp deployedApp = deployedAppsMap.get(app.getId());
 
-            if (deploymentIds == null) {
+            if (deployedApp == null || deployedApp.building) {
                 Failure failure = new Failure(4004, "App is not deployed: " + app.getId());
                 logger.error(failure.getError());
                 message.fail(failure.getCode(), failure.getMessage());
             }
             else {
-                VerticleUtils.undeployVerticles(deploymentIds.iterator(), vertx, h -> {
+                flowInterpreter.removeFlows(app.getId());
+
+                VerticleUtils.undeployVerticles(deployedApp.deploymentIds.values().iterator(), vertx, h -> {
                     if (h.failed()) {
                         Failure failure = new Failure(4005, "Unable to undeploy app: " + app.getId(), h.cause());
                         logger.error(failure.getError(), failure.getCause());
                         message.fail(failure.getCode(), failure.getMessage());
                     }
                     else {
+                        deployedAppsMap.remove(app.getId());
                         message.reply(true);
                     }
                 });
@@ -209,7 +406,22 @@ public class Build extends AbstractVerticle {
         };
     }
 
-    private void prepareVerticlesFolderBlocking(App app, String verticlesPath) {
+    /**
+     * Reuse the verticles folder of the last build, unless the app was built by another compiler or another
+     * version of the engine.
+     *
+     * @return the manifest of the last build or an empty manifest if the folder was cleaned.
+     */
+    private BuildManifest prepareVerticlesFolderBlocking(App app, String verticlesPath, Compiler compiler) {
+        String compilerName = compiler.getClass().getSimpleName();
+        BuildManifest manifest = BuildManifest.load(fileSystem, verticlesPath);
+
+        if (manifest != null && compilerName.equals(manifest.getCompiler()) &&
+                Objects.equals(engineVersion, manifest.getEngineVersion())) {
+            logger.info("Reuse flow verticles in app: " + app.getId() + " at " + verticlesPath);
+            return manifest;
+        }
+
         logger.info("Clean flow verticles in app: " + app.getId() + " at " + verticlesPath);
 
         // Clean existing flow verticles.
@@ -219,114 +431,313 @@ public class Build extends AbstractVerticle {
 
         // Create flow verticles folder.
         fileSystem.mkdirBlocking(verticlesPath);
+        return new BuildManifest(compilerName, engineVersion);
     }
 
     /**
-     * Parse all flows - processes, interactive services and micro services.
+     * Read all flows - processes, interactive services and micro services - and compare their hashes
+     * with the last build.
      *
-     * @return list of flows parsed from JSON files.
+     * @return list of flow sources.
      */
-    private List<Flow> parseFlowsBlocking(String appFolder) {
-        List<Flow> flows = new ArrayList<>();
+    private List<FlowSource> readFlowsBlocking(App app, BuildManifest manifest) {
+        List<FlowSource> sources = new ArrayList<>();
+        String appFolder = app.getAppFolder();
+
+        addFlowSources(sources, PathUtils.createPath(appFolder, PathUtils.PROCESSES_FOLDER), Process.class);
+        addFlowSources(sources, PathUtils.createPath(appFolder, PathUtils.INTERACTIVE_SERVICES_FOLDER),
+                InteractiveService.class);
+        addFlowSources(sources, PathUtils.createPath(appFolder, PathUtils.MICRO_SERVICES_FOLDER),
+                MicroService.class);
+
+        // Sources are read in parallel, but keep their order.
+        return buildExecutor.map(sources, source -> readFlowBlocking(app, manifest, source), s -> s.filePath);
+    }
 
-        // Parse all flow definitions.
-        Parser parser = new AssetParser(fileSystem);
-        List<String> filePaths;
-        String path = PathUtils.createPath(appFolder, PathUtils.PROCESSES_FOLDER);
+    private FlowSource readFlowBlocking(App app, BuildManifest manifest, FlowSource source) {
+        source.content = fileSystem.readFileBlocking(source.filePath);
+        source.flowId = manifest.getFlowId(source.filePath);
+        source.hash = BuildManifest.hash(source.content, manifest.getScriptIds(source.filePath), fileSystem,
+                app.getAppFolder());
+        source.changed = !source.hash.equals(manifest.getHash(source.filePath)) || !isBuilt(app, manifest, source);
 
-        if (fileSystem.existsBlocking(path)) {
-            filePaths = fileSystem.readDirBlocking(path);
-            for (String filePath : filePaths) {
-                flows.add(parser.parseBlocking(filePath, Process.class));
-            }
+        return source;
+    }
+
+    /**
+     * Parse the flows that are to be compiled or saved in the repository (in parallel).
+     */
+    private void parseFlowsBlocking(App app, List<FlowSource> sources) {
+        buildExecutor.map(sources, source -> parseFlowBlocking(app, source), s -> s.filePath);
+    }
+
+    private FlowSource parseFlowBlocking(App app, FlowSource source) {
+        // Unchanged flows are saved again only if their routes are not loaded.
+        if (source.changed || flowRouter.getRouteTable(source.flowId) == null) {
+            Parser parser = new AssetParser(fileSystem);
+            source.flow = parser.parseBlocking(source.filePath, source.flowClass);
+            source.flow.setApp(app);
+            source.flowId = source.flow.getId();
         }
 
-        path = PathUtils.createPath(appFolder, PathUtils.INTERACTIVE_SERVICES_FOLDER);
+        return source;
+    }
+
+    private void addFlowSources(List<FlowSource> sources, String path, Class<? extends Flow> flowClass) {
         if (fileSystem.existsBlocking(path)) {
-            filePaths = fileSystem.readDirBlocking(path);
-            for (String filePath : filePaths) {
-                flows.add(parser.parseBlocking(filePath, InteractiveService.class));
+            for (String filePath : fileSystem.readDirBlocking(path)) {
+                sources.add(new FlowSource(filePath, flowClass));
             }
         }
+    }
 
-        path = PathUtils.createPath(appFolder, PathUtils.MICRO_SERVICES_FOLDER);
-        if (fileSystem.existsBlocking(path)) {
-            filePaths = fileSystem.readDirBlocking(path);
-            for (String filePath : filePaths) {
-                flows.add(parser.parseBlocking(filePath, MicroService.class));
-            }
+    /**
+     * @return true if the compiled output of the flow's last build is still available.
+     */
+    private boolean isBuilt(App app, BuildManifest manifest, FlowSource source) {
+        if (app.isInterpreted()) {
+            return flowInterpreter.getFlow(source.flowId) != null;
         }
 
-        return flows;
+        String verticlePath = manifest.getVerticlePath(source.filePath);
+        return verticlePath != null && fileSystem.existsBlocking(verticlePath);
     }
 
     /**
-     * Compile the flows to JavaScript verticles and prepare for flow deployments.
-     *
-     * @param flows the list of flows to be compiled and written to the file system as JavaScript verticles.
-     * @return list of verticles to be deployed.
+     * Flows of interpreted apps are compiled to executable steps and do not need verticles.
+     * Other flows are compiled to JavaScript verticles.
      */
-    private Stack<VerticleDeployment> compileFlowsBlocking(App app, List<Flow> flows) {
-        Stack<VerticleDeployment> verticleDeployments = new Stack<>();
-        DeploymentOptions deploymentOptions = new DeploymentOptions();
-        Compiler compiler = new VerboseCompiler(fileSystem);
+    private Compiler createCompiler(App app) {
+        if (app.isInterpreted()) {
+            return new InterpretedCompiler(fileSystem, flowInterpreter);
+        }
+        else if (fuseFlowObjects) {
+            return new OptimizingCompiler(fileSystem);
+        }
+        else {
+            return new VerboseCompiler(fileSystem);
+        }
+    }
 
-        for (Flow flow : flows) {
-            StringBuilder output = new StringBuilder();
-            flow.setApp(app);
-            flow.compile(compiler, null, output);
+    /**
+     * Compile the changed flows (in parallel), save the flows whose routes are not loaded and deploy the verticles
+     * that are new or replace the verticles of changed flows. The flows that are no longer in the app are removed.
+     */
+    private void buildFlowsBlocking(App app, List<FlowSource> sources, BuildManifest manifest,
+                                    String verticlesPath, DeployedApp deployedApp, Future<Object> future) {
+        List<FlowSource> changedSources = new ArrayList<>();
 
-            verticleDeployments.push(new VerticleDeployment(flow.getId(),
-                    "js:" + compiler.writeFlow(flow, output), deploymentOptions));
+        for (FlowSource source : sources) {
+            if (source.changed) {
+                changedSources.add(source);
+            }
         }
 
-        return verticleDeployments;
-    }
+        buildExecutor.map(changedSources, source -> compileFlowBlocking(app, source), s -> s.filePath);
 
-    private void buildFlowsBlocking(App app, List<Flow> flows, Future<Object> future,
-                                    LocalMap<String, Boolean> deployedAppsMap) {
-        if (flows.isEmpty()) {
-            future.complete();
+        Stack<VerticleDeployment> flowDeployments = new Stack<>();
+        DeploymentOptions deploymentOptions = new DeploymentOptions();
+        List<Flow> flowsToSave = new ArrayList<>();
+        Set<String> staleDeploymentIds = new HashSet<>();
+        Set<String> filePaths = new HashSet<>();
+        Set<String> flowIds = new HashSet<>();
+        int compiled = 0;
+
+        for (FlowSource source : sources) {
+            String deploymentId = deployedApp.deploymentIds.get(source.flowId);
+            String verticlePath = manifest.getVerticlePath(source.filePath);
+            filePaths.add(source.filePath);
+            flowIds.add(source.flowId);
+
+            if (source.changed) {
+                verticlePath = source.verticlePath;
+                manifest.put(source.filePath, source.flowId, source.hash, source.scriptIds, verticlePath);
+                compiled++;
+
+                if (deploymentId != null) {
+                    staleDeploymentIds.add(deploymentId);
+                }
+            }
+
+            if (source.flow != null) {
+                flowsToSave.add(source.flow);
+            }
+
+            if (verticlePath != null && (source.changed || deploymentId == null)) {
+                flowDeployments.push(new VerticleDeployment(source.flowId, "js:" + verticlePath,
+                        deploymentOptions));
+            }
         }
-        else {
-            // Compile flows and prepare for verticle deployments (JavaScript files).
-            Stack<VerticleDeployment> flowDeployments = compileFlowsBlocking(app, flows);
-            logger.info("Compiled flow verticles count in app: " + app.getId() + " are: " + flows.size());
 
-            // Persist flow and its router.
-            saveFlows(flows, resultHandler -> {
-                if (resultHandler.succeeded()) {
-                    Set<JsonObject> deployedVerticles = new HashSet<>();
+        removeFlowsBlocking(manifest, filePaths, flowIds, deployedApp, staleDeploymentIds);
 
-                    // Deploy compiled flows.
-                    VerticleUtils.deployVerticles(flowDeployments, deployedVerticles,
-                            vertx, deployFlowsHandler(future, app, deployedVerticles, deployedAppsMap));
+        logger.info("Compiled flow verticles count in app: " + app.getId() + " are: " + compiled + " of " +
+                sources.size() + ", backend: " + app.getBackend());
+
+        // The manifest is saved only once the flows are saved and deployed. Otherwise, the next build would find
+        // the changed flows unchanged and never deploy them.
+        Future<Object> built = Future.future();
+        built.setHandler(r -> {
+            if (r.succeeded()) {
+                saveManifest(app, manifest, verticlesPath, future);
+            }
+            else {
+                future.fail(r.cause());
+            }
+        });
+
+        // Persist flow and its router.
+        saveFlows(flowsToSave, resultHandler -> {
+            if (resultHandler.failed()) {
+                built.fail(resultHandler.cause());
+                return;
+            }
+
+            // Undeploy the verticles of changed flows before deploying their replacements, so that the old and
+            // the new code of a flow never consume the same flow object addresses at the same time.
+            undeployStaleVerticles(app, deployedApp, staleDeploymentIds, undeployed -> {
+                if (flowDeployments.empty()) {
+                    // Interpreted or unchanged flows - nothing to deploy.
+                    built.complete();
                 }
                 else {
-                    future.fail(resultHandler.cause());
+                    Set<JsonObject> deployedVerticles = new HashSet<>();
+
+                    // Deploy compiled flows.
+                    VerticleUtils.deployVerticles(flowDeployments, deployedVerticles, vertx, deployConcurrency,
+                            deployProgressHandler(app, flowDeployments.size()),
+                            deployFlowsHandler(built, app, deployedApp, deployedVerticles));
                 }
             });
+        });
+    }
+
+    /**
+     * Save the manifest of a build whose flows are deployed. The app stays deployed if the manifest cannot be
+     * saved - the next build then compiles all the flows again.
+     */
+    private void saveManifest(App app, BuildManifest manifest, String verticlesPath, Future<Object> future) {
+        vertx.executeBlocking(f -> {
+            manifest.save(fileSystem, verticlesPath);
+            f.complete();
+        }, false, r -> {
+            if (r.failed()) {
+                logger.error("Unable to save the build manifest of app: " + app.getId(), r.cause());
+            }
+
+            future.complete();
+        });
+    }
+
+    /**
+     * Compilers hold the state of the flow being compiled, so every flow gets its own compiler.
+     */
+    private FlowSource compileFlowBlocking(App app, FlowSource source) {
+        Compiler compiler = createCompiler(app);
+        StringBuilder output = new StringBuilder();
+        source.flow.compile(compiler, null, output);
+        source.verticlePath = compiler.writeFlow(source.flow, output);
+
+        source.scriptIds = BuildManifest.getScriptIds(source.flow);
+        source.hash = BuildManifest.hash(source.content, source.scriptIds, fileSystem, app.getAppFolder());
+        return source;
+    }
+
+    /**
+     * Remove the flows that were built or deployed before, but are no longer in the app.
+     */
+    private void removeFlowsBlocking(BuildManifest manifest, Set<String> filePaths, Set<String> flowIds,
+                                     DeployedApp deployedApp, Set<String> staleDeploymentIds) {
+        for (String filePath : manifest.getFilePaths()) {
+            if (!filePaths.contains(filePath)) {
+                String verticlePath = manifest.getVerticlePath(filePath);
+
+                if (verticlePath != null && fileSystem.existsBlocking(verticlePath)) {
+                    fileSystem.deleteBlocking(verticlePath);
+                }
+
+                flowInterpreter.removeFlow(manifest.getFlowId(filePath));
+                manifest.remove(filePath);
+            }
+        }
+
+        Iterator<Map.Entry<String, String>> iterator = deployedApp.deploymentIds.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> deployment = iterator.next();
+
+            if (!flowIds.contains(deployment.getKey())) {
+                staleDeploymentIds.add(deployment.getValue());
+                iterator.remove();
+            }
         }
     }
 
+    /**
+     * Save the flows and their routers in the repository, in batches of {@link FlowBatch#MAX_SIZE} flows.
+     */
     private void saveFlows(List<Flow> flows, Handler<AsyncResult<Void>> resultHandler) {
         Future<Void> future = Future.future();
         future.setHandler(resultHandler);
 
-        // Save flow and its router in the repository.
+        if (flows.isEmpty()) {
+            future.complete();
+            return;
+        }
+
+        List<FlowBatch> batches = FlowBatch.split(flows);
         AtomicInteger counter = new AtomicInteger(0);
 
-        for (Flow flow : flows) {
-            vertx.eventBus().send(EngineAddresses.REPO_FLOW_SAVE, flow, reply -> {
+        for (FlowBatch batch : batches) {
+            vertx.eventBus().send(EngineAddresses.REPO_FLOW_SAVE_BATCH, batch, reply -> {
                 if (reply.succeeded() && (Boolean) reply.result().body()) {
-                    if (counter.incrementAndGet() == flows.size()) {
+                    // Route in memory instead of asking the remote repository for every step.
+                    if (remoteRepository) {
+                        for (Flow flow : batch.getFlows()) {
+                            flowRouter.putRouteTable(new RouteTable(flow, new CompiledFlow(flow)));
+                        }
+                    }
+
+                    if (counter.incrementAndGet() == batches.size()) {
                         future.complete();
                     }
                 }
                 else if (!future.failed()) {
-                    future.fail(reply.cause());
+                    future.fail(reply.succeeded() ? new IllegalStateException("Unable to save flows.") :
+                            reply.cause());
                 }
             });
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The flows of a deployed app and the deployment ids of their verticles (interpreted flows have none).
+     */
+    private static class DeployedApp implements Shareable {
+        private Map<String, String> deploymentIds = new HashMap<>();
+        private boolean building;
+        private boolean deployed;
+    }
+
+    /**
+     * A flow source file of the app being built.
+     */
+    private static class FlowSource {
+        private final String filePath;
+        private final Class<? extends Flow> flowClass;
+        private Buffer content;
+        private String flowId;
+        private Flow flow;
+        private boolean changed;
+
+        // Hash of the source, updated along with the other outputs of the compilation.
+        private String hash;
+        private String verticlePath;
+        private List<String> scriptIds;
+
+        private FlowSource(String filePath, Class<? extends Flow> flowClass) {
+            this.filePath = filePath;
+            this.flowClass = flowClass;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import io.flowly.core.verticles.ConsumerRegistration;
 import io.flowly.core.verticles.VerticleUtils;
 import io.flowly.engine.EngineAddresses;
 import io.flowly.engine.JsonKeys;
+import io.flowly.engine.admission.AdmissionController;
+import io.flowly.engine.assignment.AssignmentService;
 import io.flowly.core.data.FlowInstance;
 import io.flowly.core.data.FlowInstanceStep;
 import io.flowly.core.codecs.FlowInstanceCodec;
@@ -27,6 +29,13 @@ import io.flowly.core.codecs.FlowInstanceMetadataCodec;
 import io.flowly.core.codecs.FlowMetadataCodec;
 import io.flowly.engine.data.FlowInstanceWrapper;
 import io.flowly.engine.data.manager.FlowInstanceReadManager;
+import io.flowly.engine.interpreter.FlowInterpreter;
+import io.flowly.engine.journal.Journal;
+import io.flowly.engine.journal.JournalProjector;
+import io.flowly.engine.metrics.EngineMetrics;
+import io.flowly.engine.interpreter.Step;
+import io.flowly.engine.interpreter.StepContext;
+import io.flowly.engine.router.FlowRouter;
 import io.flowly.engine.router.Route;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
@@ -35,10 +44,14 @@ import io.vertx.core.Handler;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
@@ -53,14 +66,81 @@ public class Engine extends AbstractVerticle {
 
     private EventBus eventBus;
 
+    // In-memory route tables of the deployed flows.
+    private FlowRouter flowRouter;
+
+    // If configured to true, every process instance persists only its wait states, whatever the persistence
+    // mode of its flow.
+    private boolean waitStatesPersistence;
+
+    // Executable steps of the interpreted flows and the callbacks used by the steps.
+    private FlowInterpreter flowInterpreter;
+    private StepContext stepContext;
+
+    // Bounds the number of top level flow instances that are in flight.
+    private AdmissionController admissionController;
+
+    // Address on which engines release the tokens of the instances admitted by this engine.
+    private String admissionAddress;
+    private AssignmentService assignmentService;
+
+    // Instance counters and step latencies of the flows run by this engine.
+    private EngineMetrics metrics;
+
     // If configured to true, a flow's start, complete and fail events are broadcasted.
     private boolean publishFlowLifeCycleEvents;
 
+    // Number of repository write partitions. Writes of an instance go to the partition that owns it.
+    private int repositoryPartitions;
+
+    // If a journal directory is configured, token moves are journaled and written to the graph asynchronously.
+    private JournalProjector journalProjector;
+
     @Override
     public void start(Future<Void> startFuture) throws Exception {
         eventBus = vertx.eventBus();
+        flowRouter = new FlowRouter(vertx);
+        waitStatesPersistence = config().getBoolean(JsonKeys.ENGINE_PERSISTENCE_WAIT_STATES, false);
+        flowInterpreter = new FlowInterpreter(vertx);
+        stepContext = createStepContext();
+        admissionController = new AdmissionController(vertx,
+                config().getInteger(JsonKeys.ENGINE_MAX_INSTANCES, 10000),
+                config().getInteger(JsonKeys.ENGINE_MAX_INSTANCES_PER_FLOW, 0),
+                config().getInteger(JsonKeys.ENGINE_ADMISSION_QUEUE_SIZE, 10000),
+                config().getLong(JsonKeys.ENGINE_ADMISSION_QUEUE_TIMEOUT, 30000L));
+        admissionAddress = EngineAddresses.ADMISSION_TOKENS + ":" + deploymentID();
+        metrics = new EngineMetrics(config().getBoolean(JsonKeys.ENGINE_METRICS_ENABLED, true));
+
+        try {
+            assignmentService = new AssignmentService(config());
+        }
+        catch (IllegalArgumentException ex) {
+            Failure failure = new Failure(3014, "Unable to prepare task assignment.", ex);
+            logger.error(failure.getError(), failure.getCause());
+            startFuture.fail(failure);
+            return;
+        }
 
         publishFlowLifeCycleEvents = config().getBoolean(JsonKeys.PUBLISH_FLOW_LIFE_CYCLE_EVENTS, false);
+        repositoryPartitions = Kernel.getRepositoryWritePartitions(config());
+        String journalDirectory = config().getString(JsonKeys.ENGINE_JOURNAL_DIRECTORY);
+
+        if (journalDirectory != null) {
+            try {
+                Journal journal = new Journal(journalDirectory,
+                        config().getInteger(JsonKeys.ENGINE_JOURNAL_SEGMENT_SIZE, 16 * 1024 * 1024));
+                journalProjector = new JournalProjector(vertx, journal, repositoryPartitions,
+                        config().getInteger(JsonKeys.ENGINE_JOURNAL_RESERVE_SIZE, 256),
+                        config().getLong(JsonKeys.ENGINE_JOURNAL_SYNC_INTERVAL, 10L));
+                journalProjector.start();
+            }
+            catch (IOException ex) {
+                Failure failure = new Failure(3012, "Unable to open journal: " + journalDirectory, ex);
+                logger.error(failure.getError(), failure.getCause());
+                startFuture.fail(failure);
+                return;
+            }
+        }
 
         // Register message handlers.
         VerticleUtils.registerHandlers(vertx.eventBus(), logger, createMessageHandlers(), h -> {
@@ -76,6 +156,10 @@ public class Engine extends AbstractVerticle {
 
     @Override
     public void stop(Future<Void> stopFuture) throws Exception {
+        if (journalProjector != null) {
+            journalProjector.stop();
+        }
+
         stopFuture.complete();
         logger.info("Undeployed engine verticle.");
     }
@@ -89,6 +173,11 @@ public class Engine extends AbstractVerticle {
         Queue<ConsumerRegistration<Object>> registrations = new LinkedList<>();
         registrations.add(new ConsumerRegistration<>(EngineAddresses.START_FLOW_INSTANCE,
                 startInstanceHandler()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_FLOW_ADMISSION_STATS,
+                admissionStatsHandler()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_FLOW_METRICS,
+                metricsHandler()));
+        registrations.add(new ConsumerRegistration<>(admissionAddress, admissionTokensHandler()));
 
         registrations.add(new ConsumerRegistration<>(EngineAddresses.HOP_FLOW_INSTANCE,
                 hopInstanceHandler(), true));
@@ -112,42 +201,114 @@ public class Engine extends AbstractVerticle {
         return registrations;
     }
 
+    /**
+     * Create the callbacks that the interpreted steps use to hand flow instances back to the engine.
+     *
+     * @return the step context.
+     */
+    private StepContext createStepContext() {
+        return new StepContext() {
+            @Override
+            public void hop(FlowInstance instance) {
+                moveToken(instance);
+            }
+
+            @Override
+            public void hopInto(FlowInstance instance) {
+                startToken(instance);
+            }
+
+            @Override
+            public void fail(FlowInstance instance) {
+                failInstance(instance, null);
+            }
+
+            @Override
+            public void send(String address, FlowInstance instance) {
+                eventBus.send(address, instance);
+            }
+
+            @Override
+            public void callService(String address, JsonObject inputData,
+                                    Handler<AsyncResult<Message<Object>>> replyHandler) {
+                eventBus.send(address, inputData, replyHandler);
+            }
+        };
+    }
+
     private Handler<Message<Object>> startInstanceHandler() {
         return message -> {
             // Message comes from clustered event bus.
             FlowMetadata flowMetadata = new FlowMetadata(((JsonObject) message.body()).getMap());
             flowMetadata.validate();
 
-            createInstance(flowMetadata, resultHandler -> {
-                FlowInstance instance = resultHandler.result();
-
-                if (instance != null) {
-                    Long instanceId = instance.getMetadata().getInstanceId();
-                    message.reply(instanceId);
-
-                    if (logger.isInfoEnabled()) {
-                        logger.info("Started instance: " + instanceId + ", flow: " + flowMetadata.getFlowId() +
-                                ", app: " + flowMetadata.getAppId());
-                    }
-
-                    // Begin the flow.
-                    startToken(instance);
-
-                    // Broadcast event.
-                    broadcastFlowLifecycleEvent(JsonKeys.FLOW_START_EVENT, instance.getMetadata(),
-                            publishFlowLifeCycleEvents);
+            admissionController.admit(flowMetadata.getFlowId(), admitHandler -> {
+                if (admitHandler.succeeded()) {
+                    startInstance(message, flowMetadata, admitHandler.result());
                 }
                 else {
-                    Failure failure = new Failure(3000,
-                            "Unable to start instance for flow: " + flowMetadata.getFlowId() + ", app: " +
-                                    flowMetadata.getAppId());
-                    logger.error(failure.getError());
+                    Failure failure = (Failure) admitHandler.cause();
+                    logger.warn(failure.getError());
                     message.fail(failure.getCode(), failure.getMessage());
                 }
             });
         };
     }
 
+    private void startInstance(Message<Object> message, FlowMetadata flowMetadata, Long admissionId) {
+        createInstance(flowMetadata, resultHandler -> {
+            FlowInstance instance = resultHandler.result();
+
+            if (instance != null) {
+                instance.getMetadata().setAdmissionId(admissionId);
+                instance.getMetadata().setAdmissionAddress(admissionAddress);
+
+                if (waitStatesPersistence) {
+                    instance.getMetadata().setPersistence(FlowMetadata.PERSISTENCE_WAIT_STATES);
+                }
+
+                Long instanceId = instance.getMetadata().getInstanceId();
+                message.reply(instanceId);
+
+                if (logger.isInfoEnabled()) {
+                    logger.info("Started instance: " + instanceId + ", flow: " + flowMetadata.getFlowId() +
+                            ", app: " + flowMetadata.getAppId());
+                }
+
+                // Begin the flow.
+                startToken(instance);
+
+                // Broadcast event.
+                broadcastFlowLifecycleEvent(JsonKeys.FLOW_START_EVENT, instance.getMetadata(),
+                        publishFlowLifeCycleEvents);
+            }
+            else {
+                Failure failure = new Failure(3000,
+                        "Unable to start instance for flow: " + flowMetadata.getFlowId() + ", app: " +
+                                flowMetadata.getAppId());
+                logger.error(failure.getError());
+                admissionController.release(admissionId);
+                message.fail(failure.getCode(), failure.getMessage());
+            }
+        });
+    }
+
+    private Handler<Message<Object>> admissionStatsHandler() {
+        return message -> message.reply(admissionController.toJson());
+    }
+
+    private Handler<Message<Object>> admissionTokensHandler() {
+        return message -> {
+            JsonObject tokens = (JsonObject) message.body();
+            updateAdmission(tokens.getLong(FlowInstanceMetadata._ADMISSION_ID), tokens.getInteger(JsonKeys.COUNT));
+        };
+    }
+
+    private Handler<Message<Object>> metricsHandler() {
+        // Optionally, the message body holds the id of the app whose metrics are requested.
+        return message -> message.reply(metrics.toJson((String) message.body()));
+    }
+
     private Handler<Message<Object>> hopInstanceHandler() {
         return message -> {
             // Get the next flow object for the flow instance.
@@ -173,8 +334,11 @@ public class Engine extends AbstractVerticle {
         return message -> {
             FlowInstance instance = new FlowInstance(((JsonObject) message.body()).getMap());
             FlowInstanceMetadata metadata = instance.getMetadata();
+            recordDispatchedStep(metadata);
+
+            // The token is parked until a user picks up the task - release its admission.
+            releaseAdmission(metadata);
 
-            // TODO: Assign user based on load balancer output.
             saveInstance(instance, FlowInstanceReadManager.STATUS_NEW, true, resultHandler -> {
                 if (resultHandler.result()) {
                     assignUserInteraction(metadata);
@@ -187,12 +351,43 @@ public class Engine extends AbstractVerticle {
         };
     }
 
+    /**
+     * Assign the user task to a member of the flow's candidate group. The open tasks of the candidates are
+     * read from the repository's inbox index, which is only loaded on the node that runs the repository.
+     */
     private void assignUserInteraction(FlowInstanceMetadata metadata) {
+        List<String> candidates = assignmentService.getCandidates(metadata.getFlowId());
+
+        if (candidates.size() == 1) {
+            assignTask(metadata, assignmentService.select(metadata.getFlowId(), null));
+            return;
+        }
+
+        eventBus.send(EngineAddresses.REPO_GET_OPEN_TASK_COUNTS, new JsonArray(candidates), reply -> {
+            JsonObject openTaskCounts = null;
+
+            if (reply.succeeded()) {
+                openTaskCounts = (JsonObject) reply.result().body();
+            }
+            else {
+                logger.warn("Unable to get open task counts, assigning on pending tasks: " + candidates,
+                        reply.cause());
+            }
+
+            assignTask(metadata, assignmentService.select(metadata.getFlowId(), openTaskCounts));
+        });
+    }
+
+    private void assignTask(FlowInstanceMetadata metadata, String subjectId) {
+        Long taskId = metadata.getCurrentStep().getFlowObjectInstanceId();
         JsonObject args = new JsonObject().
-                put(JsonKeys.SUBJECT_ID, JsonKeys.ADMIN_USER_ID).
-                put(JsonKeys.TASK_ID, metadata.getCurrentStep().getFlowObjectInstanceId());
+                put(JsonKeys.SUBJECT_ID, subjectId).
+                put(JsonKeys.TASK_ID, taskId);
+
+        eventBus.send(EngineAddresses.getRepositoryWriteAddress(EngineAddresses.REPO_ASSIGN_TASK, taskId,
+                repositoryPartitions), args, reply -> {
+            assignmentService.release(subjectId);
 
-        eventBus.send(EngineAddresses.REPO_ASSIGN_TASK, args, reply -> {
             if ((Boolean) reply.result().body()) {
                 broadcastFlowLifecycleEvent(JsonKeys.FLOW_WAIT_UI_EVENT, metadata, true);
                 logger.info("Flow instance awaiting user interaction: " + metadata);
@@ -222,7 +417,8 @@ public class Engine extends AbstractVerticle {
                 put(JsonKeys.STATUS, status).
                 put(JsonKeys.TASK_ID, taskId);
 
-        eventBus.send(EngineAddresses.REPO_UPDATE_TASK, args, reply -> {
+        eventBus.send(EngineAddresses.getRepositoryWriteAddress(EngineAddresses.REPO_UPDATE_TASK, taskId,
+                repositoryPartitions), args, reply -> {
             // TODO: If unable to update the task, fail the instance?
             if ((Boolean) reply.result().body()) {
                 logger.info("Flow instance user interaction assignment status updated: " + taskId);
@@ -273,7 +469,7 @@ public class Engine extends AbstractVerticle {
 
                 broadcastFlowLifecycleEvent(broadcastEventType, instance.getMetadata(), true);
 
-                // TODO: Send message to socket.io handler.
+                // Connected clients pick up the view change from the inbox event bridge.
                 logger.info("Flow instance user interaction view updated: " + metadata);
             }
             else {
@@ -319,6 +515,20 @@ public class Engine extends AbstractVerticle {
      */
     private void moveToken(FlowInstance instance) {
         FlowInstanceMetadata metadata = instance.getMetadata();
+        FlowInstanceStep currentStep = metadata.getCurrentStep();
+        recordDispatchedStep(metadata);
+        List<String> fusedFlowObjectIds = currentStep.getFusedFlowObjectIds();
+
+        if (fusedFlowObjectIds != null) {
+            List<String> connectingObjectIds = currentStep.getConnectingObjectIds();
+            currentStep.remove(FlowInstanceStep._FUSED_FLOW_OBJECT_IDS);
+            currentStep.remove(FlowInstanceStep._FLOW_OBJECT_CONNECTING_OBJECT_IDS);
+
+            recordFusedSteps(instance, new ArrayList<>(fusedFlowObjectIds), 0,
+                    connectingObjectIds != null ? new ArrayList<>(connectingObjectIds) : null);
+            return;
+        }
+
         getNextRoute(metadata, resultHandler -> {
             Route route = resultHandler.result();
 
@@ -329,12 +539,15 @@ public class Engine extends AbstractVerticle {
             if (!route.isEnd()) {
                 if (route.isSplit()) {
                     List<Route.Next> nextList = route.getNextList();
+                    forkAdmission(metadata, nextList.size() - 1);
 
                     for (int i = 0; i < nextList.size(); i++) {
-                        prepareAndRunStep(instance, nextList.get(i), i, false);
+                        // Each parallel token gets its own copy of the instance.
+                        FlowInstance tokenInstance = i == 0 ? instance : new FlowInstance(instance.copy().getMap());
+                        moveToken(tokenInstance, nextList.get(i), i);
                     }
                 } else {
-                    prepareAndRunStep(instance, route.getNext(), 0, false);
+                    moveToken(instance, route.getNext(), 0);
                 }
             } else {
                 completeInstance(instance);
@@ -342,19 +555,145 @@ public class Engine extends AbstractVerticle {
         });
     }
 
+    /**
+     * Record the logical steps of a fused chain of flow objects one after another, as if each flow object
+     * had run on its own. The token moves on from the last flow object of the chain.
+     *
+     * @param instance represents an instance of a given flow.
+     * @param fusedFlowObjectIds ids of the flow objects that ran after the first flow object of the chain.
+     * @param index index of the flow object to record.
+     * @param connectingObjectIds connecting objects picked by the last flow object of the chain (decision gateway).
+     */
+    private void recordFusedSteps(FlowInstance instance, List<String> fusedFlowObjectIds, int index,
+                                  List<String> connectingObjectIds) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+
+        if (index == fusedFlowObjectIds.size()) {
+            if (connectingObjectIds != null) {
+                for (String connectingObjectId : connectingObjectIds) {
+                    metadata.getCurrentStep().addConnectingObjectId(connectingObjectId);
+                }
+            }
+
+            moveToken(instance);
+            return;
+        }
+
+        getNextRoute(metadata, resultHandler -> {
+            Route route = resultHandler.result();
+
+            if (!validateInstanceRoute(instance, route)) {
+                return;
+            }
+
+            if (route.isEnd() || route.isSplit() ||
+                    !route.getNext().getFlowObjectId().equals(fusedFlowObjectIds.get(index))) {
+                Failure failure = new Failure(3009, "Fused flow object: " + fusedFlowObjectIds.get(index) +
+                        " does not match the route of instance: " + metadata);
+                failInstance(instance, failure);
+                return;
+            }
+
+            createStep(instance, route.getNext(), 0, false, v -> {
+                recordFusedSteps(instance, fusedFlowObjectIds, index + 1, connectingObjectIds);
+            });
+        });
+    }
+
+    private void moveToken(FlowInstance instance, Route.Next next, int stepIndex) {
+        if (next.isJoin()) {
+            joinToken(instance, next);
+        }
+        else {
+            prepareAndRunStep(instance, next, stepIndex, false);
+        }
+    }
+
+    /**
+     * Wait at the join gateway until all parallel tokens of the flow instance arrive. Arrivals are counted in the
+     * graph by the instance's repository partition, so the tokens can run on any engine. The last token to arrive
+     * moves forward as a single token with the merged data of all tokens.
+     *
+     * @param instance represents an instance of a given flow.
+     * @param next the join gateway.
+     */
+    private void joinToken(FlowInstance instance, Route.Next next) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+
+        if (metadata.getInstanceId() == null) {
+            Failure failure = new Failure(3006, "Join gateway requires a persisted flow instance: " + metadata);
+            failInstance(instance, failure);
+            return;
+        }
+
+        FlowInstanceWrapper wrapper = new FlowInstanceWrapper(instance, getTokenFlowObjectInstanceIds(metadata),
+                next);
+        long repositoryStart = EngineMetrics.now();
+
+        whenProjected(metadata, v -> eventBus.send(getRepositoryWriteAddress(
+                EngineAddresses.REPO_FLOW_JOIN_FLOW_OBJECT_INSTANCES, metadata), wrapper, reply -> {
+            JsonObject join = (JsonObject) reply.result().body();
+
+            if (join == null) {
+                Failure failure = new Failure(3007, "Unable to join flow instance tokens at: " +
+                        next.getFlowObjectId() + ", " + metadata);
+                failInstance(instance, failure);
+            }
+            else if (!join.containsKey(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID)) {
+                // The token ends here - the last token to arrive moves on with the admission.
+                releaseAdmission(metadata);
+
+                if (logger.isInfoEnabled()) {
+                    logger.info("Flow instance token waiting at join: " + next.getFlowObjectId() + ", " + metadata);
+                }
+            }
+            else {
+                instance.setData(join.getJsonObject(FlowInstance.DATA));
+                prepareStep(instance, next, 0, false, join.getLong(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID));
+                metrics.recordRepository(metadata.getAppId(), metadata.getFlowId(), next.getFlowObjectId(),
+                        repositoryStart);
+                runStep(instance);
+            }
+        }));
+    }
+
+    /**
+     * @return the flow object instance id of the token's current step. Tokens that ran in memory only are
+     *         joined from their last persisted step.
+     */
+    private List<Long> getTokenFlowObjectInstanceIds(FlowInstanceMetadata metadata) {
+        Long flowObjectInstanceId = metadata.getCurrentStep().getFlowObjectInstanceId();
+
+        if (flowObjectInstanceId == null) {
+            flowObjectInstanceId = metadata.getPersistedFlowObjectInstanceId();
+        }
+
+        return flowObjectInstanceId != null ? Collections.singletonList(flowObjectInstanceId) :
+                Collections.emptyList();
+    }
+
     private void getNextRoute(FlowInstanceMetadata routeMetadata, Handler<AsyncResult<Route>> resultHandler) {
         Future<Route> future = Future.future();
         future.setHandler(resultHandler);
 
-        DeliveryOptions options = Kernel.DELIVERY_OPTIONS.get(FlowInstanceMetadataCodec.NAME);
-        eventBus.send(EngineAddresses.REPO_FLOW_NEXT_ROUTE, routeMetadata, options, reply -> {
-            future.complete((Route) reply.result().body());
-        });
+        // Use the in-memory route table if the flow is deployed on this vertx instance.
+        Route route = flowRouter.nextRoute(routeMetadata);
+
+        if (route != null) {
+            future.complete(route);
+        }
+        else {
+            DeliveryOptions options = Kernel.DELIVERY_OPTIONS.get(FlowInstanceMetadataCodec.NAME);
+            eventBus.send(EngineAddresses.REPO_FLOW_NEXT_ROUTE, routeMetadata, options, reply -> {
+                future.complete((Route) reply.result().body());
+            });
+        }
     }
 
     /**
      * If flow's persistence is enabled, save current graph and create a new vertex (represents a new token)
-     * and run the new step (flow object).
+     * and run the new step (flow object). Flows that persist only their wait states run the automatic
+     * steps in memory.
      *
      * @param instance represents an instance of a given flow.
      * @param next the next flow object in the flow on which a token is created.
@@ -362,26 +701,110 @@ public class Engine extends AbstractVerticle {
      * @param isStart indicates if the current token is to be completed (move) or not.
      */
     private void prepareAndRunStep(FlowInstance instance, Route.Next next, int stepIndex, boolean isStart) {
+        createStep(instance, next, stepIndex, isStart, v -> runStep(instance));
+    }
+
+    /**
+     * Create a new token (and if persistence is enabled, a new vertex) for the next flow object
+     * without running the flow object.
+     *
+     * @param instance represents an instance of a given flow.
+     * @param next the next flow object in the flow on which a token is created.
+     * @param stepIndex represents the index in a split or loop.
+     * @param isStart indicates if the current token is to be completed (move) or not.
+     * @param preparedHandler handler that is invoked after the token is created.
+     */
+    private void createStep(FlowInstance instance, Route.Next next, int stepIndex, boolean isStart,
+                            Handler<Void> preparedHandler) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+
         // Persistence enabled - update instance graph.
-        if (instance.getMetadata().getInstanceId() != null) {
+        if (metadata.getInstanceId() != null && isPersistedStep(metadata, next, isStart)) {
+            if (journalStep(instance, next, stepIndex, isStart)) {
+                preparedHandler.handle(null);
+                return;
+            }
+
             FlowInstanceWrapper wrapper = new FlowInstanceWrapper(instance, isStart, false, null, next);
+            long repositoryStart = EngineMetrics.now();
 
-            eventBus.send(EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE, wrapper, reply -> {
+            whenProjected(metadata, v -> eventBus.send(getRepositoryWriteAddress(
+                    EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE, metadata), wrapper, reply -> {
                 Long flowObjectInstanceId = (Long) reply.result().body();
 
                 if (flowObjectInstanceId != null) {
                     prepareStep(instance, next, stepIndex, isStart, flowObjectInstanceId);
-                    runStep(instance);
+                    metrics.recordRepository(metadata.getAppId(), metadata.getFlowId(), next.getFlowObjectId(),
+                            repositoryStart);
+                    preparedHandler.handle(null);
                 }
                 else {
                     // Houston, we got a problem.
                 }
-            });
+            }));
         }
         else {
             prepareStep(instance, next, stepIndex, isStart, null);
-            runStep(instance);
+            preparedHandler.handle(null);
+        }
+    }
+
+    /**
+     * Journal a token move and prepare the step on a reserved flow object instance. The move is written
+     * to the graph in the background. Only moves within a flow are journaled - starts, sub-flows and
+     * joins are written to the graph directly.
+     *
+     * @return true if the move was journaled and the step is prepared.
+     */
+    private boolean journalStep(FlowInstance instance, Route.Next next, int stepIndex, boolean isStart) {
+        if (journalProjector == null || isStart || next.getSubFlowId() != null) {
+            return false;
+        }
+
+        Long flowObjectInstanceId = journalProjector.reserveFlowObjectInstanceId(instance.getMetadata());
+
+        if (flowObjectInstanceId == null) {
+            return false;
+        }
+
+        if (!journalProjector.append(new FlowInstanceWrapper(instance, next, flowObjectInstanceId))) {
+            journalProjector.releaseFlowObjectInstanceId(flowObjectInstanceId);
+            return false;
+        }
+
+        prepareStep(instance, next, stepIndex, false, flowObjectInstanceId);
+        return true;
+    }
+
+    /**
+     * Run the handler once the journaled moves of the flow instance are written to the graph.
+     * Writes that bypass the journal use this to stay in order with the journaled moves.
+     */
+    private void whenProjected(FlowInstanceMetadata metadata, Handler<Void> handler) {
+        if (journalProjector != null && metadata.getInstanceId() != null) {
+            journalProjector.whenProjected(metadata.getInstanceId(), handler);
+        }
+        else {
+            handler.handle(null);
+        }
+    }
+
+    /**
+     * Determine if the given step has to be written to the graph. If the flow persists only its wait states,
+     * sub-flows (including user interactions) and the first step of a sub-flow are written to the graph.
+     * Failures and completion are written when they happen. The other steps are held in memory by the token.
+     *
+     * @param metadata the flow instance metadata that holds the persistence mode and the current step.
+     * @param next the next flow object in the flow.
+     * @param isStart indicates if the next flow object starts a flow or a sub-flow.
+     * @return true if the step is to be written to the graph.
+     */
+    private boolean isPersistedStep(FlowInstanceMetadata metadata, Route.Next next, boolean isStart) {
+        if (!metadata.persistWaitStatesOnly()) {
+            return true;
         }
+
+        return next.getSubFlowId() != null || (isStart && metadata.getCurrentStep() != null);
     }
 
     private void prepareStep(FlowInstance instance, Route.Next next, int stepIndex, boolean isStart,
@@ -393,8 +816,13 @@ public class Engine extends AbstractVerticle {
             // This is a sub-flow (current step is not null) - set the parent reference.
             if (isStart) {
                 updateSubFlowMetaData(metadata, currentStep);
+                metadata.remove(FlowInstanceMetadata._PERSISTED_FLOW_OBJECT_INSTANCE_ID);
                 instance.setData(new JsonObject());
             }
+            // Remember the last persisted step - the steps that follow may run in memory only.
+            else if (metadata.persistWaitStatesOnly() && currentStep.getFlowObjectInstanceId() != null) {
+                metadata.setPersistedFlowObjectInstanceId(currentStep.getFlowObjectInstanceId());
+            }
         }
 
         currentStep = new FlowInstanceStep();
@@ -411,6 +839,10 @@ public class Engine extends AbstractVerticle {
 
         metadata.setCurrentStep(currentStep);
 
+        if (isStart) {
+            metrics.recordStarted(metadata);
+        }
+
         if (logger.isInfoEnabled()) {
             logger.info("Flow instance token " + (isStart ? "started: " : "moved: ") + metadata);
         }
@@ -418,15 +850,27 @@ public class Engine extends AbstractVerticle {
 
     /**
      * Executes the flow instance step (flow object) by calling the corresponding flow verticle.
+     * Steps of interpreted flows are executed directly by the engine.
      *
      * @param instance represents the instance of a given flow that is passed to the verticle.
      */
     private void runStep(FlowInstance instance) {
         FlowInstanceMetadata metadata = instance.getMetadata();
-        String sendAddress = EngineAddresses.getFlowObjectBusAddress(metadata.getAppId(),
-                metadata.getCurrentStep().getFlowObjectId());
+        String flowObjectId = metadata.getCurrentStep().getFlowObjectId();
+        Step step = flowInterpreter.getStep(metadata.getFlowId(), flowObjectId);
+
+        if (step != null) {
+            executeStep(step, instance);
+        }
+        else {
+            // The flow object's script time is recorded when the instance returns to the engine.
+            if (metrics.isEnabled()) {
+                metadata.getCurrentStep().setDispatchedAt(EngineMetrics.now());
+            }
 
-        vertx.eventBus().send(sendAddress, instance);
+            String sendAddress = EngineAddresses.getFlowObjectBusAddress(metadata.getAppId(), flowObjectId);
+            vertx.eventBus().send(sendAddress, instance);
+        }
 
         if (logger.isInfoEnabled()) {
             logger.info("Flow instance running: " + instance.getMetadata().getInstanceId() +
@@ -436,6 +880,36 @@ public class Engine extends AbstractVerticle {
         }
     }
 
+    /**
+     * Execute an interpreted step. The step runs as a separate task on the engine's context, so that
+     * long chains of in-memory steps do not grow the stack.
+     *
+     * @param step the interpreted step (flow object).
+     * @param instance represents the instance of a given flow.
+     */
+    private void executeStep(Step step, FlowInstance instance) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+        String appId = metadata.getAppId();
+        String flowId = metadata.getFlowId();
+        String flowObjectId = metadata.getCurrentStep().getFlowObjectId();
+        long scheduledAt = EngineMetrics.now();
+
+        vertx.runOnContext(v -> {
+            try {
+                metrics.recordQueueWait(appId, flowId, flowObjectId, scheduledAt);
+                long scriptStart = EngineMetrics.now();
+
+                step.execute(instance, stepContext);
+                metrics.recordScript(appId, flowId, flowObjectId, scriptStart);
+            }
+            catch (Exception ex) {
+                Failure failure = new Failure(3008, "Unable to run interpreted step: " +
+                        instance.getMetadata(), ex);
+                failInstance(instance, failure);
+            }
+        });
+    }
+
     private void createInstance(FlowMetadata flowMetadata, Handler<AsyncResult<FlowInstance>> resultHandler) {
         Future<FlowInstance> future = Future.future();
         future.setHandler(resultHandler);
@@ -457,9 +931,10 @@ public class Engine extends AbstractVerticle {
         future.setHandler(resultHandler);
 
         FlowInstanceWrapper wrapper = new FlowInstanceWrapper(instance, false, saveMetaData, status, null);
-        eventBus.send(EngineAddresses.REPO_FLOW_SAVE_INSTANCE, wrapper, reply -> {
+        whenProjected(instance.getMetadata(), v -> eventBus.send(getRepositoryWriteAddress(
+                EngineAddresses.REPO_FLOW_SAVE_INSTANCE, instance.getMetadata()), wrapper, reply -> {
             future.complete((Boolean) reply.result().body());
-        });
+        }));
     }
 
     private void completeInstance(FlowInstance instance, boolean saved) {
@@ -468,6 +943,11 @@ public class Engine extends AbstractVerticle {
 
         if (saved) {
             logger.info("Flow instance completed: " + metadata);
+            metrics.recordCompleted(metadata);
+
+            if (parentFlowObjectId == null) {
+                releaseAdmission(metadata);
+            }
 
             // Broadcast event.
             broadcastFlowLifecycleEvent(JsonKeys.FLOW_COMPLETE_EVENT, metadata, publishFlowLifeCycleEvents);
@@ -478,11 +958,24 @@ public class Engine extends AbstractVerticle {
                     FlowInstance parentInstance = resultHandler.result();
 
                     if (parentInstance != null) {
-                        parentInstance.setOutputData(instance.getOutputData());
+                        // The parent is read from the graph - it continues with the sub-flow's admission.
+                        if (metadata.getAdmissionId() != null) {
+                            parentInstance.getMetadata().setAdmissionId(metadata.getAdmissionId());
+                            parentInstance.getMetadata().setAdmissionAddress(metadata.getAdmissionAddress());
+                        }
 
-                        String sendAddress = EngineAddresses.getFlowObjectBusAddress(metadata.getAppId(),
-                                parentFlowObjectId + EngineAddresses.HOP_OUT_FLOW_INSTANCE);
-                        eventBus.send(sendAddress, parentInstance);
+                        parentInstance.setOutputData(instance.getOutputData());
+                        Step hopOutStep = flowInterpreter.getHopOutStep(parentInstance.getMetadata().getFlowId(),
+                                parentFlowObjectId);
+
+                        if (hopOutStep != null) {
+                            executeStep(hopOutStep, parentInstance);
+                        }
+                        else {
+                            String sendAddress = EngineAddresses.getFlowObjectBusAddress(metadata.getAppId(),
+                                    parentFlowObjectId + EngineAddresses.HOP_OUT_FLOW_INSTANCE);
+                            eventBus.send(sendAddress, parentInstance);
+                        }
 
                         // Update task status.
                         updateTask(parentInstance.getMetadata().getCurrentStep().getFlowObjectInstanceId(),
@@ -490,6 +983,7 @@ public class Engine extends AbstractVerticle {
                     }
                     else {
                         logger.fatal("Parent instance not found. Unable to flow out from instance: " + metadata);
+                        releaseAdmission(metadata);
                     }
                 });
             }
@@ -503,17 +997,24 @@ public class Engine extends AbstractVerticle {
     }
 
     private void completeInstance(FlowInstance instance) {
-        if (instance.getMetadata().getInstanceId() != null) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+
+        if (metadata.getInstanceId() != null) {
             DeliveryOptions options = Kernel.DELIVERY_OPTIONS.get(FlowInstanceCodec.NAME);
-            eventBus.send(EngineAddresses.REPO_FLOW_COMPLETE_INSTANCE, instance, options, reply -> {
+            whenProjected(metadata, v -> eventBus.send(getRepositoryWriteAddress(
+                    EngineAddresses.REPO_FLOW_COMPLETE_INSTANCE, metadata), instance, options, reply -> {
                 completeInstance(instance, (Boolean) reply.result().body());
-            });
+            }));
         }
         else {
             completeInstance(instance, true);
         }
     }
 
+    private String getRepositoryWriteAddress(String address, FlowInstanceMetadata metadata) {
+        return EngineAddresses.getRepositoryWriteAddress(address, metadata.getInstanceId(), repositoryPartitions);
+    }
+
     private void getInstance(Long flowObjectInstanceId, Handler<AsyncResult<FlowInstance>> resultHandler) {
         Future<FlowInstance> future = Future.future();
         future.setHandler(resultHandler);
@@ -530,10 +1031,13 @@ public class Engine extends AbstractVerticle {
 
     private void failInstance(FlowInstance instance, Failure failure) {
         FlowInstanceMetadata metadata = instance.getMetadata();
+        releaseAdmission(metadata);
+        metrics.recordFailed(metadata);
 
         if (metadata.getInstanceId() != null) {
             DeliveryOptions options = Kernel.DELIVERY_OPTIONS.get(FlowInstanceCodec.NAME);
-            eventBus.send(EngineAddresses.REPO_FLOW_FAIL_INSTANCE, instance, options, reply -> {
+            whenProjected(metadata, v -> eventBus.send(getRepositoryWriteAddress(
+                    EngineAddresses.REPO_FLOW_FAIL_INSTANCE, metadata), instance, options, reply -> {
                 if ((Boolean) reply.result().body()) {
                     // Broadcast event.
                     broadcastFlowLifecycleEvent(JsonKeys.FLOW_FAIL_EVENT, metadata, publishFlowLifeCycleEvents);
@@ -544,7 +1048,7 @@ public class Engine extends AbstractVerticle {
                             "Failed to update instance status to 'failed': " + metadata);
                     logger.fatal(fatalFailure.getError());
                 }
-            });
+            }));
         }
         else {
             // Broadcast event.
@@ -556,6 +1060,71 @@ public class Engine extends AbstractVerticle {
         }
     }
 
+    /**
+     * Record the script time of a step that was sent to its flow object's verticle. The time includes
+     * the wait in the verticle's event bus queue.
+     *
+     * @param metadata the flow instance metadata that holds the dispatched step.
+     */
+    private void recordDispatchedStep(FlowInstanceMetadata metadata) {
+        FlowInstanceStep currentStep = metadata.getCurrentStep();
+        Long dispatchedAt = currentStep != null ? currentStep.getDispatchedAt() : null;
+
+        if (dispatchedAt != null) {
+            currentStep.remove(FlowInstanceStep._DISPATCHED_AT);
+            metrics.recordScript(metadata.getAppId(), metadata.getFlowId(), currentStep.getFlowObjectId(),
+                    dispatchedAt);
+        }
+    }
+
+    /**
+     * Add the parallel tokens of a split to the admission of the flow instance.
+     */
+    private void forkAdmission(FlowInstanceMetadata metadata, int tokens) {
+        updateAdmission(metadata, tokens);
+    }
+
+    /**
+     * Release the admission held by a token that completes, fails, waits for a user or ends at a join.
+     * The instance leaves the in-flight count once all its tokens are released.
+     */
+    private void releaseAdmission(FlowInstanceMetadata metadata) {
+        updateAdmission(metadata, -1);
+        metadata.remove(FlowInstanceMetadata._ADMISSION_ID);
+        metadata.remove(FlowInstanceMetadata._ADMISSION_ADDRESS);
+    }
+
+    /**
+     * Update the tokens of an admitted instance on the engine that admitted it. Tokens can move to other
+     * engines, so the update is sent to the admitting engine unless it is this engine.
+     */
+    private void updateAdmission(FlowInstanceMetadata metadata, int tokens) {
+        Long admissionId = metadata.getAdmissionId();
+        String address = metadata.getAdmissionAddress();
+
+        if (admissionId == null) {
+            return;
+        }
+
+        if (address == null || address.equals(admissionAddress)) {
+            updateAdmission(admissionId, tokens);
+        }
+        else {
+            eventBus.send(address, new JsonObject().
+                    put(FlowInstanceMetadata._ADMISSION_ID, admissionId).
+                    put(JsonKeys.COUNT, tokens));
+        }
+    }
+
+    private void updateAdmission(Long admissionId, int tokens) {
+        if (tokens > 0) {
+            admissionController.fork(admissionId, tokens);
+        }
+        else {
+            admissionController.release(admissionId);
+        }
+    }
+
     private boolean validateInstanceRoute(FlowInstance instance, Route route) {
         if (!route.isValid()) {
             FlowInstanceMetadata metadata = instance.getMetadata();
@@ -27,12 +27,14 @@ import io.flowly.engine.JsonKeys;
 import io.flowly.core.verticles.VerticleUtils;
 import io.flowly.core.codecs.FlowInstanceCodec;
 import io.flowly.core.codecs.FlowInstanceMetadataCodec;
+import io.flowly.engine.codecs.FlowBatchCodec;
 import io.flowly.engine.codecs.FlowInstanceWrapperCodec;
 import io.flowly.core.codecs.FlowMetadataCodec;
 import io.flowly.engine.codecs.InteractiveServiceCodec;
 import io.flowly.engine.codecs.MicroServiceCodec;
 import io.flowly.engine.codecs.ProcessCodec;
 import io.flowly.engine.codecs.RouteCodec;
+import io.flowly.engine.data.FlowBatch;
 import io.flowly.engine.data.FlowInstanceWrapper;
 import io.flowly.core.parser.JsonParser;
 import io.flowly.core.parser.Parser;
@@ -42,6 +44,7 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
@@ -59,6 +62,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author <a>Uday Tatiraju</a>
  */
 public class Kernel extends AbstractVerticle {
+    // Node roles - a node runs all system verticles (default), or only the engine or the repository tier.
+    // Engine and repository nodes talk to each other over the clustered event bus.
+    public static final String NODE_ROLE_ALL = "all";
+    public static final String NODE_ROLE_ENGINE = "engine";
+    public static final String NODE_ROLE_REPOSITORY = "repository";
+
     public static final Map<String, DeliveryOptions> DELIVERY_OPTIONS;
 
     static {
@@ -77,22 +86,48 @@ public class Kernel extends AbstractVerticle {
     @Override
     public void start(Future<Void> startFuture) throws Exception {
         appsDirectory = config().getString(JsonKeys.APPS_DIRECTORY);
+        boolean jsonCodecs = config().getBoolean(JsonKeys.CODEC_JSON, false);
 
         // Register message codecs on the event bus.
         vertx.eventBus().registerDefaultCodec(Process.class, new ProcessCodec());
         vertx.eventBus().registerDefaultCodec(InteractiveService.class, new InteractiveServiceCodec());
         vertx.eventBus().registerDefaultCodec(MicroService.class, new MicroServiceCodec());
+        vertx.eventBus().registerDefaultCodec(FlowBatch.class, new FlowBatchCodec());
         vertx.eventBus().registerDefaultCodec(Route.class, new RouteCodec());
-        vertx.eventBus().registerDefaultCodec(FlowInstanceWrapper.class, new FlowInstanceWrapperCodec());
-        vertx.eventBus().registerDefaultCodec(FlowInstance.class, new FlowInstanceCodec());
-        vertx.eventBus().registerDefaultCodec(FlowMetadata.class, new FlowMetadataCodec());
-        vertx.eventBus().registerDefaultCodec(FlowInstanceMetadata.class, new FlowInstanceMetadataCodec());
+        vertx.eventBus().registerDefaultCodec(FlowInstanceWrapper.class, new FlowInstanceWrapperCodec(jsonCodecs));
+        vertx.eventBus().registerDefaultCodec(FlowInstance.class, new FlowInstanceCodec(jsonCodecs));
+        vertx.eventBus().registerDefaultCodec(FlowMetadata.class, new FlowMetadataCodec(jsonCodecs));
+        vertx.eventBus().registerDefaultCodec(FlowInstanceMetadata.class, new FlowInstanceMetadataCodec(jsonCodecs));
 
         deploySystemVerticles(startFuture);
     }
 
     /**
-     * Deploy the engine's system services (verticles).
+     * @param config the kernel configuration.
+     * @return the role of the node as configured. Defaults to all system verticles.
+     */
+    public static String getNodeRole(JsonObject config) {
+        return config.getString(JsonKeys.KERNEL_NODE_ROLE, NODE_ROLE_ALL);
+    }
+
+    /**
+     * @return the version of the engine as packaged (Implementation-Version) or null if not packaged.
+     */
+    public static String getEngineVersion() {
+        return Kernel.class.getPackage().getImplementationVersion();
+    }
+
+    /**
+     * @param config the kernel configuration.
+     * @return the number of repository write partitions as configured. Defaults to a single partition.
+     *         Engine and repository nodes must be configured with the same count.
+     */
+    public static int getRepositoryWritePartitions(JsonObject config) {
+        return Math.max(1, config.getInteger(JsonKeys.REPO_WRITE_PARTITIONS, 1));
+    }
+
+    /**
+     * Deploy the engine's system services (verticles) that run in this node's role.
      *
      * @param startFuture a future action used to indicate whether the kernel was successfully deployed or not.
      */
@@ -101,17 +136,35 @@ public class Kernel extends AbstractVerticle {
         DeploymentOptions normalDeploymentOptions = new DeploymentOptions().setConfig(config());
         DeploymentOptions workerDeploymentOptions = new DeploymentOptions().setConfig(config()).setWorker(true);
         Stack<VerticleDeployment> systemVerticles = new Stack<>();
+        String nodeRole = getNodeRole(config());
+
+        // Add the system verticles of the node's role.
+        if (!nodeRole.equals(NODE_ROLE_ENGINE)) {
+            // One repository verticle per write partition and a pool of readers.
+            for (int i = 0; i < getRepositoryWritePartitions(config()); i++) {
+                DeploymentOptions partitionDeploymentOptions = new DeploymentOptions().setWorker(true).
+                        setConfig(config().copy().put(JsonKeys.REPO_WRITE_PARTITION, i));
+                systemVerticles.push(new VerticleDeployment(Repository.class.getName() + ":" + i,
+                        Repository.class.getName(), partitionDeploymentOptions));
+            }
+
+            systemVerticles.push(new VerticleDeployment(RepositoryReader.class.getName(), null,
+                    new DeploymentOptions(workerDeploymentOptions).setInstances(config().getInteger(
+                            JsonKeys.REPO_READ_INSTANCES, Runtime.getRuntime().availableProcessors()))));
+        }
 
-        // Add all the system verticles.
-        systemVerticles.push(new VerticleDeployment(Repository.class.getName(), null, workerDeploymentOptions));
-        systemVerticles.push(new VerticleDeployment(Build.class.getName(), null, normalDeploymentOptions));
-        systemVerticles.push(new VerticleDeployment(Engine.class.getName(), null, normalDeploymentOptions));
+        if (!nodeRole.equals(NODE_ROLE_REPOSITORY)) {
+            systemVerticles.push(new VerticleDeployment(Build.class.getName(), null, normalDeploymentOptions));
+            systemVerticles.push(new VerticleDeployment(Engine.class.getName(), null, normalDeploymentOptions));
+        }
 
         VerticleUtils.deployVerticles(systemVerticles, null, vertx, d -> {
             if (d.succeeded()) {
-                logger.info("Global system verticles deployed.");
+                logger.info("Global system verticles deployed. Node role: " + nodeRole);
 
-                if (config().getBoolean(JsonKeys.SCAN_APPS_ON_KERNEL_START, true)) {
+                // Apps are built and deployed by the nodes that run the engine.
+                if (!nodeRole.equals(NODE_ROLE_REPOSITORY) &&
+                        config().getBoolean(JsonKeys.SCAN_APPS_ON_KERNEL_START, true)) {
                     deployApps(startFuture);
                 }
                 else {
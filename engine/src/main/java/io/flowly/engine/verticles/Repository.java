@@ -17,45 +17,120 @@ import io.flowly.core.Failure;
 import io.flowly.core.verticles.ConsumerRegistration;
 import io.flowly.core.verticles.VerticleUtils;
 import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.data.BatchWriter;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.data.FlowCatalog;
+import io.flowly.engine.data.InboxIndex;
 import io.flowly.engine.data.manager.FlowInstanceReadWriteManager;
 import io.flowly.engine.data.manager.FlowlyGraph;
 import io.flowly.engine.data.manager.FlowReadWriteManager;
 import io.flowly.engine.data.manager.UserManager;
+import io.flowly.engine.router.FlowRouter;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 /**
- * Worker verticle that handles all graph operations on the backend.
+ * Worker verticle that handles the graph writes on the backend.
  * Runs an instance of titan and uses the configured back store - Berkeley DB or Cassandra.
  *
+ * The kernel deploys one repository verticle per write partition. Writes of a flow instance are sent to
+ * the partition that owns the instance, and all partitions share the graph. If storage sharding is enabled,
+ * each partition writes to a graph (shard) of its own and flows are saved to all shards by the first partition.
+ * Reads are handled by {@link RepositoryReader}.
+ *
  * @author <a>Uday Tatiraju</a>
  */
 public class Repository extends AbstractVerticle {
     private static final Logger logger = LoggerFactory.getLogger(Repository.class);
 
+    // Default maximum number of writes that are committed in a single transaction.
+    private static final int DEFAULT_BATCH_SIZE = 64;
+
+    // Default maximum time (in milliseconds) a write waits for its batch to fill up.
+    private static final long DEFAULT_BATCH_LINGER_TIME = 2;
+
+    private BatchWriter batchWriter;
     private FlowInstanceReadWriteManager instanceManager;
-    private FlowReadWriteManager flowManager;
     private UserManager userManager;
+    private InboxIndex inboxIndex;
+    private FlowCatalog flowCatalog;
+
+    // Managers that save flows to the shards. Empty if the flows are saved by another partition.
+    private List<FlowReadWriteManager> flowManagers = new ArrayList<>();
+
+    // Index of the write partition handled by this verticle and the total number of partitions.
+    private int partition;
+    private int partitions;
+
+    // Configurations of the graphs (shards) used by this verticle.
+    private List<JsonObject> graphConfigs = new ArrayList<>();
 
     @Override
     public void start(Future<Void> startFuture) throws Exception {
+        partition = config().getInteger(JsonKeys.REPO_WRITE_PARTITION, 0);
+        partitions = Kernel.getRepositoryWritePartitions(config());
+
         try {
-            // One graph to rule them all.
-            Graph graph = new FlowlyGraph(config()).getInstance();
+            // One graph to rule them all - or one per partition, if sharded.
+            int shards = FlowlyGraph.getShards(config());
+            int shard = shards > 1 ? partition : 0;
+            Graph graph = acquireGraph(shard);
             instanceManager = new FlowInstanceReadWriteManager(graph);
-            flowManager = new FlowReadWriteManager(graph);
+            instanceManager.setShard(shard, shards);
             userManager = new UserManager(graph);
+            userManager.setShard(shard, shards);
+
+            // Materialize the inboxes held by the shard, unless another partition that writes to it already did.
+            inboxIndex = InboxIndex.get(vertx);
+            instanceManager.setInboxIndex(inboxIndex);
+            userManager.setInboxIndex(inboxIndex);
+
+            if (!inboxIndex.isShardLoaded(shard)) {
+                instanceManager.loadInbox();
+            }
+
+            if (shards == 1) {
+                flowManagers.add(new FlowReadWriteManager(graph, new FlowRouter(vertx)));
+            }
+            else if (partition == 0) {
+                // Every shard holds the flows that its instances refer to.
+                for (int i = 0; i < shards; i++) {
+                    flowManagers.add(new FlowReadWriteManager(i == shard ? graph : acquireGraph(i),
+                            i == shard ? new FlowRouter(vertx) : null));
+                }
+            }
+
+            // The partition that saves flows keeps the flow catalog (the first manager uses the local shard).
+            if (!flowManagers.isEmpty()) {
+                flowCatalog = FlowCatalog.get(vertx);
+                flowManagers.get(0).setFlowCatalog(flowCatalog);
+
+                if (!flowCatalog.isLoaded()) {
+                    flowManagers.get(0).loadCatalog();
+                }
+            }
+
+            batchWriter = new BatchWriter(vertx, graph,
+                    config().getInteger(JsonKeys.REPO_BATCH_SIZE, DEFAULT_BATCH_SIZE),
+                    config().getLong(JsonKeys.REPO_BATCH_LINGER_TIME, DEFAULT_BATCH_LINGER_TIME));
 
             // Register message handlers.
             VerticleUtils.registerHandlers(vertx.eventBus(), logger, createMessageHandlers(), h -> {
                 if (h.succeeded()) {
-                    logger.info("Deployed repository verticle.");
+                    logger.info("Deployed repository verticle, write partition: " + partition);
                     startFuture.complete();
                 }
                 else {
@@ -72,49 +147,123 @@ public class Repository extends AbstractVerticle {
 
     @Override
     public void stop(Future<Void> stopFuture) throws Exception {
+        // Commit and reply to the writes that are still waiting for their batch.
+        if (batchWriter != null) {
+            batchWriter.flush();
+        }
+
+        // Writes are no longer tracked - readers go back to the graph until the index is loaded again.
+        if (inboxIndex != null) {
+            inboxIndex.clear();
+        }
+
+        if (flowCatalog != null) {
+            flowCatalog.clear();
+        }
+
+        for (JsonObject graphConfig : graphConfigs) {
+            FlowlyGraph.release(graphConfig);
+        }
+
         stopFuture.complete();
         logger.info("Undeployed repository verticle.");
     }
 
     /**
-     * Create message handlers to deploy apps or flows.
+     * Create message handlers that save flows and write flow instances and tasks.
+     * Writes that belong to an existing flow instance are registered on the partition's addresses.
      *
      * @return queue of consumer registrations.
      */
     private Queue<ConsumerRegistration<Object>> createMessageHandlers() {
         Queue<ConsumerRegistration<Object>> registrations = new LinkedList<>();
 
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_SAVE,
-                flowManager.saveFlowHandler(), true));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_DELETE,
-                flowManager.deleteFlowHandler(), true));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_NEXT_ROUTE,
-                flowManager.flowNextRouteHandler(), true));
+        // Engine's requests are local, unless the repository runs on its own node.
+        boolean localOnly = !Kernel.getNodeRole(config()).equals(Kernel.NODE_ROLE_REPOSITORY);
 
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_USER_INBOX,
-                instanceManager.getInboxHandler()));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_USER_FLOWS,
-                flowManager.getFlowsHandler()));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_FLOW_INSTANCE_TASK,
-                instanceManager.getInstanceAtFlowObjectHandler()));
+        if (!flowManagers.isEmpty()) {
+            registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_SAVE,
+                    saveFlowHandler(), localOnly));
+            registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_SAVE_BATCH,
+                    saveFlowBatchHandler(), localOnly));
+            registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_DELETE,
+                    deleteFlowHandler(), localOnly));
+        }
 
         registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_CREATE_INSTANCE,
-                instanceManager.createInstanceHandler(), true));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_SAVE_INSTANCE,
-                instanceManager.saveInstanceHandler(), true));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_COMPLETE_INSTANCE,
-                instanceManager.completeInstanceHandler(), true));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_FAIL_INSTANCE,
-                instanceManager.failInstanceHandler(), true));
-
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE,
-                instanceManager.createFlowObjectInstanceHandler(), true));
-
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_ASSIGN_TASK,
-                userManager.assignTaskHandler()));
-        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_UPDATE_TASK,
-                userManager.updateTaskHandler()));
+                batchWriter.batch(instanceManager.createInstanceHandler()), localOnly));
+        registrations.add(new ConsumerRegistration<>(getPartitionAddress(EngineAddresses.REPO_FLOW_SAVE_INSTANCE),
+                batchWriter.batch(instanceManager.saveInstanceHandler()), localOnly));
+        registrations.add(new ConsumerRegistration<>(getPartitionAddress(EngineAddresses.REPO_FLOW_COMPLETE_INSTANCE),
+                batchWriter.batch(instanceManager.completeInstanceHandler()), localOnly));
+        registrations.add(new ConsumerRegistration<>(getPartitionAddress(EngineAddresses.REPO_FLOW_FAIL_INSTANCE),
+                batchWriter.batch(instanceManager.failInstanceHandler()), localOnly));
+
+        registrations.add(new ConsumerRegistration<>(
+                getPartitionAddress(EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE),
+                batchWriter.batch(instanceManager.createFlowObjectInstanceHandler()), localOnly));
+        registrations.add(new ConsumerRegistration<>(
+                getPartitionAddress(EngineAddresses.REPO_FLOW_JOIN_FLOW_OBJECT_INSTANCES),
+                batchWriter.batch(instanceManager.joinFlowObjectInstancesHandler()), localOnly));
+        registrations.add(new ConsumerRegistration<>(
+                getPartitionAddress(EngineAddresses.REPO_FLOW_RESERVE_FLOW_OBJECT_INSTANCES),
+                batchWriter.batch(instanceManager.reserveFlowObjectInstancesHandler()), localOnly));
+
+        registrations.add(new ConsumerRegistration<>(getPartitionAddress(EngineAddresses.REPO_ASSIGN_TASK),
+                batchWriter.batch(userManager.assignTaskHandler())));
+        registrations.add(new ConsumerRegistration<>(getPartitionAddress(EngineAddresses.REPO_UPDATE_TASK),
+                batchWriter.batch(userManager.updateTaskHandler())));
 
         return registrations;
     }
+
+    private Handler<Message<Object>> saveFlowHandler() {
+        return message -> {
+            Flow flow = (Flow) message.body();
+            boolean saved = true;
+
+            for (FlowReadWriteManager flowManager : flowManagers) {
+                saved = flowManager.saveFlowMetadata(flow) && flowManager.saveRouter(flow) && saved;
+            }
+
+            message.reply(saved);
+        };
+    }
+
+    private Handler<Message<Object>> saveFlowBatchHandler() {
+        return message -> {
+            FlowBatch batch = (FlowBatch) message.body();
+            boolean saved = true;
+
+            for (FlowReadWriteManager flowManager : flowManagers) {
+                saved = flowManager.saveFlows(batch.getFlows()) && saved;
+            }
+
+            message.reply(saved);
+        };
+    }
+
+    private Handler<Message<Object>> deleteFlowHandler() {
+        return message -> {
+            Flow flow = (Flow) message.body();
+            boolean deleted = true;
+
+            for (FlowReadWriteManager flowManager : flowManagers) {
+                deleted = flowManager.deleteFlowMetada(flow) && flowManager.deleteRouter(flow) && deleted;
+            }
+
+            message.reply(deleted);
+        };
+    }
+
+    private Graph acquireGraph(int shard) {
+        JsonObject graphConfig = FlowlyGraph.getShardConfig(config(), shard);
+        Graph graph = FlowlyGraph.acquire(graphConfig);
+        graphConfigs.add(graphConfig);
+        return graph;
+    }
+
+    private String getPartitionAddress(String address) {
+        return EngineAddresses.getRepositoryWriteAddress(address, partition, partitions);
+    }
 }
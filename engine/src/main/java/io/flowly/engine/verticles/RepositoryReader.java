@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.verticles;
+
+import io.flowly.core.Failure;
+import io.flowly.core.verticles.ConsumerRegistration;
+import io.flowly.core.verticles.VerticleUtils;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.FlowCatalog;
+import io.flowly.engine.data.InboxIndex;
+import io.flowly.engine.data.manager.FlowInstanceReadManager;
+import io.flowly.engine.data.manager.FlowReadManager;
+import io.flowly.engine.data.manager.FlowlyGraph;
+import io.flowly.engine.data.manager.ShardedFlowInstanceReadManager;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Worker verticle that handles the read-only graph operations on the backend.
+ * Deployed as a pool of instances that share the repository's graph, so reads do not wait for writes.
+ * If storage sharding is enabled, reads of an instance go to its shard and inboxes are gathered from all shards.
+ * Inboxes are read from the inbox index and flows from the flow catalog once the repository has loaded them.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class RepositoryReader extends AbstractVerticle {
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryReader.class);
+
+    private ShardedFlowInstanceReadManager instanceManager;
+    private FlowReadManager flowManager;
+    private FlowCatalog flowCatalog;
+
+    // Configurations of the graphs (shards) used by this verticle.
+    private List<JsonObject> graphConfigs = new ArrayList<>();
+
+    @Override
+    public void start(Future<Void> startFuture) throws Exception {
+        try {
+            int shards = FlowlyGraph.getShards(config());
+            List<FlowInstanceReadManager> shardManagers = new ArrayList<>();
+
+            for (int i = 0; i < shards; i++) {
+                JsonObject graphConfig = FlowlyGraph.getShardConfig(config(), i);
+                Graph graph = FlowlyGraph.acquire(graphConfig);
+                graphConfigs.add(graphConfig);
+
+                FlowInstanceReadManager shardManager = new FlowInstanceReadManager(graph);
+                shardManager.setShard(i, shards);
+                shardManagers.add(shardManager);
+
+                // Flows are saved to every shard.
+                if (i == 0) {
+                    flowManager = new FlowReadManager(graph);
+                }
+            }
+
+            instanceManager = new ShardedFlowInstanceReadManager(shardManagers, InboxIndex.get(vertx));
+            flowCatalog = FlowCatalog.get(vertx);
+
+            // Register message handlers.
+            VerticleUtils.registerHandlers(vertx.eventBus(), logger, createMessageHandlers(), h -> {
+                if (h.succeeded()) {
+                    logger.info("Deployed repository reader verticle.");
+                    startFuture.complete();
+                }
+                else {
+                    startFuture.fail(h.cause());
+                }
+            });
+        }
+        catch (Exception ex) {
+            Failure failure = new Failure(2002, "Unable to prepare flowly graph for repository reader verticle.", ex);
+            logger.error(failure.getError(), failure.getCause());
+            startFuture.fail(failure.getCause());
+        }
+    }
+
+    @Override
+    public void stop(Future<Void> stopFuture) throws Exception {
+        for (JsonObject graphConfig : graphConfigs) {
+            FlowlyGraph.release(graphConfig);
+        }
+
+        stopFuture.complete();
+        logger.info("Undeployed repository reader verticle.");
+    }
+
+    /**
+     * Create message handlers that query flows, routes, instances and inboxes.
+     *
+     * @return queue of consumer registrations.
+     */
+    private Queue<ConsumerRegistration<Object>> createMessageHandlers() {
+        Queue<ConsumerRegistration<Object>> registrations = new LinkedList<>();
+
+        // Engine's requests are local, unless the repository runs on its own node.
+        boolean localOnly = !Kernel.getNodeRole(config()).equals(Kernel.NODE_ROLE_REPOSITORY);
+
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_NEXT_ROUTE,
+                flowManager.flowNextRouteHandler(), localOnly));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_FLOW_GET_ROUTERS,
+                flowManager.getRoutersHandler(), localOnly));
+
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_USER_INBOX,
+                instanceManager.getInboxHandler()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_USER_FLOWS, getFlowsHandler()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.PERMISSIONS_CHANGED_EVENT,
+                message -> flowCatalog.invalidate()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.GET_FLOW_INSTANCE_TASK,
+                instanceManager.getInstanceAtFlowObjectHandler()));
+        registrations.add(new ConsumerRegistration<>(EngineAddresses.REPO_GET_OPEN_TASK_COUNTS,
+                instanceManager.getOpenTaskCountsHandler(), localOnly));
+
+        return registrations;
+    }
+
+    /**
+     * Reply with the flows visible to a subject. The subject's view is served from the flow catalog and,
+     * if not cached, is computed from the subject's permissions held by the auth module.
+     * If the auth module is not deployed, all flows are visible.
+     */
+    private Handler<Message<Object>> getFlowsHandler() {
+        return message -> {
+            String subjectId = (String) message.body();
+            JsonArray flows = flowCatalog.getFlows(subjectId);
+
+            if (flows != null) {
+                message.reply(flows);
+                return;
+            }
+
+            long version = flowCatalog.getVersion();
+            JsonObject args = new JsonObject().put(JsonKeys.SUBJECT_ID, subjectId);
+
+            vertx.eventBus().<JsonArray>send(EngineAddresses.GET_SUBJECT_PERMISSIONS, args, reply -> {
+                JsonArray permissions = null;
+
+                if (reply.succeeded()) {
+                    permissions = reply.result().body() != null ? reply.result().body() : new JsonArray();
+                }
+                else if (!(reply.cause() instanceof ReplyException) ||
+                        ((ReplyException) reply.cause()).failureType() != ReplyFailure.NO_HANDLERS) {
+                    logger.error("Unable to get permissions of subject: " + subjectId, reply.cause());
+                    message.reply(new JsonArray());
+                    return;
+                }
+
+                // Until the catalog is loaded, read the flows from the graph.
+                if (flowCatalog.isLoaded()) {
+                    message.reply(permissions != null ? flowCatalog.getFlows(subjectId, permissions, version) :
+                            flowCatalog.getFlows());
+                }
+                else {
+                    message.reply(FlowCatalog.filter(flowManager.getFlows(subjectId), permissions));
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class EngineAddressesTest {
+    private static final String ADDRESS = EngineAddresses.REPO_FLOW_SAVE_INSTANCE;
+
+    @Test
+    public void testSinglePartitionAddress() {
+        Assert.assertEquals("Address should not be partitioned.", ADDRESS,
+                EngineAddresses.getRepositoryWriteAddress(ADDRESS, 12345l, 1));
+    }
+
+    @Test
+    public void testInstancePartitionAddress() {
+        String address = EngineAddresses.getRepositoryWriteAddress(ADDRESS, 12345l, 4);
+        Assert.assertEquals("Partition address not as expected.",
+                EngineAddresses.getRepositoryWriteAddress(ADDRESS, 1, 4), address);
+        Assert.assertEquals("Instance should always map to the same partition.", address,
+                EngineAddresses.getRepositoryWriteAddress(ADDRESS, 12345l, 4));
+    }
+
+    @Test
+    public void testPartitionAddressWithoutInstance() {
+        Assert.assertEquals("Writes without an instance should go to the first partition.",
+                EngineAddresses.getRepositoryWriteAddress(ADDRESS, 0, 4),
+                EngineAddresses.getRepositoryWriteAddress(ADDRESS, (Long) null, 4));
+    }
+}
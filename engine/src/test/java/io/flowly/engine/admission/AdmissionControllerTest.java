@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.admission;
+
+import io.flowly.core.Failure;
+import io.flowly.engine.BaseTestWithVertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class AdmissionControllerTest extends BaseTestWithVertx {
+    private static final String FLOW_1 = "1429373120533";
+    private static final String FLOW_2 = "1429373120534";
+
+    @Test
+    public void testAdmitWithinLimits(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            AdmissionController controller = new AdmissionController(vertx, 2, 0, 0, 0);
+            List<Long> admissionIds = new ArrayList<>();
+
+            controller.admit(FLOW_1, h -> admissionIds.add(h.result()));
+            controller.admit(FLOW_2, h -> admissionIds.add(h.result()));
+
+            context.assertEquals(2, admissionIds.size());
+            context.assertEquals(2, controller.getInFlightCount());
+            context.assertEquals(1, controller.getInFlightCount(FLOW_1));
+
+            context.assertTrue(controller.release(admissionIds.get(0)));
+            context.assertFalse(controller.release(admissionIds.get(0)), "Release should be idempotent.");
+            context.assertFalse(controller.release(null));
+            context.assertEquals(1, controller.getInFlightCount());
+            context.assertEquals(0, controller.getInFlightCount(FLOW_1));
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testRejectWhenQueueIsFull(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            AdmissionController controller = new AdmissionController(vertx, 1, 0, 1, 10000);
+
+            controller.admit(FLOW_1, h -> context.assertTrue(h.succeeded()));
+            controller.admit(FLOW_1, h -> context.fail("Queued request should not complete."));
+            context.assertEquals(1, controller.getQueuedCount());
+
+            controller.admit(FLOW_2, h -> {
+                context.assertTrue(h.failed());
+                context.assertEquals(3010, ((Failure) h.cause()).getCode());
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testQueuedRequestIsAdmittedOnRelease(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            AdmissionController controller = new AdmissionController(vertx, 0, 1, 10, 10000);
+            List<Long> admissionIds = new ArrayList<>();
+
+            controller.admit(FLOW_1, h -> admissionIds.add(h.result()));
+            controller.admit(FLOW_1, h -> admissionIds.add(h.result()));
+            controller.admit(FLOW_2, h -> admissionIds.add(h.result()));
+
+            // Per flow limit applies - second instance of flow 1 waits.
+            context.assertEquals(1, controller.getQueuedCount());
+            context.assertEquals(2, controller.getInFlightCount());
+
+            controller.release(admissionIds.get(0));
+            context.assertEquals(0, controller.getQueuedCount());
+            context.assertEquals(3, admissionIds.size());
+            context.assertEquals(1, controller.getInFlightCount(FLOW_1));
+
+            JsonObject stats = controller.toJson();
+            context.assertEquals(2, stats.getInteger(AdmissionController.IN_FLIGHT));
+            context.assertEquals(0, stats.getInteger(AdmissionController.QUEUED));
+            context.assertEquals(1, stats.getJsonObject(AdmissionController.FLOWS).getInteger(FLOW_2));
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testReleaseAfterLastToken(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            AdmissionController controller = new AdmissionController(vertx, 1, 0, 1, 10000);
+            List<Long> admissionIds = new ArrayList<>();
+
+            controller.admit(FLOW_1, h -> admissionIds.add(h.result()));
+            controller.admit(FLOW_2, h -> admissionIds.add(h.result()));
+
+            // The instance splits into three parallel tokens.
+            Long admissionId = admissionIds.get(0);
+            context.assertTrue(controller.fork(admissionId, 2));
+            context.assertFalse(controller.fork(null, 2));
+
+            context.assertFalse(controller.release(admissionId), "Two tokens are still running.");
+            context.assertFalse(controller.release(admissionId), "A token is still running.");
+            context.assertEquals(1, controller.getInFlightCount());
+            context.assertEquals(1, controller.getQueuedCount());
+
+            context.assertTrue(controller.release(admissionId));
+            context.assertEquals(0, controller.getQueuedCount());
+            context.assertEquals(1, controller.getInFlightCount(FLOW_2));
+            context.assertFalse(controller.fork(admissionId, 1), "Released admission cannot be forked.");
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testQueuedRequestTimesOut(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            AdmissionController controller = new AdmissionController(vertx, 1, 0, 1, 100);
+
+            controller.admit(FLOW_1, h -> context.assertTrue(h.succeeded()));
+            controller.admit(FLOW_1, h -> {
+                context.assertTrue(h.failed());
+                context.assertEquals(3011, ((Failure) h.cause()).getCode());
+                context.assertEquals(0, controller.getQueuedCount());
+                async.complete();
+            });
+        });
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.assignment;
+
+import io.flowly.engine.JsonKeys;
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class AssignmentServiceTest {
+    private static final String FLOW_ID = "1429373120533";
+
+    @Test
+    public void testDefaultsToAdmin() {
+        AssignmentService service = new AssignmentService(new JsonObject());
+        Assert.assertEquals(Arrays.asList(JsonKeys.ADMIN_USER_ID), service.getCandidates(FLOW_ID));
+        Assert.assertEquals(JsonKeys.ADMIN_USER_ID, service.select(FLOW_ID, null));
+    }
+
+    @Test
+    public void testLeastLoaded() {
+        AssignmentService service = new AssignmentService(createConfig(AssignmentStrategy.LEAST_LOADED));
+        JsonObject openTaskCounts = new JsonObject().put("alice", 1);
+
+        Assert.assertEquals("Member without open tasks should be picked.", "bob",
+                service.select(FLOW_ID, openTaskCounts));
+        Assert.assertEquals("Pending assignment should count as an open task.", "carol",
+                service.select(FLOW_ID, openTaskCounts));
+
+        service.release("bob");
+        service.release("carol");
+        openTaskCounts.put("bob", 1);
+        Assert.assertEquals("carol", service.select(FLOW_ID, openTaskCounts));
+    }
+
+    @Test
+    public void testRoundRobin() {
+        AssignmentService service = new AssignmentService(createConfig(AssignmentStrategy.ROUND_ROBIN));
+        JsonObject openTaskCounts = new JsonObject().put("alice", 1);
+
+        Assert.assertEquals("alice", service.select(FLOW_ID, openTaskCounts));
+        Assert.assertEquals("bob", service.select(FLOW_ID, openTaskCounts));
+        Assert.assertEquals("carol", service.select(FLOW_ID, openTaskCounts));
+        Assert.assertEquals("Members should be picked in turn.", "alice", service.select(FLOW_ID, openTaskCounts));
+    }
+
+    @Test
+    public void testWeighted() {
+        AssignmentService service = new AssignmentService(createConfig(AssignmentStrategy.WEIGHTED));
+        int alice = 0;
+
+        for (int i = 0; i < 8; i++) {
+            if (service.select(FLOW_ID, null).equals("alice")) {
+                alice++;
+            }
+        }
+
+        Assert.assertEquals("Member with half the total weight should get half the tasks.", 4, alice);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        new AssignmentService(createConfig("random"));
+    }
+
+    private JsonObject createConfig(String strategy) {
+        JsonObject members = new JsonObject().put("alice", 2).put("bob", 1).put("carol", 1);
+
+        return new JsonObject().
+                put(JsonKeys.ENGINE_ASSIGNMENT_STRATEGY, strategy).
+                put(JsonKeys.ENGINE_ASSIGNMENT_GROUPS, new JsonObject().put("reviewers", members)).
+                put(JsonKeys.ENGINE_ASSIGNMENT_FLOWS, new JsonObject().put(FLOW_ID, "reviewers"));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.CompiledFlow;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.InteractiveService;
+import io.flowly.engine.assets.MicroService;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.router.RouteTable;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class AssetCodecTest extends BaseTestWithVertx {
+    @Test
+    public void testProcessCodec(TestContext context) {
+        Process process = assertDecodedFlow(context, new ProcessCodec(), "process.json", Process.class);
+        context.assertEquals(1, process.getSwimLanes().size(), "Swim lanes not as expected.");
+
+        RouteTable routeTable = new RouteTable(process, new CompiledFlow(process));
+        context.assertFalse(routeTable.getEntries().isEmpty(), "Decoded process should be routable.");
+    }
+
+    @Test
+    public void testInteractiveServiceCodec(TestContext context) {
+        assertDecodedFlow(context, new InteractiveServiceCodec(), "interactive_service.json",
+                InteractiveService.class);
+    }
+
+    @Test
+    public void testMicroServiceCodec(TestContext context) {
+        assertDecodedFlow(context, new MicroServiceCodec(), "micro_service.json", MicroService.class);
+    }
+
+    @Test
+    public void testFlowBatchCodec(TestContext context) {
+        List<Flow> flows = new ArrayList<>();
+        flows.add(parseFlow("process.json", Process.class));
+        flows.add(parseFlow("micro_service.json", MicroService.class));
+        flows.add(parseFlow("interactive_service.json", InteractiveService.class));
+
+        FlowBatchCodec codec = new FlowBatchCodec();
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, new FlowBatch(flows));
+        List<Flow> decoded = codec.decodeFromWire(0, buffer).getFlows();
+
+        context.assertEquals(flows.size(), decoded.size(), "Batch size not as expected.");
+
+        for (int i = 0; i < flows.size(); i++) {
+            context.assertEquals(flows.get(i).getClass(), decoded.get(i).getClass(), "Flow type not as expected.");
+            context.assertEquals(flows.get(i).getId(), decoded.get(i).getId(), "Flow id not as expected.");
+        }
+    }
+
+    private <T extends Flow> T parseFlow(String flowName, Class<T> flowType) {
+        String flowPath = getClass().getResource(PathUtils.createPathWithPrefix("flows", flowName)).getPath();
+        return new AssetParser(vertx.fileSystem()).parseBlocking(flowPath, flowType);
+    }
+
+    private <T extends Flow> T assertDecodedFlow(TestContext context, AssetCodec<T> codec, String flowName,
+                                                 Class<T> flowType) {
+        T flow = parseFlow(flowName, flowType);
+
+        Buffer buffer = Buffer.buffer();
+        codec.encodeToWire(buffer, flow);
+        T decoded = codec.decodeFromWire(0, buffer);
+
+        context.assertEquals(flow.getId(), decoded.getId(), "Flow id not as expected.");
+        context.assertEquals(flow.getVariables().size(), decoded.getVariables().size(),
+                "Variables not as expected.");
+        context.assertEquals(flow.getConnectingObjects().size(), decoded.getConnectingObjects().size(),
+                "Connecting objects not as expected.");
+        context.assertEquals(flow.getFlowObjects().size(), decoded.getFlowObjects().size(),
+                "Flow objects not as expected.");
+
+        for (int i = 0; i < flow.getFlowObjects().size(); i++) {
+            context.assertEquals(flow.getFlowObjects().get(i).getClass(), decoded.getFlowObjects().get(i).getClass(),
+                    "Flow object type not as expected.");
+        }
+
+        return decoded;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.data.FlowInstanceWrapper;
+import io.flowly.engine.router.Route;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowInstanceWrapperCodecTest {
+    private FlowInstanceWrapperCodec codec = new FlowInstanceWrapperCodec();
+    private FlowInstance instance;
+
+    @Before
+    public void setUp() {
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setFlowId("123");
+        metadata.setAppId("com.test.app1");
+        metadata.setInstanceId(100l);
+
+        FlowInstanceStep currentStep = new FlowInstanceStep();
+        currentStep.setFlowObjectId("1001");
+        currentStep.setFlowObjectInstanceId(200l);
+        metadata.setCurrentStep(currentStep);
+
+        instance = new FlowInstance();
+        instance.setMetadata(metadata);
+        instance.setData(new JsonObject().put("name", "flowly"));
+    }
+
+    @Test
+    public void decodeObjectFromWireTest() {
+        FlowInstanceWrapper wrapper = encodeAndDecode(codec, new FlowInstanceWrapper(instance, true, false,
+                "Completed", new Route.Next("1002", null)));
+
+        Assert.assertTrue("Start flag not as expected.", wrapper.isStart());
+        Assert.assertFalse("Save metadata flag not as expected.", wrapper.saveMetadata());
+        Assert.assertEquals("Status not as expected.", "Completed", wrapper.getStatus());
+        Assert.assertEquals("Next flow object id not as expected.", "1002", wrapper.getNext().getFlowObjectId());
+        Assert.assertNull("Joined ids should be null.", wrapper.getJoinedFlowObjectInstanceIds());
+        assertInstance(wrapper.getInstance());
+    }
+
+    @Test
+    public void decodeJoinObjectFromWireTest() {
+        FlowInstanceWrapper wrapper = encodeAndDecode(new FlowInstanceWrapperCodec(true),
+                new FlowInstanceWrapper(instance, Arrays.asList(300l, 301l), new Route.Next("1010", null, 2)));
+
+        Assert.assertEquals("Joined ids not as expected.", Arrays.asList(300l, 301l),
+                wrapper.getJoinedFlowObjectInstanceIds());
+        Assert.assertEquals("Join count not as expected.", 2, wrapper.getNext().getJoinCount());
+        Assert.assertNull("Status should be null.", wrapper.getStatus());
+        assertInstance(wrapper.getInstance());
+    }
+
+    @Test
+    public void decodeReservedMoveFromWireTest() {
+        FlowInstanceWrapper wrapper = encodeAndDecode(codec,
+                new FlowInstanceWrapper(instance, new Route.Next("1002", null), 400l));
+
+        Assert.assertEquals("Flow object instance id not as expected.", 400l,
+                wrapper.getFlowObjectInstanceId().longValue());
+        Assert.assertFalse("Start flag not as expected.", wrapper.isStart());
+        assertInstance(wrapper.getInstance());
+    }
+
+    private FlowInstanceWrapper encodeAndDecode(FlowInstanceWrapperCodec encoder, FlowInstanceWrapper wrapper) {
+        Buffer buffer = Buffer.buffer();
+        encoder.encodeToWire(buffer, wrapper);
+        return codec.decodeFromWire(0, buffer);
+    }
+
+    private void assertInstance(FlowInstance decoded) {
+        Assert.assertEquals("Instance id not as expected.", 100l, decoded.getMetadata().getInstanceId().longValue());
+        Assert.assertEquals("Flow object id not as expected.", "1001",
+                decoded.getMetadata().getCurrentStep().getFlowObjectId());
+        Assert.assertEquals("Data not as expected.", "flowly", decoded.getData().getString("name"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.codecs;
+
+import io.flowly.engine.router.Route;
+import io.flowly.engine.router.RouteTable;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class RouteCodecTest {
+    private RouteCodec codec = new RouteCodec();
+
+    @Test
+    public void decodeSplitRouteFromWireTest() {
+        Route route = new Route("1005");
+        route.addNext("1007", null);
+        route.addNext("1008", "2001", 2);
+        route.setValid(true);
+
+        Route decoded = encodeAndDecode(route.freeze());
+        Assert.assertEquals("Previous flow object id not as expected.", "1005", decoded.getPreviousFlowObjectId());
+        Assert.assertTrue("Route should be valid.", decoded.isValid());
+        Assert.assertFalse("Route should not end.", decoded.isEnd());
+        Assert.assertEquals("Next route count is not as expected.", 2, decoded.getNextList().size());
+
+        Route.Next next = decoded.getNextList().get(1);
+        Assert.assertEquals("Next flow object id not as expected.", "1008", next.getFlowObjectId());
+        Assert.assertEquals("Sub flow id not as expected.", "2001", next.getSubFlowId());
+        Assert.assertTrue("Next flow object should be a join.", next.isJoin());
+        Assert.assertNull("Sub flow id should be null.", decoded.getNext().getSubFlowId());
+    }
+
+    @Test
+    public void decodeEndRouteFromWireTest() {
+        Route route = new Route("1009");
+        route.addNext(RouteTable.END_FLOW_OBJECT_ID, null);
+        route.setValid(true);
+
+        Route decoded = encodeAndDecode(route);
+        Assert.assertTrue("Route should end.", decoded.isEnd());
+        Assert.assertEquals("Next route count is not as expected.", 0, decoded.getNextList().size());
+    }
+
+    @Test
+    public void decodeInvalidRouteFromWireTest() {
+        Assert.assertFalse("Route should not be valid.", encodeAndDecode(new Route("222")).isValid());
+    }
+
+    private Route encodeAndDecode(Route route) {
+        // Decode at an offset, as the event bus does.
+        Buffer buffer = Buffer.buffer().appendInt(7);
+        codec.encodeToWire(buffer, route);
+        return codec.decodeFromWire(4, buffer);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class BuildExecutorTest {
+    private BuildExecutor buildExecutor;
+
+    @Before
+    public void setUp() {
+        buildExecutor = new BuildExecutor(4);
+    }
+
+    @After
+    public void tearDown() {
+        buildExecutor.close();
+    }
+
+    @Test
+    public void testDefaultParallelism() {
+        BuildExecutor defaultExecutor = new BuildExecutor(0);
+        assertEquals(Runtime.getRuntime().availableProcessors(), defaultExecutor.getParallelism());
+        defaultExecutor.close();
+    }
+
+    @Test
+    public void testResultsInItemOrder() {
+        List<Integer> items = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+
+        List<Integer> results = buildExecutor.map(items, item -> {
+            // Later items finish first.
+            sleep((100 - item) / 10);
+            return item * 2;
+        }, String::valueOf);
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i * 2, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void testFailuresAreAggregated() {
+        try {
+            buildExecutor.map(Arrays.asList("a.json", "b.json", "c.json"), item -> {
+                if (!item.equals("b.json")) {
+                    throw new IllegalArgumentException("Invalid flow");
+                }
+
+                return item;
+            }, item -> item);
+
+            fail("Build should fail.");
+        }
+        catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().startsWith("Unable to build 2 flow(s)"));
+            assertTrue(ex.getMessage().contains("a.json: Invalid flow"));
+            assertTrue(ex.getMessage().contains("c.json: Invalid flow"));
+            assertEquals(1, ex.getSuppressed().length);
+        }
+    }
+
+    private void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
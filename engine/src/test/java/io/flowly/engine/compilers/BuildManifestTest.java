@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.App;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class BuildManifestTest extends BaseTestWithVertx {
+    private static final String FLOW_ID = "1429373120533";
+
+    private FileSystem fileSystem;
+    private String appFolder;
+    private String filePath;
+    private Buffer source;
+
+    @Before
+    public void setUp(TestContext context) {
+        super.setUp();
+
+        fileSystem = vertx.fileSystem();
+        appFolder = new App(APP_2_ID, appsDirectory).getAppFolder();
+        filePath = PathUtils.createPath(appFolder, PathUtils.PROCESSES_FOLDER, FLOW_ID + ".json");
+        source = fileSystem.readFileBlocking(filePath);
+    }
+
+    @Test
+    public void testScriptIds(TestContext context) {
+        Process process = new AssetParser(fileSystem).parseBlocking(filePath, Process.class);
+        List<String> scriptIds = BuildManifest.getScriptIds(process);
+
+        context.assertFalse(scriptIds.isEmpty(), "Process should refer to inline scripts.");
+        for (String scriptId : scriptIds) {
+            context.assertTrue(fileSystem.existsBlocking(PathUtils.createPath(appFolder, PathUtils.SCRIPTS_FOLDER,
+                    scriptId + PathUtils.DOT_JS_SUFFIX)), "Script should exist: " + scriptId);
+        }
+    }
+
+    @Test
+    public void testHash(TestContext context) {
+        List<String> scriptIds = Collections.singletonList("1429372764270");
+        String hash = BuildManifest.hash(source, scriptIds, fileSystem, appFolder);
+
+        context.assertEquals(hash, BuildManifest.hash(source.copy(), scriptIds, fileSystem, appFolder),
+                "Hash should be stable.");
+        context.assertNotEquals(hash, BuildManifest.hash(source, Arrays.asList("1429372764270", "1429372764271"),
+                fileSystem, appFolder), "Scripts should be part of the hash.");
+        context.assertNotEquals(hash, BuildManifest.hash(source.copy().appendString(" "), scriptIds, fileSystem,
+                appFolder), "Source should be part of the hash.");
+    }
+
+    @Test
+    public void testAppHash(TestContext context) {
+        Map<String, String> hashes = new HashMap<>();
+        hashes.put("a.json", "hash1");
+        hashes.put("b.json", "hash2");
+        String appHash = BuildManifest.appHash(hashes);
+
+        Map<String, String> sameHashes = new LinkedHashMap<>();
+        sameHashes.put("b.json", "hash2");
+        sameHashes.put("a.json", "hash1");
+        context.assertEquals(appHash, BuildManifest.appHash(sameHashes), "App hash should not depend on order.");
+
+        hashes.put("b.json", "hash3");
+        context.assertNotEquals(appHash, BuildManifest.appHash(hashes), "Flow hashes should be part of app hash.");
+
+        hashes.put("b.json", "hash2");
+        hashes.put("c.json", "hash3");
+        context.assertNotEquals(appHash, BuildManifest.appHash(hashes), "Flows should be part of app hash.");
+    }
+
+    @Test
+    public void testSaveAndLoad(TestContext context) throws Exception {
+        String verticlesPath = Files.createTempDirectory("verticles").toString();
+        context.assertNull(BuildManifest.load(fileSystem, verticlesPath), "No manifest before the first build.");
+
+        BuildManifest manifest = new BuildManifest(OptimizingCompiler.class.getSimpleName(), "1.0.0");
+        List<String> scriptIds = Collections.singletonList("1429372764270");
+        manifest.put(filePath, FLOW_ID, "hash", scriptIds, "verticle.js");
+        manifest.save(fileSystem, verticlesPath);
+
+        manifest = BuildManifest.load(fileSystem, verticlesPath);
+        context.assertNotNull(manifest);
+        context.assertEquals(OptimizingCompiler.class.getSimpleName(), manifest.getCompiler());
+        context.assertEquals("1.0.0", manifest.getEngineVersion());
+        context.assertEquals(BuildManifest.appHash(Collections.singletonMap(filePath, "hash")),
+                manifest.getAppHash(), "App hash not as expected.");
+        context.assertEquals(FLOW_ID, manifest.getFlowId(filePath));
+        context.assertEquals("hash", manifest.getHash(filePath));
+        context.assertEquals(scriptIds, manifest.getScriptIds(filePath));
+        context.assertEquals("verticle.js", manifest.getVerticlePath(filePath));
+
+        manifest.remove(filePath);
+        context.assertTrue(manifest.getFilePaths().isEmpty());
+        fileSystem.deleteRecursiveBlocking(verticlesPath, true);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.App;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.MicroService;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.interpreter.ExecutableFlow;
+import io.flowly.engine.interpreter.FlowInterpreter;
+import io.flowly.engine.interpreter.HopOutStep;
+import io.flowly.engine.interpreter.InlineScriptStep;
+import io.flowly.engine.interpreter.StepContext;
+import io.flowly.engine.interpreter.SubFlowStep;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class InterpretedCompilerTest extends BaseTestWithVertx {
+    private static final String PROCESS_ID = "1429373120550";
+    private static final String MICRO_SERVICE_ID = "1234123443219";
+
+    private FlowInterpreter flowInterpreter;
+    private RecordingStepContext stepContext;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+
+        flowInterpreter = new FlowInterpreter(vertx);
+        stepContext = new RecordingStepContext();
+    }
+
+    @Test
+    public void testCompileProcessWithSubFlow(TestContext context) {
+        ExecutableFlow executableFlow = compileFlow(PathUtils.PROCESSES_FOLDER, PROCESS_ID, Process.class);
+
+        context.assertEquals(5, executableFlow.size(), "Step count is not as expected.");
+        context.assertTrue(executableFlow.getStep("4003") instanceof InlineScriptStep);
+        context.assertTrue(executableFlow.getStep("4005") instanceof SubFlowStep);
+        context.assertTrue(executableFlow.getHopOutStep("4005") instanceof HopOutStep);
+        context.assertEquals(executableFlow, flowInterpreter.getFlow(PROCESS_ID));
+        context.assertNotNull(flowInterpreter.getStep(PROCESS_ID, "4001"));
+    }
+
+    @Test
+    public void testSubFlowDataMappings(TestContext context) throws Exception {
+        compileFlow(PathUtils.PROCESSES_FOLDER, PROCESS_ID, Process.class);
+        FlowInstance instance = createInstance(PROCESS_ID);
+        instance.getData().
+                put("emailTo", new JsonArray().add("a@flowly.io").add("b@flowly.io")).
+                put("emailSubject", "Hello");
+
+        flowInterpreter.getStep(PROCESS_ID, "4005").execute(instance, stepContext);
+        context.assertEquals("hopInto", stepContext.calls.get(0));
+        context.assertEquals(new JsonObject().
+                put("emailTo", new JsonArray().add("a@flowly.io").add("b@flowly.io")).
+                put("emailSubject", "Hello"), instance.getInputData(), "Input data is not as expected.");
+
+        // Input data must not share state with the current data.
+        instance.getInputData().getJsonArray("emailTo").add("c@flowly.io");
+        context.assertEquals(2, instance.getData().getJsonArray("emailTo").size());
+
+        instance.setOutputData(new JsonObject().put("success", true));
+        flowInterpreter.getHopOutStep(PROCESS_ID, "4005").execute(instance, stepContext);
+        context.assertEquals("hop", stepContext.calls.get(1));
+        context.assertTrue(instance.getData().getBoolean("success"), "Output data is not mapped.");
+        context.assertNull(instance.getOutputData(), "Output data should be cleared.");
+    }
+
+    @Test
+    public void testStartAndEndEvents(TestContext context) throws Exception {
+        compileFlow(PathUtils.MICRO_SERVICES_FOLDER, MICRO_SERVICE_ID, MicroService.class);
+        FlowInstance instance = createInstance(MICRO_SERVICE_ID);
+        instance.setInputData(new JsonObject().put("emailSubject", "Hello").put("index", 3));
+
+        flowInterpreter.getStep(MICRO_SERVICE_ID, "5001").execute(instance, stepContext);
+        context.assertEquals("Hello", instance.getData().getString("emailSubject"));
+        context.assertFalse(instance.getData().containsKey("index"), "Only input variables should be loaded.");
+        context.assertNull(instance.getInputData(), "Input data should be cleared.");
+
+        instance.getData().put("success", true);
+        flowInterpreter.getStep(MICRO_SERVICE_ID, "5012").execute(instance, stepContext);
+        context.assertEquals(new JsonObject().put("success", true), instance.getOutputData());
+        context.assertEquals(2, stepContext.calls.size());
+    }
+
+    @Test
+    public void testRemoveAppFlows(TestContext context) {
+        compileFlow(PathUtils.PROCESSES_FOLDER, PROCESS_ID, Process.class);
+        compileFlow(PathUtils.MICRO_SERVICES_FOLDER, MICRO_SERVICE_ID, MicroService.class);
+
+        context.assertEquals(2, flowInterpreter.removeFlows(APP_2_ID));
+        context.assertNull(flowInterpreter.getStep(PROCESS_ID, "4001"));
+    }
+
+    private <T> ExecutableFlow compileFlow(String flowFolder, String flowId, Class<T> flowType) {
+        String flowPath = PathUtils.createPathWithPrefix(APPS_FOLDER,
+                APP_2_ID.replace(PathUtils.DOT, File.separator), flowFolder, flowId + ".json");
+        Flow flow = (Flow) new AssetParser(vertx.fileSystem()).parseBlocking(
+                getClass().getResource(flowPath).getPath(), flowType);
+        flow.setApp(new App(APP_2_ID, appsDirectory));
+
+        Compiler compiler = new InterpretedCompiler(vertx.fileSystem(), flowInterpreter);
+        StringBuilder output = new StringBuilder();
+        flow.compile(compiler, null, output);
+
+        if (compiler.writeFlow(flow, output) != null) {
+            throw new IllegalStateException("Interpreted flows should not be written to a file.");
+        }
+
+        return flowInterpreter.getFlow(flowId);
+    }
+
+    private FlowInstance createInstance(String flowId) {
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setFlowId(flowId);
+        metadata.setAppId(APP_2_ID);
+        metadata.setCurrentStep(new FlowInstanceStep());
+
+        FlowInstance instance = new FlowInstance();
+        instance.setMetadata(metadata);
+        return instance;
+    }
+
+    private static class RecordingStepContext implements StepContext {
+        private List<String> calls = new ArrayList<>();
+
+        @Override
+        public void hop(FlowInstance instance) {
+            calls.add("hop");
+        }
+
+        @Override
+        public void hopInto(FlowInstance instance) {
+            calls.add("hopInto");
+        }
+
+        @Override
+        public void fail(FlowInstance instance) {
+            calls.add("fail");
+        }
+
+        @Override
+        public void send(String address, FlowInstance instance) {
+            calls.add(address.equals(EngineAddresses.AWAIT_USER_INTERACTION) ? "await" : address);
+        }
+
+        @Override
+        public void callService(String address, JsonObject inputData,
+                                Handler<AsyncResult<Message<Object>>> replyHandler) {
+            calls.add(address);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.compilers;
+
+import io.flowly.engine.App;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.CompiledFlow;
+import io.flowly.engine.assets.Flow;
+import io.flowly.engine.assets.FlowObject;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class OptimizingCompilerTest extends BaseTestWithVertx {
+    @Test
+    public void testFuseLinearChain(TestContext context) {
+        Flow flow = parseProcess(APP_1_ID, "2429373120533.json");
+        FlowObjectFusion fusion = new FlowObjectFusion(new CompiledFlow(flow));
+
+        List<FlowObject> chain = fusion.getChain("1001");
+        context.assertNotNull(chain, "Start event should begin a chain.");
+        context.assertEquals(3, chain.size(), "Chain length is not as expected.");
+        context.assertEquals("1005", chain.get(2).getId());
+        context.assertTrue(fusion.isFused("1003"));
+        context.assertTrue(fusion.isFused("1005"));
+        context.assertEquals(1, fusion.getChains().size());
+    }
+
+    @Test
+    public void testDoNotFuseIntoJoinedFlowObject(TestContext context) {
+        // Decision gateway 1005 is reached from 1003 and from the loop back 1007.
+        Flow flow = parseProcess(APP_2_ID, "1429373120533.json");
+        FlowObjectFusion fusion = new FlowObjectFusion(new CompiledFlow(flow));
+
+        context.assertEquals(1, fusion.getChains().size());
+        context.assertEquals(2, fusion.getChain("1001").size());
+        context.assertFalse(fusion.isFused("1005"), "Decision gateway with two incoming flows cannot be fused.");
+        context.assertFalse(fusion.isFused("1007"), "Decision gateway branches cannot be fused.");
+        context.assertNull(fusion.getChain("1007"));
+    }
+
+    @Test
+    public void testCompileFusedProcess() {
+        Flow flow = parseProcess(APP_1_ID, "2429373120533.json");
+
+        Compiler compiler = new OptimizingCompiler(vertx.fileSystem());
+        StringBuilder output = new StringBuilder();
+        flow.compile(compiler, null, output);
+
+        Buffer buffer = vertx.fileSystem().readFileBlocking(getCompiledJavaScriptFilePath("process_simple_one_fused.js"));
+        Assert.assertArrayEquals("Actual compiled verticle is not the same as expected verticle.",
+                buffer.getBytes(), Buffer.buffer(output.toString()).getBytes());
+    }
+
+    @Test
+    public void testCompileFusedScripts() {
+        // Two scripts declare the same variable and the last one returns early.
+        Flow flow = parseProcess(APP_1_ID, "2429373120541.json");
+
+        Compiler compiler = new OptimizingCompiler(vertx.fileSystem());
+        StringBuilder output = new StringBuilder();
+        flow.compile(compiler, null, output);
+
+        Buffer buffer = vertx.fileSystem().readFileBlocking(
+                getCompiledJavaScriptFilePath("process_with_scripts_fused.js"));
+        Assert.assertArrayEquals("Actual compiled verticle is not the same as expected verticle.",
+                buffer.getBytes(), Buffer.buffer(output.toString()).getBytes());
+    }
+
+    private Flow parseProcess(String appId, String flowFileName) {
+        String flowPath = PathUtils.createPathWithPrefix(APPS_FOLDER, appId.replace(PathUtils.DOT, File.separator),
+                PathUtils.PROCESSES_FOLDER, flowFileName);
+        Flow flow = new AssetParser(vertx.fileSystem()).parseBlocking(getClass().getResource(flowPath).getPath(),
+                Process.class);
+        flow.setApp(new App(appId, appsDirectory));
+
+        return flow;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import com.thinkaurelius.titan.core.TitanFactory;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.data.manager.BaseManager;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class BatchWriterTest extends BaseTestWithVertx {
+    private static final String WRITE_ADDRESS = "io.flowly.test:batch.write";
+    private static final String NAME = "name";
+    private static final String BAD_NAME = "bad";
+    private static final int BAD_NAME_FAILURE = 400;
+
+    private Graph graph;
+    private WriteManager writeManager;
+
+    /**
+     * Adds a named vertex per message and fails the write if the name is bad.
+     */
+    private static class WriteManager extends BaseManager {
+        WriteManager(Graph graph) {
+            super(graph);
+        }
+
+        Handler<Message<Object>> writeHandler() {
+            return message -> message.reply(write((String) message.body()));
+        }
+
+        Handler<Message<Object>> failingWriteHandler() {
+            return message -> {
+                if (write((String) message.body())) {
+                    message.reply(true);
+                }
+                else {
+                    message.fail(BAD_NAME_FAILURE, "Bad name.");
+                }
+            };
+        }
+
+        boolean write(String name) {
+            try {
+                graph.addVertex(NAME, name);
+
+                if (BAD_NAME.equals(name)) {
+                    throw new IllegalArgumentException("Bad name.");
+                }
+
+                commit();
+                return true;
+            }
+            catch (Exception ex) {
+                rollback();
+                return false;
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        graph = TitanFactory.build().set("storage.backend", "inmemory").open();
+        writeManager = new WriteManager(graph);
+    }
+
+    @After
+    public void tearDown(TestContext context) {
+        try {
+            graph.close();
+        }
+        catch (Exception ex) {
+            context.fail(ex);
+        }
+
+        super.tearDown(context);
+    }
+
+    @Test
+    public void testEachWriteGetsItsReply(TestContext context) {
+        BatchWriter batchWriter = new BatchWriter(vertx, graph, 3, 60000);
+        vertx.eventBus().consumer(WRITE_ADDRESS, batchWriter.batch(writeManager.writeHandler()));
+
+        Async async = context.async();
+        AtomicInteger replies = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            vertx.eventBus().send(WRITE_ADDRESS, "vertex" + i, reply -> {
+                context.assertTrue(reply.succeeded());
+                context.assertTrue((Boolean) reply.result().body());
+
+                if (replies.incrementAndGet() == 3) {
+                    context.assertEquals(3L, graph.traversal().V().has(NAME).count().next());
+                    async.complete();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testFailedWriteIsIsolated(TestContext context) {
+        BatchWriter batchWriter = new BatchWriter(vertx, graph, 3, 60000);
+        vertx.eventBus().consumer(WRITE_ADDRESS, batchWriter.batch(writeManager.writeHandler()));
+
+        Async async = context.async();
+        AtomicInteger replies = new AtomicInteger();
+        String[] names = {"vertex0", BAD_NAME, "vertex2"};
+
+        for (String name : names) {
+            vertx.eventBus().send(WRITE_ADDRESS, name, reply -> {
+                context.assertEquals(!BAD_NAME.equals(name), reply.result().body(),
+                        "Only the bad write should fail.");
+
+                if (replies.incrementAndGet() == names.length) {
+                    context.assertEquals(2L, graph.traversal().V().has(NAME).count().next());
+                    async.complete();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testFailureIsForwarded(TestContext context) {
+        BatchWriter batchWriter = new BatchWriter(vertx, graph, 3, 60000);
+        vertx.eventBus().consumer(WRITE_ADDRESS, batchWriter.batch(writeManager.failingWriteHandler()));
+
+        Async async = context.async();
+        AtomicInteger replies = new AtomicInteger();
+        String[] names = {"vertex0", BAD_NAME, "vertex2"};
+
+        for (String name : names) {
+            vertx.eventBus().send(WRITE_ADDRESS, name, reply -> {
+                if (BAD_NAME.equals(name)) {
+                    context.assertTrue(reply.failed(), "Bad write should fail.");
+                    ReplyException failure = (ReplyException) reply.cause();
+                    context.assertEquals(BAD_NAME_FAILURE, failure.failureCode());
+                    context.assertEquals("Bad name.", failure.getMessage());
+                }
+                else {
+                    context.assertTrue((Boolean) reply.result().body());
+                }
+
+                if (replies.incrementAndGet() == names.length) {
+                    context.assertEquals(2L, graph.traversal().V().has(NAME).count().next());
+                    async.complete();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testLingerTimeFlushesBatch(TestContext context) {
+        BatchWriter batchWriter = new BatchWriter(vertx, graph, 100, 10);
+        vertx.eventBus().consumer(WRITE_ADDRESS, batchWriter.batch(writeManager.writeHandler()));
+
+        Async async = context.async();
+
+        vertx.eventBus().send(WRITE_ADDRESS, "vertex0", reply -> {
+            context.assertTrue((Boolean) reply.result().body());
+            context.assertEquals(0, batchWriter.size());
+            async.complete();
+        });
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.core.data.Resource;
+import io.flowly.core.security.Permission;
+import io.flowly.engine.App;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.data.manager.FlowReadWriteManager;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class FlowCatalogTest extends BaseTestWithVertx {
+    private static final String FLOW_ID = "1429373120533";
+    private static final String SUBJECT_ID = "aragorn";
+
+    private FlowCatalog flowCatalog;
+    private FlowReadWriteManager flowManager;
+    private Process process;
+
+    @Before
+    public void setUp(TestContext context) {
+        super.setUp();
+
+        flowCatalog = new FlowCatalog();
+        flowManager = new FlowReadWriteManager(TinkerGraph.open());
+        flowManager.setFlowCatalog(flowCatalog);
+
+        String processFilePath = PathUtils.createPathWithPrefix(APPS_FOLDER,
+                APP_2_ID.replace(PathUtils.DOT, File.separator), PathUtils.PROCESSES_FOLDER, FLOW_ID + ".json");
+        processFilePath = getClass().getResource(processFilePath).getPath();
+        process = new AssetParser(vertx.fileSystem()).parseBlocking(processFilePath, Process.class);
+        process.setApp(new App(APP_2_ID, appsDirectory));
+    }
+
+    @Test
+    public void testCatalogFollowsFlowMetadata(TestContext context) {
+        flowManager.loadCatalog();
+        context.assertTrue(flowCatalog.isLoaded());
+        context.assertEquals(0, flowCatalog.getFlows().size());
+
+        context.assertTrue(flowManager.saveFlowMetadata(process));
+        context.assertEquals(FLOW_ID, flowCatalog.getFlows().getJsonObject(0).getString(FlowMetadata.FLOW_ID));
+        context.assertEquals(APP_2_ID, flowCatalog.getFlows().getJsonObject(0).getString(FlowMetadata.APP_ID));
+
+        context.assertTrue(flowManager.deleteFlowMetada(process));
+        context.assertEquals(0, flowCatalog.getFlows().size(), "Deleted flow should leave the catalog.");
+    }
+
+    @Test
+    public void testFilterByPermissions(TestContext context) {
+        flowCatalog.load(new JsonArray().add(createFlow("f1", "app1")).add(createFlow("f2", "app2")).
+                add(createFlow("f3", "app2")));
+
+        JsonArray flows = flowCatalog.getFlows(SUBJECT_ID, new JsonArray().add(createPermission("app1", 4)).
+                add(createPermission("f3", 1)).add(createPermission("f2", 2)), flowCatalog.getVersion());
+        context.assertEquals(2, flows.size(), "Only readable or executable flows should be visible.");
+        context.assertEquals("f1", flows.getJsonObject(0).getString(FlowMetadata.FLOW_ID));
+        context.assertEquals("f3", flows.getJsonObject(1).getString(FlowMetadata.FLOW_ID));
+
+        context.assertEquals(0, flowCatalog.getFlows(SUBJECT_ID, new JsonArray(), flowCatalog.getVersion()).size());
+    }
+
+    @Test
+    public void testCachedViews(TestContext context) {
+        flowCatalog.load(new JsonArray().add(createFlow("f1", "app1")));
+        JsonArray permissions = new JsonArray().add(createPermission("app1", 7));
+
+        long version = flowCatalog.getVersion();
+        flowCatalog.getFlows(SUBJECT_ID, permissions, version);
+        context.assertEquals(1, flowCatalog.getFlows(SUBJECT_ID).size(), "Subject's view should be cached.");
+
+        flowCatalog.put(createFlow("f2", "app1"));
+        context.assertNull(flowCatalog.getFlows(SUBJECT_ID), "Flow changes should invalidate the views.");
+
+        // Permissions read before an invalidation should not be cached.
+        version = flowCatalog.getVersion();
+        flowCatalog.invalidate();
+        context.assertEquals(2, flowCatalog.getFlows(SUBJECT_ID, permissions, version).size());
+        context.assertNull(flowCatalog.getFlows(SUBJECT_ID));
+    }
+
+    private FlowMetadata createFlow(String flowId, String appId) {
+        FlowMetadata flowMetadata = new FlowMetadata();
+        flowMetadata.setFlowId(flowId);
+        flowMetadata.setAppId(appId);
+        return flowMetadata;
+    }
+
+    private JsonObject createPermission(String resourceId, int rwx) {
+        return new JsonObject().put(Resource.RESOURCE_ID, resourceId).put(Permission.RWX, rwx);
+    }
+}
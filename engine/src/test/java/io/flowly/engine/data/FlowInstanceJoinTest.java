@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.data.manager.FlowInstanceReadWriteManager;
+import io.flowly.engine.data.manager.Schema;
+import io.flowly.engine.router.Route;
+import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ * Tests the join of parallel tokens of a flow instance in the graph.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class FlowInstanceJoinTest {
+    private static final String FLOW_ID = "2429373120540";
+    private static final Route.Next JOIN = new Route.Next("1009", null, 2);
+
+    private Graph graph;
+    private FlowInstanceReadWriteManager instanceManager;
+
+    @Before
+    public void setUp() {
+        graph = TinkerGraph.open();
+        instanceManager = new FlowInstanceReadWriteManager(graph);
+    }
+
+    @Test
+    public void testLastTokenJoins() {
+        FlowInstance instance = createInstance();
+        FlowInstance left = createToken(instance, "1005", "left", 1);
+        FlowInstance right = createToken(instance, "1007", "right", 2);
+
+        Assert.assertEquals(new JsonObject(), arrive(instanceManager, left));
+        Assert.assertEquals(1L, countJoinVertices());
+
+        // Arrivals are read from the graph - any manager (engine) can take the last token.
+        JsonObject join = arrive(new FlowInstanceReadWriteManager(graph), right);
+        Assert.assertNotNull("Last token should join.", join);
+        Assert.assertEquals(0L, countJoinVertices());
+
+        JsonObject data = join.getJsonObject(FlowInstance.DATA);
+        Assert.assertEquals(1, (int) data.getInteger("left"));
+        Assert.assertEquals(2, (int) data.getInteger("right"));
+
+        Vertex joinVertex = instanceManager.getVertex(join.getLong(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID));
+        Assert.assertEquals("1009", instanceManager.getPropertyValue(joinVertex, Schema.V_P_FLOW_OBJECT_ID));
+
+        for (FlowInstance token : new FlowInstance[] {left, right}) {
+            Vertex tokenVertex = instanceManager.getVertex(
+                    token.getMetadata().getCurrentStep().getFlowObjectInstanceId());
+            Assert.assertEquals(FlowInstanceReadWriteManager.STATUS_COMPLETED,
+                    instanceManager.getPropertyValue(tokenVertex, Schema.P_STATUS));
+            Assert.assertEquals(joinVertex.id(),
+                    tokenVertex.vertices(Direction.OUT, Schema.E_FLOW_TO).next().id());
+        }
+    }
+
+    @Test
+    public void testInstancesAreKeptApart() {
+        FlowInstance first = createInstance();
+        FlowInstance second = createInstance();
+
+        Assert.assertEquals(new JsonObject(), arrive(instanceManager, createToken(first, "1005", "left", 1)));
+        Assert.assertEquals(new JsonObject(), arrive(instanceManager, createToken(second, "1005", "left", 1)));
+        Assert.assertEquals(2L, countJoinVertices());
+
+        JsonObject join = arrive(instanceManager, createToken(second, "1007", "right", 2));
+        Assert.assertTrue(join.containsKey(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID));
+        Assert.assertEquals(1L, countJoinVertices());
+    }
+
+    private JsonObject arrive(FlowInstanceReadWriteManager manager, FlowInstance token) {
+        return manager.joinFlowObjectInstances(token, Collections.singletonList(
+                token.getMetadata().getCurrentStep().getFlowObjectInstanceId()), JOIN);
+    }
+
+    private FlowInstance createInstance() {
+        FlowMetadata flowMetadata = new FlowMetadata();
+        flowMetadata.setFlowId(FLOW_ID);
+        flowMetadata.setAppId("com.test.app1");
+        return instanceManager.createInstance(flowMetadata);
+    }
+
+    private FlowInstance createToken(FlowInstance instance, String flowObjectId, String key, int value) {
+        FlowInstance token = new FlowInstance(instance.copy().getMap());
+        token.setData(new JsonObject().put(key, value));
+
+        Long flowObjectInstanceId = instanceManager.createFlowObjectInstance(token,
+                new Route.Next(flowObjectId, null), false);
+
+        FlowInstanceStep step = new FlowInstanceStep();
+        step.setFlowObjectId(flowObjectId);
+        step.setFlowObjectInstanceId(flowObjectInstanceId);
+        token.getMetadata().setCurrentStep(step);
+        return token;
+    }
+
+    private long countJoinVertices() {
+        return graph.traversal().V().hasLabel(Schema.V_JOIN).count().next();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.core.data.FlowMetadata;
+import io.flowly.engine.App;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.data.manager.FlowInstanceReadWriteManager;
+import io.flowly.engine.data.manager.FlowReadWriteManager;
+import io.flowly.engine.data.manager.Schema;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.router.Route;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+/**
+ * Tests the flow instance graph of a process that persists only its wait states.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class FlowInstanceWaitStatesTest extends BaseTestWithVertx {
+    private static final String FLOW_ID = "1429373120533";
+
+    private Graph graph;
+    private FlowInstanceReadWriteManager instanceManager;
+    private FlowInstance instance;
+
+    @Before
+    public void setUp(TestContext context) {
+        super.setUp();
+
+        graph = TinkerGraph.open();
+        instanceManager = new FlowInstanceReadWriteManager(graph);
+
+        String processFilePath = PathUtils.createPathWithPrefix(APPS_FOLDER,
+                APP_2_ID.replace(PathUtils.DOT, File.separator), PathUtils.PROCESSES_FOLDER, FLOW_ID + ".json");
+        processFilePath = getClass().getResource(processFilePath).getPath();
+        Process process = new AssetParser(vertx.fileSystem()).parseBlocking(processFilePath, Process.class);
+        process.setApp(new App(APP_2_ID, appsDirectory));
+        process.setPersistence(FlowMetadata.PERSISTENCE_WAIT_STATES);
+        context.assertTrue(new FlowReadWriteManager(graph).saveFlowMetadata(process));
+
+        FlowMetadata flowMetadata = new FlowMetadata();
+        flowMetadata.setFlowId(FLOW_ID);
+        flowMetadata.setAppId(APP_2_ID);
+        instance = instanceManager.createInstance(flowMetadata);
+    }
+
+    @Test
+    public void testPersistenceModeOfInstance(TestContext context) {
+        context.assertTrue(instance.getMetadata().persistWaitStatesOnly(),
+                "Instance should inherit the persistence mode of the flow.");
+    }
+
+    @Test
+    public void testWaitStateFollowsInstance(TestContext context) {
+        // Start event ran in memory.
+        moveInMemory("1001");
+
+        Long flowObjectInstanceId = instanceManager.createFlowObjectInstance(instance,
+                new Route.Next("1003", "1234123412340"), false);
+        context.assertNotNull(flowObjectInstanceId, "Wait state should be persisted.");
+
+        Vertex instanceVertex = instanceManager.getVertex(instance.getMetadata().getInstanceId());
+        context.assertEquals(flowObjectInstanceId,
+                instanceVertex.vertices(Direction.OUT, Schema.E_FLOW_TO).next().id(),
+                "Wait state should follow the instance vertex.");
+        context.assertEquals(1L, countFlowObjectInstances());
+    }
+
+    @Test
+    public void testCompletionIsPersisted(TestContext context) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+        moveInMemory("1001");
+        Long waitStateId = instanceManager.createFlowObjectInstance(instance,
+                new Route.Next("1003", "1234123412340"), false);
+
+        // Steps after the wait state ran in memory.
+        metadata.setPersistedFlowObjectInstanceId(waitStateId);
+        moveInMemory("1009");
+
+        context.assertTrue(instanceManager.completeInstance(instance));
+        context.assertEquals(2L, countFlowObjectInstances());
+
+        Vertex waitStateVertex = instanceManager.getVertex(waitStateId);
+        context.assertEquals(FlowInstanceReadWriteManager.STATUS_COMPLETED,
+                instanceManager.getPropertyValue(waitStateVertex, Schema.P_STATUS));
+
+        Vertex endVertex = waitStateVertex.vertices(Direction.OUT, Schema.E_FLOW_TO).next();
+        context.assertEquals("1009", instanceManager.getPropertyValue(endVertex, Schema.V_P_FLOW_OBJECT_ID));
+        context.assertEquals(FlowInstanceReadWriteManager.STATUS_COMPLETED,
+                instanceManager.getPropertyValue(endVertex, Schema.P_STATUS));
+        context.assertEquals(FlowInstanceReadWriteManager.STATUS_COMPLETED,
+                instanceManager.getPropertyValue(instanceManager.getVertex(metadata.getInstanceId()),
+                        Schema.P_STATUS));
+    }
+
+    @Test
+    public void testAdmissionIsNotSaved(TestContext context) {
+        FlowInstanceMetadata metadata = instance.getMetadata();
+        metadata.setAdmissionId(7L);
+        metadata.setAdmissionAddress("io.flowly.engine:admission.tokens:1");
+
+        moveInMemory("1001");
+        Long waitStateId = instanceManager.createFlowObjectInstance(instance,
+                new Route.Next("1003", "1234123412340"), false);
+        metadata.getCurrentStep().setFlowObjectInstanceId(waitStateId);
+        context.assertTrue(instanceManager.saveInstance(instance, FlowInstanceReadWriteManager.STATUS_NEW, true));
+
+        FlowInstanceMetadata savedMetadata = new FlowInstanceMetadata((String) instanceManager.getPropertyValue(
+                instanceManager.getVertex(waitStateId), Schema.V_P_META_DATA));
+        context.assertEquals(metadata.getInstanceId(), savedMetadata.getInstanceId());
+        context.assertNull(savedMetadata.getAdmissionId(), "Admission should not be saved in the graph.");
+        context.assertNull(savedMetadata.getAdmissionAddress());
+        context.assertEquals(7L, metadata.getAdmissionId(), "Running token should keep its admission.");
+    }
+
+    private void moveInMemory(String flowObjectId) {
+        FlowInstanceStep step = new FlowInstanceStep();
+        step.setFlowObjectId(flowObjectId);
+        instance.getMetadata().setCurrentStep(step);
+    }
+
+    private long countFlowObjectInstances() {
+        return graph.traversal().V().hasLabel(Schema.V_FLOW_OBJECT_INSTANCE).count().next();
+    }
+}
@@ -13,6 +13,7 @@
 
 package io.flowly.engine.data;
 
+import io.flowly.engine.App;
 import io.flowly.engine.BaseTestWithVertx;
 import io.flowly.engine.assets.ConnectingObject;
 import io.flowly.engine.assets.EndEvent;
@@ -29,6 +30,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * @author <a>Uday Tatiraju</a>
@@ -84,4 +86,28 @@ public class FlowReadWriteManagerTest extends BaseTestWithVertx {
 
         context.assertFalse(routerManager.saveRouter(flow), "Making the router table for a flow should not fail");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSaveFlows(TestContext context) {
+        Flow validFlow = createFlow("validFlow", true);
+        Flow invalidFlow = createFlow("invalidFlow", false);
+
+        context.assertTrue(routerManager.saveFlows(Arrays.asList(validFlow, createFlow("otherFlow", true))),
+                "Saving a batch of valid flows should not fail.");
+        context.assertFalse(routerManager.saveFlows(Arrays.asList(validFlow, invalidFlow)),
+                "Saving a batch with an invalid flow should fail.");
+    }
+
+    private Flow createFlow(String flowId, boolean valid) {
+        Flow flow = new Process(flowId, "Test Process", null, null);
+        flow.setApp(new App(APP_2_ID, appsDirectory));
+
+        if (valid) {
+            flow.addFlowObject(new StartEvent("1", null, null, null));
+        }
+
+        flow.addFlowObject(new EndEvent("3", null, null, null));
+        flow.addConnectingObject(new ConnectingObject("2", null, null, null, "1", "3"));
+        return flow;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.ObjectKeys;
+import io.flowly.core.data.manager.Cursor;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.manager.BaseManager;
+import io.flowly.engine.data.manager.FlowInstanceReadManager;
+import io.flowly.engine.data.manager.Schema;
+import io.flowly.engine.data.manager.UserManager;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InboxIndexTest {
+    private static final String SUBJECT_ID = "admin";
+
+    private TinkerGraph graph;
+    private FlowInstanceReadManager readManager;
+    private UserManager userManager;
+    private InboxIndex inboxIndex;
+
+    @Before
+    public void setUp() {
+        graph = TinkerGraph.open();
+        graph.addVertex(Schema.V_SUBJECT).property(Schema.V_P_SUBJECT_ID, SUBJECT_ID);
+
+        readManager = new FlowInstanceReadManager(graph);
+        userManager = new UserManager(graph);
+        inboxIndex = new InboxIndex();
+    }
+
+    @Test
+    public void testIncrementalInbox() throws Exception {
+        userManager.setInboxIndex(inboxIndex);
+        List<Long> taskIds = assignTasks(3);
+
+        JsonObject inbox = inboxIndex.getInbox(SUBJECT_ID, 1, 2);
+        JsonArray tasks = inbox.getJsonArray(JsonKeys.TASKS);
+        Assert.assertEquals("Count should be exact.", 3, inbox.getInteger(JsonKeys.COUNT).intValue());
+        Assert.assertEquals("Page should hold the page size.", 2, tasks.size());
+        Assert.assertEquals("Latest task should be first.", taskIds.get(2),
+                tasks.getJsonObject(0).getLong(JsonKeys.TASK_ID));
+
+        Assert.assertTrue(userManager.updateTask(SUBJECT_ID, taskIds.get(2), BaseManager.STATUS_COMPLETED));
+        inbox = inboxIndex.getInbox(SUBJECT_ID, 2, 1);
+        Assert.assertEquals("Completed task should leave the inbox.", 2, inbox.getInteger(JsonKeys.COUNT).intValue());
+        Assert.assertEquals(taskIds.get(0),
+                inbox.getJsonArray(JsonKeys.TASKS).getJsonObject(0).getLong(JsonKeys.TASK_ID));
+    }
+
+    @Test
+    public void testLoadMatchesGraph() throws Exception {
+        List<Long> taskIds = assignTasks(3);
+
+        readManager.setInboxIndex(inboxIndex);
+        readManager.loadInbox();
+        Assert.assertTrue("Shard should be loaded.", inboxIndex.isLoaded(1));
+
+        JsonArray tasks = inboxIndex.getInbox(SUBJECT_ID, 1, 10).getJsonArray(JsonKeys.TASKS);
+        JsonArray graphTasks = readManager.getInbox(SUBJECT_ID, 1, 10).getJsonArray(JsonKeys.TASKS);
+        Assert.assertEquals(taskIds.size(), tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Assert.assertEquals("Index should match the graph.", graphTasks.getJsonObject(i).getLong(JsonKeys.TASK_ID),
+                    tasks.getJsonObject(i).getLong(JsonKeys.TASK_ID));
+        }
+    }
+
+    @Test
+    public void testCursorPaging() {
+        for (long i = 1; i <= 5; i++) {
+            // Tasks 3 and 4 are assigned at the same time.
+            inboxIndex.assign(SUBJECT_ID, i, i == 4 ? 3 : i, 10L, "1429373120533", BaseManager.STATUS_NEW);
+        }
+
+        JsonObject page = inboxIndex.getInbox(SUBJECT_ID, (Cursor) null, 2);
+        Assert.assertEquals("Count should be exact.", 5, page.getInteger(JsonKeys.COUNT).intValue());
+        Assert.assertEquals("Latest task should be first.", 5L,
+                page.getJsonArray(JsonKeys.TASKS).getJsonObject(0).getLong(JsonKeys.TASK_ID).longValue());
+
+        List<Long> taskIds = new ArrayList<>();
+        String cursor = page.getString(JsonKeys.NEXT_CURSOR);
+
+        while (cursor != null) {
+            page = inboxIndex.getInbox(SUBJECT_ID, Cursor.decode(cursor), 2);
+            page.getJsonArray(JsonKeys.TASKS).forEach(t -> taskIds.add(((JsonObject) t).getLong(JsonKeys.TASK_ID)));
+            cursor = page.getString(JsonKeys.NEXT_CURSOR);
+        }
+
+        Assert.assertEquals("Pages should continue after the cursor.", Arrays.asList(4L, 2L, 1L), taskIds);
+    }
+
+    @Test
+    public void testViewProgress() {
+        inboxIndex.assign(SUBJECT_ID, 1L, 100L, 10L, "1429373120533", BaseManager.STATUS_NEW);
+        inboxIndex.updateStatus(1L, BaseManager.STATUS_IN_PROGRESS);
+        inboxIndex.updateView(1L, 2L, BaseManager.STATUS_IN_PROGRESS, "1001");
+        inboxIndex.moveView(2L, 3L, BaseManager.STATUS_IN_PROGRESS, "1002");
+        inboxIndex.updateStatus(3L, BaseManager.STATUS_USER_INTERACTING);
+
+        JsonObject task = inboxIndex.getInbox(SUBJECT_ID, 1, 10).getJsonArray(JsonKeys.TASKS).getJsonObject(0);
+        Assert.assertEquals("View should follow the sub-flow.", 3L, task.getLong(JsonKeys.VIEW_ID).longValue());
+        Assert.assertEquals("1002", task.getString(JsonKeys.VIEW_ROUTE));
+        Assert.assertEquals(BaseManager.STATUS_USER_INTERACTING, task.getString(Schema.P_STATUS));
+    }
+
+    @Test
+    public void testEvents() {
+        List<JsonObject> events = new ArrayList<>();
+        inboxIndex = new InboxIndex(events::add);
+
+        inboxIndex.load(SUBJECT_ID, Arrays.asList(new JsonObject().put(JsonKeys.TASK_ID, 1L).
+                put(Schema.E_P_ASSIGNED_ON, 100L).put(Schema.P_STATUS, BaseManager.STATUS_NEW)));
+        Assert.assertTrue("Loading the index should not publish events.", events.isEmpty());
+
+        inboxIndex.assign(SUBJECT_ID, 2L, 200L, 10L, "1429373120533", BaseManager.STATUS_NEW);
+        inboxIndex.updateReceivedStatus(2L, BaseManager.STATUS_COMPLETED);
+        Assert.assertEquals(2, events.size());
+
+        JsonObject added = events.get(0);
+        Assert.assertEquals(ObjectKeys.TASK_ADDED, added.getString(ObjectKeys.INBOX_EVENT_TYPE));
+        Assert.assertEquals(SUBJECT_ID, added.getString(ObjectKeys.SUBJECT_ID));
+        Assert.assertEquals(2L, added.getJsonObject(ObjectKeys.TASK).getLong(JsonKeys.TASK_ID).longValue());
+
+        JsonObject removed = events.get(1);
+        Assert.assertEquals(ObjectKeys.TASK_REMOVED, removed.getString(ObjectKeys.INBOX_EVENT_TYPE));
+        Assert.assertEquals(2L, removed.getLong(JsonKeys.TASK_ID).longValue());
+    }
+
+    private List<Long> assignTasks(int count) throws Exception {
+        List<Long> taskIds = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Vertex vertex = graph.addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+            vertex.property(Schema.P_STATUS, BaseManager.STATUS_NEW);
+            vertex.property(Schema.V_P_INSTANCE_ID, 100L + i);
+            vertex.property(Schema.P_SUB_FLOW_ID, "1429373120533");
+
+            Long taskId = userManager.getId(vertex);
+            Assert.assertTrue(userManager.assignTask(SUBJECT_ID, taskId));
+            taskIds.add(taskId);
+
+            // Tasks are ordered by the time they are assigned.
+            Thread.sleep(5);
+        }
+
+        return taskIds;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.data;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.engine.JsonKeys;
+import io.flowly.engine.data.manager.BaseManager;
+import io.flowly.engine.data.manager.FlowInstanceReadManager;
+import io.flowly.engine.data.manager.Schema;
+import io.flowly.engine.data.manager.ShardedFlowInstanceReadManager;
+import io.flowly.engine.data.manager.UserManager;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ShardedFlowInstanceReadManagerTest {
+    private static final int SHARDS = 2;
+    private static final String SUBJECT_ID = "admin";
+
+    private List<TinkerGraph> graphs = new ArrayList<>();
+    private List<FlowInstanceReadManager> readManagers = new ArrayList<>();
+    private List<UserManager> userManagers = new ArrayList<>();
+    private ShardedFlowInstanceReadManager shardedManager;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < SHARDS; i++) {
+            TinkerGraph graph = TinkerGraph.open();
+            graph.addVertex(Schema.V_SUBJECT).property(Schema.V_P_SUBJECT_ID, SUBJECT_ID);
+            graphs.add(graph);
+
+            FlowInstanceReadManager readManager = new FlowInstanceReadManager(graph);
+            readManager.setShard(i, SHARDS);
+            readManagers.add(readManager);
+
+            UserManager userManager = new UserManager(graph);
+            userManager.setShard(i, SHARDS);
+            userManagers.add(userManager);
+        }
+
+        shardedManager = new ShardedFlowInstanceReadManager(readManagers);
+    }
+
+    @Test
+    public void testIdsIdentifyShards() {
+        Long taskId = createTask(1, 100l);
+
+        Assert.assertEquals("Id should identify the shard.", 1, BaseManager.getShard(taskId, SHARDS));
+        Assert.assertNotNull(readManagers.get(1).getVertex(taskId));
+        Assert.assertNull("Other shard should not resolve the id.", readManagers.get(0).getVertex(taskId));
+    }
+
+    @Test
+    public void testGetInstanceFromShard() {
+        Long taskId = createTask(1, 100l);
+
+        Assert.assertEquals("Instance should be read from its shard.", 100l,
+                shardedManager.getInstanceAtFlowObject(taskId).getMetadata().getInstanceId().longValue());
+    }
+
+    @Test
+    public void testOpenTaskCounts() {
+        InboxIndex inboxIndex = new InboxIndex();
+        ShardedFlowInstanceReadManager manager = new ShardedFlowInstanceReadManager(readManagers, inboxIndex);
+        JsonArray subjectIds = new JsonArray().add(SUBJECT_ID).add("alice");
+
+        inboxIndex.assign(SUBJECT_ID, 1l, 1l, 100l, "1429373120533", BaseManager.STATUS_NEW);
+        inboxIndex.markLoaded(0);
+        Assert.assertNull("Counts should not be read until all shards are loaded.",
+                manager.getOpenTaskCounts(subjectIds));
+
+        inboxIndex.markLoaded(1);
+        JsonObject counts = manager.getOpenTaskCounts(subjectIds);
+        Assert.assertEquals(1, (int) counts.getInteger(SUBJECT_ID));
+        Assert.assertEquals(0, (int) counts.getInteger("alice"));
+    }
+
+    @Test
+    public void testGatherInbox() throws Exception {
+        List<Long> taskIds = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            int shard = i % SHARDS;
+            Long taskId = createTask(shard, 100l + i);
+            Assert.assertTrue(userManagers.get(shard).assignTask(SUBJECT_ID, taskId));
+            taskIds.add(taskId);
+
+            // Tasks are ordered by the time they are assigned.
+            Thread.sleep(5);
+        }
+
+        JsonObject inbox = shardedManager.getInbox(SUBJECT_ID, 1, 2);
+        JsonArray tasks = inbox.getJsonArray(JsonKeys.TASKS);
+        Assert.assertEquals("Tasks from all shards should be gathered.", 4, tasks.size());
+        Assert.assertEquals("Latest task should be first.", taskIds.get(3),
+                tasks.getJsonObject(0).getLong(JsonKeys.TASK_ID));
+        Assert.assertEquals(taskIds.get(2), tasks.getJsonObject(1).getLong(JsonKeys.TASK_ID));
+
+        inbox = shardedManager.getInbox(SUBJECT_ID, 2, 2);
+        Assert.assertEquals("Second page should start at the third task.", taskIds.get(1),
+                inbox.getJsonArray(JsonKeys.TASKS).getJsonObject(0).getLong(JsonKeys.TASK_ID));
+    }
+
+    @Test
+    public void testGatherInboxByCursor() throws Exception {
+        List<Long> taskIds = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int shard = i % SHARDS;
+            Long taskId = createTask(shard, 100l + i);
+            Assert.assertTrue(userManagers.get(shard).assignTask(SUBJECT_ID, taskId));
+            taskIds.add(0, taskId);
+            Thread.sleep(5);
+        }
+
+        List<Long> pagedIds = new ArrayList<>();
+        JsonObject inbox = shardedManager.getInbox(SUBJECT_ID, (String) null, 2);
+        inbox.getJsonArray(JsonKeys.TASKS).forEach(t -> pagedIds.add(((JsonObject) t).getLong(JsonKeys.TASK_ID)));
+
+        while (inbox.containsKey(JsonKeys.NEXT_CURSOR)) {
+            inbox = shardedManager.getInbox(SUBJECT_ID, inbox.getString(JsonKeys.NEXT_CURSOR), 2);
+            inbox.getJsonArray(JsonKeys.TASKS).forEach(t -> pagedIds.add(((JsonObject) t).getLong(JsonKeys.TASK_ID)));
+        }
+
+        Assert.assertEquals("Cursor pages should hold every task once, latest first.", taskIds, pagedIds);
+    }
+
+    private Long createTask(int shard, Long instanceId) {
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setInstanceId(instanceId);
+
+        Vertex vertex = graphs.get(shard).addVertex(Schema.V_FLOW_OBJECT_INSTANCE);
+        vertex.property(Schema.P_STATUS, BaseManager.STATUS_NEW);
+        vertex.property(Schema.V_P_INSTANCE_ID, instanceId);
+        vertex.property(Schema.P_SUB_FLOW_ID, "1429373120533");
+        vertex.property(Schema.V_P_META_DATA, metadata.encode());
+        return readManagers.get(shard).getId(vertex);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.interpreter;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.assets.Condition;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests the evaluation of decision gateway conditions in Java.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class ConditionExpressionTest {
+    private JsonObject data;
+
+    @Before
+    public void setUp() {
+        data = new JsonObject().
+                put("index", 1).
+                put("amount", 100.5).
+                put("status", "open").
+                put("approved", false).
+                put("emailTo", new JsonArray().add("a@flowly.io").add("b@flowly.io")).
+                put("customer", new JsonObject().put("name", "flowly"));
+    }
+
+    @Test
+    public void testComparisons() {
+        assertCondition(true, "data.index < data.emailTo.length");
+        assertCondition(false, "data.index >= data.emailTo.length");
+        assertCondition(true, "data.amount > 100");
+        assertCondition(true, "data.index == 1.0");
+        assertCondition(true, "data.index === 1");
+        assertCondition(true, "data.status != 'closed'");
+        assertCondition(true, "data.status === \"open\"");
+        assertCondition(true, "data.customer.name.length == 6");
+        assertCondition(true, "data.status < 'pending'");
+        assertCondition(true, "data.missing == null");
+        assertCondition(false, "data.index === '1'");
+    }
+
+    @Test
+    public void testLogicalOperators() {
+        assertCondition(true, "!data.approved && data.status == 'open'");
+        assertCondition(true, "data.approved || data.index > 0");
+        assertCondition(false, "data.approved || data.index > 1 && data.amount > 0");
+        assertCondition(true, "data.customer && !data.missing");
+
+        // Short circuits before the read that would throw in JavaScript.
+        assertCondition(false, "data.missing != null && data.missing.name == 'flowly'");
+    }
+
+    @Test
+    public void testUndecided() {
+        // Type coercion.
+        assertCondition(null, "data.index == '1'");
+        assertCondition(null, "data.missing < 1");
+
+        // Undefined versus null.
+        assertCondition(null, "data.missing === null");
+
+        // Read of a missing object and a built-in property.
+        assertCondition(null, "data.missing.name == 'flowly'");
+        assertCondition(null, "data.index.length > 0");
+    }
+
+    @Test
+    public void testNotParsed() {
+        Assert.assertNull(ConditionExpression.parse("data.emailTo.indexOf('a@flowly.io') > -1"));
+        Assert.assertNull(ConditionExpression.parse("(data.index > 0)"));
+        Assert.assertNull(ConditionExpression.parse("instance.id != null"));
+        Assert.assertNull(ConditionExpression.parse("data.index = 1"));
+        Assert.assertNull(ConditionExpression.parse("data.index > 0 &&"));
+        Assert.assertNull(ConditionExpression.parse("data.status == 'it\\'s'"));
+        Assert.assertNull(ConditionExpression.parse(""));
+    }
+
+    @Test
+    public void testDecisionGatewayStep() throws Exception {
+        DecisionGatewayStep step = new DecisionGatewayStep(Arrays.asList(
+                createCondition("data.index < data.emailTo.length", "1003"),
+                createCondition("data.status == 'closed'", "1005"),
+                createCondition(null, "1007")));
+
+        Assert.assertEquals("1003", connectTo(step, data));
+        Assert.assertEquals("1005", connectTo(step, new JsonObject().put("index", 5).
+                put("emailTo", new JsonArray()).put("status", "closed")));
+        Assert.assertEquals("1007", connectTo(step, new JsonObject().put("index", 5).
+                put("emailTo", new JsonArray()).put("status", "open")));
+    }
+
+    private void assertCondition(Boolean expected, String condition) {
+        ConditionExpression expression = ConditionExpression.parse(condition);
+        Assert.assertNotNull("Condition should be parsed: " + condition, expression);
+        Assert.assertEquals(condition, expected, expression.evaluate(data));
+    }
+
+    private Condition createCondition(String when, String connectTo) {
+        return new Condition(null, null, null, when, connectTo);
+    }
+
+    private String connectTo(DecisionGatewayStep step, JsonObject data) throws Exception {
+        FlowInstance instance = new FlowInstance();
+        instance.setData(data);
+        instance.setMetadata(new FlowInstanceMetadata());
+        instance.getMetadata().setCurrentStep(new FlowInstanceStep());
+
+        step.execute(instance, new StepContext() {
+            @Override
+            public void hop(FlowInstance instance) {
+            }
+
+            @Override
+            public void hopInto(FlowInstance instance) {
+            }
+
+            @Override
+            public void fail(FlowInstance instance) {
+            }
+
+            @Override
+            public void send(String address, FlowInstance instance) {
+            }
+
+            @Override
+            public void callService(String address, JsonObject inputData,
+                                    Handler<AsyncResult<Message<Object>>> replyHandler) {
+            }
+        });
+
+        return instance.getMetadata().getCurrentStep().getJsonArray(
+                FlowInstanceStep._FLOW_OBJECT_CONNECTING_OBJECT_IDS).getString(0);
+    }
+}
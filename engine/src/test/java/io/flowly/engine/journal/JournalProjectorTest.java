@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.journal;
+
+import io.flowly.core.data.FlowInstance;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.codecs.FlowInstanceWrapperCodec;
+import io.flowly.engine.data.FlowInstanceWrapper;
+import io.flowly.engine.router.Route;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class JournalProjectorTest extends BaseTestWithVertx {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        vertx.eventBus().registerDefaultCodec(FlowInstanceWrapper.class, new FlowInstanceWrapperCodec());
+        vertx.eventBus().consumer(EngineAddresses.REPO_FLOW_RESERVE_FLOW_OBJECT_INSTANCES,
+                message -> message.reply(new JsonArray().add(500l).add(501l)));
+    }
+
+    @Test
+    public void testProjectMovesInOrder(TestContext context) throws Exception {
+        Async async = context.async();
+        List<Long> projectedIds = new ArrayList<>();
+        JournalProjector projector = new JournalProjector(vertx,
+                new Journal(folder.getRoot().getPath(), 1024), 1, 2, 10);
+
+        vertx.eventBus().<FlowInstanceWrapper>consumer(EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE,
+                message -> {
+            projectedIds.add(message.body().getFlowObjectInstanceId());
+            message.reply(message.body().getFlowObjectInstanceId());
+        });
+
+        vertx.runOnContext(v -> {
+            projector.start();
+            context.assertTrue(projector.append(createMove(300l)));
+            context.assertTrue(projector.append(createMove(301l)));
+
+            projector.whenProjected(100l, h -> {
+                context.assertEquals(2, projectedIds.size());
+                context.assertEquals(300l, projectedIds.get(0), "Moves should be projected in order.");
+                context.assertEquals(0, projector.getPendingCount());
+                projector.stop();
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testReplayRecoveredMoves(TestContext context) throws Exception {
+        Async async = context.async();
+        Journal journal = new Journal(folder.getRoot().getPath(), 1024);
+        JournalProjector projector = new JournalProjector(vertx, journal, 1, 2, 10);
+
+        // Repository is down - the move stays in the journal.
+        vertx.runOnContext(v -> {
+            context.assertTrue(projector.append(createMove(300l)));
+            journal.sync();
+
+            try {
+                JournalProjector recovered = new JournalProjector(vertx,
+                        new Journal(folder.getRoot().getPath(), 1024), 1, 2, 10);
+
+                vertx.eventBus().<FlowInstanceWrapper>consumer(
+                        EngineAddresses.REPO_FLOW_CREATE_FLOW_OBJECT_INSTANCE, message -> {
+                    context.assertEquals(300l, message.body().getFlowObjectInstanceId());
+                    message.reply(message.body().getFlowObjectInstanceId());
+                });
+
+                recovered.start();
+                recovered.whenProjected(100l, h -> {
+                    context.assertEquals(0, recovered.getPendingCount());
+                    recovered.stop();
+                    async.complete();
+                });
+            }
+            catch (Exception ex) {
+                context.fail(ex);
+            }
+        });
+    }
+
+    @Test
+    public void testReserveFlowObjectInstanceIds(TestContext context) throws Exception {
+        Async async = context.async();
+        JournalProjector projector = new JournalProjector(vertx,
+                new Journal(folder.getRoot().getPath(), 1024), 1, 2, 10);
+
+        vertx.runOnContext(v -> {
+            projector.start();
+
+            vertx.setTimer(100, id -> {
+                FlowInstanceMetadata metadata = createMove(null).getInstance().getMetadata();
+                context.assertEquals(500l, projector.reserveFlowObjectInstanceId(metadata));
+                projector.releaseFlowObjectInstanceId(500l);
+                context.assertNotNull(projector.reserveFlowObjectInstanceId(metadata));
+                projector.stop();
+                async.complete();
+            });
+        });
+    }
+
+    private FlowInstanceWrapper createMove(Long flowObjectInstanceId) {
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setFlowId("123");
+        metadata.setInstanceId(100l);
+        metadata.setCurrentStep(new FlowInstanceStep());
+        metadata.getCurrentStep().setFlowObjectId("1001");
+
+        FlowInstance instance = new FlowInstance();
+        instance.setMetadata(metadata);
+        instance.setData(new JsonObject());
+        return new FlowInstanceWrapper(instance, new Route.Next("1002", null), flowObjectInstanceId);
+    }
+}
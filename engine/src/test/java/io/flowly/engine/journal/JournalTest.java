@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.journal;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class JournalTest {
+    private static final int SEGMENT_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecoverPendingEntries() throws Exception {
+        String directory = folder.getRoot().getPath();
+        Journal journal = new Journal(directory, SEGMENT_SIZE);
+        Journal.Entry first = journal.append("first".getBytes());
+        journal.append("second".getBytes());
+        journal.markProjected(first);
+        Assert.assertEquals("Pending count not as expected.", 1, journal.getPendingCount());
+        journal.sync();
+
+        journal = new Journal(directory, SEGMENT_SIZE);
+        Assert.assertEquals("Only the pending entry should be recovered.", 1,
+                journal.getRecoveredEntries().size());
+        Assert.assertEquals("Recovered payload not as expected.", "second",
+                new String(journal.getRecoveredEntries().get(0).getPayload()));
+        Assert.assertEquals("Pending count not as expected.", 1, journal.getPendingCount());
+        journal.close();
+    }
+
+    @Test
+    public void testRollAndDeleteSegments() throws Exception {
+        Journal journal = new Journal(folder.getRoot().getPath(), SEGMENT_SIZE);
+        Journal.Entry first = journal.append(new byte[40]);
+        Journal.Entry second = journal.append(new byte[40]);
+        Assert.assertEquals("Segment should roll.", 2, listSegments().length);
+
+        journal.markProjected(first);
+        Assert.assertEquals("Drained segment should be deleted.", 1, listSegments().length);
+
+        journal.markProjected(second);
+        journal.close();
+        Assert.assertEquals("Drained journal should not leave segments.", 0, listSegments().length);
+    }
+
+    @Test
+    public void testRejectOversizedEntry() throws Exception {
+        Journal journal = new Journal(folder.getRoot().getPath(), SEGMENT_SIZE);
+        Assert.assertNull("Oversized entry should be rejected.", journal.append(new byte[SEGMENT_SIZE]));
+        journal.close();
+    }
+
+    private File[] listSegments() {
+        return folder.getRoot().listFiles((dir, name) -> name.endsWith(".journal"));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.metrics;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+public class EngineMetricsTest {
+    private static final String APP_ID = "com.test.app1";
+    private static final String FLOW_ID = "1429373120533";
+
+    @Test
+    public void testHistogramBuckets() {
+        Histogram histogram = new Histogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        histogram.record(-1);
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(100, histogram.getMax());
+        Assert.assertEquals(50, histogram.getMean());
+
+        // Value 50 falls in the bucket [32, 63] and value 99 in [64, 127] (capped at max).
+        Assert.assertEquals(63, histogram.getPercentile(50));
+        Assert.assertEquals(100, histogram.getPercentile(99));
+        Assert.assertEquals(7, histogram.toJson().getJsonArray(Histogram.BUCKETS).size());
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        Histogram histogram = new Histogram();
+
+        Assert.assertEquals(0, histogram.getMean());
+        Assert.assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testSnapshot() {
+        EngineMetrics metrics = new EngineMetrics(true);
+        FlowInstanceMetadata metadata = new FlowInstanceMetadata();
+        metadata.setAppId(APP_ID);
+        metadata.setFlowId(FLOW_ID);
+
+        metrics.recordStarted(metadata);
+        metrics.recordStarted(metadata);
+        metrics.recordCompleted(metadata);
+        metrics.recordFailed(metadata);
+        metrics.recordScript(APP_ID, FLOW_ID, "1003", EngineMetrics.now());
+        metrics.recordRepository(APP_ID, FLOW_ID, "1003", EngineMetrics.now());
+
+        JsonObject flow = metrics.toJson(null).getJsonObject(APP_ID).getJsonObject(FLOW_ID);
+        Assert.assertEquals(2L, (long) flow.getLong(FlowMetrics.STARTED));
+        Assert.assertEquals(1L, (long) flow.getLong(FlowMetrics.COMPLETED));
+        Assert.assertEquals(1L, (long) flow.getLong(FlowMetrics.FAILED));
+
+        JsonObject flowObject = flow.getJsonObject(FlowMetrics.FLOW_OBJECTS).getJsonObject("1003");
+        Assert.assertEquals(1L, (long) flowObject.getJsonObject(FlowMetrics.SCRIPT).getLong(Histogram.COUNT));
+        Assert.assertEquals(1L, (long) flowObject.getJsonObject(FlowMetrics.REPOSITORY).getLong(Histogram.COUNT));
+        Assert.assertEquals(0L, (long) flowObject.getJsonObject(FlowMetrics.QUEUE_WAIT).getLong(Histogram.COUNT));
+
+        Assert.assertTrue("Snapshot should be filtered by app.", metrics.toJson("com.test.app2").isEmpty());
+    }
+
+    @Test
+    public void testDisabled() {
+        EngineMetrics metrics = new EngineMetrics(false);
+        metrics.recordScript(APP_ID, FLOW_ID, "1003", EngineMetrics.now());
+
+        Assert.assertTrue(metrics.toJson(null).isEmpty());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.router;
+
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.engine.BaseTestWithVertx;
+import io.flowly.engine.assets.Process;
+import io.flowly.engine.data.manager.FlowReadWriteManager;
+import io.flowly.engine.parser.AssetParser;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class FlowRouterTest extends BaseTestWithVertx {
+    private static final String FLOW_ID = "1429373120533";
+
+    private FlowRouter flowRouter;
+    private FlowReadWriteManager routerManager;
+    private FlowInstanceMetadata metadata;
+    private Process process;
+
+    @Before
+    public void setUp(TestContext context) {
+        super.setUp();
+
+        flowRouter = new FlowRouter(vertx);
+        routerManager = new FlowReadWriteManager(TinkerGraph.open(), flowRouter);
+
+        String processFilePath = PathUtils.createPathWithPrefix(APPS_FOLDER,
+                APP_2_ID.replace(PathUtils.DOT, File.separator), PathUtils.PROCESSES_FOLDER, FLOW_ID + ".json");
+        processFilePath = getClass().getResource(processFilePath).getPath();
+        process = new AssetParser(vertx.fileSystem()).parseBlocking(processFilePath, Process.class);
+        context.assertTrue(routerManager.saveRouter(process));
+
+        metadata = new FlowInstanceMetadata();
+        metadata.setFlowId(FLOW_ID);
+        metadata.setCurrentStep(new FlowInstanceStep());
+    }
+
+    @Test
+    public void testStartRoute(TestContext context) {
+        metadata.getCurrentStep().setFlowObjectId("0");
+
+        Route route = flowRouter.nextRoute(metadata);
+        context.assertTrue(route.isValid(), "Route should be valid.");
+        context.assertFalse(route.isEnd(), "Route should not end.");
+        context.assertEquals(1, route.getNextList().size(), "Next route count is not as expected.");
+        context.assertEquals("1001", route.getNext().getFlowObjectId(), "Next route not as expected.");
+    }
+
+    @Test
+    public void testDecisionGatewayRoute(TestContext context) {
+        metadata.getCurrentStep().setFlowObjectId("1005");
+        metadata.getCurrentStep().addConnectingObjectId("1006");
+
+        Route route = flowRouter.nextRoute(metadata);
+        context.assertTrue(route.isValid(), "Route should be valid.");
+        context.assertEquals(1, route.getNextList().size(), "Next route count is not as expected.");
+        context.assertEquals("1007", route.getNext().getFlowObjectId(), "Next route not as expected.");
+    }
+
+    @Test
+    public void testEndRoute(TestContext context) {
+        metadata.getCurrentStep().setFlowObjectId("1009");
+
+        Route route = flowRouter.nextRoute(metadata);
+        context.assertTrue(route.isValid(), "Route should be valid.");
+        context.assertTrue(route.isEnd(), "Route should end.");
+        context.assertEquals(0, route.getNextList().size(), "Next route count is not as expected.");
+    }
+
+    @Test
+    public void testInvalidRoute(TestContext context) {
+        metadata.getCurrentStep().setFlowObjectId("222");
+
+        Route route = flowRouter.nextRoute(metadata);
+        context.assertFalse(route.isValid(), "Route should not be valid.");
+    }
+
+    @Test
+    public void testSameAsRepositoryRoute(TestContext context) {
+        metadata.getCurrentStep().setFlowObjectId("1005");
+
+        Route route = flowRouter.nextRoute(metadata);
+        Route repositoryRoute = routerManager.nextRoute(metadata);
+        context.assertEquals(repositoryRoute.getNextList().size(), route.getNextList().size(),
+                "In-memory and repository routes should match.");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRouteIsReadOnly() {
+        metadata.getCurrentStep().setFlowObjectId("0");
+        flowRouter.nextRoute(metadata).addNext("1003", null);
+    }
+
+    @Test
+    public void testDeleteRouter(TestContext context) {
+        context.assertTrue(routerManager.deleteRouter(process));
+
+        metadata.getCurrentStep().setFlowObjectId("0");
+        context.assertNull(flowRouter.nextRoute(metadata), "Route table should be removed.");
+    }
+
+    @Test
+    public void testRouteTableFromSavedRoutes(TestContext context) {
+        JsonObject routers = routerManager.getRouters(new JsonArray().add(FLOW_ID));
+        context.assertNotNull(routers, "Saved routes should be found.");
+
+        List<RouteTable.Entry> entries = new ArrayList<>();
+        for (Object entry : routers.getJsonArray(FLOW_ID)) {
+            entries.add(RouteTable.Entry.fromJson((JsonArray) entry));
+        }
+
+        RouteTable routeTable = new RouteTable(FLOW_ID, entries);
+        RouteTable savedTable = flowRouter.getRouteTable(FLOW_ID);
+        context.assertEquals(savedTable.getEntries().size(), routeTable.getEntries().size(),
+                "Route entries not as expected.");
+
+        for (String flowObjectId : new String[] {"0", "1001", "1005", "1009"}) {
+            context.assertEquals(savedTable.getRoute(flowObjectId, null).getNextList().size(),
+                    routeTable.getRoute(flowObjectId, null).getNextList().size(), "Route not as expected.");
+        }
+
+        context.assertNull(routerManager.getRouters(new JsonArray().add(FLOW_ID).add("222")),
+                "Routes of an unknown flow should not be found.");
+    }
+}
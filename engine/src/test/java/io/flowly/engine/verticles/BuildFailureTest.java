@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.engine.verticles;
+
+import io.flowly.engine.App;
+import io.flowly.engine.EngineAddresses;
+import io.flowly.engine.codecs.FlowBatchCodec;
+import io.flowly.engine.compilers.BuildManifest;
+import io.flowly.engine.data.FlowBatch;
+import io.flowly.engine.utils.PathUtils;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.file.FileSystem;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests that a build which fails to save or deploy its flows leaves them to be compiled by the next build.
+ * The build verticle is deployed on its own, with a stand-in for the repository's flow writes.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+@RunWith(VertxUnitRunner.class)
+public class BuildFailureTest extends BaseVerticleTest {
+    private String verticlesPath;
+    private boolean saveFlows;
+
+    @Before
+    public void before(TestContext context) {
+        super.before();
+
+        // Start from a clean verticles folder.
+        verticlesPath = PathUtils.createPath(new App(APP_1_ID, appsDirectory).getAppFolder(),
+                PathUtils.VERTICLES_FOLDER);
+        FileSystem fileSystem = vertx.fileSystem();
+
+        if (fileSystem.existsBlocking(verticlesPath)) {
+            fileSystem.deleteRecursiveBlocking(verticlesPath, true);
+        }
+
+        vertx.eventBus().registerDefaultCodec(FlowBatch.class, new FlowBatchCodec());
+        vertx.eventBus().consumer(EngineAddresses.REPO_FLOW_SAVE_BATCH, message -> message.reply(saveFlows));
+        vertx.deployVerticle(new Build(), new DeploymentOptions().setConfig(config), context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testFailedBuildIsCompiledAgain(TestContext context) {
+        Async async = context.async();
+        saveFlows = false;
+
+        deployApp(APP_1_ID, h -> {
+            context.assertTrue(h.failed(), "Build should fail if the flows are not saved.");
+            context.assertNull(BuildManifest.load(vertx.fileSystem(), verticlesPath),
+                    "Manifest of a failed build should not be saved.");
+
+            saveFlows = true;
+            deployApp(APP_1_ID, r -> {
+                context.assertTrue(r.succeeded(), "Next build should compile and deploy the flows.");
+
+                BuildManifest manifest = BuildManifest.load(vertx.fileSystem(), verticlesPath);
+                context.assertNotNull(manifest);
+                context.assertFalse(manifest.getFilePaths().isEmpty());
+
+                for (String filePath : manifest.getFilePaths()) {
+                    context.assertNotNull(manifest.getHash(filePath));
+                }
+
+                async.complete();
+            });
+        });
+    }
+}
@@ -45,4 +45,25 @@ public class BuildTest extends BaseVerticleTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRedeployApp(TestContext context) {
+        Async async = context.async();
+        deployApp(APP_1_ID, h -> {
+            if (h.succeeded()) {
+                // Nothing changed, so the app is redeployed without compiling its flows.
+                deployApp(APP_1_ID, r -> {
+                    if (r.succeeded()) {
+                        async.complete();
+                    }
+                    else {
+                        context.fail();
+                    }
+                });
+            }
+            else {
+                context.fail();
+            }
+        });
+    }
+}
@@ -20,6 +20,7 @@ import io.flowly.engine.assets.Process;
 import io.flowly.core.data.FlowInstance;
 import io.flowly.core.data.FlowInstanceMetadata;
 import io.flowly.core.data.FlowInstanceStep;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -64,6 +65,15 @@ public class
         assertEndToEndInstance(context, APP_2_ID, "1429373120533", Process.class.getSimpleName());
     }
 
+    @Test
+    public void testEndToEndInstanceWithSplitAndJoinAcrossEngines(TestContext context) {
+        // A second engine takes every other hop, so the parallel tokens are joined by different engines.
+        DeploymentOptions options = new DeploymentOptions().setConfig(config);
+        vertx.deployVerticle(Engine.class.getName(), options, context.asyncAssertSuccess(d -> {
+            assertEndToEndInstance(context, APP_1_ID, "2429373120540", Process.class.getSimpleName());
+        }));
+    }
+
     @Test
     public void testEndToEndInstanceWithMicroServiceAsSubFlow(TestContext context) {
         assertEndToEndInstance(context, APP_2_ID, "1429373120550", Process.class.getSimpleName());
@@ -0,0 +1 @@
+data.left = "Left branch done";
@@ -0,0 +1 @@
+data.right = "Right branch done";
@@ -0,0 +1,3 @@
+var total = data.sendTo.length;
+
+data.subject = "Sending to " + total;
\ No newline at end of file
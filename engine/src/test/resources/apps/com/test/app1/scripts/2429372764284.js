@@ -0,0 +1,7 @@
+var total = 0;
+
+if (data.message) {
+    return;
+}
+
+data.message = "Total is " + total;
\ No newline at end of file
@@ -0,0 +1,45 @@
+var eb = vertx.eventBus();
+
+eb.consumer('com.test.app1:1001', function(pMessage) {
+    var instance = pMessage.body();
+    var data = instance.data;
+    /* ############### Fused flow object: 1001 ############### */
+    (function(instance, data) {
+    var inputData = instance.inputData;
+    if (inputData) {
+
+
+    instance.inputData = null;
+    }
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1003 ############### */
+    (function(instance, data) {
+
+    /* ############### Begin inline script: 1429372764270 ############### */
+data.sendTo = [];
+
+for (var i=0; i<3; i++) {
+    var to = "test" + i + "@test.com";
+
+    data.sendTo.push(to);
+}
+
+data.subject = "Welcome to flowly";
+data.message = "This is awesome!";
+    /* ############### End inline script ############### */
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1005 ############### */
+    (function(instance, data) {
+    var outputData = {};
+
+    })(instance, instance.data);
+
+    instance.metaData.currentStep._fusedFlowObjectIds_ = ['1003', '1005'];
+
+    eb.send('io.flowly.engine:flow.instance.hop', instance);
+});
+
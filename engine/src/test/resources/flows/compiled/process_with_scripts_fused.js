@@ -0,0 +1,71 @@
+var eb = vertx.eventBus();
+
+eb.consumer('com.test.app1:1001', function(pMessage) {
+    var instance = pMessage.body();
+    var data = instance.data;
+    /* ############### Fused flow object: 1001 ############### */
+    (function(instance, data) {
+    var inputData = instance.inputData;
+    if (inputData) {
+
+
+    instance.inputData = null;
+    }
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1003 ############### */
+    (function(instance, data) {
+
+    /* ############### Begin inline script: 1429372764270 ############### */
+data.sendTo = [];
+
+for (var i=0; i<3; i++) {
+    var to = "test" + i + "@test.com";
+
+    data.sendTo.push(to);
+}
+
+data.subject = "Welcome to flowly";
+data.message = "This is awesome!";
+    /* ############### End inline script ############### */
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1005 ############### */
+    (function(instance, data) {
+
+    /* ############### Begin inline script: 2429372764283 ############### */
+var total = data.sendTo.length;
+
+data.subject = "Sending to " + total;
+    /* ############### End inline script ############### */
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1007 ############### */
+    (function(instance, data) {
+
+    /* ############### Begin inline script: 2429372764284 ############### */
+var total = 0;
+
+if (data.message) {
+    return;
+}
+
+data.message = "Total is " + total;
+    /* ############### End inline script ############### */
+
+    })(instance, instance.data);
+
+    /* ############### Fused flow object: 1009 ############### */
+    (function(instance, data) {
+    var outputData = {};
+
+    })(instance, instance.data);
+
+    instance.metaData.currentStep._fusedFlowObjectIds_ = ['1003', '1005', '1007', '1009'];
+
+    eb.send('io.flowly.engine:flow.instance.hop', instance);
+});
+
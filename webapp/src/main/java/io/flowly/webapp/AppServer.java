@@ -32,6 +32,7 @@ public class AppServer extends AbstractVerticle {
 
     private static final String APP_ROOT = "app";
     private static final String STATIC_FILES_PATTERN = "^.*\\.(css|js|ico)$";
+    private static final String INBOX_FLUSH_INTERVAL = "inbox.flush.interval";
 
     @Override
     public void start(Future<Void> startFuture) throws Exception {
@@ -42,6 +43,11 @@ public class AppServer extends AbstractVerticle {
 
         router.routeWithRegex(HttpMethod.GET, STATIC_FILES_PATTERN).handler(staticHandler);
 
+        // Push inbox changes to the clients instead of having them poll the inbox.
+        InboxEventBridge inboxEventBridge = new InboxEventBridge(vertx,
+                config().getLong(INBOX_FLUSH_INTERVAL, 100L));
+        router.route("/api/inbox/events/*").handler(inboxEventBridge.getSockJSHandler());
+
         FlowApiRouter apiRouter = new FlowApiRouter(vertx);
         router.mountSubRouter("/api", apiRouter.getRouter());
 
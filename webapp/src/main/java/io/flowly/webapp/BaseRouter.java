@@ -27,4 +27,8 @@ public abstract class BaseRouter {
         response.setChunked(true);
         response.write(body).end();
     }
+
+    public void writeErrorResponse(RoutingContext routingContext, int statusCode, String message) {
+        routingContext.response().setStatusCode(statusCode).setStatusMessage(message).end();
+    }
 }
@@ -16,8 +16,10 @@ package io.flowly.webapp;
 import io.flowly.core.ObjectKeys;
 import io.flowly.core.codecs.FlowInstanceCodec;
 import io.flowly.core.data.FlowInstance;
+import io.flowly.core.router.SearchStream;
 import io.flowly.core.verticles.ClusterAddresses;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -35,6 +37,10 @@ import io.vertx.ext.web.handler.BodyHandler;
 public class FlowApiRouter extends BaseRouter {
     private static final Logger logger = LoggerFactory.getLogger(FlowApiRouter.class);
 
+    // Failure codes with which the engine rejects flow instance starts when it is at capacity.
+    private static final int ADMISSION_REJECTED = 3010;
+    private static final int ADMISSION_TIMED_OUT = 3011;
+
     private Router router;
 
     public FlowApiRouter(Vertx vertx) {
@@ -45,8 +51,11 @@ public class FlowApiRouter extends BaseRouter {
         router.route().handler(BodyHandler.create());
 
         prepareGetInboxRoute(router, vertx);
+        prepareExportInboxRoute(router, vertx);
         prepareGetFlowsRoute(router, vertx);
         prepareStartFlowRoute(router, vertx);
+        prepareGetFlowAdmissionStatsRoute(router, vertx);
+        prepareGetFlowMetricsRoute(router, vertx);
 
         prepareStartFlowTaskRoute(router, vertx);
         prepareGetFlowTaskRoute(router, vertx);
@@ -76,13 +85,38 @@ public class FlowApiRouter extends BaseRouter {
                 args.put(ObjectKeys.PAGE_SIZE, Integer.parseInt(pageSize));
             }
 
+            // Page by cursor (empty for the first page) instead of the page number.
+            String cursor = routingContext.request().getParam(ObjectKeys.CURSOR);
+            if (cursor != null) {
+                args.put(ObjectKeys.CURSOR, cursor);
+            }
+
             vertx.eventBus().send(ClusterAddresses.GET_USER_INBOX, args, reply -> {
                 JsonObject inbox = (JsonObject) reply.result().body();
-                writeResponse(routingContext, inbox.encode());
+                SearchStream.writePage(routingContext.response(), inbox, ObjectKeys.TASKS);
             });
         });
     }
 
+    private void prepareExportInboxRoute(Router api, Vertx vertx) {
+        Route exportInboxRoute = api.route(HttpMethod.GET, "/inbox/:subjectId/export").produces(JSON_CONTENT_TYPE);
+        exportInboxRoute.handler(routingContext -> {
+            String subjectId = routingContext.request().getParam(ObjectKeys.SUBJECT_ID);
+            logger.info("Export inbox request received: " + subjectId);
+
+            JsonObject args = new JsonObject();
+            args.put(ObjectKeys.SUBJECT_ID, subjectId);
+
+            String pageSize = routingContext.request().getParam(ObjectKeys.PAGE_SIZE);
+            if (pageSize != null) {
+                args.put(ObjectKeys.PAGE_SIZE, Integer.parseInt(pageSize));
+            }
+
+            new SearchStream(vertx.eventBus(), ClusterAddresses.GET_USER_INBOX, args, ObjectKeys.TASKS,
+                    routingContext.response()).start();
+        });
+    }
+
     private void prepareStartFlowRoute(Router api, Vertx vertx) {
         Route startFlowRoute = api.route(HttpMethod.POST, "/flow/start");
         startFlowRoute.handler(routingContext -> {
@@ -91,8 +125,38 @@ public class FlowApiRouter extends BaseRouter {
             logger.info("Start flow request received: " + flowMetadata);
 
             vertx.eventBus().send(ClusterAddresses.START_FLOW_INSTANCE, flowMetadata, reply -> {
-                Long instanceId = (Long) reply.result().body();
-                writeResponse(routingContext, instanceId.toString());
+                if (reply.succeeded()) {
+                    Long instanceId = (Long) reply.result().body();
+                    writeResponse(routingContext, instanceId.toString());
+                }
+                else {
+                    int failureCode = reply.cause() instanceof ReplyException ?
+                            ((ReplyException) reply.cause()).failureCode() : -1;
+                    boolean rejected = failureCode == ADMISSION_REJECTED || failureCode == ADMISSION_TIMED_OUT;
+
+                    logger.warn("Start flow request failed: " + reply.cause().getMessage());
+                    writeErrorResponse(routingContext, rejected ? 503 : 500, reply.cause().getMessage());
+                }
+            });
+        });
+    }
+
+    private void prepareGetFlowAdmissionStatsRoute(Router api, Vertx vertx) {
+        Route getStatsRoute = api.route(HttpMethod.GET, "/flow/admission").produces(JSON_CONTENT_TYPE);
+        getStatsRoute.handler(routingContext -> {
+            vertx.eventBus().send(ClusterAddresses.GET_FLOW_ADMISSION_STATS, null, reply -> {
+                writeResponse(routingContext, ((JsonObject) reply.result().body()).encode());
+            });
+        });
+    }
+
+    private void prepareGetFlowMetricsRoute(Router api, Vertx vertx) {
+        Route getMetricsRoute = api.route(HttpMethod.GET, "/flow/metrics").produces(JSON_CONTENT_TYPE);
+        getMetricsRoute.handler(routingContext -> {
+            String appId = routingContext.request().getParam(ObjectKeys.APP_ID);
+
+            vertx.eventBus().send(ClusterAddresses.GET_FLOW_METRICS, appId, reply -> {
+                writeResponse(routingContext, ((JsonObject) reply.result().body()).encode());
             });
         });
     }
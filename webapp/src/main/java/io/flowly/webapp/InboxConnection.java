@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.webapp;
+
+import io.flowly.core.ObjectKeys;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.sockjs.SockJSSocket;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A client connection that receives the changes to the inboxes of the subjects it subscribed to.
+ * Changes are held until the next flush and coalesced per task, so that a client receives at most one
+ * change per task in each flush.
+ *
+ * Not thread safe - must be used from a single (event loop) context.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InboxConnection {
+    private SockJSSocket socket;
+    private Set<String> subjectIds = new HashSet<>();
+
+    // Tasks that the client was told about and the pending changes in the order they occurred.
+    private Set<Long> taskIds = new HashSet<>();
+    private Map<Long, JsonObject> changes = new LinkedHashMap<>();
+
+    public InboxConnection(SockJSSocket socket) {
+        this.socket = socket;
+    }
+
+    public void subscribe(String subjectId) {
+        subjectIds.add(subjectId);
+    }
+
+    public void unsubscribe(String subjectId) {
+        subjectIds.remove(subjectId);
+    }
+
+    /**
+     * Queue a change to a task in a subscribed inbox.
+     *
+     * @param event the inbox event that holds the subject id, the task id, the event type and the task.
+     */
+    public void offerInboxEvent(JsonObject event) {
+        if (!subjectIds.contains(event.getString(ObjectKeys.SUBJECT_ID))) {
+            return;
+        }
+
+        Long taskId = event.getLong(ObjectKeys.TASK_ID);
+        JsonObject pending = changes.get(taskId);
+        String pendingType = pending != null ? pending.getString(ObjectKeys.INBOX_EVENT_TYPE) : null;
+        String eventType = event.getString(ObjectKeys.INBOX_EVENT_TYPE);
+
+        if (ObjectKeys.TASK_REMOVED.equals(eventType)) {
+            // The client never learned about the task.
+            if (ObjectKeys.TASK_ADDED.equals(pendingType)) {
+                changes.remove(taskId);
+            }
+            else {
+                changes.put(taskId, event);
+            }
+        }
+        else if (ObjectKeys.TASK_ADDED.equals(pendingType)) {
+            // Still an addition, with the latest state of the task.
+            changes.put(taskId, event.copy().put(ObjectKeys.INBOX_EVENT_TYPE, ObjectKeys.TASK_ADDED));
+        }
+        else {
+            changes.put(taskId, event);
+        }
+    }
+
+    /**
+     * Queue a flow lifecycle event if it concerns a task that the client was told about and no other change
+     * to the task is pending.
+     *
+     * @param taskId the flow object instance id that the event refers to.
+     * @param event the flow lifecycle event.
+     */
+    public void offerLifecycleEvent(Long taskId, JsonObject event) {
+        if (taskId == null || !taskIds.contains(taskId) || changes.containsKey(taskId)) {
+            return;
+        }
+
+        changes.put(taskId, new JsonObject().
+                put(ObjectKeys.INBOX_EVENT_TYPE, ObjectKeys.TASK_UPDATED).
+                put(ObjectKeys.TASK_ID, taskId).
+                put(ObjectKeys.FLOW_EVENT_TYPE, event.getString(ObjectKeys.FLOW_EVENT_TYPE)));
+    }
+
+    /**
+     * Write the pending changes to the client as a single JSON array.
+     */
+    public void flush() {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        JsonArray batch = new JsonArray();
+
+        for (Map.Entry<Long, JsonObject> change : changes.entrySet()) {
+            if (ObjectKeys.TASK_REMOVED.equals(change.getValue().getString(ObjectKeys.INBOX_EVENT_TYPE))) {
+                taskIds.remove(change.getKey());
+            }
+            else {
+                taskIds.add(change.getKey());
+            }
+
+            batch.add(change.getValue());
+        }
+
+        changes.clear();
+        socket.write(Buffer.buffer(batch.encode()));
+    }
+}
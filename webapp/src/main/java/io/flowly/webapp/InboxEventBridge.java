@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2015 The original author or authors.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Apache License v2.0
+ *  which accompanies this distribution.
+ *
+ *  The Apache License v2.0 is available at
+ *  http://opensource.org/licenses/Apache-2.0
+ *
+ *  You may elect to redistribute this code under this license.
+ */
+
+package io.flowly.webapp;
+
+import io.flowly.core.ObjectKeys;
+import io.flowly.core.data.FlowInstanceMetadata;
+import io.flowly.core.data.FlowInstanceStep;
+import io.flowly.core.verticles.ClusterAddresses;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.handler.sockjs.SockJSHandler;
+import io.vertx.ext.web.handler.sockjs.SockJSSocket;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Pushes the changes to the subjects' inboxes to the connected clients over SockJS, so that clients
+ * need not poll the inbox end-point.
+ *
+ * A client subscribes to an inbox by sending {"subjectId": "..."} (and unsubscribes by adding
+ * "unsubscribe": true). It then receives JSON arrays of task changes - taskAdded, taskUpdated and
+ * taskRemoved - coalesced per task and flushed at a fixed interval.
+ *
+ * @author <a>Uday Tatiraju</a>
+ */
+public class InboxEventBridge {
+    private static final Logger logger = LoggerFactory.getLogger(InboxEventBridge.class);
+
+    public static final String UNSUBSCRIBE = "unsubscribe";
+
+    private SockJSHandler sockJSHandler;
+    private Set<InboxConnection> connections = new HashSet<>();
+
+    /**
+     * @param vertx the vertx instance.
+     * @param flushInterval the time in milliseconds for which changes are held and coalesced.
+     */
+    public InboxEventBridge(Vertx vertx, long flushInterval) {
+        sockJSHandler = SockJSHandler.create(vertx).socketHandler(this::connect);
+
+        vertx.eventBus().<JsonObject>consumer(ClusterAddresses.INBOX_EVENT, message -> {
+            for (InboxConnection connection : connections) {
+                connection.offerInboxEvent(message.body());
+            }
+        });
+
+        vertx.eventBus().<JsonObject>consumer(ClusterAddresses.FLOW_LIFECYCLE_EVENT, message -> {
+            JsonObject event = message.body();
+            Long flowObjectInstanceId = event.getLong(FlowInstanceStep._FLOW_OBJECT_INSTANCE_ID);
+            Long parentFlowObjectInstanceId = event.getLong(FlowInstanceMetadata._PARENT_FLOW_OBJECT_INSTANCE_ID);
+
+            // The event refers to a task or to a view within the task's sub-flow.
+            for (InboxConnection connection : connections) {
+                connection.offerLifecycleEvent(flowObjectInstanceId, event);
+                connection.offerLifecycleEvent(parentFlowObjectInstanceId, event);
+            }
+        });
+
+        vertx.setPeriodic(flushInterval, t -> {
+            for (InboxConnection connection : connections) {
+                connection.flush();
+            }
+        });
+    }
+
+    public SockJSHandler getSockJSHandler() {
+        return sockJSHandler;
+    }
+
+    private void connect(SockJSSocket socket) {
+        InboxConnection connection = new InboxConnection(socket);
+        connections.add(connection);
+
+        socket.handler(buffer -> {
+            try {
+                JsonObject request = new JsonObject(buffer.toString());
+                String subjectId = request.getString(ObjectKeys.SUBJECT_ID);
+
+                if (subjectId != null) {
+                    if (request.getBoolean(UNSUBSCRIBE, false)) {
+                        connection.unsubscribe(subjectId);
+                    }
+                    else {
+                        connection.subscribe(subjectId);
+                    }
+                }
+            }
+            catch (Exception ex) {
+                logger.error("Unable to process inbox subscription request.", ex);
+            }
+        });
+
+        socket.endHandler(v -> connections.remove(connection));
+    }
+}